@@ -0,0 +1,129 @@
+-- ===============================================
+-- BENCHMARK : NOMBRE DE CARTES PAR COMMANDE
+-- COUNT(*) corrélé par commande  vs  requête groupée (CardCountService / OrderRepository)
+--
+-- MariaDB (utilise le moteur SEQUENCE, actif par défaut) :
+--   docker-compose exec -T database mysql -u ia -pfoufafou dev < scripts/benchmark-card-counts.sql
+-- Lancer deux fois : la première passe chauffe le buffer pool.
+-- Travaille uniquement sur des tables bench_* (100k commandes, 1M liens carte/commande).
+-- ===============================================
+
+DROP TABLE IF EXISTS bench_card_certification_order;
+DROP TABLE IF EXISTS bench_order;
+
+CREATE TABLE bench_order (
+    id BINARY(16) NOT NULL PRIMARY KEY,
+    date DATETIME NOT NULL,
+    status INT NOT NULL,
+    annulee TINYINT NOT NULL DEFAULT 0,
+    KEY idx_bench_order_date (date)
+);
+
+INSERT INTO bench_order (id, date, status, annulee)
+SELECT UNHEX(LPAD(HEX(seq), 32, '0')),
+       '2025-01-01' + INTERVAL (seq % 365) DAY + INTERVAL (seq % 86400) SECOND,
+       1 + seq % 3,
+       seq % 50 = 0
+FROM seq_1_to_100000;
+
+-- Même index que la clé étrangère order_id de card_certification_order
+CREATE TABLE bench_card_certification_order (
+    card_certification_id BINARY(16) NOT NULL PRIMARY KEY,
+    order_id BINARY(16) NOT NULL,
+    KEY idx_bench_cco_order (order_id)
+);
+
+INSERT INTO bench_card_certification_order (card_certification_id, order_id)
+SELECT UNHEX(LPAD(HEX(seq), 32, '0')),
+       UNHEX(LPAD(HEX(1 + (seq * 7919) % 100000), 32, '0'))
+FROM seq_1_to_1000000;
+
+ANALYZE TABLE bench_order, bench_card_certification_order;
+
+-- ========== 1. Tableau de bord : 50 commandes récentes ==========
+
+SET @t := NOW(6);
+SELECT COUNT(*) AS orders, SUM(card_count) AS cards FROM (
+    SELECT o.id,
+           (SELECT COUNT(*) FROM bench_card_certification_order cco WHERE cco.order_id = o.id) AS card_count
+    FROM bench_order o
+    WHERE o.date >= '2025-06-01' AND o.status IN (1, 2) AND o.annulee = 0
+    ORDER BY o.date DESC
+    LIMIT 50
+) page;
+SELECT 'recent 50 - correlated' AS query, TIMESTAMPDIFF(MICROSECOND, @t, NOW(6)) / 1000 AS ms;
+
+-- Page d'abord, puis un seul GROUP BY sur l'index order_id (deux requêtes dans l'application)
+SET @t := NOW(6);
+SELECT COUNT(*) AS orders, SUM(card_count) AS cards FROM (
+    SELECT cco.order_id, COUNT(*) AS card_count
+    FROM bench_card_certification_order cco
+    WHERE cco.order_id IN (SELECT id FROM (
+        SELECT o.id FROM bench_order o
+        WHERE o.date >= '2025-06-01' AND o.status IN (1, 2) AND o.annulee = 0
+        ORDER BY o.date DESC
+        LIMIT 50
+    ) page)
+    GROUP BY cco.order_id
+) counts;
+SELECT 'recent 50 - grouped' AS query, TIMESTAMPDIFF(MICROSECOND, @t, NOW(6)) / 1000 AS ms;
+
+-- ========== 2. Planification : 5000 commandes les plus anciennes ==========
+
+SET @t := NOW(6);
+SELECT COUNT(*) AS orders, SUM(card_count) AS cards FROM (
+    SELECT o.id,
+           (SELECT COUNT(*) FROM bench_card_certification_order cco WHERE cco.order_id = o.id) AS card_count
+    FROM bench_order o
+    WHERE o.date >= '2025-06-01' AND o.status IN (1, 2) AND o.annulee = 0
+    ORDER BY o.date ASC
+    LIMIT 5000
+) page;
+SELECT 'planning 5000 - correlated' AS query, TIMESTAMPDIFF(MICROSECOND, @t, NOW(6)) / 1000 AS ms;
+
+SET @t := NOW(6);
+SELECT COUNT(*) AS orders, SUM(card_count) AS cards FROM (
+    SELECT cco.order_id, COUNT(*) AS card_count
+    FROM bench_card_certification_order cco
+    WHERE cco.order_id IN (SELECT id FROM (
+        SELECT o.id FROM bench_order o
+        WHERE o.date >= '2025-06-01' AND o.status IN (1, 2) AND o.annulee = 0
+        ORDER BY o.date ASC
+        LIMIT 5000
+    ) page)
+    GROUP BY cco.order_id
+) counts;
+SELECT 'planning 5000 - grouped' AS query, TIMESTAMPDIFF(MICROSECOND, @t, NOW(6)) / 1000 AS ms;
+
+-- ========== 3. Chargement complet du cache de planification ==========
+
+SET @t := NOW(6);
+SELECT COUNT(*) AS orders, SUM(card_count) AS cards FROM (
+    SELECT o.id,
+           (SELECT COUNT(*) FROM bench_card_certification_order cco WHERE cco.order_id = o.id) AS card_count
+    FROM bench_order o
+    WHERE o.status IN (1, 2) AND o.annulee = 0
+) all_orders;
+SELECT 'all plannable - correlated' AS query, TIMESTAMPDIFF(MICROSECOND, @t, NOW(6)) / 1000 AS ms;
+
+SET @t := NOW(6);
+SELECT COUNT(*) AS orders, SUM(card_count) AS cards FROM (
+    SELECT cco.order_id, COUNT(*) AS card_count
+    FROM bench_card_certification_order cco
+    INNER JOIN bench_order o ON o.id = cco.order_id
+    WHERE o.status IN (1, 2) AND o.annulee = 0
+    GROUP BY cco.order_id
+) counts;
+SELECT 'all plannable - grouped join' AS query, TIMESTAMPDIFF(MICROSECOND, @t, NOW(6)) / 1000 AS ms;
+
+-- ========== Plans d'exécution ==========
+
+EXPLAIN
+SELECT cco.order_id, COUNT(*) AS card_count
+FROM bench_card_certification_order cco
+WHERE cco.order_id IN (UNHEX(LPAD(HEX(1), 32, '0')), UNHEX(LPAD(HEX(2), 32, '0')))
+GROUP BY cco.order_id;
+
+-- Nettoyage (décommenter)
+-- DROP TABLE bench_card_certification_order;
+-- DROP TABLE bench_order;
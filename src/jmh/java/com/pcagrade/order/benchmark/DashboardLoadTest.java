@@ -0,0 +1,97 @@
+package com.pcagrade.order.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of the dashboard polling endpoints against a running server
+ * Each client (a virtual thread) sends its next GET as soon as the previous one answers.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec@load-test -Dload.args="http://localhost:8080 500 30"
+ *
+ * Arguments: base URL, concurrent clients (500), duration in seconds (30), then optional paths.
+ * Prints p50/p90/p99/max latency and status counts; /api/health/db-limiter afterwards shows
+ * how much of it was spent queueing for the database.
+ */
+public final class DashboardLoadTest {
+
+    private static final List<String> DEFAULT_PATHS = List.of(
+            "/api/frontend/employees/load",
+            "/api/frontend/employees",
+            "/api/frontend/planning/stats",
+            "/api/orders/statistics");
+
+    private DashboardLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        List<String> paths = args.length > 3 ? Arrays.asList(args).subList(3, args.length) : DEFAULT_PATHS;
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        ConcurrentLinkedQueue<long[]> samples = new ConcurrentLinkedQueue<>();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong busy = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long endNanos = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        System.out.printf("Load test: %d clients, %d s, %s%n", clients, seconds, paths);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    for (int i = client; System.nanoTime() < endNanos; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + paths.get(i % paths.size())))
+                                .timeout(Duration.ofSeconds(60))
+                                .GET()
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            latencies.add(System.nanoTime() - start);
+                            if (status == 503) {
+                                busy.incrementAndGet();
+                            } else if (status < 400) {
+                                ok.incrementAndGet();
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    samples.add(latencies.stream().mapToLong(Long::longValue).toArray());
+                });
+            }
+        }
+
+        long[] all = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("Requests: %d (ok %d, 503 %d, errors %d), %.0f req/s%n",
+                all.length, ok.get(), busy.get(), errors.get(), all.length / (double) seconds);
+        if (all.length > 0) {
+            System.out.printf("Latency ms: p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n",
+                    percentile(all, 50), percentile(all, 90), percentile(all, 99), all[all.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+}
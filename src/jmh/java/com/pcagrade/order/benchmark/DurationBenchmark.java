@@ -0,0 +1,38 @@
+package com.pcagrade.order.benchmark;
+
+import com.pcagrade.order.util.DureeCalculator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DureeCalculator.calculerDureeDepuisCommande over order maps, as called once per order when planning
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DurationBenchmark {
+
+    private static final int BATCH = 1024;
+
+    private List<Map<String, Object>> orders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orders = SyntheticData.orderMaps(BATCH, 42L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void calculerDureeDepuisCommande(Blackhole blackhole) {
+        for (Map<String, Object> order : orders) {
+            blackhole.consume(DureeCalculator.calculerDureeDepuisCommande(order));
+        }
+    }
+}
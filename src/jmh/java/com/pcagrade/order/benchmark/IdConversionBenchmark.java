@@ -0,0 +1,140 @@
+package com.pcagrade.order.benchmark;
+
+import com.github.f4b6a3.ulid.Ulid;
+import com.pcagrade.order.util.UlidHelper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id conversions done on every request and every planning row:
+ * UlidHelper codec vs the regex/replace versions it replaced, and the HEX()/UNHEX() string munging
+ * Allocation: add -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdConversionBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"ULID", "UUID", "HEX"})
+    public String format;
+
+    private String[] ids;
+    private UUID[] uuids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = SyntheticData.ids(format, BATCH, 42L);
+        uuids = new UUID[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            uuids[i] = UlidHelper.stringToUuid(ids[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void stringToUuid(Blackhole blackhole) {
+        for (String id : ids) {
+            blackhole.consume(UlidHelper.stringToUuid(id));
+        }
+    }
+
+    /**
+     * Previous UlidHelper.stringToUuid: regex matches + replaceAll to insert the dashes
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void legacyStringToUuid(Blackhole blackhole) {
+        for (String id : ids) {
+            blackhole.consume(legacyStringToUuid(id));
+        }
+    }
+
+    /**
+     * Long-pair entry point: no UUID allocated
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void parseBits(Blackhole blackhole) {
+        for (String id : ids) {
+            blackhole.consume(UlidHelper.parseMostSignificantBits(id));
+            blackhole.consume(UlidHelper.parseLeastSignificantBits(id));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void idToBytes(Blackhole blackhole) {
+        for (String id : ids) {
+            blackhole.consume(UlidHelper.idToBytes(id));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void uuidToHexCodec(Blackhole blackhole) {
+        for (UUID uuid : uuids) {
+            blackhole.consume(UlidHelper.toHex(uuid));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void uuidToUlidCodec(Blackhole blackhole) {
+        for (UUID uuid : uuids) {
+            blackhole.consume(UlidHelper.uuidToUlidString(uuid));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void uuidToUlidLibrary(Blackhole blackhole) {
+        for (UUID uuid : uuids) {
+            blackhole.consume(Ulid.from(uuid).toString());
+        }
+    }
+
+    /**
+     * id.replace("-", "").toUpperCase() before UNHEX(?) / comparison with HEX(col)
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void hexNormalize(Blackhole blackhole) {
+        for (String id : ids) {
+            blackhole.consume(id.replace("-", "").toUpperCase());
+        }
+    }
+
+    /**
+     * UUID.toString().replace("-", "") used to build planning ids
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void uuidToHex(Blackhole blackhole) {
+        for (UUID uuid : uuids) {
+            blackhole.consume(uuid.toString().replace("-", ""));
+        }
+    }
+
+    private static UUID legacyStringToUuid(String idString) {
+        idString = idString.trim();
+        if (idString.length() == 26 && idString.matches("[0-9A-Z]+")) {
+            return Ulid.from(idString).toUuid();
+        }
+        if (idString.length() == 36 && idString.contains("-")) {
+            return UUID.fromString(idString);
+        }
+        if (idString.length() == 32 && idString.matches("[0-9A-Fa-f]+")) {
+            return UUID.fromString(idString.toLowerCase()
+                    .replaceAll("(.{8})(.{4})(.{4})(.{4})(.{12})", "$1-$2-$3-$4-$5"));
+        }
+        throw new IllegalArgumentException("Format ID non reconnu: " + idString);
+    }
+}
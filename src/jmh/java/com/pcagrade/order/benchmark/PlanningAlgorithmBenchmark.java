@@ -0,0 +1,55 @@
+package com.pcagrade.order.benchmark;
+
+import com.pcagrade.order.service.planning.EarliestDeadlineFirstAlgorithm;
+import com.pcagrade.order.service.planning.LeastLoadedAlgorithm;
+import com.pcagrade.order.service.planning.LongestProcessingTimeAlgorithm;
+import com.pcagrade.order.service.planning.PlanningAlgorithm;
+import com.pcagrade.order.service.planning.PlanningAlgorithmRegistry;
+import com.pcagrade.order.service.planning.PlanningAssignment;
+import com.pcagrade.order.service.planning.PlanningSnapshot;
+import com.pcagrade.order.service.planning.RoundRobinAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assignment loops of the planners (the old GreedyPlanningService / PlanningService loops),
+ * on synthetic backlogs from 1k to 1M orders
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PlanningAlgorithmBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int orders;
+
+    @Param({"10", "50"})
+    public int employees;
+
+    @Param({RoundRobinAlgorithm.NAME, LeastLoadedAlgorithm.NAME, EarliestDeadlineFirstAlgorithm.NAME,
+            LongestProcessingTimeAlgorithm.NAME})
+    public String algorithm;
+
+    private PlanningSnapshot snapshot;
+    private PlanningAlgorithm planningAlgorithm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        snapshot = SyntheticData.snapshot(orders, employees, 42L);
+        planningAlgorithm = new PlanningAlgorithmRegistry(List.of(
+                new RoundRobinAlgorithm(),
+                new LeastLoadedAlgorithm(),
+                new EarliestDeadlineFirstAlgorithm(),
+                new LongestProcessingTimeAlgorithm())).get(algorithm);
+    }
+
+    @Benchmark
+    public List<PlanningAssignment> plan() {
+        return planningAlgorithm.plan(snapshot);
+    }
+}
@@ -0,0 +1,171 @@
+package com.pcagrade.order.benchmark;
+
+import com.pcagrade.order.service.PlanningBatchWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Greedy planning writes against a real MariaDB: one COUNT(*) + one INSERT per order (previous
+ * GreedyPlanningService path) vs one IN (...) check + multi-row INSERTs (PlanningBatchWriter SQL)
+ * Every operation runs in a transaction that is rolled back, so j_planning is left as it was.
+ * The database comes from the environment (inherited by the forked JVM):
+ *   BENCH_JDBC_URL=jdbc:mariadb://localhost:3306/dev BENCH_JDBC_USER=ia BENCH_JDBC_PASSWORD=...
+ *   mvn -Pbenchmark test-compile exec:exec@jmh -Djmh.args="PlanningWrite -f 1"
+ * Round-trips per operation are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PlanningWriteBenchmark {
+
+    private static final String PREVIOUS_CHECK_SQL =
+            "SELECT COUNT(*) FROM j_planning WHERE order_id = UNHEX(?) AND employee_id = UNHEX(?)";
+
+    private static final String PREVIOUS_INSERT_SQL = """
+        INSERT INTO j_planning
+        (id, order_id, employee_id, planning_date, start_time, end_time,
+         estimated_duration_minutes, estimated_end_time, priority, status,
+         completed, card_count, notes, created_at, updated_at)
+        VALUES (UNHEX(?), UNHEX(?), UNHEX(?), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())
+        """;
+
+    @Param({"100", "1000", "10000"})
+    public int orders;
+
+    private record Row(String id, String orderId, String employeeId, LocalDateTime start, int minutes, int cards) {
+    }
+
+    private Connection connection;
+    private List<Row> rows;
+    private int roundTrips;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getenv("BENCH_JDBC_URL");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("BENCH_JDBC_URL not set: this benchmark needs a MariaDB with j_planning");
+        }
+        connection = DriverManager.getConnection(url, System.getenv("BENCH_JDBC_USER"), System.getenv("BENCH_JDBC_PASSWORD"));
+        connection.setAutoCommit(false);
+
+        Random random = new Random(42L);
+        List<String> employees = new ArrayList<>();
+        for (int e = 0; e < 10; e++) {
+            employees.add(randomId(random));
+        }
+        LocalDateTime start = LocalDate.now().plusYears(1).atTime(9, 0);
+        rows = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            int cards = 1 + random.nextInt(40);
+            rows.add(new Row(randomId(random), randomId(random), employees.get(i % employees.size()),
+                    start, Math.max(60, 30 + cards * 3), cards));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        System.out.printf("%n%d orders: %d round-trips per operation%n", orders, roundTrips);
+        connection.close();
+    }
+
+    @Benchmark
+    public int perOrder() throws SQLException {
+        int trips = 0;
+        try (PreparedStatement check = connection.prepareStatement(PREVIOUS_CHECK_SQL);
+             PreparedStatement insert = connection.prepareStatement(PREVIOUS_INSERT_SQL)) {
+            for (Row row : rows) {
+                check.setString(1, row.orderId());
+                check.setString(2, row.employeeId());
+                try (ResultSet rs = check.executeQuery()) {
+                    rs.next();
+                }
+                trips++;
+                bind(insert, 1, row);
+                insert.executeUpdate();
+                trips++;
+            }
+        } finally {
+            connection.rollback();
+        }
+        roundTrips = trips;
+        return trips;
+    }
+
+    @Benchmark
+    public int batched() throws SQLException {
+        int trips = 0;
+        try {
+            for (int from = 0; from < rows.size(); from += PlanningBatchWriter.LOOKUP_CHUNK_SIZE) {
+                List<Row> chunk = rows.subList(from, Math.min(from + PlanningBatchWriter.LOOKUP_CHUNK_SIZE, rows.size()));
+                try (PreparedStatement check = connection.prepareStatement(PlanningBatchWriter.existingPairsSql(chunk.size()))) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        check.setString(i + 1, chunk.get(i).orderId());
+                    }
+                    try (ResultSet rs = check.executeQuery()) {
+                        while (rs.next()) {
+                            rs.getString(1);
+                        }
+                    }
+                }
+                trips++;
+            }
+            for (int from = 0; from < rows.size(); from += PlanningBatchWriter.INSERT_BATCH_SIZE) {
+                List<Row> chunk = rows.subList(from, Math.min(from + PlanningBatchWriter.INSERT_BATCH_SIZE, rows.size()));
+                try (PreparedStatement insert = connection.prepareStatement(PlanningBatchWriter.insertSql(chunk.size()))) {
+                    int p = 1;
+                    for (Row row : chunk) {
+                        p = bind(insert, p, row);
+                    }
+                    insert.executeUpdate();
+                }
+                trips++;
+            }
+        } finally {
+            connection.rollback();
+        }
+        roundTrips = trips;
+        return trips;
+    }
+
+    // Same 13 parameters, in the same order, for both INSERTs
+    private static int bind(PreparedStatement insert, int p, Row row) throws SQLException {
+        Timestamp start = Timestamp.valueOf(row.start());
+        Timestamp end = Timestamp.valueOf(row.start().plusMinutes(row.minutes()));
+        insert.setString(p++, row.id());
+        insert.setString(p++, row.orderId());
+        insert.setString(p++, row.employeeId());
+        insert.setObject(p++, row.start().toLocalDate());
+        insert.setTimestamp(p++, start);
+        insert.setTimestamp(p++, end);
+        insert.setInt(p++, row.minutes());
+        insert.setTimestamp(p++, end);
+        insert.setString(p++, "MEDIUM");
+        insert.setString(p++, "SCHEDULED");
+        insert.setInt(p++, 0);
+        insert.setInt(p++, row.cards());
+        insert.setString(p++, "Benchmark row");
+        return p;
+    }
+
+    private static String randomId(Random random) {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return HexFormat.of().withUpperCase().formatHex(bytes);
+    }
+}
@@ -0,0 +1,119 @@
+package com.pcagrade.order.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pcagrade.order.dto.PlanningOrderRow;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10k planning order rows: HashMap per row (French and English keys stored twice) vs PlanningOrderRow
+ * Allocation per operation: run with the GC profiler and read gc.alloc.rate.norm
+ * mvn -Pbenchmark test-compile exec:exec@jmh -Djmh.args="RowProjection -f 1 -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowProjectionBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private List<Object[]> rows;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rows = SyntheticData.planningOrderRows(ROWS, 42L);
+        // Same date settings as Spring Boot's ObjectMapper
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> mapRows() {
+        return toMaps(rows);
+    }
+
+    @Benchmark
+    public List<PlanningOrderRow> recordRows() {
+        return toRecords(rows);
+    }
+
+    @Benchmark
+    public void mapRowsToJson(Blackhole blackhole) throws Exception {
+        objectMapper.writeValue(new BlackholeOutputStream(blackhole), toMaps(rows));
+    }
+
+    @Benchmark
+    public void recordRowsToJson(Blackhole blackhole) throws Exception {
+        objectMapper.writeValue(new BlackholeOutputStream(blackhole), toRecords(rows));
+    }
+
+    /**
+     * Previous OrderService.getOrdersForPlanning mapping
+     */
+    private static List<Map<String, Object>> toMaps(List<Object[]> rows) {
+        List<Map<String, Object>> orders = new ArrayList<>();
+        for (Object[] row : rows) {
+            int cardCount = 12;
+            Map<String, Object> order = new HashMap<>();
+            order.put("id", (String) row[0]);
+            order.put("orderNumber", (String) row[1]);
+            order.put("numeroCommande", (String) row[1]);
+            order.put("orderDate", row[2]);
+            order.put("date", row[2]);
+            order.put("deadline", (String) row[3]);
+            order.put("delai", (String) row[3]);
+            order.put("cardCount", cardCount);
+            order.put("nombreCartes", cardCount);
+            order.put("priority", (String) row[4]);
+            order.put("priorite", (String) row[4]);
+            order.put("status", row[5]);
+            order.put("totalPrice", row[6]);
+            order.put("prixTotal", row[6]);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static List<PlanningOrderRow> toRecords(List<Object[]> rows) {
+        List<PlanningOrderRow> orders = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            orders.add(PlanningOrderRow.fromRow(row, 12));
+        }
+        return orders;
+    }
+
+    /**
+     * Discards the JSON bytes without buffering them, so only the serialization itself is measured
+     */
+    private static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(len);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.pcagrade.order.benchmark;
+
+import com.github.f4b6a3.ulid.UlidCreator;
+import com.pcagrade.order.service.planning.PlanningSnapshot;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic synthetic datasets for the benchmarks
+ * Card counts follow the shape of the real backlog: mostly small orders, a few big ones.
+ */
+final class SyntheticData {
+
+    static final LocalDate START_DATE = LocalDate.of(2025, 6, 2);
+
+    private static final String[] PRIORITIES = {"URGENT", "HIGH", "MEDIUM", "MEDIUM", "MEDIUM", "LOW"};
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Snapshot of the given size, same content for the same seed
+     */
+    static PlanningSnapshot snapshot(int orders, int employees, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        List<PlanningSnapshot.Task> tasks = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            int cards = cardCount(random);
+            String priority = PRIORITIES[random.nextInt(PRIORITIES.length)];
+            tasks.add(new PlanningSnapshot.Task(
+                    hexId(random),
+                    String.valueOf(100_000 + i),
+                    cards,
+                    cards * 3,
+                    priority,
+                    START_DATE.plusDays(random.nextInt(60))));
+        }
+
+        List<PlanningSnapshot.Worker> workers = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            workers.add(new PlanningSnapshot.Worker(hexId(random), "Employee " + i, random.nextInt(4) == 0 ? 6 : 8));
+        }
+
+        return PlanningSnapshot.of(START_DATE, tasks, workers);
+    }
+
+    /**
+     * Order maps as returned by the native queries (French and English keys)
+     */
+    static List<Map<String, Object>> orderMaps(int orders, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Map<String, Object>> maps = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            int cards = cardCount(random);
+            Map<String, Object> order = new HashMap<>();
+            order.put("id", hexId(random));
+            order.put("numeroCommande", String.valueOf(100_000 + i));
+            switch (i % 3) {
+                case 0 -> order.put("nombreCartesReelles", cards);
+                case 1 -> order.put("nombreCartes", cards);
+                default -> order.put("dureeMinutes", cards * 3);
+            }
+            maps.add(order);
+        }
+        return maps;
+    }
+
+    /**
+     * Rows of the planning orders query (OrderService.getOrdersForPlanning), as the driver returns them
+     */
+    static List<Object[]> planningOrderRows(int orders, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Object[]> rows = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            rows.add(new Object[]{
+                    hexId(random),
+                    String.valueOf(100_000 + i),
+                    Timestamp.valueOf(START_DATE.atStartOfDay().plusMinutes(random.nextInt(60 * 24 * 60))),
+                    "F",
+                    PRIORITIES[random.nextInt(PRIORITIES.length)],
+                    1 + random.nextInt(2),
+                    10.0 + random.nextInt(500)
+            });
+        }
+        return rows;
+    }
+
+    /**
+     * Ids in the three textual forms the application receives
+     */
+    static String[] ids(String format, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            ids[i] = switch (format) {
+                case "ULID" -> UlidCreator.getUlid().toString();
+                case "UUID" -> uuid.toString();
+                case "HEX" -> uuid.toString().replace("-", "").toUpperCase();
+                default -> throw new IllegalArgumentException("Unknown id format: " + format);
+            };
+        }
+        return ids;
+    }
+
+    private static int cardCount(SplittableRandom random) {
+        // ~80% of orders under 30 cards, long tail up to 200
+        return random.nextInt(10) < 8 ? 1 + random.nextInt(30) : 30 + random.nextInt(171);
+    }
+
+    private static String hexId(SplittableRandom random) {
+        return String.format("%016X%016X", random.nextLong(), random.nextLong());
+    }
+}
@@ -0,0 +1,25 @@
+package com.pcagrade.order.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 🚦 DB CONCURRENCY - limiteur partagé par le filtre /api et les tâches de fond
+ * Permis = taille du pool Hikari - planning.db-limiter.reserved. Les connexions réservées ne
+ * sont jamais données comme permis : elles servent aux transactions REQUIRES_NEW ouvertes par
+ * une requête qui tient déjà sa connexion (re-planification incrémentale après commit, DDL
+ * à la première utilisation...). Une requête n'en ouvre qu'une à la fois, donc tant qu'au
+ * moins une connexion reste réservée, toutes finissent par avancer au lieu de s'attendre
+ * dans Hikari.
+ */
+@Configuration
+public class DbConcurrencyConfig {
+
+    @Bean
+    public DbConcurrencyLimiter dbConcurrencyLimiter(
+            @Value("${planning.db-limiter.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${planning.db-limiter.reserved:2}") int reserved) {
+        return new DbConcurrencyLimiter(Math.max(1, poolSize - reserved));
+    }
+}
@@ -0,0 +1,148 @@
+package com.pcagrade.order.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🚦 DB CONCURRENCY FILTER - file d'attente des requêtes /api avant la base
+ * Les requêtes tournent sur des threads virtuels (spring.threads.virtual.enabled) : Tomcat ne
+ * limite plus leur nombre, c'est ce filtre qui laisse passer au plus les permis du limiteur
+ * (pool Hikari moins la réserve, voir DbConcurrencyConfig), par classe d'endpoint
+ * ({@link DbConcurrencyLimiter.EndpointClass}).
+ * Le permis est tenu jusqu'à la fin du traitement synchrone (open-in-view garde la connexion
+ * jusque-là). Une réponse asynchrone (StreamingResponseBody de /api/orders/feed, qui lit la
+ * base après le retour du contrôleur) le garde jusqu'à la fin du traitement asynchrone ; seul
+ * un flux SSE, qui ne lit pas la base, le rend dès que le contrôleur a répondu.
+ * Au-delà de planning.db-limiter.acquire-timeout-ms : 503 avec Retry-After.
+ */
+@Component
+@Slf4j
+public class DbConcurrencyFilter extends OncePerRequestFilter {
+
+    @Value("${planning.db-limiter.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${planning.db-limiter.acquire-timeout-ms:10000}")
+    private long acquireTimeoutMillis = 10_000;
+
+    private final DbConcurrencyLimiter limiter;
+
+    public DbConcurrencyFilter(DbConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public DbConcurrencyLimiter limiter() {
+        return limiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled
+                || "OPTIONS".equalsIgnoreCase(request.getMethod())
+                || !path.startsWith("/api/")
+                || path.startsWith("/api/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        DbConcurrencyLimiter.EndpointClass endpointClass =
+                DbConcurrencyLimiter.EndpointClass.of(request.getMethod(), path);
+
+        DbConcurrencyLimiter.Permit permit;
+        try {
+            permit = limiter.acquire(endpointClass, acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, "Interrupted while waiting for the database");
+            return;
+        }
+        if (permit == null) {
+            log.warn("🚦 {} {} rejected: no database permit within {} ms ({} in use)",
+                    request.getMethod(), path, acquireTimeoutMillis, limiter.inUse());
+            reject(response, "Database busy, retry later");
+            return;
+        }
+
+        boolean released = true;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted() && !isEventStream(response)) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(permit));
+                released = false;
+            }
+        } finally {
+            if (released) {
+                permit.close();
+            }
+        }
+    }
+
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    /**
+     * Gives the permit back when the asynchronous processing ends, however it ends
+     */
+    private record ReleaseOnCompletion(DbConcurrencyLimiter.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private static void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"success\":false,\"error\":\"" + message + "\"}");
+    }
+
+    /**
+     * 📊 Limiter state and per-class queue / database times
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = limiter.getStats();
+        status.put("enabled", enabled);
+        status.put("acquireTimeoutMs", acquireTimeoutMillis);
+        return status;
+    }
+}
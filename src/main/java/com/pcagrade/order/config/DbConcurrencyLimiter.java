@@ -0,0 +1,243 @@
+package com.pcagrade.order.config;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds how many requests use the database at once, sized to the connection pool
+ * (minus a few connections kept for nested REQUIRES_NEW transactions, see DbConcurrencyConfig)
+ *
+ * With virtual threads Tomcat no longer caps concurrency, so hundreds of requests could wait
+ * inside Hikari (and time out there). They wait here instead, in FIFO order:
+ * a request first takes a permit of its {@link EndpointClass} (fair semaphore capped at
+ * {@code permits - other classes}, so polling reads alone can never hold the whole pool),
+ * then a permit of the fair global semaphore. Both are plain semaphores: a waiting virtual
+ * thread unmounts from its carrier.
+ *
+ * Background database work (planning jobs, table and index rebuilds) takes permits too, in the
+ * class of the work it does, waiting without a timeout.
+ *
+ * Each class records the time spent queueing and the time spent holding the permit
+ * (the request's database work), as count / total / max / approximate p50-p99.
+ */
+public final class DbConcurrencyLimiter {
+
+    /**
+     * Kinds of requests, queued separately
+     */
+    public enum EndpointClass {
+        /** GET requests: dashboards, lists, polling */
+        READ,
+        /** Planning runs and planning writes (/api/planning/**, /api/frontend/planning/** except GET) */
+        PLANNING,
+        /** Other writes */
+        WRITE;
+
+        public static EndpointClass of(String method, String path) {
+            if ("GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method)) {
+                return READ;
+            }
+            if (path != null && (path.startsWith("/api/planning") || path.startsWith("/api/frontend/planning"))) {
+                return PLANNING;
+            }
+            return WRITE;
+        }
+    }
+
+    /**
+     * A granted permit; close it to give it back (from any thread, only the first close counts)
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final EndpointClass endpointClass;
+        private final long grantedAtNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(EndpointClass endpointClass, long grantedAtNanos) {
+            this.endpointClass = endpointClass;
+            this.grantedAtNanos = grantedAtNanos;
+        }
+
+        @Override
+        public void close() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            global.release();
+            classSemaphores.get(endpointClass).release();
+            stats.get(endpointClass).held.record(System.nanoTime() - grantedAtNanos);
+        }
+    }
+
+    private final int permits;
+    private final Semaphore global;
+    private final Map<EndpointClass, Semaphore> classSemaphores = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, ClassStats> stats = new EnumMap<>(EndpointClass.class);
+
+    /**
+     * @param permits concurrent requests allowed on the database (the connection pool size)
+     */
+    public DbConcurrencyLimiter(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        this.permits = permits;
+        this.global = new Semaphore(permits, true);
+        int classCap = Math.max(1, permits - (EndpointClass.values().length - 1));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            classSemaphores.put(endpointClass, new Semaphore(classCap, true));
+            stats.put(endpointClass, new ClassStats());
+        }
+    }
+
+    public int permits() {
+        return permits;
+    }
+
+    /**
+     * Wait for a permit
+     * @param timeout maximum total wait
+     * @return the permit, null if none was granted in time
+     */
+    public Permit acquire(EndpointClass endpointClass, long timeout, TimeUnit unit) throws InterruptedException {
+        ClassStats classStats = stats.get(endpointClass);
+        Semaphore classSemaphore = classSemaphores.get(endpointClass);
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + unit.toNanos(timeout);
+
+        classStats.waiting.increment();
+        try {
+            if (!classSemaphore.tryAcquire(timeout, unit)) {
+                classStats.rejected.increment();
+                return null;
+            }
+            if (!global.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                classSemaphore.release();
+                classStats.rejected.increment();
+                return null;
+            }
+        } catch (InterruptedException e) {
+            classStats.rejected.increment();
+            throw e;
+        } finally {
+            classStats.waiting.decrement();
+        }
+
+        long grantedAt = System.nanoTime();
+        classStats.queued.record(grantedAt - startNanos);
+        return new Permit(endpointClass, grantedAt);
+    }
+
+    /**
+     * Wait for a permit as long as it takes: background work has no client to answer 503 to
+     */
+    public Permit acquire(EndpointClass endpointClass) throws InterruptedException {
+        return acquire(endpointClass, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Permits currently held, all classes together
+     */
+    public int inUse() {
+        return permits - global.availablePermits();
+    }
+
+    /**
+     * 📊 Queue time versus database time, per endpoint class (milliseconds)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("permits", permits);
+        result.put("inUse", inUse());
+        Map<String, Object> classes = new LinkedHashMap<>();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            ClassStats classStats = stats.get(endpointClass);
+            Semaphore classSemaphore = classSemaphores.get(endpointClass);
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("waiting", classStats.waiting.sum());
+            map.put("rejected", classStats.rejected.sum());
+            map.put("available", classSemaphore.availablePermits());
+            map.put("queueTime", classStats.queued.toMap());
+            map.put("dbTime", classStats.held.toMap());
+            classes.put(endpointClass.name(), map);
+        }
+        result.put("classes", classes);
+        return result;
+    }
+
+    private static final class ClassStats {
+        private final LongAdder waiting = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final Latency queued = new Latency();
+        private final Latency held = new Latency();
+    }
+
+    /**
+     * Lock-free latency summary: power-of-two microsecond buckets, so percentiles are upper bounds
+     * within a factor of 2
+     */
+    static final class Latency {
+
+        private static final int BUCKETS = 40;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos) {
+            long micros = Math.max(0, nanos / 1_000);
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        /**
+         * Upper bound of the given percentile, in microseconds (0 when empty)
+         */
+        long percentileMicros(double percentile) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return i == 0 ? 0 : 1L << i;
+                }
+            }
+            return 1L << (BUCKETS - 1);
+        }
+
+        Map<String, Object> toMap() {
+            long n = count.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", n);
+            map.put("avgMs", n == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / n);
+            map.put("maxMs", maxNanos.get() / 1_000_000.0);
+            map.put("p50Ms", percentileMicros(50) / 1_000.0);
+            map.put("p99Ms", percentileMicros(99) / 1_000.0);
+            return map;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.pcagrade.order.controller;
 
+import com.pcagrade.order.service.EmployeeDailyLoadService;
+import com.pcagrade.order.util.TransactionHelper;
+import com.pcagrade.order.util.UlidHelper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
@@ -16,9 +20,99 @@ import java.util.*;
 @RequestMapping("/api/employees")
 public class EmployeeDetailController {
 
+    /**
+     * One active employee
+     */
+    public static final String EMPLOYEE_DETAILS_SQL = """
+        SELECT
+            HEX(e.id) as id,
+            e.first_name as firstName,
+            e.last_name as lastName,
+            CONCAT(e.first_name, ' ', e.last_name) as fullName,
+            e.email,
+            e.work_hours_per_day as workHoursPerDay,
+            e.available,
+            e.active,
+            e.creation_date as creationDate,
+            e.current_load as currentLoad
+        FROM employee e
+        WHERE e.id = ? AND e.active = true
+        """;
+
+    /**
+     * Plannings of one employee; an optional day filter and the ORDER BY are appended
+     */
+    public static final String EMPLOYEE_PLANNINGS_SQL = """
+        SELECT
+            HEX(jp.id) as id,
+            HEX(jp.order_id) as orderId,
+            jp.order_number as orderNumber,
+            HEX(jp.employee_id) as employeeId,
+            jp.employee_name as employeeName,
+            jp.planning_date as planningDate,
+            jp.start_time as startTime,
+            jp.duration_minutes as durationMinutes,
+            jp.priority,
+            jp.status,
+            jp.card_count as cardCount,
+            jp.notes
+        FROM j_planning jp
+        WHERE jp.employee_id = ?
+        """;
+
+    /**
+     * Cards of one order (first 50)
+     */
+    public static final String ORDER_CARDS_SQL = """
+        SELECT
+            HEX(cc.id) as cardId,
+            cc.code_barre as barcode,
+            COALESCE(cc.type, 'Pokemon') as type,
+            cc.card_id as cardId,
+            COALESCE(cc.annotation, '') as annotation,
+            COALESCE(ct.name, CONCAT('Pokemon Card ', cc.code_barre)) as name,
+            COALESCE(ct.label_name, CONCAT('Card ', cc.code_barre)) as label_name,
+            cc.langue as language,
+            cc.statut_correspondance as status
+        FROM card_certification_order cco
+        INNER JOIN card_certification cc ON cco.card_certification_id = cc.id
+        LEFT JOIN card_translation ct ON cc.card_id = ct.translatable_id
+        WHERE cco.order_id = ?
+        LIMIT 50
+        """;
+
+    /**
+     * Status update of one planning row
+     */
+    public static final String PLANNING_STATUS_UPDATE_SQL = """
+        UPDATE j_planning
+        SET status = ?,
+            completed = ?,
+            updated_at = NOW()
+        WHERE id = ?
+        """;
+
+    /**
+     * Task counters of one employee; an optional day filter is appended
+     */
+    public static final String EMPLOYEE_STATS_SQL = """
+        SELECT
+            COUNT(*) as totalTasks,
+            SUM(jp.card_count) as totalCards,
+            SUM(jp.duration_minutes) as totalMinutes,
+            COUNT(CASE WHEN jp.status = 'COMPLETED' THEN 1 END) as completedTasks,
+            COUNT(CASE WHEN jp.status = 'IN_PROGRESS' THEN 1 END) as inProgressTasks,
+            COUNT(CASE WHEN jp.status = 'SCHEDULED' THEN 1 END) as scheduledTasks
+        FROM j_planning jp
+        WHERE jp.employee_id = ?
+        """;
+
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private EmployeeDailyLoadService dailyLoadService;
+
     /**
      * Get individual employee details
      */
@@ -27,27 +121,10 @@ public class EmployeeDetailController {
         try {
             System.out.println("👤 Loading employee details for ID: " + employeeId);
 
-            // Clean employee ID (remove dashes if UUID format)
-            String cleanEmployeeId = employeeId.replace("-", "");
-
-            String sql = """
-                SELECT 
-                    HEX(e.id) as id,
-                    e.first_name as firstName,
-                    e.last_name as lastName,
-                    CONCAT(e.first_name, ' ', e.last_name) as fullName,
-                    e.email,
-                    e.work_hours_per_day as workHoursPerDay,
-                    e.available,
-                    e.active,
-                    e.creation_date as creationDate,
-                    e.current_load as currentLoad
-                FROM employee e
-                WHERE HEX(e.id) = ? AND e.active = true
-                """;
-
-            Query query = entityManager.createNativeQuery(sql);
-            query.setParameter(1, cleanEmployeeId);
+            byte[] employeeIdBytes = UlidHelper.idToBytes(employeeId);
+
+            Query query = entityManager.createNativeQuery(EMPLOYEE_DETAILS_SQL);
+            query.setParameter(1, employeeIdBytes);
 
             @SuppressWarnings("unchecked")
             List<Object[]> results = query.getResultList();
@@ -92,28 +169,12 @@ public class EmployeeDetailController {
         try {
             System.out.println("📋 Loading plannings for employee: " + employeeId + " on date: " + date);
 
-            String cleanEmployeeId = employeeId.replace("-", "");
-
-            StringBuilder sqlBuilder = new StringBuilder("""
-                SELECT 
-                    HEX(jp.id) as id,
-                    HEX(jp.order_id) as orderId,
-                    jp.order_number as orderNumber,
-                    HEX(jp.employee_id) as employeeId,
-                    jp.employee_name as employeeName,
-                    jp.planning_date as planningDate,
-                    jp.start_time as startTime,
-                    jp.duration_minutes as durationMinutes,
-                    jp.priority,
-                    jp.status,
-                    jp.card_count as cardCount,
-                    jp.notes
-                FROM j_planning jp
-                WHERE HEX(jp.employee_id) = ?
-                """);
+            byte[] employeeIdBytes = UlidHelper.idToBytes(employeeId);
+
+            StringBuilder sqlBuilder = new StringBuilder(EMPLOYEE_PLANNINGS_SQL);
 
             List<Object> parameters = new ArrayList<>();
-            parameters.add(cleanEmployeeId);
+            parameters.add(employeeIdBytes);
 
             if (date != null && !date.isEmpty()) {
                 sqlBuilder.append(" AND jp.planning_date = ?");
@@ -180,28 +241,10 @@ public class EmployeeDetailController {
         try {
             System.out.println("🃏 Loading cards for order: " + orderId);
 
-            String cleanOrderId = orderId.replace("-", "");
-
-            String sql = """
-                SELECT 
-                    HEX(cc.id) as cardId,
-                    cc.code_barre as barcode,
-                    COALESCE(cc.type, 'Pokemon') as type,
-                    cc.card_id as cardId,
-                    COALESCE(cc.annotation, '') as annotation,
-                    COALESCE(ct.name, CONCAT('Pokemon Card ', cc.code_barre)) as name,
-                    COALESCE(ct.label_name, CONCAT('Card ', cc.code_barre)) as label_name,
-                    cc.langue as language,
-                    cc.statut_correspondance as status
-                FROM card_certification_order cco
-                INNER JOIN card_certification cc ON cco.card_certification_id = cc.id
-                LEFT JOIN card_translation ct ON cc.card_id = ct.translatable_id 
-                WHERE HEX(cco.order_id) = ?
-                LIMIT 50
-                """;
-
-            Query query = entityManager.createNativeQuery(sql);
-            query.setParameter(1, cleanOrderId);
+            byte[] orderIdBytes = UlidHelper.idToBytes(orderId);
+
+            Query query = entityManager.createNativeQuery(ORDER_CARDS_SQL);
+            query.setParameter(1, orderIdBytes);
 
             @SuppressWarnings("unchecked")
             List<Object[]> results = query.getResultList();
@@ -239,6 +282,7 @@ public class EmployeeDetailController {
      * Update planning status (for completing/reopening orders)
      */
     @PutMapping("/planning/{planningId}/status")
+    @Transactional
     public ResponseEntity<Map<String, Object>> updatePlanningStatus(
             @PathVariable String planningId,
             @RequestBody Map<String, String> request) {
@@ -247,20 +291,18 @@ public class EmployeeDetailController {
             String newStatus = request.get("status");
             System.out.println("🔄 Updating planning " + planningId + " to status: " + newStatus);
 
-            String cleanPlanningId = planningId.replace("-", "");
-
-            String sql = """
-                UPDATE j_planning 
-                SET status = ?, 
-                    modification_date = NOW()
-                WHERE HEX(id) = ?
-                """;
+            byte[] planningIdBytes = UlidHelper.idToBytes(planningId);
 
-            Query query = entityManager.createNativeQuery(sql);
+            Query query = entityManager.createNativeQuery(PLANNING_STATUS_UPDATE_SQL);
             query.setParameter(1, newStatus);
-            query.setParameter(2, cleanPlanningId);
+            query.setParameter(2, "COMPLETED".equals(newStatus));
+            query.setParameter(3, planningIdBytes);
 
             int updated = query.executeUpdate();
+            if (updated > 0) {
+                // Completed minutes/tasks of that day, in the table and (after commit) in memory
+                dailyLoadService.refreshPlannings(List.of(planningId));
+            }
 
             if (updated > 0) {
                 System.out.println("✅ Planning status updated successfully");
@@ -275,6 +317,8 @@ public class EmployeeDetailController {
         } catch (Exception e) {
             System.err.println("❌ Error updating planning status: " + e.getMessage());
             e.printStackTrace();
+            // Rolled back on purpose so the proxy commits nothing and this body is sent
+            TransactionHelper.rollbackOnly();
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
     }
@@ -288,22 +332,12 @@ public class EmployeeDetailController {
             @RequestParam(required = false) String date) {
 
         try {
-            String cleanEmployeeId = employeeId.replace("-", "");
-
-            StringBuilder sqlBuilder = new StringBuilder("""
-                SELECT 
-                    COUNT(*) as totalTasks,
-                    SUM(jp.card_count) as totalCards,
-                    SUM(jp.duration_minutes) as totalMinutes,
-                    COUNT(CASE WHEN jp.status = 'COMPLETED' THEN 1 END) as completedTasks,
-                    COUNT(CASE WHEN jp.status = 'IN_PROGRESS' THEN 1 END) as inProgressTasks,
-                    COUNT(CASE WHEN jp.status = 'SCHEDULED' THEN 1 END) as scheduledTasks
-                FROM j_planning jp
-                WHERE HEX(jp.employee_id) = ?
-                """);
+            byte[] employeeIdBytes = UlidHelper.idToBytes(employeeId);
+
+            StringBuilder sqlBuilder = new StringBuilder(EMPLOYEE_STATS_SQL);
 
             List<Object> parameters = new ArrayList<>();
-            parameters.add(cleanEmployeeId);
+            parameters.add(employeeIdBytes);
 
             if (date != null && !date.isEmpty()) {
                 sqlBuilder.append(" AND jp.planning_date = ?");
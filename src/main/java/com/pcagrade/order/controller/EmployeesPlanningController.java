@@ -1,5 +1,11 @@
 package com.pcagrade.order.controller;
 
+import com.pcagrade.order.dto.EmployeeWorkloadRow;
+import com.pcagrade.order.service.EmployeeDailyLoadService;
+import com.pcagrade.order.service.EmployeeSkillService;
+import com.pcagrade.order.service.planning.Skill;
+import com.pcagrade.order.service.workload.WorkloadRegistry;
+import com.pcagrade.order.util.UlidHelper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.slf4j.Logger;
@@ -8,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.*;
 
 /**
@@ -21,9 +28,73 @@ public class EmployeesPlanningController {
 
     private static final Logger log = LoggerFactory.getLogger(EmployeesPlanningController.class);
 
+    /**
+     * One employee
+     */
+    public static final String EMPLOYEE_DETAILS_SQL = """
+        SELECT
+            HEX(e.id) as id,
+            CONCAT(COALESCE(e.first_name, 'Unknown'), ' ', COALESCE(e.last_name, 'User')) as name,
+            e.first_name as firstName,
+            e.last_name as lastName,
+            e.email,
+            COALESCE(e.active, 1) as active,
+            COALESCE(e.work_hours_per_day, 8) as workHoursPerDay,
+            e.creation_date as creationDate,
+            e.modification_date as modificationDate
+        FROM j_employee e
+        WHERE e.id = ?
+        """;
+
+    /**
+     * Cards of one order, French names
+     */
+    public static final String ORDER_CARDS_SQL = """
+        SELECT
+            HEX(cc.id) as id,
+            cc.code_barre,
+            COALESCE(ct.name, CONCAT('Card #', cc.code_barre)) as name,
+            COALESCE(ct.label_name, CONCAT('Label #', cc.code_barre)) as label_name,
+            3 as duration,
+            COALESCE(cc.annotation, 0) as amount
+        FROM card_certification_order cco
+        INNER JOIN card_certification cc ON cco.card_certification_id = cc.id
+        LEFT JOIN card_translation ct ON cc.card_id = ct.translatable_id AND ct.locale = 'fr'
+        WHERE cco.order_id = ?
+        ORDER BY cc.code_barre ASC
+        """;
+
+    /**
+     * Plannings of one employee with their order number; a day filter and the ORDER BY are appended
+     */
+    public static final String EMPLOYEE_ORDERS_SQL = """
+        SELECT
+            HEX(p.id) as planningId,
+            HEX(p.order_id) as orderId,
+            o.num_commande as orderNumber,
+            p.planning_date,
+            p.start_time,
+            p.estimated_duration_minutes,
+            p.priority,
+            p.status,
+            p.completed,
+            p.card_count,
+            p.progress_percentage,
+            ROUND(p.estimated_duration_minutes / 60.0, 2) as estimatedHours
+        FROM j_planning p
+        LEFT JOIN `order` o ON p.order_id = o.id
+        WHERE p.employee_id = ?
+        """;
+
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private EmployeeDailyLoadService dailyLoadService;
+
+    @Autowired
+    private EmployeeSkillService employeeSkillService;
+
     /**
      * 👥 GET ALL EMPLOYEES - Mode Management
      */
@@ -97,92 +168,121 @@ public class EmployeesPlanningController {
         try {
             log.info("📋 Fetching employees with planning data for date: {}", date);
 
-            String dateFilter = date != null ? " AND p.planning_date = '" + date + "'" : "";
+            // One row per employee from employee_daily_load (kept up to date by the planning writers)
+            List<EmployeeWorkloadRow> employees =
+                    dailyLoadService.findWorkloads(date != null ? LocalDate.parse(date) : null);
 
-            String sql = """
-                SELECT 
-                    HEX(e.id) as id,
-                    CONCAT(COALESCE(e.first_name, 'Unknown'), ' ', COALESCE(e.last_name, 'User')) as name,
-                    e.first_name as firstName,
-                    e.last_name as lastName,
-                    e.email,
-                    COALESCE(e.active, 1) as active,
-                    COALESCE(e.work_hours_per_day, 8) as workHoursPerDay,
-                    COALESCE(SUM(p.estimated_duration_minutes), 0) as totalMinutes,
-                    COUNT(p.id) as taskCount,
-                    COALESCE(SUM(p.card_count), 0) as cardCount,
-                    ROUND(
-                        COALESCE(SUM(p.estimated_duration_minutes), 0) / 
-                        (COALESCE(e.work_hours_per_day, 8) * 60.0), 2
-                    ) as workloadRatio
-                FROM j_employee e
-                LEFT JOIN j_planning p ON e.id = p.employee_id""" + dateFilter + """
-                GROUP BY e.id, e.first_name, e.last_name, e.email, e.active, e.work_hours_per_day
-                ORDER BY workloadRatio DESC, name ASC
-                """;
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("employees", employees);
+            response.put("total", employees.size());
+            response.put("date", date != null ? date : "all");
 
-            Query query = entityManager.createNativeQuery(sql);
-            @SuppressWarnings("unchecked")
-            List<Object[]> results = query.getResultList();
+            log.info("✅ Retrieved {} employees with planning data", employees.size());
+            return ResponseEntity.ok(response);
 
-            List<Map<String, Object>> employees = new ArrayList<>();
+        } catch (Exception e) {
+            log.error("❌ Error fetching employees with planning data", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
 
-            for (Object[] row : results) {
-                Map<String, Object> employee = new HashMap<>();
-                employee.put("id", row[0]);
-                employee.put("name", row[1]);
-                employee.put("firstName", row[2]);
-                employee.put("lastName", row[3]);
-                employee.put("email", row[4]);
-                employee.put("active", ((Number) row[5]).intValue() == 1);
-                employee.put("workHoursPerDay", row[6]);
-                employee.put("totalMinutes", row[7]);
-                employee.put("maxMinutes", ((Number) row[6]).intValue() * 60);
-                employee.put("taskCount", row[8]);
-                employee.put("cardCount", row[9]);
-
-                // Workload calculations
-                Number workloadRatioNum = (Number) row[10];
-                Double workloadRatio = workloadRatioNum != null ? workloadRatioNum.doubleValue() : 0.0;
-                employee.put("workload", workloadRatio);
-
-                // Status determination
-                String status;
-                boolean available;
-                if (workloadRatio >= 1.0) {
-                    status = "overloaded";
-                    available = false;
-                } else if (workloadRatio >= 0.8) {
-                    status = "busy";
-                    available = false;
-                } else {
-                    status = "available";
-                    available = true;
-                }
-
-                employee.put("status", status);
-                employee.put("available", available);
-
-                // Additional computed fields
-                Integer totalMinutes = ((Number) row[7]).intValue();
-                employee.put("estimatedHours", Math.round(totalMinutes / 60.0 * 100.0) / 100.0);
-                employee.put("totalCards", row[9]);
-                employee.put("activeOrders", row[8]);
+    /**
+     * ⚡ GET CURRENT LOADS - Charge de tous les employés, lue en mémoire (pas de requête SQL)
+     */
+    @GetMapping("/load")
+    public ResponseEntity<Map<String, Object>> getCurrentLoads(@RequestParam(required = false) String date) {
+        try {
+            Map<String, WorkloadRegistry.Load> loads =
+                    dailyLoadService.currentLoads(date != null ? LocalDate.parse(date) : null);
 
-                employees.add(employee);
-            }
+            Map<String, Object> employees = new HashMap<>();
+            loads.forEach((employeeId, load) -> employees.put(employeeId, toMap(load)));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("employees", employees);
             response.put("total", employees.size());
             response.put("date", date != null ? date : "all");
+            return ResponseEntity.ok(response);
 
-            log.info("✅ Retrieved {} employees with planning data", employees.size());
+        } catch (Exception e) {
+            log.error("❌ Error reading current loads", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+
+    /**
+     * ⚡ GET CURRENT LOAD - Charge d'un employé, lue en mémoire (pas de requête SQL)
+     */
+    @GetMapping("/{employeeId}/load")
+    public ResponseEntity<Map<String, Object>> getCurrentLoad(
+            @PathVariable String employeeId,
+            @RequestParam(required = false) String date) {
+        try {
+            Optional<WorkloadRegistry.Load> load =
+                    dailyLoadService.currentLoad(employeeId, date != null ? LocalDate.parse(date) : null);
+
+            Map<String, Object> response = new HashMap<>();
+            if (load.isEmpty()) {
+                response.put("success", false);
+                response.put("error", "Workload registry not loaded yet");
+                return ResponseEntity.status(503).body(response);
+            }
+            response.put("success", true);
+            response.put("employeeId", employeeId);
+            response.put("date", date != null ? date : "all");
+            response.put("load", toMap(load.get()));
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
-            log.error("❌ Error fetching employees with planning data", e);
+            log.error("❌ Error reading current load of employee {}", employeeId, e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+
+    private static Map<String, Object> toMap(WorkloadRegistry.Load load) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("totalMinutes", load.totalMinutes());
+        map.put("cardCount", load.cardCount());
+        map.put("taskCount", load.taskCount());
+        map.put("completedMinutes", load.completedMinutes());
+        map.put("completedTasks", load.completedTasks());
+        map.put("remainingMinutes", load.remainingMinutes());
+        return map;
+    }
+
+    /**
+     * 🎓 GET SKILLS - Compétences d'un employé
+     */
+    @GetMapping("/{employeeId}/skills")
+    public ResponseEntity<Map<String, Object>> getSkills(@PathVariable String employeeId) {
+        try {
+            Optional<List<Skill>> skills = employeeSkillService.getSkills(employeeId);
+
+            Map<String, Object> response = new HashMap<>();
+            if (skills.isEmpty()) {
+                response.put("success", false);
+                response.put("error", "Employee not found: " + employeeId);
+                return ResponseEntity.status(404).body(response);
+            }
+            response.put("success", true);
+            response.put("employeeId", employeeId);
+            response.put("skills", skills.get());
+            response.put("availableSkills", Skill.values());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ Error reading skills of employee {}", employeeId, e);
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
             errorResponse.put("error", e.getMessage());
@@ -190,6 +290,49 @@ public class EmployeesPlanningController {
         }
     }
 
+    /**
+     * 🎓 SET SKILLS - Remplace les compétences d'un employé
+     * Body : {"skills": ["ORIGINAL_NAME", "UNSEALING", "MULTI_GRADE", "PHOTO"]}
+     */
+    @PutMapping("/{employeeId}/skills")
+    public ResponseEntity<Map<String, Object>> setSkills(@PathVariable String employeeId,
+                                                         @RequestBody Map<String, Object> request) {
+        Map<String, Object> response = new HashMap<>();
+        List<Skill> skills = new ArrayList<>();
+        try {
+            if (!(request.get("skills") instanceof Collection<?> names)) {
+                throw new IllegalArgumentException("skills must be a list");
+            }
+            for (Object name : names) {
+                skills.add(Skill.valueOf(String.valueOf(name).trim().toUpperCase()));
+            }
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("error", "Invalid skills (" + e.getMessage() + "), expected a list of "
+                    + Arrays.toString(Skill.values()));
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            if (!employeeSkillService.setSkills(employeeId, skills)) {
+                response.put("success", false);
+                response.put("error", "Employee not found: " + employeeId);
+                return ResponseEntity.status(404).body(response);
+            }
+            response.put("success", true);
+            response.put("employeeId", employeeId);
+            response.put("skills", Skill.of(Skill.mask(skills)));
+            response.put("message", "Skills updated");
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ Error updating skills of employee {}", employeeId, e);
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
     /**
      * 👤 GET EMPLOYEE DETAILS - Détail d'un employé spécifique
      */
@@ -198,23 +341,8 @@ public class EmployeesPlanningController {
         try {
             log.info("👤 Fetching details for employee: {}", employeeId);
 
-            String sql = """
-                SELECT 
-                    HEX(e.id) as id,
-                    CONCAT(COALESCE(e.first_name, 'Unknown'), ' ', COALESCE(e.last_name, 'User')) as name,
-                    e.first_name as firstName,
-                    e.last_name as lastName,
-                    e.email,
-                    COALESCE(e.active, 1) as active,
-                    COALESCE(e.work_hours_per_day, 8) as workHoursPerDay,
-                    e.creation_date as creationDate,
-                    e.modification_date as modificationDate
-                FROM j_employee e
-                WHERE HEX(e.id) = ?
-                """;
-
-            Query query = entityManager.createNativeQuery(sql);
-            query.setParameter(1, employeeId.toUpperCase());
+            Query query = entityManager.createNativeQuery(EMPLOYEE_DETAILS_SQL);
+            query.setParameter(1, UlidHelper.idToBytes(employeeId));
 
             @SuppressWarnings("unchecked")
             List<Object[]> results = query.getResultList();
@@ -267,28 +395,10 @@ public class EmployeesPlanningController {
 
             String dateFilter = date != null ? " AND p.planning_date = '" + date + "'" : "";
 
-            String sql = """
-                SELECT 
-                    HEX(p.id) as planningId,
-                    HEX(p.order_id) as orderId,
-                    o.num_commande as orderNumber,
-                    p.planning_date,
-                    p.start_time,
-                    p.estimated_duration_minutes,
-                    p.priority,
-                    p.status,
-                    p.completed,
-                    p.card_count,
-                    p.progress_percentage,
-                    ROUND(p.estimated_duration_minutes / 60.0, 2) as estimatedHours
-                FROM j_planning p
-                LEFT JOIN `order` o ON p.order_id = o.id
-                WHERE HEX(p.employee_id) = ?""" + dateFilter + """
-                ORDER BY p.planning_date ASC, p.start_time ASC
-                """;
+            String sql = EMPLOYEE_ORDERS_SQL + dateFilter + " ORDER BY p.planning_date ASC, p.start_time ASC";
 
             Query query = entityManager.createNativeQuery(sql);
-            query.setParameter(1, employeeId.toUpperCase());
+            query.setParameter(1, UlidHelper.idToBytes(employeeId));
 
             @SuppressWarnings("unchecked")
             List<Object[]> results = query.getResultList();
@@ -349,23 +459,8 @@ public class EmployeesPlanningController {
         try {
             log.info("🃏 Fetching cards for order: {}", orderId);
 
-            String sql = """
-                SELECT 
-                    HEX(cc.id) as id,
-                    cc.code_barre,
-                    COALESCE(ct.name, CONCAT('Card #', cc.code_barre)) as name,
-                    COALESCE(ct.label_name, CONCAT('Label #', cc.code_barre)) as label_name,
-                    3 as duration,
-                    COALESCE(cc.annotation, 0) as amount
-                FROM card_certification_order cco
-                INNER JOIN card_certification cc ON cco.card_certification_id = cc.id
-                LEFT JOIN card_translation ct ON cc.card_id = ct.translatable_id AND ct.locale = 'fr'
-                WHERE HEX(cco.order_id) = ?
-                ORDER BY cc.code_barre ASC
-                """;
-
-            Query query = entityManager.createNativeQuery(sql);
-            query.setParameter(1, orderId.toUpperCase());
+            Query query = entityManager.createNativeQuery(ORDER_CARDS_SQL);
+            query.setParameter(1, UlidHelper.idToBytes(orderId));
 
             @SuppressWarnings("unchecked")
             List<Object[]> results = query.getResultList();
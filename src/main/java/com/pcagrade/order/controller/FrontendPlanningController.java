@@ -1,11 +1,23 @@
 package com.pcagrade.order.controller;
 
+import com.pcagrade.order.dto.EmployeeWorkloadRow;
+import com.pcagrade.order.dto.PlanningRow;
 import com.pcagrade.order.entity.Planning;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pcagrade.order.service.EmployeeDailyLoadService;
+import com.pcagrade.order.service.PlanningResponseCache;
+import com.pcagrade.order.service.PlanningVersionService;
+import com.pcagrade.order.util.UlidHelper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * 🎯 FRONTEND PLANNING CONTROLLER - Version sans conflit
@@ -25,81 +38,53 @@ public class FrontendPlanningController {
 
     private static final Logger log = LoggerFactory.getLogger(FrontendPlanningController.class);
 
+    /**
+     * Plannings of one employee; a day filter and the ORDER BY are appended
+     */
+    public static final String EMPLOYEE_PLANNINGS_SQL = """
+        SELECT
+            HEX(p.id) as id,
+            HEX(p.order_id) as orderId,
+            p.planning_date,
+            p.start_time,
+            p.estimated_duration_minutes,
+            p.priority,
+            p.status,
+            p.completed,
+            p.card_count,
+            p.progress_percentage,
+            o.num_commande as orderNumber,
+            CONCAT(COALESCE(e.first_name, 'Unknown'), ' ', COALESCE(e.last_name, 'User')) as employeeName
+        FROM j_planning p
+        LEFT JOIN `order` o ON p.order_id = o.id
+        LEFT JOIN j_employee e ON p.employee_id = e.id
+        WHERE p.employee_id = ?
+        """;
+
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private EmployeeDailyLoadService dailyLoadService;
+
+    @Autowired
+    private PlanningVersionService planningVersionService;
+
+    @Autowired
+    private PlanningResponseCache responseCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * 📋 GET ALL PLANNINGS - Récupère tous les plannings
+     * Servi depuis le cache tant que le planning n'a pas changé ; 304 si If-None-Match est à jour
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllPlannings() {
+    public ResponseEntity<?> getAllPlannings(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            log.info("📋 Fetching all plannings from j_planning table");
-
-            String sql = """
-                SELECT 
-                    HEX(p.id) as id,
-                    HEX(p.order_id) as orderId,
-                    HEX(p.employee_id) as employeeId,
-                    p.planning_date,
-                    p.start_time,
-                    p.estimated_duration_minutes,
-                    p.priority,
-                    p.status,
-                    p.completed,
-                    p.card_count,
-                    p.progress_percentage,
-                    p.created_at,
-                    p.updated_at,
-                    o.num_commande as orderNumber,
-                    CONCAT(COALESCE(e.first_name, 'Unknown'), ' ', COALESCE(e.last_name, 'User')) as employeeName
-                FROM j_planning p
-                LEFT JOIN `order` o ON p.order_id = o.id  
-                LEFT JOIN j_employee e ON p.employee_id = e.id
-                ORDER BY p.planning_date ASC, p.start_time ASC
-                """;
-
-            Query query = entityManager.createNativeQuery(sql);
-            @SuppressWarnings("unchecked")
-            List<Object[]> results = query.getResultList();
-
-            List<Map<String, Object>> plannings = new ArrayList<>();
-
-            for (Object[] row : results) {
-                Map<String, Object> planning = new HashMap<>();
-                planning.put("id", row[0]);
-                planning.put("orderId", row[1]);
-                planning.put("employeeId", row[2]);
-                planning.put("planningDate", row[3]);
-                planning.put("startTime", row[4]);
-                planning.put("estimatedDurationMinutes", row[5]);
-                planning.put("priority", row[6]);
-                planning.put("status", row[7]);
-                planning.put("completed", row[8]);
-                planning.put("cardCount", row[9]);
-                planning.put("progressPercentage", row[10]);
-                planning.put("createdAt", row[11]);
-                planning.put("updatedAt", row[12]);
-                planning.put("orderNumber", row[13]);
-                planning.put("employeeName", row[14]);
-
-                // Formatted duration
-                Integer duration = (Integer) row[5];
-                if (duration != null) {
-                    planning.put("formattedDuration", formatDuration(duration));
-                    planning.put("estimatedHours", Math.round(duration / 60.0 * 100.0) / 100.0);
-                }
-
-                plannings.add(planning);
-            }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("plannings", plannings);
-            response.put("total", plannings.size());
-
-            log.info("✅ Retrieved {} plannings successfully", plannings.size());
-            return ResponseEntity.ok(response);
+            return cachedJson("all", ifNoneMatch, this::loadAllPlannings);
 
         } catch (Exception e) {
             log.error("❌ Error fetching plannings", e);
@@ -110,92 +95,62 @@ public class FrontendPlanningController {
         }
     }
 
+    private Map<String, Object> loadAllPlannings() {
+        log.info("📋 Fetching all plannings from j_planning table");
+
+        String sql = """
+            SELECT 
+                HEX(p.id) as id,
+                HEX(p.order_id) as orderId,
+                HEX(p.employee_id) as employeeId,
+                p.planning_date,
+                p.start_time,
+                p.estimated_duration_minutes,
+                p.priority,
+                p.status,
+                p.completed,
+                p.card_count,
+                p.progress_percentage,
+                p.created_at,
+                p.updated_at,
+                o.num_commande as orderNumber,
+                CONCAT(COALESCE(e.first_name, 'Unknown'), ' ', COALESCE(e.last_name, 'User')) as employeeName
+            FROM j_planning p
+            LEFT JOIN `order` o ON p.order_id = o.id  
+            LEFT JOIN j_employee e ON p.employee_id = e.id
+            ORDER BY p.planning_date ASC, p.start_time ASC
+            """;
+
+        Query query = entityManager.createNativeQuery(sql);
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = query.getResultList();
+
+        List<PlanningRow> plannings = new ArrayList<>(results.size());
+        for (Object[] row : results) {
+            plannings.add(PlanningRow.fromRow(row));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("plannings", plannings);
+        response.put("total", plannings.size());
+
+        log.info("✅ Retrieved {} plannings successfully", plannings.size());
+        return response;
+    }
+
     /**
      * 👥 GET EMPLOYEE PLANNINGS - Plannings d'un employé spécifique
      */
     @GetMapping("/employee/{employeeId}")
-    public ResponseEntity<Map<String, Object>> getEmployeePlannings(
+    public ResponseEntity<?> getEmployeePlannings(
             @PathVariable String employeeId,
-            @RequestParam(required = false) String date) {
+            @RequestParam(required = false) String date,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         try {
-            log.info("👥 Fetching plannings for employee: {}, date: {}", employeeId, date);
-
-            String sql = """
-                SELECT 
-                    HEX(p.id) as id,
-                    HEX(p.order_id) as orderId,
-                    p.planning_date,
-                    p.start_time,
-                    p.estimated_duration_minutes,
-                    p.priority,
-                    p.status,
-                    p.completed,
-                    p.card_count,
-                    p.progress_percentage,
-                    o.num_commande as orderNumber,
-                    CONCAT(COALESCE(e.first_name, 'Unknown'), ' ', COALESCE(e.last_name, 'User')) as employeeName
-                FROM j_planning p
-                LEFT JOIN `order` o ON p.order_id = o.id  
-                LEFT JOIN j_employee e ON p.employee_id = e.id
-                WHERE HEX(p.employee_id) = ?
-                """ + (date != null ? " AND p.planning_date = ?" : "") + """
-                ORDER BY p.planning_date ASC, p.start_time ASC
-                """;
-
-            Query query = entityManager.createNativeQuery(sql);
-            query.setParameter(1, employeeId.toUpperCase());
-            if (date != null) {
-                query.setParameter(2, LocalDate.parse(date));
-            }
-
-            @SuppressWarnings("unchecked")
-            List<Object[]> results = query.getResultList();
-
-            List<Map<String, Object>> plannings = new ArrayList<>();
-            int totalDuration = 0;
-            int totalCards = 0;
-
-            for (Object[] row : results) {
-                Map<String, Object> planning = new HashMap<>();
-                planning.put("id", row[0]);
-                planning.put("orderId", row[1]);
-                planning.put("planningDate", row[2]);
-                planning.put("startTime", row[3]);
-                planning.put("estimatedDurationMinutes", row[4]);
-                planning.put("priority", row[5]);
-                planning.put("status", row[6]);
-                planning.put("completed", row[7]);
-                planning.put("cardCount", row[8]);
-                planning.put("progressPercentage", row[9]);
-                planning.put("orderNumber", row[10]);
-                planning.put("employeeName", row[11]);
-
-                Integer duration = (Integer) row[4];
-                Integer cardCount = (Integer) row[8];
-
-                if (duration != null) {
-                    planning.put("formattedDuration", formatDuration(duration));
-                    totalDuration += duration;
-                }
-
-                if (cardCount != null) {
-                    totalCards += cardCount;
-                }
-
-                plannings.add(planning);
-            }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("plannings", plannings);
-            response.put("total", plannings.size());
-            response.put("totalDurationMinutes", totalDuration);
-            response.put("totalHours", Math.round(totalDuration / 60.0 * 100.0) / 100.0);
-            response.put("totalCards", totalCards);
-
-            log.info("✅ Retrieved {} plannings for employee {}", plannings.size(), employeeId);
-            return ResponseEntity.ok(response);
+            String key = "employee:" + UlidHelper.toHex(UlidHelper.stringToUuid(employeeId)) + ":" + date;
+            return cachedJson(key, ifNoneMatch, () -> loadEmployeePlannings(employeeId, date));
 
         } catch (Exception e) {
             log.error("❌ Error fetching employee plannings", e);
@@ -206,6 +161,67 @@ public class FrontendPlanningController {
         }
     }
 
+    private Map<String, Object> loadEmployeePlannings(String employeeId, String date) {
+        log.info("👥 Fetching plannings for employee: {}, date: {}", employeeId, date);
+
+        String sql = EMPLOYEE_PLANNINGS_SQL + (date != null ? " AND p.planning_date = ?" : "")
+                + " ORDER BY p.planning_date ASC, p.start_time ASC";
+
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter(1, UlidHelper.idToBytes(employeeId));
+        if (date != null) {
+            query.setParameter(2, LocalDate.parse(date));
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = query.getResultList();
+
+        List<Map<String, Object>> plannings = new ArrayList<>();
+        int totalDuration = 0;
+        int totalCards = 0;
+
+        for (Object[] row : results) {
+            Map<String, Object> planning = new HashMap<>();
+            planning.put("id", row[0]);
+            planning.put("orderId", row[1]);
+            planning.put("planningDate", row[2]);
+            planning.put("startTime", row[3]);
+            planning.put("estimatedDurationMinutes", row[4]);
+            planning.put("priority", row[5]);
+            planning.put("status", row[6]);
+            planning.put("completed", row[7]);
+            planning.put("cardCount", row[8]);
+            planning.put("progressPercentage", row[9]);
+            planning.put("orderNumber", row[10]);
+            planning.put("employeeName", row[11]);
+
+            Integer duration = (Integer) row[4];
+            Integer cardCount = (Integer) row[8];
+
+            if (duration != null) {
+                planning.put("formattedDuration", formatDuration(duration));
+                totalDuration += duration;
+            }
+
+            if (cardCount != null) {
+                totalCards += cardCount;
+            }
+
+            plannings.add(planning);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("plannings", plannings);
+        response.put("total", plannings.size());
+        response.put("totalDurationMinutes", totalDuration);
+        response.put("totalHours", Math.round(totalDuration / 60.0 * 100.0) / 100.0);
+        response.put("totalCards", totalCards);
+
+        log.info("✅ Retrieved {} plannings for employee {}", plannings.size(), employeeId);
+        return response;
+    }
+
     /**
      * 📊 GET EMPLOYEES WITH PLANNING DATA - Employés avec leurs statistiques
      */
@@ -216,60 +232,28 @@ public class FrontendPlanningController {
         try {
             log.info("📊 Fetching employees with planning stats for date: {}", date);
 
-            String dateFilter = date != null ? " AND p.planning_date = '" + date + "'" : "";
-
-            String sql = """
-                SELECT 
-                    HEX(e.id) as employeeId,
-                    CONCAT(COALESCE(e.first_name, 'Unknown'), ' ', COALESCE(e.last_name, 'User')) as name,
-                    e.first_name,
-                    e.last_name,
-                    e.email,
-                    e.active,
-                    COALESCE(e.work_hours_per_day, 8) as workHoursPerDay,
-                    COALESCE(SUM(p.estimated_duration_minutes), 0) as totalMinutes,
-                    COUNT(p.id) as taskCount,
-                    COALESCE(SUM(p.card_count), 0) as cardCount,
-                    ROUND(COALESCE(SUM(p.estimated_duration_minutes), 0) / (COALESCE(e.work_hours_per_day, 8) * 60.0), 2) as workloadRatio
-                FROM j_employee e
-                LEFT JOIN j_planning p ON e.id = p.employee_id""" + dateFilter + """
-                GROUP BY e.id, e.first_name, e.last_name, e.email, e.active, e.work_hours_per_day
-                ORDER BY workloadRatio DESC, name ASC
-                """;
-
-            Query query = entityManager.createNativeQuery(sql);
-            @SuppressWarnings("unchecked")
-            List<Object[]> results = query.getResultList();
-
-            List<Map<String, Object>> employees = new ArrayList<>();
-
-            for (Object[] row : results) {
+            // One row per employee from employee_daily_load (kept up to date by the planning writers)
+            List<EmployeeWorkloadRow> workloads =
+                    dailyLoadService.findWorkloads(date != null ? LocalDate.parse(date) : null);
+
+            List<Map<String, Object>> employees = new ArrayList<>(workloads.size());
+
+            for (EmployeeWorkloadRow row : workloads) {
                 Map<String, Object> employee = new HashMap<>();
-                employee.put("id", row[0]);
-                employee.put("name", row[1]);
-                employee.put("firstName", row[2]);
-                employee.put("lastName", row[3]);
-                employee.put("email", row[4]);
-                employee.put("active", row[5]);
-                employee.put("workHoursPerDay", row[6]);
-                employee.put("totalMinutes", row[7]);
-                employee.put("maxMinutes", ((Number) row[6]).intValue() * 60);
-                employee.put("taskCount", row[8]);
-                employee.put("cardCount", row[9]);
-                employee.put("workloadRatio", row[10]);
-
-                // Status based on workload
-                Double workloadRatio = (Double) row[10];
-                String status;
-                if (workloadRatio >= 1.0) {
-                    status = "overloaded";
-                } else if (workloadRatio >= 0.8) {
-                    status = "busy";
-                } else {
-                    status = "available";
-                }
-                employee.put("status", status);
-                employee.put("available", workloadRatio < 0.8);
+                employee.put("id", row.id());
+                employee.put("name", row.name());
+                employee.put("firstName", row.firstName());
+                employee.put("lastName", row.lastName());
+                employee.put("email", row.email());
+                employee.put("active", row.active());
+                employee.put("workHoursPerDay", row.workHoursPerDay());
+                employee.put("totalMinutes", row.totalMinutes());
+                employee.put("maxMinutes", row.maxMinutes());
+                employee.put("taskCount", row.taskCount());
+                employee.put("cardCount", row.cardCount());
+                employee.put("workloadRatio", row.workload());
+                employee.put("status", row.status());
+                employee.put("available", row.available());
 
                 employees.add(employee);
             }
@@ -308,6 +292,7 @@ public class FrontendPlanningController {
             String deleteSql = "DELETE FROM j_planning";
             Query deleteQuery = entityManager.createNativeQuery(deleteSql);
             int deletedRows = deleteQuery.executeUpdate();
+            dailyLoadService.rebuild();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -328,55 +313,50 @@ public class FrontendPlanningController {
     }
 
     /**
-     * 📈 GET PLANNING STATS - Statistiques globales
+     * 🔁 REBUILD EMPLOYEE DAILY LOAD - Recalcule employee_daily_load depuis j_planning
+     * À appeler après une modification de j_planning faite hors application (script SQL)
      */
-    @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getPlanningStats() {
+    @PostMapping("/daily-load/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildDailyLoad() {
         try {
-            log.info("📈 Fetching planning statistics");
-
-            String sql = """
-                SELECT 
-                    COUNT(*) as totalPlannings,
-                    COUNT(DISTINCT employee_id) as employeesUsed,
-                    COUNT(DISTINCT order_id) as ordersPlanned,
-                    SUM(card_count) as totalCards,
-                    SUM(estimated_duration_minutes) as totalMinutes,
-                    AVG(estimated_duration_minutes) as avgDuration,
-                    COUNT(CASE WHEN status = 'SCHEDULED' THEN 1 END) as scheduled,
-                    COUNT(CASE WHEN status = 'IN_PROGRESS' THEN 1 END) as inProgress,
-                    COUNT(CASE WHEN status = 'COMPLETED' THEN 1 END) as completed,
-                    COUNT(CASE WHEN priority = 'HIGH' THEN 1 END) as highPriority,
-                    MIN(planning_date) as earliestDate,
-                    MAX(planning_date) as latestDate
-                FROM j_planning
-                """;
-
-            Query query = entityManager.createNativeQuery(sql);
-            Object[] result = (Object[]) query.getSingleResult();
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalPlannings", result[0]);
-            stats.put("employeesUsed", result[1]);
-            stats.put("ordersPlanned", result[2]);
-            stats.put("totalCards", result[3]);
-            stats.put("totalMinutes", result[4]);
-            stats.put("totalHours", result[4] != null ? Math.round(((Number) result[4]).doubleValue() / 60.0 * 100.0) / 100.0 : 0);
-            stats.put("avgDuration", result[5] != null ? Math.round(((Number) result[5]).doubleValue() * 100.0) / 100.0 : 0);
-            stats.put("scheduled", result[6]);
-            stats.put("inProgress", result[7]);
-            stats.put("completed", result[8]);
-            stats.put("highPriority", result[9]);
-            stats.put("earliestDate", result[10]);
-            stats.put("latestDate", result[11]);
+            int rows = dailyLoadService.rebuild();
 
-            Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>(dailyLoadService.getStatus());
             response.put("success", true);
-            response.put("stats", stats);
-
-            log.info("✅ Planning stats retrieved successfully");
+            response.put("message", "Employee daily load rebuilt");
+            response.put("rows", rows);
             return ResponseEntity.ok(response);
 
+        } catch (Exception e) {
+            log.error("❌ Error rebuilding employee daily load", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+
+    /**
+     * 🔢 PLANNING VERSION - version courante et état du cache des réponses
+     */
+    @GetMapping("/version")
+    public ResponseEntity<Map<String, Object>> getPlanningVersion() {
+        Map<String, Object> response = new HashMap<>(planningVersionService.getStatus());
+        response.put("success", true);
+        response.put("version", planningVersionService.current());
+        response.put("responseCache", responseCache.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 📈 GET PLANNING STATS - Statistiques globales
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getPlanningStats(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return cachedJson("stats", ifNoneMatch, this::loadPlanningStats);
+
         } catch (Exception e) {
             log.error("❌ Error fetching planning stats", e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -386,8 +366,85 @@ public class FrontendPlanningController {
         }
     }
 
+    private Map<String, Object> loadPlanningStats() {
+        log.info("📈 Fetching planning statistics");
+
+        String sql = """
+            SELECT 
+                COUNT(*) as totalPlannings,
+                COUNT(DISTINCT employee_id) as employeesUsed,
+                COUNT(DISTINCT order_id) as ordersPlanned,
+                SUM(card_count) as totalCards,
+                SUM(estimated_duration_minutes) as totalMinutes,
+                AVG(estimated_duration_minutes) as avgDuration,
+                COUNT(CASE WHEN status = 'SCHEDULED' THEN 1 END) as scheduled,
+                COUNT(CASE WHEN status = 'IN_PROGRESS' THEN 1 END) as inProgress,
+                COUNT(CASE WHEN status = 'COMPLETED' THEN 1 END) as completed,
+                COUNT(CASE WHEN priority = 'HIGH' THEN 1 END) as highPriority,
+                MIN(planning_date) as earliestDate,
+                MAX(planning_date) as latestDate
+            FROM j_planning
+            """;
+
+        Query query = entityManager.createNativeQuery(sql);
+        Object[] result = (Object[]) query.getSingleResult();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalPlannings", result[0]);
+        stats.put("employeesUsed", result[1]);
+        stats.put("ordersPlanned", result[2]);
+        stats.put("totalCards", result[3]);
+        stats.put("totalMinutes", result[4]);
+        stats.put("totalHours", result[4] != null ? Math.round(((Number) result[4]).doubleValue() / 60.0 * 100.0) / 100.0 : 0);
+        stats.put("avgDuration", result[5] != null ? Math.round(((Number) result[5]).doubleValue() * 100.0) / 100.0 : 0);
+        stats.put("scheduled", result[6]);
+        stats.put("inProgress", result[7]);
+        stats.put("completed", result[8]);
+        stats.put("highPriority", result[9]);
+        stats.put("earliestDate", result[10]);
+        stats.put("latestDate", result[11]);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("stats", stats);
+
+        log.info("✅ Planning stats retrieved successfully");
+        return response;
+    }
+
     // ========== UTILITY METHODS ==========
 
+    /**
+     * 🗃️ Read served by planning version: 304 when the client's ETag is current, otherwise the
+     * bytes serialized once for this filter and version (loader runs on a miss only)
+     */
+    private ResponseEntity<?> cachedJson(String key, String ifNoneMatch, Supplier<Map<String, Object>> loader) {
+        long version = planningVersionService.current();
+        if (version < 0) {
+            return ResponseEntity.ok(loader.get());
+        }
+
+        String etag = PlanningResponseCache.etag(version);
+        if (PlanningResponseCache.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        PlanningResponseCache.Entry entry = responseCache.get(key, version, () -> toJson(loader.get()));
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.body());
+    }
+
+    private byte[] toJson(Map<String, Object> response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize planning response", e);
+        }
+    }
+
     private String formatDuration(int minutes) {
         if (minutes < 60) {
             return minutes + "min";
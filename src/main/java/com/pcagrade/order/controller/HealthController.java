@@ -1,5 +1,7 @@
 package com.pcagrade.order.controller;
 
+import com.pcagrade.order.config.DbConcurrencyFilter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +11,9 @@ import java.util.HashMap;
 @RestController
 public class HealthController {
 
+    @Autowired
+    private DbConcurrencyFilter dbConcurrencyFilter;
+
     @GetMapping("/api/health")
     public ResponseEntity<Map<String, String>> health() {
         Map<String, String> status = new HashMap<>();
@@ -17,6 +22,16 @@ public class HealthController {
         return ResponseEntity.ok(status);
     }
 
+    /**
+     * 🚦 Database limiter: permits in use, requests waiting, queue time vs database time per endpoint class
+     */
+    @GetMapping("/api/health/db-limiter")
+    public ResponseEntity<Map<String, Object>> dbLimiter() {
+        Map<String, Object> response = new HashMap<>(dbConcurrencyFilter.getStatus());
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> simpleHealth() {
         Map<String, String> status = new HashMap<>();
@@ -6,24 +6,60 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pcagrade.order.dto.PlanningOrderRow;
+import com.pcagrade.order.service.OrderFeedCursor;
+import com.pcagrade.order.service.OrderFeedService;
+import com.pcagrade.order.service.OrderSearchService;
 import com.pcagrade.order.service.OrderService;
+import com.pcagrade.order.util.UlidHelper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import com.github.f4b6a3.ulid.Ulid;
 import com.pcagrade.order.entity.Order;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
+
+    /**
+     * Cards of one order
+     */
+    public static final String ORDER_CARDS_SQL = """
+        SELECT
+            HEX(cc.id) as cardId,
+            cc.barcode as barcode,
+            COALESCE(cc.type, 'Pokemon') as type,
+            cc.card_id as cardId,
+            COALESCE(cc.annotation, '') as annotation,
+            COALESCE(ct.name, CONCAT('Pokemon Card ', cc.barcode)) as name
+        FROM card_certification_order cco
+        INNER JOIN card_certification cc ON cco.card_certification_id = cc.id
+        LEFT JOIN card_translation ct ON cc.card_id = ct.translatable_id
+        WHERE cco.order_id = ?
+        """;
+
     @Autowired
     private OrderService orderService;
 
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private OrderFeedService orderFeedService;
+
+    @Autowired
+    private OrderSearchService orderSearchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * GET /api/orders - Main endpoint for orders (expected by frontend)
      */
@@ -64,22 +100,8 @@ public class OrderController {
         try {
             System.out.println("🃏 Frontend: Retrieving cards for order: " + id);
 
-            String sql = """
-            SELECT 
-                HEX(cc.id) as cardId,
-                cc.barcode as barcode,
-                COALESCE(cc.type, 'Pokemon') as type,
-                cc.card_id as cardId,
-                COALESCE(cc.annotation, '') as annotation,
-                COALESCE(ct.name, CONCAT('Pokemon Card ', cc.barcode)) as name
-            FROM card_certification_order cco
-            INNER JOIN card_certification cc ON cco.card_certification_id = cc.id
-            LEFT JOIN card_translation ct ON cc.card_id = ct.translatable_id 
-            WHERE HEX(cco.order_id) = ?
-            """;
-
-            Query query = entityManager.createNativeQuery(sql);
-            query.setParameter(1, id.replace("-", ""));
+            Query query = entityManager.createNativeQuery(ORDER_CARDS_SQL);
+            query.setParameter(1, UlidHelper.idToBytes(id));
 
             @SuppressWarnings("unchecked")
             List<Object[]> results = query.getResultList();
@@ -120,17 +142,8 @@ public class OrderController {
         try {
             System.out.println("📋 Retrieving all orders - page: " + page + ", size: " + size);
 
-            List<Map<String, Object>> orders = orderService.getAllOrdersAsMap();
-
-            // Simple pagination
-            int start = page * size;
-            int end = Math.min(start + size, orders.size());
-
-            if (start >= orders.size()) {
-                return ResponseEntity.ok(new ArrayList<>());
-            }
-
-            List<Map<String, Object>> paginatedOrders = orders.subList(start, end);
+            // Page lue en base (LIMIT/OFFSET), plus de findAll() en mémoire
+            List<Map<String, Object>> paginatedOrders = orderService.getOrdersPageAsMap(page, size);
 
             System.out.println("✅ Returning " + paginatedOrders.size() + " orders (page " + page + ")");
             return ResponseEntity.ok(paginatedOrders);
@@ -142,18 +155,81 @@ public class OrderController {
         }
     }
 
+    /**
+     * 📡 GET /api/orders/feed - all orders in (date, id) order, streamed
+     * Params: since=2025-06-01 (optional), cursor=<nextCursor of the previous call>, limit (max 100000),
+     * format=ndjson (one order per line, then a last line {"count":n,"nextCursor":...})
+     * or format=json ({"orders":[...],"count":n,"nextCursor":...}).
+     * nextCursor is null once the end of the table is reached.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<StreamingResponseBody> getOrderFeed(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + OrderFeedService.DEFAULT_LIMIT) int limit,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        LocalDate sinceDate;
+        OrderFeedCursor after;
+        try {
+            sinceDate = since != null && !since.isBlank() ? LocalDate.parse(since) : null;
+            after = cursor != null && !cursor.isBlank() ? OrderFeedCursor.decode(cursor) : null;
+        } catch (Exception e) {
+            Map<String, Object> error = Map.of("success", false, "message", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+
+        if ("json".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> {
+                        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+                        json.writeStartObject();
+                        json.writeArrayFieldStart("orders");
+                        int[] count = {0};
+                        OrderFeedCursor next = orderFeedService.stream(sinceDate, after, limit, order -> {
+                            objectMapper.writeValue(json, order);
+                            count[0]++;
+                        });
+                        json.writeEndArray();
+                        json.writeNumberField("count", count[0]);
+                        json.writeStringField("nextCursor", next != null ? next.encode() : null);
+                        json.writeEndObject();
+                        json.flush();
+                    });
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> {
+                    int[] count = {0};
+                    OrderFeedCursor next = orderFeedService.stream(sinceDate, after, limit, order -> {
+                        out.write(objectMapper.writeValueAsBytes(order));
+                        out.write('\n');
+                        count[0]++;
+                    });
+                    Map<String, Object> trailer = new HashMap<>();
+                    trailer.put("count", count[0]);
+                    trailer.put("nextCursor", next != null ? next.encode() : null);
+                    out.write(objectMapper.writeValueAsBytes(trailer));
+                    out.write('\n');
+                    out.flush();
+                });
+    }
+
     /**
      * Get orders for planning since a specific date
      */
     @GetMapping("/planning")
-    public ResponseEntity<List<Map<String, Object>>> getOrdersForPlanning(
+    public ResponseEntity<List<PlanningOrderRow>> getOrdersForPlanning(
             @RequestParam int day,
             @RequestParam int month,
             @RequestParam int year) {
         try {
             System.out.println("📋 Retrieving orders for planning since: " + day + "/" + month + "/" + year);
 
-            List<Map<String, Object>> orders = orderService.getOrdersForPlanning(day, month, year);
+            List<PlanningOrderRow> orders = orderService.getOrdersForPlanning(day, month, year);
 
             System.out.println("✅ " + orders.size() + " orders found for planning");
             return ResponseEntity.ok(orders);
@@ -195,9 +271,12 @@ public class OrderController {
     public ResponseEntity<List<Map<String, Object>>> searchOrders(
             @RequestParam(required = false) String searchTerm,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String priority) {
+            @RequestParam(required = false) String priority,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            System.out.println("🔍 Searching orders with criteria: " + searchTerm + ", " + status + ", " + priority);
+            System.out.println("🔍 Searching orders with criteria: " + searchTerm + ", " + status + ", " + priority
+                    + " (page " + page + ", size " + size + ")");
 
             // Convert string parameters to enums if provided
             Order.OrderStatus orderStatus = null;
@@ -218,25 +297,28 @@ public class OrderController {
                 }
             }
 
-            List<Order> orders = orderService.searchOrders(searchTerm, orderStatus, orderPriority);
-            List<Map<String, Object>> orderMaps = orders.stream()
+            OrderSearchService.SearchResult result = orderService.searchOrders(searchTerm, orderStatus, orderPriority, page, size);
+            List<Map<String, Object>> orderMaps = result.orders().stream()
                     .map(order -> {
-                        Map<String, Object> orderMap = Map.of(
-                                "id", order.getId().toString(),
-                                "orderNumber", order.getOrderNumber(),
-                                "customerName", order.getCustomerName(),
-                                "orderDate", order.getOrderDate(),
-                                "status", order.getStatus().name(),
-                                "priority", order.getPriority().name(),
-                                "cardCount", order.getCardCount(),
-                                "totalPrice", order.getTotalPrice()
-                        );
+                        // HashMap: customerName, status... may be null
+                        Map<String, Object> orderMap = new HashMap<>();
+                        orderMap.put("id", order.getId().toString());
+                        orderMap.put("orderNumber", order.getOrderNumber());
+                        orderMap.put("customerName", order.getCustomerName());
+                        orderMap.put("orderDate", order.getOrderDate());
+                        orderMap.put("status", order.getStatus() != null ? order.getStatus().name() : null);
+                        orderMap.put("priority", order.getPriority() != null ? order.getPriority().name() : null);
+                        orderMap.put("cardCount", order.getCardCount());
+                        orderMap.put("totalPrice", order.getTotalPrice());
                         return orderMap;
                     })
                     .toList();
 
-            System.out.println("✅ " + orderMaps.size() + " orders found matching criteria");
-            return ResponseEntity.ok(orderMaps);
+            System.out.println("✅ " + orderMaps.size() + "/" + result.total() + " orders found matching criteria"
+                    + (result.indexed() ? "" : " (database fallback, index not ready)"));
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(result.total()))
+                    .body(orderMaps);
 
         } catch (Exception e) {
             System.err.println("❌ Error searching orders: " + e.getMessage());
@@ -245,6 +327,14 @@ public class OrderController {
         }
     }
 
+    /**
+     * State of the in-memory search index
+     */
+    @GetMapping("/search/status")
+    public ResponseEntity<Map<String, Object>> getSearchStatus() {
+        return ResponseEntity.ok(orderSearchService.getStatus());
+    }
+
     // ===============================================
 // AJOUTEZ CETTE MÉTHODE À VOTRE CONTROLLER EXISTANT
 // ===============================================
@@ -252,61 +342,36 @@ public class OrderController {
     /**
      * 📦 ENDPOINT ORDERS SINCE JUNE 1, 2025 (ENGLISH)
      *
-     * Returns real orders from database where date >= '2025-06-01'
+     * Returns real orders from database where date >= '2025-06-01', newest first
      * This uses the 'date' field which is the order creation date
+     * At most `limit` orders per call (max 100000), read by keyset pages; when more remain the
+     * X-Next-Cursor header holds the cursor to send back for the next (older) ones.
      */
     @GetMapping("/api/orders/since-june-2025")
-    public ResponseEntity<List<Map<String, Object>>> getOrdersSinceJune2025() {
+    public ResponseEntity<List<Map<String, Object>>> getOrdersSinceJune2025(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + OrderFeedService.DEFAULT_LIMIT) int limit) {
+        OrderFeedCursor after;
         try {
-            System.out.println("📦 === ORDERS SINCE JUNE 1, 2025 ===");
-
-            // SQL query to get orders since June 1, 2025
-            String sqlOrders = """
-            SELECT 
-                HEX(o.id) as id,
-                o.num_commande as orderNumber,
-                COALESCE(o.priorite_string, 'MEDIUM') as priority,
-                o.status,
-                DATE(o.date) as creationDate,
-                o.date as fullTimestamp,
-                COALESCE(o.temps_estime_minutes, 0) as estimatedTimeMinutes,
-                COALESCE(o.prix_total, 0) as totalPrice,
-                (SELECT COUNT(*) FROM j_certification c WHERE c.order_id = o.id) as cardCount,
-                (SELECT COUNT(*) FROM j_certification c WHERE c.order_id = o.id AND c.nom IS NOT NULL AND c.nom != '') as cardsWithName
-            FROM `order` o 
-            WHERE o.date >= '2025-06-01'
-            ORDER BY o.date DESC
-        """;
+            after = cursor != null && !cursor.isBlank() ? OrderFeedCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ArrayList<>());
+        }
 
-            Query query = entityManager.createNativeQuery(sqlOrders);
-            @SuppressWarnings("unchecked")
-            List<Object[]> results = query.getResultList();
+        try {
+            System.out.println("📦 === ORDERS SINCE JUNE 1, 2025 ===");
 
             List<Map<String, Object>> orders = new ArrayList<>();
-
-            for (Object[] row : results) {
-                Map<String, Object> order = new HashMap<>();
-
-                // Basic order info
-                order.put("id", row[0]);
-                order.put("orderNumber", row[1]);
-                order.put("priority", row[2]);
-                order.put("status", mapStatusToText((Number) row[3]));
-                order.put("creationDate", row[4]);
-                order.put("fullTimestamp", row[5]);
-                order.put("estimatedTimeMinutes", row[6]);
-                order.put("totalPrice", row[7]);
+            OrderFeedCursor next = orderFeedService.streamNewestFirst(LocalDate.of(2025, 6, 1), after, limit, row -> {
+                Map<String, Object> order = new HashMap<>(row);
+                order.put("status", mapStatusToText((Number) row.get("status")));
 
                 // Card statistics
-                Number cardCount = (Number) row[8];
-                Number cardsWithName = (Number) row[9];
-
-                order.put("cardCount", cardCount.intValue());
-                order.put("cardsWithName", cardsWithName.intValue());
+                int cardCount = (Integer) row.get("cardCount");
+                int cardsWithName = (Integer) row.get("cardsWithName");
 
                 // Calculate percentage
-                double namePercentage = cardCount.intValue() > 0 ?
-                        (cardsWithName.doubleValue() / cardCount.doubleValue()) * 100 : 0;
+                double namePercentage = cardCount > 0 ? ((double) cardsWithName / cardCount) * 100 : 0;
                 order.put("namePercentage", Math.round(namePercentage));
 
                 // Quality indicator
@@ -319,21 +384,21 @@ public class OrderController {
                 }
 
                 // Additional fields for frontend compatibility
-                order.put("estimatedTimeHours", String.format("%.1fh", ((Number) row[6]).doubleValue() / 60));
-                order.put("orderDate", row[4]); // Same as creationDate
-                order.put("deadline", calculateDeadline((String) row[4])); // Creation date + 7 days
+                order.put("estimatedTimeHours", String.format("%.1fh", ((Number) row.get("estimatedTimeMinutes")).doubleValue() / 60));
+                order.put("orderDate", row.get("creationDate")); // Same as creationDate
+                order.put("deadline", calculateDeadline((String) row.get("creationDate"))); // Creation date + 7 days
 
                 orders.add(order);
-            }
+            });
 
-            System.out.println("✅ Found " + orders.size() + " orders since June 1, 2025");
+            System.out.println("✅ Found " + orders.size() + " orders since June 1, 2025"
+                    + (next != null ? " (more available)" : ""));
 
-            // Log sample for debugging
-            if (!orders.isEmpty()) {
-                System.out.println("📋 Sample order: " + orders.get(0));
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (next != null) {
+                response.header("X-Next-Cursor", next.encode());
             }
-
-            return ResponseEntity.ok(orders);
+            return response.body(orders);
 
         } catch (Exception e) {
             System.err.println("❌ Error getting orders since June 2025: " + e.getMessage());
@@ -0,0 +1,113 @@
+package com.pcagrade.order.controller;
+
+import com.pcagrade.order.service.PlanningSnapshotCache;
+import com.pcagrade.order.service.planning.PlanningAlgorithm;
+import com.pcagrade.order.service.planning.PlanningAlgorithmRegistry;
+import com.pcagrade.order.service.planning.PlanningRun;
+import com.pcagrade.order.service.planning.PlanningSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 🧪 PLANNING ALGORITHMS - liste et comparaison des algorithmes de planification
+ * Les algorithmes tournent sur le même snapshot en mémoire, sans écriture en base
+ */
+@RestController
+@RequestMapping("/api/planning/algorithms")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class PlanningAlgorithmController {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanningAlgorithmController.class);
+
+    private static final int DEFAULT_MAX_ORDERS = 1000;
+
+    @Autowired
+    private PlanningAlgorithmRegistry algorithmRegistry;
+
+    @Autowired
+    private PlanningSnapshotCache snapshotCache;
+
+    /**
+     * 📋 Available algorithms
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> listAlgorithms() {
+        List<Map<String, Object>> algorithms = new ArrayList<>();
+        for (PlanningAlgorithm algorithm : algorithmRegistry.all()) {
+            Map<String, Object> info = new HashMap<>();
+            info.put("name", algorithm.name());
+            info.put("description", algorithm.description());
+            algorithms.add(info);
+        }
+        return ResponseEntity.ok(algorithms);
+    }
+
+    /**
+     * ⚖️ Run several algorithms side by side on the same snapshot
+     * Body: { "startDate": "2025-06-01", "algorithms": ["round-robin", "least-loaded"],
+     *         "maxOrders": 1000, "timePerCard": 3, "includePlanned": false }
+     * Nothing is written to j_planning.
+     */
+    @PostMapping("/compare")
+    public ResponseEntity<Map<String, Object>> compareAlgorithms(@RequestBody Map<String, Object> request) {
+        Map<String, Object> result = new HashMap<>();
+
+        try {
+            LocalDate startDate = LocalDate.parse((String) request.getOrDefault("startDate", "2025-06-01"));
+            int maxOrders = request.containsKey("maxOrders") ?
+                    Integer.parseInt(request.get("maxOrders").toString()) : DEFAULT_MAX_ORDERS;
+            int timePerCard = request.containsKey("timePerCard") ?
+                    Integer.parseInt(request.get("timePerCard").toString()) : 3;
+            boolean includePlanned = Boolean.parseBoolean(String.valueOf(request.getOrDefault("includePlanned", false)));
+
+            List<String> names = new ArrayList<>();
+            Object requested = request.get("algorithms");
+            if (requested instanceof List<?> list && !list.isEmpty()) {
+                list.forEach(name -> names.add(name.toString()));
+            } else {
+                names.addAll(algorithmRegistry.names());
+            }
+            List<PlanningAlgorithm> algorithms = new ArrayList<>();
+            for (String name : names) {
+                algorithms.add(algorithmRegistry.get(name));
+            }
+
+            PlanningSnapshot snapshot = snapshotCache.snapshot(startDate, maxOrders, timePerCard, includePlanned);
+            log.info("⚖️ Comparing {} on {} orders / {} employees",
+                    names, snapshot.tasks().size(), snapshot.workers().size());
+
+            List<Map<String, Object>> runs = new ArrayList<>();
+            for (PlanningAlgorithm algorithm : algorithms) {
+                PlanningRun run = PlanningRun.execute(algorithm, snapshot);
+                runs.add(run.summary());
+                log.info("⚖️ {}: makespan {} min, imbalance {}, {} late, {} ms CPU",
+                        run.algorithm(), run.metrics().makespanMinutes(), run.metrics().loadImbalance(),
+                        run.metrics().lateOrders(), run.summary().get("cpuMillis"));
+            }
+
+            result.put("success", true);
+            result.put("startDate", startDate.toString());
+            result.put("orders", snapshot.tasks().size());
+            result.put("employees", snapshot.workers().size());
+            result.put("snapshotVersion", snapshotCache.version());
+            result.put("runs", runs);
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(result);
+        } catch (Exception e) {
+            log.error("❌ Algorithm comparison failed: {}", e.getMessage(), e);
+            result.put("success", false);
+            result.put("message", "Comparison failed: " + e.getMessage());
+            return ResponseEntity.ok(result);
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.pcagrade.order.controller;
 
+import com.pcagrade.order.service.EmployeeDailyLoadService;
 import com.pcagrade.order.service.EmployeeService;
 import com.pcagrade.order.service.GreedyPlanningService;
+import com.pcagrade.order.service.IncrementalPlanningService;
+import com.pcagrade.order.service.PlanningJobService;
 import com.pcagrade.order.service.PlanningService;
+import com.pcagrade.order.service.PlanningSnapshotCache;
+import com.pcagrade.order.service.planning.LeastLoadedAlgorithm;
+import com.pcagrade.order.util.UlidFactory;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.slf4j.Logger;
@@ -21,6 +27,11 @@ import java.util.*;
 public class PlanningControllerOld {
     private static final Logger log = LoggerFactory.getLogger(PlanningControllerOld.class);
 
+    /**
+     * Upper bound of the local search budget of one request
+     */
+    private static final long MAX_OPTIMIZE_MILLIS = 60_000;
+
     @Autowired
     private EntityManager entityManager;
 
@@ -33,16 +44,43 @@ public class PlanningControllerOld {
     @Autowired
     private GreedyPlanningService greedyPlanningService; // Alternative
 
+    @Autowired
+    private IncrementalPlanningService incrementalPlanningService;
+
+    @Autowired
+    private PlanningSnapshotCache snapshotCache;
+
+    @Autowired
+    private EmployeeDailyLoadService dailyLoadService;
+
+    @Autowired
+    private PlanningJobService planningJobService;
+
     /**
      * 🎯 ENDPOINT PRINCIPAL - Utilise PlanningService existant
      */
     /**
      * 🎯 ENDPOINT FINAL QUI FONCTIONNE
+     * Synchronous by default: it plans at most 10 orders, and the frontend reads this body.
+     * With "async": true the run goes through the planning job queue (least-loaded, like
+     * PlanningService.generatePlanningBatch) and the response is the job's 202.
      */
     @PostMapping("/generate")
     public ResponseEntity<Map<String, Object>> generatePlanning(@RequestBody Map<String, Object> request) {
         Map<String, Object> result = new HashMap<>();
 
+        if (Boolean.TRUE.equals(request.get("async"))) {
+            if (Boolean.TRUE.equals(request.get("cleanFirst"))) {
+                result.put("success", false);
+                result.put("message", "cleanFirst cannot be combined with async");
+                return ResponseEntity.badRequest().body(result);
+            }
+            Map<String, Object> job = new HashMap<>(request);
+            job.putIfAbsent("startDate", "2025-07-01");
+            job.putIfAbsent("algorithm", LeastLoadedAlgorithm.NAME);
+            return PlanningJobController.queue(planningJobService, job);
+        }
+
         try {
             log.info("🎯 FINAL WORKING PLANNING GENERATION");
 
@@ -139,7 +177,7 @@ public class PlanningControllerOld {
                     int durationMinutes = cardCount * timePerCard;
                     LocalDateTime startTime = LocalDate.parse(startDate).atTime(9, 0).plusHours(i);
 
-                    String planningId = UUID.randomUUID().toString().replace("-", "");
+                    String planningId = UlidFactory.nextHex();
 
                     // ========== MOST BASIC INSERT POSSIBLE ==========
                     String insertQuery = """
@@ -214,6 +252,9 @@ public class PlanningControllerOld {
                 }
             }
 
+            // Lignes écrites une par une : recalcul complet de employee_daily_load
+            dailyLoadService.rebuild();
+
             // ========== FINAL VERIFICATION ==========
             Query finalCountQ = entityManager.createNativeQuery("SELECT COUNT(*) FROM j_planning");
             Number totalPlannings = (Number) finalCountQ.getSingleResult();
@@ -257,6 +298,141 @@ public class PlanningControllerOld {
         }
     }
 
+    /**
+     * 📆 PLANIFICATION GREEDY SUR UNE PÉRIODE
+     * Body: { "from": "2025-07-01", "to": "2025-07-31" }
+     * Les employés sont planifiés en parallèle, l'écriture est faite en un seul lot
+     */
+    @PostMapping("/greedy/range")
+    public ResponseEntity<Map<String, Object>> generateGreedyRange(@RequestBody Map<String, Object> request) {
+        try {
+            LocalDate from = LocalDate.parse((String) request.get("from"));
+            LocalDate to = request.containsKey("to") ? LocalDate.parse((String) request.get("to")) : from;
+
+            log.info("📆 Greedy range planning {} → {}", from, to);
+            return ResponseEntity.ok(greedyPlanningService.executeGreedyPlanningRange(from, to));
+
+        } catch (Exception e) {
+            log.error("❌ Greedy range planning failed: {}", e.getMessage(), e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Invalid range request: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * ⏰ PLANIFICATION PAR ÉCHÉANCE (EDF)
+     * Body: { "from": "2025-07-01", "maxOrders": 500, "optimizeMillis": 2000 }
+     * Les commandes non planifiées sont prises par date d'échéance (code délai), puis priorité
+     * optimizeMillis > 0 : recherche locale (recuit simulé) sur le résultat, dans ce budget
+     */
+    @PostMapping("/greedy/deadline")
+    public ResponseEntity<Map<String, Object>> generateDeadlinePlanning(@RequestBody Map<String, Object> request) {
+        try {
+            LocalDate from = request.containsKey("from") ? LocalDate.parse((String) request.get("from")) : LocalDate.now();
+            int maxOrders = request.containsKey("maxOrders") ?
+                    Integer.parseInt(request.get("maxOrders").toString()) : 500;
+            long optimizeMillis = request.containsKey("optimizeMillis") ?
+                    Long.parseLong(request.get("optimizeMillis").toString()) : 0;
+            if (optimizeMillis < 0 || optimizeMillis > MAX_OPTIMIZE_MILLIS) {
+                throw new IllegalArgumentException("optimizeMillis must be between 0 and " + MAX_OPTIMIZE_MILLIS);
+            }
+
+            log.info("⏰ EDF planning from {} (max {} orders, optimize {} ms)", from, maxOrders, optimizeMillis);
+            return ResponseEntity.ok(greedyPlanningService.executeDeadlinePlanning(from, maxOrders, optimizeMillis));
+
+        } catch (Exception e) {
+            log.error("❌ EDF planning failed: {}", e.getMessage(), e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Invalid deadline planning request: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * ⚖️ PLANIFICATION ÉQUILIBRÉE (LPT)
+     * Body: { "from": "2025-07-01", "maxOrders": 500 }
+     * Les plus grosses commandes d'abord, chacune au grader le moins chargé
+     */
+    @PostMapping("/greedy/balanced")
+    public ResponseEntity<Map<String, Object>> generateBalancedPlanning(@RequestBody Map<String, Object> request) {
+        try {
+            LocalDate from = request.containsKey("from") ? LocalDate.parse((String) request.get("from")) : LocalDate.now();
+            int maxOrders = request.containsKey("maxOrders") ?
+                    Integer.parseInt(request.get("maxOrders").toString()) : 500;
+
+            log.info("⚖️ LPT planning from {} (max {} orders)", from, maxOrders);
+            return ResponseEntity.ok(greedyPlanningService.executeBalancedPlanning(from, maxOrders));
+
+        } catch (Exception e) {
+            log.error("❌ LPT planning failed: {}", e.getMessage(), e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Invalid balanced planning request: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * 🔁 PLANIFICATION INCRÉMENTALE
+     * Body: { "added": ["<orderId hex>", ...], "removed": ["<orderId hex>", ...] }
+     * Seules les lignes concernées sont insérées, déplacées ou supprimées
+     */
+    @PostMapping("/incremental")
+    public ResponseEntity<Map<String, Object>> applyIncrementalPlanning(@RequestBody Map<String, Object> request) {
+        try {
+            List<String> added = toIdList(request.get("added"));
+            List<String> removed = toIdList(request.get("removed"));
+
+            return ResponseEntity.ok(incrementalPlanningService.applyDelta(added, removed));
+
+        } catch (Exception e) {
+            log.error("❌ Incremental planning failed: {}", e.getMessage(), e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Incremental planning failed: " + e.getMessage());
+            return ResponseEntity.ok(error);
+        }
+    }
+
+    /**
+     * 🧊 Planning snapshot cache status (orders, employees, version, age)
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getSnapshotCacheStatus() {
+        return ResponseEntity.ok(snapshotCache.getStatus());
+    }
+
+    /**
+     * 🧊 Reload the planning snapshot cache, after changes made outside the services (imports, scripts)
+     */
+    @PostMapping("/cache/refresh")
+    public ResponseEntity<Map<String, Object>> refreshSnapshotCache() {
+        try {
+            snapshotCache.refresh();
+            Map<String, Object> result = new HashMap<>(snapshotCache.getStatus());
+            result.put("success", true);
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            log.error("❌ Planning cache refresh failed: {}", e.getMessage(), e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Cache refresh failed: " + e.getMessage());
+            return ResponseEntity.ok(error);
+        }
+    }
+
+    private static List<String> toIdList(Object value) {
+        List<String> ids = new ArrayList<>();
+        if (value instanceof List<?> list) {
+            list.forEach(id -> ids.add(id.toString()));
+        }
+        return ids;
+    }
+
     /**
      * 🔍 DIAGNOSTIC - Analyser les services disponibles
      */
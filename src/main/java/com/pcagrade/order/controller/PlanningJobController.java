@@ -0,0 +1,196 @@
+package com.pcagrade.order.controller;
+
+import com.pcagrade.order.service.PlanningJobService;
+import com.pcagrade.order.service.job.JobEvent;
+import com.pcagrade.order.service.job.PlanningJob;
+import com.pcagrade.order.service.planning.EarliestDeadlineFirstAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 🧵 PLANNING JOBS - planification asynchrone
+ * POST rend un jobId tout de suite (202) ; la progression se suit en Server-Sent Events sur
+ * /{jobId}/events (phase, progress, done), le résultat se lit sur /{jobId}/result.
+ */
+@RestController
+@RequestMapping("/api/planning/jobs")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class PlanningJobController {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanningJobController.class);
+
+    @Autowired
+    private PlanningJobService planningJobService;
+
+    @Value("${planning.jobs.sse-timeout-ms:1800000}")
+    private long sseTimeoutMillis;
+
+    /**
+     * 🚀 Submit a planning run
+     * Body: { "startDate": "2025-06-01", "algorithm": "edf", "maxOrders": 100000, "timePerCard": 3 }
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submit(@RequestBody(required = false) Map<String, Object> request) {
+        return queue(planningJobService, request != null ? request : Map.of());
+    }
+
+    /**
+     * Submit body, 202 with the job links (also used by POST /api/planning/generate with "async")
+     */
+    static ResponseEntity<Map<String, Object>> queue(PlanningJobService planningJobService, Map<String, Object> body) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            PlanningJob job = planningJobService.submit(toJobRequest(body));
+
+            response.put("success", true);
+            response.put("message", "Planning job queued");
+            response.put("jobId", job.id());
+            response.put("status", job.status().name());
+            response.put("events", "/api/planning/jobs/" + job.id() + "/events");
+            response.put("result", "/api/planning/jobs/" + job.id() + "/result");
+            return ResponseEntity.accepted().body(response);
+
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            response.put("success", false);
+            response.put("message", "Invalid job request: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (RejectedExecutionException e) {
+            response.put("success", false);
+            response.put("message", "Too many planning jobs waiting: " + e.getMessage());
+            return ResponseEntity.status(429).body(response);
+        }
+    }
+
+    /**
+     * 📋 Jobs kept in memory, newest first
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> list() {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (PlanningJob job : planningJobService.list()) {
+            jobs.add(job.toMap());
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("jobs", jobs);
+        response.put("total", jobs.size());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 📊 Status of one job
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> status(@PathVariable String jobId) {
+        Optional<PlanningJob> job = planningJobService.find(jobId);
+        if (job.isEmpty()) {
+            return notFound(jobId);
+        }
+        Map<String, Object> response = new HashMap<>(job.get().toMap());
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 📦 Result of a successful job (409 with the job state otherwise)
+     */
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<Map<String, Object>> result(@PathVariable String jobId) {
+        Optional<PlanningJob> found = planningJobService.find(jobId);
+        if (found.isEmpty()) {
+            return notFound(jobId);
+        }
+        PlanningJob job = found.get();
+        if (job.status() == PlanningJob.Status.SUCCEEDED) {
+            return ResponseEntity.ok(job.result());
+        }
+
+        Map<String, Object> response = new HashMap<>(job.toMap());
+        response.put("success", false);
+        return ResponseEntity.status(409).body(response);
+    }
+
+    /**
+     * 🛑 Cancel a job; rows it already wrote are removed
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> cancel(@PathVariable String jobId) {
+        Optional<Boolean> cancelled = planningJobService.cancel(jobId);
+        if (cancelled.isEmpty()) {
+            return notFound(jobId);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", cancelled.get());
+        response.put("jobId", jobId);
+        response.put("message", cancelled.get() ? "Cancellation requested" : "Job already finished");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 📡 Progress stream: current state first, then phase / progress events, then "done"
+     * A client that falls behind gets "dropped" and the stream ends; reconnecting resumes from
+     * the current state.
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String jobId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        Optional<PlanningJob> job = planningJobService.find(jobId);
+        if (job.isEmpty()) {
+            emitter.completeWithError(new IllegalArgumentException("Unknown planning job: " + jobId));
+            return emitter;
+        }
+
+        Runnable unsubscribe = job.get().subscribe(event -> send(emitter, event));
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return emitter;
+    }
+
+    /**
+     * Runs on the subscriber's delivery thread, never the job's; a failed send throws, which
+     * drops the listener
+     */
+    private static void send(SseEmitter emitter, JobEvent event) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.sequence()))
+                    .name(event.type())
+                    .data(event.toMap(), MediaType.APPLICATION_JSON));
+            if (event.isTerminal()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("📡 Job {} subscriber gone: {}", event.jobId(), e.getMessage());
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static PlanningJobService.JobRequest toJobRequest(Map<String, Object> request) {
+        LocalDate startDate = request.containsKey("startDate")
+                ? LocalDate.parse(request.get("startDate").toString()) : LocalDate.now();
+        String algorithm = String.valueOf(request.getOrDefault("algorithm", EarliestDeadlineFirstAlgorithm.NAME));
+        int maxOrders = request.containsKey("maxOrders") ? Integer.parseInt(request.get("maxOrders").toString()) : 0;
+        int timePerCard = request.containsKey("timePerCard") ? Integer.parseInt(request.get("timePerCard").toString()) : 0;
+        return new PlanningJobService.JobRequest(startDate, algorithm, maxOrders, timePerCard);
+    }
+
+    private static ResponseEntity<Map<String, Object>> notFound(String jobId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Unknown planning job: " + jobId);
+        return ResponseEntity.status(404).body(response);
+    }
+}
@@ -0,0 +1,93 @@
+package com.pcagrade.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Employee with the planned load of a day (GET /api/frontend/employees/planning-data)
+ * Derived values (status, hours...) are computed when serialized, not stored.
+ *
+ * @param id employee id (hex)
+ * @param name "first last"
+ * @param firstName first name
+ * @param lastName last name
+ * @param email email
+ * @param active active flag
+ * @param workHoursPerDay daily capacity in hours
+ * @param totalMinutes planned minutes
+ * @param taskCount planned tasks
+ * @param cardCount planned cards
+ * @param workload planned minutes / capacity
+ */
+public record EmployeeWorkloadRow(
+        String id,
+        String name,
+        String firstName,
+        String lastName,
+        String email,
+        boolean active,
+        int workHoursPerDay,
+        int totalMinutes,
+        int taskCount,
+        int cardCount,
+        double workload) {
+
+    static final double BUSY_RATIO = 0.8;
+    static final double OVERLOADED_RATIO = 1.0;
+
+    /**
+     * Row of SELECT id, name, firstName, lastName, email, active, workHoursPerDay,
+     * totalMinutes, taskCount, cardCount, workloadRatio
+     */
+    public static EmployeeWorkloadRow fromRow(Object[] row) {
+        return new EmployeeWorkloadRow(
+                Rows.string(row[0]),
+                Rows.string(row[1]),
+                Rows.string(row[2]),
+                Rows.string(row[3]),
+                Rows.string(row[4]),
+                Boolean.TRUE.equals(Rows.bool(row[5])),
+                Rows.intValue(row[6]),
+                Rows.intValue(row[7]),
+                Rows.intValue(row[8]),
+                Rows.intValue(row[9]),
+                Rows.doubleValue(row[10]));
+    }
+
+    @JsonProperty("maxMinutes")
+    public int maxMinutes() {
+        return workHoursPerDay * 60;
+    }
+
+    /**
+     * overloaded / busy / available
+     */
+    @JsonProperty("status")
+    public String status() {
+        if (workload >= OVERLOADED_RATIO) {
+            return "overloaded";
+        }
+        return workload >= BUSY_RATIO ? "busy" : "available";
+    }
+
+    @JsonProperty("available")
+    public boolean available() {
+        return workload < BUSY_RATIO;
+    }
+
+    @JsonProperty("estimatedHours")
+    public double estimatedHours() {
+        return Rows.hours(totalMinutes);
+    }
+
+    // ========== ALIASES (frontend compatibility) ==========
+
+    @JsonProperty("totalCards")
+    public int totalCards() {
+        return cardCount;
+    }
+
+    @JsonProperty("activeOrders")
+    public int activeOrders() {
+        return taskCount;
+    }
+}
@@ -0,0 +1,77 @@
+package com.pcagrade.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order waiting for planning, as returned by GET /api/orders/planning
+ * The French keys (numeroCommande, nombreCartes...) are still read by the frontend: they are
+ * serialized from the same fields rather than stored twice.
+ *
+ * @param id order id (hex)
+ * @param orderNumber num_commande
+ * @param orderDate order date
+ * @param deadline delai code (X, F+, F, E, C)
+ * @param priority priority derived from the deadline
+ * @param status order status code
+ * @param totalPrice prix_total
+ * @param cardCount number of cards in the order
+ */
+public record PlanningOrderRow(
+        String id,
+        String orderNumber,
+        LocalDateTime orderDate,
+        String deadline,
+        String priority,
+        Integer status,
+        Double totalPrice,
+        int cardCount) {
+
+    /**
+     * Row of SELECT id, orderNumber, orderDate, deadline, priority, status, totalPrice
+     */
+    public static PlanningOrderRow fromRow(Object[] row, int cardCount) {
+        return new PlanningOrderRow(
+                Rows.string(row[0]),
+                Rows.string(row[1]),
+                Rows.localDateTime(row[2]),
+                Rows.string(row[3]),
+                Rows.string(row[4]),
+                Rows.integer(row[5]),
+                Rows.decimal(row[6]),
+                cardCount);
+    }
+
+    // ========== FRENCH ALIASES (frontend compatibility) ==========
+
+    @JsonProperty("numeroCommande")
+    public String numeroCommande() {
+        return orderNumber;
+    }
+
+    @JsonProperty("date")
+    public LocalDateTime date() {
+        return orderDate;
+    }
+
+    @JsonProperty("delai")
+    public String delai() {
+        return deadline;
+    }
+
+    @JsonProperty("nombreCartes")
+    public int nombreCartes() {
+        return cardCount;
+    }
+
+    @JsonProperty("priorite")
+    public String priorite() {
+        return priority;
+    }
+
+    @JsonProperty("prixTotal")
+    public Double prixTotal() {
+        return totalPrice;
+    }
+}
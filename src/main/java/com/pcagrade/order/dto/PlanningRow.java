@@ -0,0 +1,90 @@
+package com.pcagrade.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * j_planning entry joined with its order number and employee name (GET /api/frontend/planning)
+ *
+ * @param id planning id (hex)
+ * @param orderId order id (hex)
+ * @param employeeId employee id (hex)
+ * @param planningDate planned day
+ * @param startTime planned start
+ * @param estimatedDurationMinutes planned duration
+ * @param priority priority
+ * @param status planning status
+ * @param completed legacy completion flag
+ * @param cardCount number of cards
+ * @param progressPercentage progress, 0-100
+ * @param createdAt creation time
+ * @param updatedAt last update time
+ * @param orderNumber num_commande of the order
+ * @param employeeName "first last" of the employee
+ */
+public record PlanningRow(
+        String id,
+        String orderId,
+        String employeeId,
+        LocalDate planningDate,
+        LocalDateTime startTime,
+        Integer estimatedDurationMinutes,
+        String priority,
+        String status,
+        Boolean completed,
+        Integer cardCount,
+        Integer progressPercentage,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String orderNumber,
+        String employeeName) {
+
+    /**
+     * Row of the FrontendPlanningController planning query, columns in declaration order
+     */
+    public static PlanningRow fromRow(Object[] row) {
+        return new PlanningRow(
+                Rows.string(row[0]),
+                Rows.string(row[1]),
+                Rows.string(row[2]),
+                Rows.localDate(row[3]),
+                Rows.localDateTime(row[4]),
+                Rows.integer(row[5]),
+                Rows.string(row[6]),
+                Rows.string(row[7]),
+                Rows.bool(row[8]),
+                Rows.integer(row[9]),
+                Rows.integer(row[10]),
+                Rows.localDateTime(row[11]),
+                Rows.localDateTime(row[12]),
+                Rows.string(row[13]),
+                Rows.string(row[14]));
+    }
+
+    /**
+     * "2h30min", absent when there is no duration
+     */
+    @JsonProperty("formattedDuration")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String formattedDuration() {
+        if (estimatedDurationMinutes == null) {
+            return null;
+        }
+        int minutes = estimatedDurationMinutes;
+        if (minutes < 60) {
+            return minutes + "min";
+        }
+        int hours = minutes / 60;
+        int remainingMinutes = minutes % 60;
+        return remainingMinutes > 0 ? hours + "h" + remainingMinutes + "min" : hours + "h";
+    }
+
+    @JsonProperty("estimatedHours")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Double estimatedHours() {
+        return estimatedDurationMinutes != null ? Rows.hours(estimatedDurationMinutes) : null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.pcagrade.order.dto;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Column conversions for native query rows (Object[]), whatever type the driver returns
+ */
+final class Rows {
+
+    private Rows() {
+    }
+
+    static String string(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    static int intValue(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    static Integer integer(Object value) {
+        return value instanceof Number number ? number.intValue() : null;
+    }
+
+    static double doubleValue(Object value) {
+        return value instanceof Number number ? number.doubleValue() : 0.0;
+    }
+
+    static Double decimal(Object value) {
+        return value instanceof Number number ? number.doubleValue() : null;
+    }
+
+    /**
+     * BIT(1) comes back as Boolean, TINYINT as a number
+     */
+    static Boolean bool(Object value) {
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        return value instanceof Number number ? number.intValue() != 0 : null;
+    }
+
+    static LocalDate localDate(Object value) {
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        return null;
+    }
+
+    static LocalDateTime localDateTime(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return null;
+    }
+
+    /**
+     * Minutes as hours, 2 decimals
+     */
+    static double hours(int minutes) {
+        return Math.round(minutes / 60.0 * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,18 @@
+package com.pcagrade.order.event;
+
+import java.util.UUID;
+
+/**
+ * Published by EmployeeService whenever an employee is created, modified or deleted
+ *
+ * @param employeeId id of the employee
+ * @param type kind of change
+ */
+public record EmployeeChangedEvent(UUID employeeId, ChangeType type) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
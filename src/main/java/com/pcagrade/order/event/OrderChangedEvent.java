@@ -0,0 +1,33 @@
+package com.pcagrade.order.event;
+
+import com.pcagrade.order.entity.Order;
+import com.pcagrade.order.util.UlidHelper;
+
+import java.util.UUID;
+
+/**
+ * Published by OrderService whenever an order is created, modified, deleted or changes status
+ * Listeners that touch the database should run after commit (@TransactionalEventListener).
+ *
+ * @param orderId id of the order
+ * @param type kind of change
+ * @param previousStatus status before the change (null on creation)
+ * @param status status after the change (null on deletion)
+ */
+public record OrderChangedEvent(UUID orderId, ChangeType type,
+                                Order.OrderStatus previousStatus, Order.OrderStatus status) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    /**
+     * Hex form of the id, as returned by HEX() in native queries
+     */
+    public String orderHexId() {
+        return UlidHelper.toHex(orderId);
+    }
+}
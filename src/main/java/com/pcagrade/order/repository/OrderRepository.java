@@ -1,6 +1,8 @@
 package com.pcagrade.order.repository;
 
 import com.pcagrade.order.entity.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -205,4 +208,96 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
      */
     @Query("SELECT o.priority, COUNT(o), COALESCE(SUM(o.cardCount), 0) FROM Order o GROUP BY o.priority ORDER BY o.priority")
     List<Object[]> getOrdersSummaryByPriority();
-}
\ No newline at end of file
+
+    // ========== SEARCH ==========
+
+    /**
+     * Orders after a given id, by id (keyset pages, used to build the search index)
+     * @param id last id of the previous page
+     * @param pageable page size (page number must be 0)
+     * @return next orders by id
+     */
+    List<Order> findByIdGreaterThanOrderByIdAsc(UUID id, Pageable pageable);
+
+    /**
+     * Database search on order number and customer name (used until the search index is built)
+     * @param likeTerm lower-case LIKE pattern, null for any
+     * @param status status to match, null for any
+     * @param priority priority to match, null for any
+     * @param pageable page and sort
+     * @return page of matching orders
+     */
+    @Query("SELECT o FROM Order o WHERE (:likeTerm IS NULL OR LOWER(o.orderNumber) LIKE :likeTerm " +
+            "OR LOWER(o.customerName) LIKE :likeTerm) " +
+            "AND (:status IS NULL OR o.status = :status) AND (:priority IS NULL OR o.priority = :priority)")
+    Page<Order> search(@Param("likeTerm") String likeTerm, @Param("status") Order.OrderStatus status,
+                       @Param("priority") Order.OrderPriority priority, Pageable pageable);
+
+    // ========== CARD COUNTS (card_certification_order) ==========
+
+    /**
+     * Card count of the given orders, one grouped pass on the order_id index
+     * Orders without any card are absent from the result.
+     * @param orderIds binary (16 bytes) order ids
+     * @return list of object arrays containing [hex order id, card count]
+     */
+    @Query(value = """
+        SELECT HEX(cco.order_id) as order_id, COUNT(*) as card_count
+        FROM card_certification_order cco
+        WHERE cco.order_id IN (:orderIds)
+        GROUP BY cco.order_id
+        """, nativeQuery = true)
+    List<Object[]> countCardsByOrderIds(@Param("orderIds") Collection<byte[]> orderIds);
+
+    /**
+     * Card count of every plannable order (status 1/2, not cancelled), single grouped join
+     * Orders without any card are absent from the result.
+     * @return list of object arrays containing [hex order id, card count]
+     */
+    @Query(value = """
+        SELECT HEX(cco.order_id) as order_id, COUNT(*) as card_count
+        FROM card_certification_order cco
+        INNER JOIN `order` o ON o.id = cco.order_id
+        WHERE o.status IN (1, 2)
+        AND COALESCE(o.annulee, 0) = 0
+        GROUP BY cco.order_id
+        """, nativeQuery = true)
+    List<Object[]> countCardsOfPlannableOrders();
+
+    // ========== REQUIRED SKILLS (card_certification) ==========
+
+    /**
+     * Card features requiring specific graders, per order and card language
+     * @param orderIds binary (16 bytes) order ids
+     * @return list of object arrays containing [hex order id, language, any multi-grade, any photo, any unsealed]
+     */
+    @Query(value = """
+        SELECT HEX(cco.order_id) as order_id, LOWER(cc.langue) as langue,
+               MAX(COALESCE(cc.multi_grade, 0)) as multi_grade,
+               MAX(cc.photo) as photo,
+               MAX(cc.descellee) as descellee
+        FROM card_certification_order cco
+        INNER JOIN card_certification cc ON cc.id = cco.card_certification_id
+        WHERE cco.order_id IN (:orderIds)
+        GROUP BY cco.order_id, LOWER(cc.langue)
+        """, nativeQuery = true)
+    List<Object[]> findCardFeaturesByOrderIds(@Param("orderIds") Collection<byte[]> orderIds);
+
+    /**
+     * Card features requiring specific graders, for every plannable order (status 1/2, not cancelled)
+     * @return list of object arrays containing [hex order id, language, any multi-grade, any photo, any unsealed]
+     */
+    @Query(value = """
+        SELECT HEX(cco.order_id) as order_id, LOWER(cc.langue) as langue,
+               MAX(COALESCE(cc.multi_grade, 0)) as multi_grade,
+               MAX(cc.photo) as photo,
+               MAX(cc.descellee) as descellee
+        FROM card_certification_order cco
+        INNER JOIN `order` o ON o.id = cco.order_id
+        INNER JOIN card_certification cc ON cc.id = cco.card_certification_id
+        WHERE o.status IN (1, 2)
+        AND COALESCE(o.annulee, 0) = 0
+        GROUP BY cco.order_id, LOWER(cc.langue)
+        """, nativeQuery = true)
+    List<Object[]> findCardFeaturesOfPlannableOrders();
+}
@@ -0,0 +1,129 @@
+package com.pcagrade.order.service;
+
+import com.pcagrade.order.entity.Localization;
+import com.pcagrade.order.repository.OrderRepository;
+import com.pcagrade.order.service.planning.Skill;
+import com.pcagrade.order.util.UlidHelper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * 🃏 CARD COUNTS - nombre de cartes par commande (card_certification_order)
+ * Une requête groupée par page de commandes au lieu d'un COUNT(*) corrélé par ligne :
+ * les requêtes de liste sélectionnent d'abord leurs commandes, puis comptent leurs cartes ici.
+ * Même principe pour les compétences requises par les cartes ({@link Skill}).
+ */
+@Service
+@Slf4j
+public class CardCountService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /**
+     * Card count per order
+     * @param orderIds hex order ids (with or without dashes)
+     * @return upper-case hex id → card count; orders without cards are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Integer> countByOrderIds(Collection<String> orderIds) {
+        List<String> ids = orderIds.stream().map(PlanningBatchWriter::normalizeId).distinct().toList();
+        Map<String, Integer> counts = new HashMap<>(ids.size() * 2);
+
+        for (int from = 0; from < ids.size(); from += PlanningBatchWriter.LOOKUP_CHUNK_SIZE) {
+            List<byte[]> chunk = new ArrayList<>();
+            for (String id : ids.subList(from, Math.min(from + PlanningBatchWriter.LOOKUP_CHUNK_SIZE, ids.size()))) {
+                chunk.add(UlidHelper.hexToBytes(id));
+            }
+            addCounts(counts, orderRepository.countCardsByOrderIds(chunk));
+        }
+        return counts;
+    }
+
+    /**
+     * Card count of every plannable order, in one grouped pass (snapshot cache reload)
+     * @return upper-case hex id → card count; orders without cards are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Integer> countPlannableOrders() {
+        long startNanos = System.nanoTime();
+        Map<String, Integer> counts = new HashMap<>();
+        addCounts(counts, orderRepository.countCardsOfPlannableOrders());
+        log.debug("🃏 Card counts of {} plannable orders ({} ms)",
+                counts.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        return counts;
+    }
+
+    /**
+     * Skills required by the cards of each order: original-name languages, multi-grade, photo, unsealed
+     * @param orderIds hex order ids (with or without dashes)
+     * @return upper-case hex id → {@link Skill} bitset; orders requiring nothing are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Integer> requiredSkillsByOrderIds(Collection<String> orderIds) {
+        List<String> ids = orderIds.stream().map(PlanningBatchWriter::normalizeId).distinct().toList();
+        Map<String, Integer> skills = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += PlanningBatchWriter.LOOKUP_CHUNK_SIZE) {
+            List<byte[]> chunk = new ArrayList<>();
+            for (String id : ids.subList(from, Math.min(from + PlanningBatchWriter.LOOKUP_CHUNK_SIZE, ids.size()))) {
+                chunk.add(UlidHelper.hexToBytes(id));
+            }
+            addSkills(skills, orderRepository.findCardFeaturesByOrderIds(chunk));
+        }
+        return skills;
+    }
+
+    /**
+     * Skills required by every plannable order, in one grouped pass (snapshot cache reload)
+     * @return upper-case hex id → {@link Skill} bitset; orders requiring nothing are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Integer> requiredSkillsOfPlannableOrders() {
+        Map<String, Integer> skills = new HashMap<>();
+        addSkills(skills, orderRepository.findCardFeaturesOfPlannableOrders());
+        return skills;
+    }
+
+    private static void addCounts(Map<String, Integer> counts, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            counts.put((String) row[0], ((Number) row[1]).intValue());
+        }
+    }
+
+    /**
+     * Rows [hex order id, language, multi-grade, photo, unsealed], one per order and language
+     */
+    private static void addSkills(Map<String, Integer> skills, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Localization localization = Localization.getByCode((String) row[1]);
+            int mask = Skill.NONE;
+            if (localization != null && localization.hasOriginalName()) {
+                mask |= Skill.ORIGINAL_NAME.bit();
+            }
+            if (isSet(row[2])) {
+                mask |= Skill.MULTI_GRADE.bit();
+            }
+            if (isSet(row[3])) {
+                mask |= Skill.PHOTO.bit();
+            }
+            if (isSet(row[4])) {
+                mask |= Skill.UNSEALING.bit();
+            }
+            if (mask != Skill.NONE) {
+                skills.merge((String) row[0], mask, (a, b) -> a | b);
+            }
+        }
+    }
+
+    private static boolean isSet(Object flag) {
+        if (flag instanceof Boolean b) {
+            return b;
+        }
+        return flag instanceof Number n && n.intValue() != 0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.pcagrade.order.service;
+
+import com.pcagrade.order.util.UlidHelper;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Days touched by a j_planning write, per employee
+ * Only [from, to] of each employee is recomputed in employee_daily_load: a planning run touches
+ * a few consecutive days per employee, so one range per employee is both small and exact.
+ */
+final class DailyLoadSpans {
+
+    /**
+     * @param from first touched day
+     * @param to last touched day
+     */
+    record Span(LocalDate from, LocalDate to) {
+    }
+
+    // Employee id (upper-case hex, the form of HEX(employee_id)) -> touched days
+    private final Map<String, Span> byEmployee = new LinkedHashMap<>();
+
+    /**
+     * Record that this employee's load changed on this day; rows without employee or date are not counted
+     */
+    void add(String employeeId, LocalDate day) {
+        if (employeeId == null || day == null) {
+            return;
+        }
+        add(employeeId, day, day);
+    }
+
+    void add(String employeeId, LocalDate from, LocalDate to) {
+        String key = UlidHelper.isCanonicalHex(employeeId) ? employeeId : UlidHelper.toHex(UlidHelper.parse(employeeId));
+        byEmployee.merge(key, new Span(from, to), (a, b) -> new Span(
+                a.from().isBefore(b.from()) ? a.from() : b.from(),
+                a.to().isAfter(b.to()) ? a.to() : b.to()));
+    }
+
+    void addAll(DailyLoadSpans other) {
+        other.byEmployee.forEach((employeeId, span) -> add(employeeId, span.from(), span.to()));
+    }
+
+    boolean isEmpty() {
+        return byEmployee.isEmpty();
+    }
+
+    Map<String, Span> byEmployee() {
+        return Collections.unmodifiableMap(byEmployee);
+    }
+}
@@ -0,0 +1,537 @@
+package com.pcagrade.order.service;
+
+import com.pcagrade.order.config.DbConcurrencyLimiter;
+import com.pcagrade.order.dto.EmployeeWorkloadRow;
+import com.pcagrade.order.service.workload.WorkloadRegistry;
+import com.pcagrade.order.util.UlidHelper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 📊 EMPLOYEE DAILY LOAD - charge planifiée par employé et par jour (table employee_daily_load)
+ * Les tableaux de bord lisent une ligne par employé au lieu de ré-agréger j_planning à chaque
+ * rafraîchissement. La table est tenue à jour dans la transaction de chaque écriture de
+ * j_planning : seuls les jours touchés sont recalculés depuis j_planning (pas de delta qui
+ * pourrait dériver). Reconstruction complète au démarrage, après les suppressions globales et
+ * au-delà de planning.daily-load.max-age-minutes pour rattraper les scripts SQL (en tâche de
+ * fond : la lecture qui la déclenche sert le contenu courant).
+ * La table est créée au démarrage si besoin (spring.jpa.hibernate.ddl-auto=none).
+ * Une copie en mémoire (WorkloadRegistry) est mise à jour après chaque commit : les lectures
+ * de charge ne touchent plus la base, hormis la liste des employés.
+ */
+@Service
+@Slf4j
+public class EmployeeDailyLoadService {
+
+    private static final String CREATE_TABLE = """
+        CREATE TABLE IF NOT EXISTS employee_daily_load (
+            employee_id BINARY(16) NOT NULL,
+            load_date DATE NOT NULL,
+            total_minutes INT NOT NULL DEFAULT 0,
+            task_count INT NOT NULL DEFAULT 0,
+            card_count INT NOT NULL DEFAULT 0,
+            completed_minutes INT NOT NULL DEFAULT 0,
+            completed_count INT NOT NULL DEFAULT 0,
+            updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+            PRIMARY KEY (employee_id, load_date)
+        )
+        """;
+
+    // Tables created before the completion counters existed
+    private static final String ADD_COMPLETION_COLUMNS = """
+        ALTER TABLE employee_daily_load
+            ADD COLUMN IF NOT EXISTS completed_minutes INT NOT NULL DEFAULT 0,
+            ADD COLUMN IF NOT EXISTS completed_count INT NOT NULL DEFAULT 0
+        """;
+
+    // Rows without employee or date are not scheduled load and are left out
+    private static final String AGGREGATE_PREFIX = """
+        INSERT INTO employee_daily_load
+            (employee_id, load_date, total_minutes, task_count, card_count, completed_minutes, completed_count)
+        SELECT * FROM (
+            SELECT p.employee_id, p.planning_date,
+                   COALESCE(SUM(p.estimated_duration_minutes), 0) AS total_minutes,
+                   COUNT(*) AS task_count,
+                   COALESCE(SUM(p.card_count), 0) AS card_count,
+                   COALESCE(SUM(CASE WHEN p.completed = 1 OR p.status = 'COMPLETED' THEN p.estimated_duration_minutes END), 0) AS completed_minutes,
+                   COUNT(CASE WHEN p.completed = 1 OR p.status = 'COMPLETED' THEN 1 END) AS completed_count
+            FROM j_planning p
+            WHERE p.employee_id IS NOT NULL AND p.planning_date IS NOT NULL
+        """;
+
+    // A concurrent refresh of the same day may have inserted it already: last writer wins
+    private static final String AGGREGATE_SUFFIX = """
+            GROUP BY p.employee_id, p.planning_date
+        ) agg
+        ON DUPLICATE KEY UPDATE
+            total_minutes = VALUES(total_minutes),
+            task_count = VALUES(task_count),
+            card_count = VALUES(card_count),
+            completed_minutes = VALUES(completed_minutes),
+            completed_count = VALUES(completed_count)
+        """;
+
+    private static final String EMPLOYEE_COLUMNS = """
+        SELECT
+            HEX(e.id) as id,
+            CONCAT(COALESCE(e.first_name, 'Unknown'), ' ', COALESCE(e.last_name, 'User')) as name,
+            e.first_name as firstName,
+            e.last_name as lastName,
+            e.email,
+            COALESCE(e.active, 1) as active,
+            COALESCE(e.work_hours_per_day, 8) as workHoursPerDay""";
+
+    private static final String WORKLOAD_COLUMNS = EMPLOYEE_COLUMNS + """
+        ,
+            COALESCE(l.total_minutes, 0) as totalMinutes,
+            COALESCE(l.task_count, 0) as taskCount,
+            COALESCE(l.card_count, 0) as cardCount,
+            ROUND(COALESCE(l.total_minutes, 0) / (COALESCE(e.work_hours_per_day, 8) * 60.0), 2) as workloadRatio
+        FROM j_employee e
+        """;
+
+    private static final String WORKLOAD_ORDER = " ORDER BY workloadRatio DESC, name ASC";
+
+    private static final Comparator<EmployeeWorkloadRow> BY_WORKLOAD =
+            Comparator.comparingDouble(EmployeeWorkloadRow::workload).reversed()
+                    .thenComparing(EmployeeWorkloadRow::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+    private static final String LOAD_COLUMNS =
+            "SELECT HEX(employee_id), load_date, total_minutes, card_count, task_count, completed_minutes, completed_count"
+                    + " FROM employee_daily_load";
+
+    // Content fingerprint: a rebuild that finds the same rows is not a change of the planning
+    private static final String FINGERPRINT = """
+        SELECT COUNT(*), COALESCE(BIT_XOR(CRC32(CONCAT_WS(',', HEX(employee_id), load_date, total_minutes,
+               task_count, card_count, completed_minutes, completed_count))), 0)
+        FROM employee_daily_load
+        """;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DbConcurrencyLimiter dbLimiter;
+
+    /**
+     * Full rebuild after this age, to pick up j_planning changes made outside the application. 0 disables it.
+     */
+    @Value("${planning.daily-load.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    private volatile long rebuiltAtNanos;
+    private volatile boolean ready;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "daily-load-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile WorkloadRegistry registry;
+
+    // Days changed while the registry is being reloaded, replayed once it is swapped in
+    private final Queue<DailyLoadSpans> changedDuringReload = new ConcurrentLinkedQueue<>();
+    private volatile boolean reloading;
+
+    /**
+     * Published by every write to employee_daily_load; the registry follows once it has committed
+     * @param spans days recomputed, null when the whole table was recomputed
+     * @param changed false when a full rebuild found exactly the content it replaced
+     */
+    record LoadChanged(DailyLoadSpans spans, boolean changed) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuildInNewTransaction(true);
+        } catch (Exception e) {
+            log.warn("⚠️ Employee daily load init failed, dashboards will retry: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    // ========== READ ==========
+
+    /**
+     * Employees with their planned load, highest workload first
+     * Loads come from the registry (a day or the running total of each employee), so only
+     * j_employee is read; until the registry is loaded, from employee_daily_load
+     * @param date day to report, null for the sum over all days
+     */
+    public List<EmployeeWorkloadRow> findWorkloads(LocalDate date) {
+        rebuildIfStale();
+        WorkloadRegistry current = registry;
+        if (current != null) {
+            return findWorkloads(current, date);
+        }
+
+        String join = date != null
+                ? "LEFT JOIN employee_daily_load l ON l.employee_id = e.id AND l.load_date = ?"
+                : """
+                  LEFT JOIN (
+                      SELECT employee_id, SUM(total_minutes) AS total_minutes,
+                             SUM(task_count) AS task_count, SUM(card_count) AS card_count
+                      FROM employee_daily_load
+                      GROUP BY employee_id
+                  ) l ON l.employee_id = e.id""";
+
+        Query query = entityManager.createNativeQuery(WORKLOAD_COLUMNS + join + WORKLOAD_ORDER);
+        if (date != null) {
+            query.setParameter(1, date);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        List<EmployeeWorkloadRow> employees = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            employees.add(EmployeeWorkloadRow.fromRow(row));
+        }
+        return employees;
+    }
+
+    private List<EmployeeWorkloadRow> findWorkloads(WorkloadRegistry current, LocalDate date) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(EMPLOYEE_COLUMNS + " FROM j_employee e").getResultList();
+        List<EmployeeWorkloadRow> employees = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String id = (String) row[0];
+            WorkloadRegistry.Load load = date != null ? current.day(id, date) : current.total(id);
+            int workHoursPerDay = ((Number) row[6]).intValue();
+            double ratio = workHoursPerDay > 0
+                    ? Math.round(load.totalMinutes() * 100.0 / (workHoursPerDay * 60.0)) / 100.0
+                    : 0;
+            employees.add(EmployeeWorkloadRow.fromRow(new Object[]{
+                    row[0], row[1], row[2], row[3], row[4], row[5], row[6],
+                    load.totalMinutes(), load.taskCount(), load.cardCount(), ratio}));
+        }
+        employees.sort(BY_WORKLOAD);
+        return employees;
+    }
+
+    /**
+     * Planned load of one employee from memory, no database access
+     * @param employeeId employee id (ULID, UUID or hex)
+     * @param date day, null for the total over all days
+     * @return empty until the registry is loaded
+     */
+    public Optional<WorkloadRegistry.Load> currentLoad(String employeeId, LocalDate date) {
+        rebuildIfStale();
+        WorkloadRegistry current = registry;
+        if (current == null) {
+            return Optional.empty();
+        }
+        String id = UlidHelper.toHex(UlidHelper.stringToUuid(employeeId));
+        return Optional.of(date != null ? current.day(id, date) : current.total(id));
+    }
+
+    /**
+     * Planned load of every employee with planned work, from memory
+     * @param date day, null for the total over all days
+     * @return employee id (hex) -> load, empty until the registry is loaded
+     */
+    public Map<String, WorkloadRegistry.Load> currentLoads(LocalDate date) {
+        rebuildIfStale();
+        WorkloadRegistry current = registry;
+        if (current == null) {
+            return Map.of();
+        }
+        Map<String, WorkloadRegistry.Load> loads = new HashMap<>();
+        for (String employeeId : current.employeeIds()) {
+            loads.put(employeeId, date != null ? current.day(employeeId, date) : current.total(employeeId));
+        }
+        return loads;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("ready", ready);
+        status.put("registryReady", registry != null);
+        status.put("rebuilding", rebuilding.get());
+        status.put("ageSeconds", ready ? TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - rebuiltAtNanos) : null);
+        status.put("maxAgeMinutes", maxAgeMinutes);
+        return status;
+    }
+
+    // ========== INCREMENTAL UPDATES (caller's transaction) ==========
+
+    /**
+     * Days touched by these planning rows, read before they are deleted or moved
+     * @param planningIds hex ids of j_planning rows
+     */
+    @Transactional
+    public DailyLoadSpans findSpans(Collection<String> planningIds) {
+        DailyLoadSpans spans = new DailyLoadSpans();
+        List<String> ids = planningIds.stream().distinct().toList();
+
+        for (int from = 0; from < ids.size(); from += PlanningBatchWriter.LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + PlanningBatchWriter.LOOKUP_CHUNK_SIZE, ids.size()));
+
+            Query query = entityManager.createNativeQuery("""
+                SELECT HEX(employee_id), MIN(planning_date), MAX(planning_date)
+                FROM j_planning
+                WHERE employee_id IS NOT NULL AND planning_date IS NOT NULL AND id IN (
+                """ + PlanningBatchWriter.placeholders(chunk.size(), "?") + ") GROUP BY employee_id");
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter(i + 1, UlidHelper.idToBytes(chunk.get(i)));
+            }
+
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = query.getResultList();
+            for (Object[] row : rows) {
+                spans.add((String) row[0],
+                        PlanningSnapshotLoader.toLocalDate(row[1]),
+                        PlanningSnapshotLoader.toLocalDate(row[2]));
+            }
+        }
+        return spans;
+    }
+
+    /**
+     * Recompute the touched days of each employee from j_planning
+     * Must run in the transaction that wrote j_planning, after the write
+     */
+    @Transactional
+    public void refresh(DailyLoadSpans spans) {
+        for (Map.Entry<String, DailyLoadSpans.Span> entry : spans.byEmployee().entrySet()) {
+            byte[] employeeId = UlidHelper.idToBytes(entry.getKey());
+            DailyLoadSpans.Span span = entry.getValue();
+
+            Query delete = entityManager.createNativeQuery("""
+                DELETE FROM employee_daily_load
+                WHERE employee_id = ? AND load_date BETWEEN ? AND ?
+                """);
+            delete.setParameter(1, employeeId);
+            delete.setParameter(2, span.from());
+            delete.setParameter(3, span.to());
+            delete.executeUpdate();
+
+            Query insert = entityManager.createNativeQuery(AGGREGATE_PREFIX
+                    + " AND p.employee_id = ? AND p.planning_date BETWEEN ? AND ?\n" + AGGREGATE_SUFFIX);
+            insert.setParameter(1, employeeId);
+            insert.setParameter(2, span.from());
+            insert.setParameter(3, span.to());
+            insert.executeUpdate();
+        }
+        eventPublisher.publishEvent(new LoadChanged(spans, true));
+    }
+
+    /**
+     * Recompute the days of rows updated in place (status change)
+     * @param planningIds ids of j_planning rows (ULID, UUID or hex)
+     */
+    @Transactional
+    public void refreshPlannings(Collection<String> planningIds) {
+        refresh(findSpans(planningIds));
+    }
+
+    /**
+     * Recompute every employee over a date range (bulk deletes by date)
+     * @param from first day
+     * @param to last day, null for no upper bound
+     */
+    @Transactional
+    public void refreshRange(LocalDate from, LocalDate to) {
+        String range = to != null ? " BETWEEN ? AND ?" : " >= ?";
+
+        Query delete = entityManager.createNativeQuery("DELETE FROM employee_daily_load WHERE load_date" + range);
+        Query insert = entityManager.createNativeQuery(AGGREGATE_PREFIX + " AND p.planning_date" + range + "\n" + AGGREGATE_SUFFIX);
+        for (Query query : List.of(delete, insert)) {
+            query.setParameter(1, from);
+            if (to != null) {
+                query.setParameter(2, to);
+            }
+            query.executeUpdate();
+        }
+        eventPublisher.publishEvent(new LoadChanged(null, true));
+    }
+
+    // ========== IN-MEMORY REGISTRY ==========
+
+    /**
+     * Copy committed days into the registry (rolled back writes never reach it)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoadChanged(LoadChanged event) {
+        try {
+            if (event.spans() == null) {
+                // A rebuild that found the same content leaves the registry as it is
+                if (event.changed() || registry == null) {
+                    reloadRegistry();
+                }
+                return;
+            }
+            if (reloading) {
+                changedDuringReload.add(event.spans());
+            }
+            WorkloadRegistry current = registry;
+            if (current != null) {
+                copyDays(current, event.spans());
+            }
+        } catch (Exception e) {
+            log.error("❌ Workload registry update failed: {}", e.getMessage());
+        }
+    }
+
+    private void reloadRegistry() {
+        reloading = true;
+        try {
+            WorkloadRegistry fresh = new WorkloadRegistry();
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.createNativeQuery(LOAD_COLUMNS).getResultList();
+            for (Object[] row : rows) {
+                fresh.put((String) row[0], PlanningSnapshotLoader.toLocalDate(row[1]), toLoad(row));
+            }
+            registry = fresh;
+            log.info("📊 Workload registry loaded: {} employee-days", rows.size());
+        } finally {
+            reloading = false;
+        }
+
+        // Days committed while reading may be missing from the rows already read
+        for (DailyLoadSpans spans; (spans = changedDuringReload.poll()) != null; ) {
+            copyDays(registry, spans);
+        }
+    }
+
+    private void copyDays(WorkloadRegistry target, DailyLoadSpans spans) {
+        for (Map.Entry<String, DailyLoadSpans.Span> entry : spans.byEmployee().entrySet()) {
+            DailyLoadSpans.Span span = entry.getValue();
+            Query query = entityManager.createNativeQuery(LOAD_COLUMNS
+                    + " WHERE employee_id = ? AND load_date BETWEEN ? AND ?");
+            query.setParameter(1, UlidHelper.idToBytes(entry.getKey()));
+            query.setParameter(2, span.from());
+            query.setParameter(3, span.to());
+
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = query.getResultList();
+            Map<LocalDate, WorkloadRegistry.Load> loads = new HashMap<>();
+            for (Object[] row : rows) {
+                loads.put(PlanningSnapshotLoader.toLocalDate(row[1]), toLoad(row));
+            }
+            target.replaceRange(entry.getKey(), span.from(), span.to(), loads);
+        }
+    }
+
+    private static WorkloadRegistry.Load toLoad(Object[] row) {
+        return new WorkloadRegistry.Load(
+                ((Number) row[2]).longValue(),
+                ((Number) row[3]).longValue(),
+                ((Number) row[4]).longValue(),
+                ((Number) row[5]).longValue(),
+                ((Number) row[6]).longValue());
+    }
+
+    // ========== FULL REBUILD ==========
+
+    /**
+     * Recompute the whole table from j_planning (one grouped scan)
+     * Runs in the caller's transaction, so a global DELETE of j_planning and the rebuild commit together
+     * @return employee-day rows written
+     */
+    @Transactional
+    public int rebuild() {
+        long startNanos = System.nanoTime();
+        List<?> before = fingerprint();
+        entityManager.createNativeQuery("DELETE FROM employee_daily_load").executeUpdate();
+        int rows = entityManager.createNativeQuery(AGGREGATE_PREFIX + AGGREGATE_SUFFIX).executeUpdate();
+
+        eventPublisher.publishEvent(new LoadChanged(null, !before.equals(fingerprint())));
+        rebuiltAtNanos = System.nanoTime();
+        ready = true;
+        log.info("📊 Employee daily load rebuilt: {} employee-days ({} ms)",
+                rows, (System.nanoTime() - startNanos) / 1_000_000);
+        return rows;
+    }
+
+    private List<?> fingerprint() {
+        Object[] row = (Object[]) entityManager.createNativeQuery(FINGERPRINT).getSingleResult();
+        return List.of(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+    }
+
+    /**
+     * Start a rebuild in the background when the table is missing or too old; never waits for it
+     */
+    private void rebuildIfStale() {
+        boolean stale = !ready
+                || (maxAgeMinutes > 0 && System.nanoTime() - rebuiltAtNanos > TimeUnit.MINUTES.toNanos(maxAgeMinutes));
+        if (!stale || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        boolean createTable = !ready;
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuildInNewTransaction(createTable);
+                } catch (Exception e) {
+                    log.warn("⚠️ Employee daily load rebuild failed, serving current content: {}", e.getMessage());
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Rebuild outside any surrounding (possibly read-only) transaction; callers hold the rebuilding flag
+     * Runs off the request threads (startup, rebuild thread), under a WRITE permit of the limiter.
+     * @param createTable also create the table (DDL commits implicitly in MariaDB, so it runs first)
+     */
+    private void rebuildInNewTransaction(boolean createTable) throws InterruptedException {
+        try (DbConcurrencyLimiter.Permit permit = dbLimiter.acquire(DbConcurrencyLimiter.EndpointClass.WRITE)) {
+            rebuildUnderPermit(createTable);
+        }
+    }
+
+    private void rebuildUnderPermit(boolean createTable) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (createTable) {
+            transaction.executeWithoutResult(status -> {
+                entityManager.createNativeQuery(CREATE_TABLE).executeUpdate();
+                entityManager.createNativeQuery(ADD_COMPLETION_COLUMNS).executeUpdate();
+            });
+        }
+        transaction.executeWithoutResult(status -> rebuild());
+    }
+}
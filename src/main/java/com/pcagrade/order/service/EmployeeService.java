@@ -3,18 +3,22 @@
 
 package com.pcagrade.order.service;
 
+import com.pcagrade.order.dto.EmployeeWorkloadRow;
 import com.pcagrade.order.entity.Employee;
+import com.pcagrade.order.event.EmployeeChangedEvent;
 import com.pcagrade.order.repository.EmployeeRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -37,6 +41,12 @@ public class EmployeeService {
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private EmployeeDailyLoadService dailyLoadService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ========== CRUD OPERATIONS ==========
 
     /**
@@ -69,6 +79,8 @@ public class EmployeeService {
             Employee savedEmployee = employeeRepository.save(employee);
 
             log.info("Employee created successfully with ID: {}", savedEmployee.getId());
+            eventPublisher.publishEvent(new EmployeeChangedEvent(savedEmployee.getId(),
+                    EmployeeChangedEvent.ChangeType.CREATED));
             return savedEmployee;
 
         } catch (Exception e) {
@@ -93,6 +105,8 @@ public class EmployeeService {
         Employee updatedEmployee = employeeRepository.save(employee);
 
         log.info("Employee updated successfully: {}", updatedEmployee.getId());
+        eventPublisher.publishEvent(new EmployeeChangedEvent(updatedEmployee.getId(),
+                EmployeeChangedEvent.ChangeType.UPDATED));
         return updatedEmployee;
     }
 
@@ -135,6 +149,8 @@ public class EmployeeService {
             if (employee.isPresent()) {
                 employeeRepository.delete(employee.get());
                 log.info("Employee deleted successfully: {}", id);
+                eventPublisher.publishEvent(new EmployeeChangedEvent(employee.get().getId(),
+                        EmployeeChangedEvent.ChangeType.DELETED));
             } else {
                 throw new IllegalArgumentException("Employee not found with ID: " + id);
             }
@@ -437,133 +453,55 @@ public class EmployeeService {
     }
 
     /**
-     * Get employees with planning data - CORRIGÉE pour table j_employee
+     * Get active employees with their planned load for a day
+     * Read from employee_daily_load (one row per employee), j_planning is not aggregated here
+     * @param date day (yyyy-MM-dd), null for all days
      */
-    @Transactional(readOnly = true)
     public List<Map<String, Object>> getEmployeesWithPlanningData(String date) {
         try {
             log.info("Getting employees with planning data for date: {}", date);
 
-            // Try French table first
-            String sql = """
-            SELECT 
-                HEX(e.id) as id,
-                CONCAT(e.prenom, ' ', e.nom) as name,
-                e.heures_travail_par_jour * 60 as max_minutes,
-                COALESCE(SUM(p.duration_minutes), 0) as total_minutes,
-                COUNT(p.id) as task_count,
-                COALESCE(SUM(o.card_count), 0) as card_count
-            FROM j_employee e
-            LEFT JOIN j_planification p ON e.id = p.employe_id AND DATE(p.date_planifiee) = ?
-            LEFT JOIN `order` o ON p.commande_id = o.id
-            WHERE e.actif = 1
-            GROUP BY e.id, e.prenom, e.nom, e.heures_travail_par_jour
-            ORDER BY e.nom, e.prenom
-        """;
-
-            Query query = entityManager.createNativeQuery(sql);
-            query.setParameter(1, date);
-
-            @SuppressWarnings("unchecked")
-            List<Object[]> results = query.getResultList();
-
-            List<Map<String, Object>> employeesWithPlanning = new ArrayList<>();
-
-            for (Object[] row : results) {
-                Map<String, Object> employee = new HashMap<>();
-                employee.put("id", (String) row[0]);
-                employee.put("name", (String) row[1]);
-                employee.put("maxMinutes", ((Number) row[2]).intValue());
-                employee.put("totalMinutes", ((Number) row[3]).intValue());
-                employee.put("taskCount", ((Number) row[4]).intValue());
-                employee.put("cardCount", ((Number) row[5]).intValue());
-
-                // Calculate status based on workload
-                int totalMinutes = ((Number) row[3]).intValue();
-                int maxMinutes = ((Number) row[2]).intValue();
-                double workloadPercent = (double) totalMinutes / maxMinutes;
-
-                String status;
-                if (workloadPercent > 1.0) {
-                    status = "overloaded";
-                } else if (workloadPercent >= 0.9) {
-                    status = "full";
-                } else {
-                    status = "available";
-                }
-                employee.put("status", status);
-
-                employeesWithPlanning.add(employee);
-            }
-
-            log.info("Found {} employees with planning data from j_employee", employeesWithPlanning.size());
+            List<EmployeeWorkloadRow> workloads =
+                    dailyLoadService.findWorkloads(date != null ? LocalDate.parse(date) : null);
+
+            List<Map<String, Object>> employeesWithPlanning = new ArrayList<>(workloads.size());
+            workloads.stream()
+                    .filter(EmployeeWorkloadRow::active)
+                    .sorted(Comparator.comparing(EmployeeWorkloadRow::lastName, Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(EmployeeWorkloadRow::firstName, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .forEach(row -> {
+                        Map<String, Object> employee = new HashMap<>();
+                        employee.put("id", row.id());
+                        employee.put("name", row.name());
+                        employee.put("maxMinutes", row.maxMinutes());
+                        employee.put("totalMinutes", row.totalMinutes());
+                        employee.put("taskCount", row.taskCount());
+                        employee.put("cardCount", row.cardCount());
+
+                        // Calculate status based on workload
+                        double workloadPercent = row.maxMinutes() > 0 ? (double) row.totalMinutes() / row.maxMinutes() : 0.0;
+                        String status;
+                        if (workloadPercent > 1.0) {
+                            status = "overloaded";
+                        } else if (workloadPercent >= 0.9) {
+                            status = "full";
+                        } else {
+                            status = "available";
+                        }
+                        employee.put("status", status);
+
+                        employeesWithPlanning.add(employee);
+                    });
+
+            log.info("Found {} employees with planning data", employeesWithPlanning.size());
             return employeesWithPlanning;
 
         } catch (Exception e) {
-            log.error("Error getting employees with planning data from j_employee: {}", e.getMessage(), e);
-
-            // Fallback to English table
-            try {
-                String sqlEnglish = """
-                SELECT 
-                    HEX(e.id) as id,
-                    CONCAT(e.first_name, ' ', e.last_name) as name,
-                    e.work_hours_per_day * 60 as max_minutes,
-                    COALESCE(SUM(p.duration_minutes), 0) as total_minutes,
-                    COUNT(p.id) as task_count,
-                    COALESCE(SUM(o.card_count), 0) as card_count
-                FROM employee e
-                LEFT JOIN planning p ON e.id = p.employee_id AND DATE(p.planned_date) = ?
-                LEFT JOIN `order` o ON p.order_id = o.id
-                WHERE e.active = 1
-                GROUP BY e.id, e.first_name, e.last_name, e.work_hours_per_day
-                ORDER BY e.last_name, e.first_name
-            """;
-
-                Query queryEnglish = entityManager.createNativeQuery(sqlEnglish);
-                queryEnglish.setParameter(1, date);
-
-                @SuppressWarnings("unchecked")
-                List<Object[]> resultsEnglish = queryEnglish.getResultList();
-
-                List<Map<String, Object>> employeesWithPlanningEnglish = new ArrayList<>();
-
-                for (Object[] row : resultsEnglish) {
-                    Map<String, Object> employee = new HashMap<>();
-                    employee.put("id", (String) row[0]);
-                    employee.put("name", (String) row[1]);
-                    employee.put("maxMinutes", ((Number) row[2]).intValue());
-                    employee.put("totalMinutes", ((Number) row[3]).intValue());
-                    employee.put("taskCount", ((Number) row[4]).intValue());
-                    employee.put("cardCount", ((Number) row[5]).intValue());
-
-                    // Calculate status
-                    int totalMinutes = ((Number) row[3]).intValue();
-                    int maxMinutes = ((Number) row[2]).intValue();
-                    double workloadPercent = maxMinutes > 0 ? (double) totalMinutes / maxMinutes : 0.0;
-
-                    String status;
-                    if (workloadPercent > 1.0) {
-                        status = "overloaded";
-                    } else if (workloadPercent >= 0.9) {
-                        status = "full";
-                    } else {
-                        status = "available";
-                    }
-                    employee.put("status", status);
-
-                    employeesWithPlanningEnglish.add(employee);
-                }
-
-                log.info("Found {} employees with planning data from employee (fallback)", employeesWithPlanningEnglish.size());
-                return employeesWithPlanningEnglish;
-
-            } catch (Exception fallbackError) {
-                log.error("Error with fallback English table: {}", fallbackError.getMessage(), fallbackError);
-                return new ArrayList<>();
-            }
+            log.error("Error getting employees with planning data: {}", e.getMessage(), e);
+            return new ArrayList<>();
         }
     }
+
     // ========== VALIDATION METHODS ==========
 
     /**
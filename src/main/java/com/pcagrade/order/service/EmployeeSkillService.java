@@ -0,0 +1,129 @@
+package com.pcagrade.order.service;
+
+import com.pcagrade.order.event.EmployeeChangedEvent;
+import com.pcagrade.order.service.planning.Skill;
+import com.pcagrade.order.util.UlidHelper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🎓 EMPLOYEE SKILLS - compétences des correcteurs (colonne j_employee.skills)
+ * Bitset de {@link Skill} : un entier par employé, lu en une requête pour tout le planning.
+ * La colonne est ajoutée au premier accès si besoin (spring.jpa.hibernate.ddl-auto=none) et
+ * n'est pas mappée dans l'entité Employee. Chaque modification publie un EmployeeChangedEvent
+ * pour que le cache de planning recharge ses employés.
+ */
+@Service
+@Slf4j
+public class EmployeeSkillService {
+
+    private static final String ADD_SKILLS_COLUMN =
+            "ALTER TABLE j_employee ADD COLUMN IF NOT EXISTS skills INT NOT NULL DEFAULT 0";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private volatile boolean columnReady;
+
+    // Not synchronized: the DDL would pin a virtual thread to its carrier
+    private final ReentrantLock columnLock = new ReentrantLock();
+
+    /**
+     * Skills of every employee who has some
+     * @return upper-case hex id → {@link Skill} bitset; empty if the column cannot be read
+     */
+    public Map<String, Integer> skillsByEmployee() {
+        try {
+            ensureColumn();
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.createNativeQuery(
+                    "SELECT HEX(id), skills FROM j_employee WHERE skills <> 0").getResultList();
+            Map<String, Integer> skills = new HashMap<>(rows.size() * 2);
+            for (Object[] row : rows) {
+                skills.put((String) row[0], ((Number) row[1]).intValue());
+            }
+            return skills;
+        } catch (Exception e) {
+            log.warn("⚠️ Employee skills unavailable, planning without them: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Skills of one employee
+     * @param employeeId employee id (ULID, UUID or hex)
+     * @return empty if the employee does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<Skill>> getSkills(String employeeId) {
+        ensureColumn();
+        Query query = entityManager.createNativeQuery("SELECT skills FROM j_employee WHERE id = ?");
+        query.setParameter(1, UlidHelper.idToBytes(employeeId));
+
+        @SuppressWarnings("unchecked")
+        List<Object> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(Skill.of(((Number) rows.get(0)).intValue()));
+    }
+
+    /**
+     * Replace the skills of an employee
+     * @param employeeId employee id (ULID, UUID or hex)
+     * @return false if the employee does not exist
+     */
+    @Transactional
+    public boolean setSkills(String employeeId, Collection<Skill> skills) {
+        ensureColumn();
+        Query update = entityManager.createNativeQuery("UPDATE j_employee SET skills = ? WHERE id = ?");
+        update.setParameter(1, Skill.mask(skills));
+        update.setParameter(2, UlidHelper.idToBytes(employeeId));
+        if (update.executeUpdate() == 0) {
+            return false;
+        }
+
+        eventPublisher.publishEvent(new EmployeeChangedEvent(UlidHelper.stringToUuid(employeeId),
+                EmployeeChangedEvent.ChangeType.UPDATED));
+        log.info("🎓 Skills of employee {} set to {}", employeeId, skills);
+        return true;
+    }
+
+    /**
+     * Add the column once, in its own transaction (DDL commits implicitly in MariaDB)
+     */
+    private void ensureColumn() {
+        if (columnReady) {
+            return;
+        }
+        columnLock.lock();
+        try {
+            if (!columnReady) {
+                TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+                transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                transaction.executeWithoutResult(status ->
+                        entityManager.createNativeQuery(ADD_SKILLS_COLUMN).executeUpdate());
+                columnReady = true;
+            }
+        } finally {
+            columnLock.unlock();
+        }
+    }
+}
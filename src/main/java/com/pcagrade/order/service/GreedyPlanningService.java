@@ -1,15 +1,27 @@
 package com.pcagrade.order.service;
 
+import com.pcagrade.order.service.planning.EarliestDeadlineFirstAlgorithm;
+import com.pcagrade.order.service.planning.LocalSearchAlgorithm;
+import com.pcagrade.order.service.planning.LocalSearchOptimizer;
+import com.pcagrade.order.service.planning.LongestProcessingTimeAlgorithm;
+import com.pcagrade.order.service.planning.ParallelRangePlanner;
+import com.pcagrade.order.service.planning.PlannableOrder;
+import com.pcagrade.order.service.planning.PlanningAssignment;
+import com.pcagrade.order.service.planning.PlanningMetrics;
+import com.pcagrade.order.service.planning.PlanningSnapshot;
+import com.pcagrade.order.util.DureeCalculator;
+import com.pcagrade.order.util.TransactionHelper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Greedy Planning Service - Simple greedy algorithm for task assignment
@@ -19,13 +31,33 @@ import java.util.*;
 public class GreedyPlanningService {
 
     @Autowired
-    private EmployeeService employeeService;
+    private PlanningSnapshotCache snapshotCache;
 
     @Autowired
-    private OrderService orderService;
+    private EntityManager entityManager;
 
     @Autowired
-    private EntityManager entityManager;
+    private PlanningBatchWriter planningBatchWriter;
+
+    @Autowired
+    private EmployeeDailyLoadService dailyLoadService;
+
+    @Autowired
+    private EarliestDeadlineFirstAlgorithm deadlineAlgorithm;
+
+    @Autowired
+    private LocalSearchAlgorithm localSearchAlgorithm;
+
+    @Autowired
+    private LongestProcessingTimeAlgorithm balancedAlgorithm;
+
+    /**
+     * Orders planned per day (same limit as the single-day order query)
+     */
+    private static final int ORDERS_PER_DAY = 100;
+
+    private static final int MAX_RANGE_DAYS = 366;
+
     /**
      * Execute greedy planning algorithm
      * @param day target day
@@ -33,17 +65,50 @@ public class GreedyPlanningService {
      * @param year target year
      * @return planning result
      */
+    @Transactional
     public Map<String, Object> executeGreedyPlanning(int day, int month, int year) {
+        LocalDate date;
         try {
-            log.info("🎲 Starting Greedy Planning for date: {}/{}/{}", day, month, year);
+            date = LocalDate.of(year, month, day);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Invalid date: " + day + "/" + month + "/" + year);
+            return error;
+        }
+        return executeGreedyPlanningRange(date, date);
+    }
 
+    /**
+     * Execute greedy planning over several days
+     * Same result as calling executeGreedyPlanning for each day in turn (each day takes the
+     * next ORDERS_PER_DAY unplanned orders dated on or after it), but orders are loaded once,
+     * employee calendars are planned in parallel and everything is written in one batch.
+     * Cleanup and inserts share this transaction: on any failure both are rolled back and the
+     * error is returned as a result map.
+     * @param from first day (inclusive)
+     * @param to last day (inclusive)
+     * @return planning result
+     */
+    @Transactional
+    public Map<String, Object> executeGreedyPlanningRange(LocalDate from, LocalDate to) {
+        long startNanos = System.nanoTime();
+        try {
             Map<String, Object> result = new HashMap<>();
 
-            // ✅ NOUVEAU: Nettoyer les planifications existantes pour cette date
-            cleanExistingPlanningsForDate(day, month, year);
+            int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+            if (days < 1 || days > MAX_RANGE_DAYS) {
+                result.put("success", false);
+                result.put("message", String.format("❌ Invalid range %s → %s (1 to %d days)", from, to, MAX_RANGE_DAYS));
+                return result;
+            }
+            log.info("🎲 Starting Greedy Planning from {} to {} ({} days)", from, to, days);
+
+            // ✅ NOUVEAU: Nettoyer les planifications existantes pour ces dates
+            cleanExistingPlanningsForRange(from, to);
 
-            // 1. Get active employees
-            List<Map<String, Object>> employees = employeeService.getAllActiveEmployees();
+            // 1. Get active employees (in-memory snapshot)
+            List<PlanningSnapshot.Worker> employees = snapshotCache.workers();
             if (employees.isEmpty()) {
                 log.warn("❌ No active employees found");
                 result.put("success", false);
@@ -52,8 +117,8 @@ public class GreedyPlanningService {
             }
             log.info("Found {} active employees", employees.size());
 
-            // 2. Get orders to plan
-            List<Map<String, Object>> orders = orderService.getOrdersForPlanning(day, month, year);
+            // 2. Get unplanned orders, oldest first, once for the whole range
+            List<PlannableOrder> orders = snapshotCache.orders(from, days * ORDERS_PER_DAY, false, PlannableOrder.BY_DATE);
             if (orders.isEmpty()) {
                 log.info("No orders found for planning");
                 result.put("success", true);
@@ -63,57 +128,60 @@ public class GreedyPlanningService {
             }
             log.info("Found {} orders to plan", orders.size());
 
-            // 3. Execute greedy algorithm with improved distribution
-            List<Map<String, Object>> createdPlannings = new ArrayList<>();
-            int employeeIndex = 0;
-
-            // ✅ CORRECTION: Sauvegarder en base de données immédiatement pour éviter les doublons
-            for (Map<String, Object> order : orders) {
-                int currentEmployeeIndex = employeeIndex % employees.size();
-                Map<String, Object> employee = employees.get(currentEmployeeIndex);
-                String employeeId = (String) employee.get("id");
-                String orderId = (String) order.get("id");
-
-                // ✅ Vérification finale avant création
-                if (!isPlanningAlreadyExists(orderId, employeeId)) {
-
-                    // Calculer les données de planification
-                    Integer cardCount = (Integer) order.get("cardCount");
-                    if (cardCount == null) {
-                        cardCount = (Integer) order.get("nombreCartes");
-                    }
-                    if (cardCount == null) {
-                        cardCount = 10; // Default fallback
-                    }
-
-                    int durationMinutes = Math.max(60, 30 + cardCount * 3);
-
-                    // ✅ Sauvegarder immédiatement en base
-                    boolean saved = savePlanningToDatabase(orderId, employeeId, day, month, year, durationMinutes, cardCount);
-
-                    if (saved) {
-                        String employeeName = employee.get("firstName") + " " + employee.get("lastName");
-
-                        // Créer l'objet résultat
-                        Map<String, Object> planning = new HashMap<>();
-                        planning.put("order_id", orderId);
-                        planning.put("employee_id", employeeId);
-                        planning.put("employee_name", employeeName);
-                        planning.put("duration_minutes", durationMinutes);
-                        planning.put("card_count", cardCount);
-                        planning.put("order_number", order.get("orderNumber"));
-                        planning.put("priority", order.get("priority"));
-
-                        createdPlannings.add(planning);
-
-                        log.info("✅ Order {} assigned to employee {} (saved to DB)",
-                                order.get("orderNumber"), employeeName);
-                    }
+            // 3. Split orders into days, then run round-robin per employee partition in parallel
+            List<List<PlanningSnapshot.Task>> tasksByDay = splitByDay(orders, from, days);
+            PlanningSnapshot snapshot = PlanningSnapshot.of(from, List.of(), employees);
+
+            long planStart = System.nanoTime();
+            List<PlanningAssignment> candidates = ParallelRangePlanner.plan(snapshot, tasksByDay, ForkJoinPool.commonPool());
+            long planMillis = (System.nanoTime() - planStart) / 1_000_000;
+
+            // 4. One set-based existence check instead of one COUNT(*) per order
+            Set<String> existingPairs = planningBatchWriter.findExistingPairs(candidates);
+            List<PlanningAssignment> toInsert = new ArrayList<>(candidates.size());
+            for (PlanningAssignment candidate : candidates) {
+                if (existingPairs.contains(PlanningBatchWriter.pairKey(candidate.orderId(), candidate.employeeId()))) {
+                    log.debug("Planning already exists for order {} and employee {}",
+                            candidate.orderId(), candidate.employeeId());
+                } else {
+                    toInsert.add(candidate);
                 }
+            }
 
-                employeeIndex++; // Toujours incrémenter pour maintenir la rotation
+            // 5. Flush everything as multi-row INSERTs in this transaction
+            PlanningBatchWriter.WriteResult writeResult = planningBatchWriter.insertAll(toInsert);
+
+            Map<String, PlanningSnapshot.Worker> employeesById = new HashMap<>();
+            for (PlanningSnapshot.Worker employee : employees) {
+                employeesById.put(employee.employeeId(), employee);
+            }
+            Map<String, PlanningSnapshot.Task> ordersById = new HashMap<>();
+            for (PlannableOrder order : orders) {
+                ordersById.put(order.orderId(), order.task());
             }
 
+            List<Map<String, Object>> createdPlannings = new ArrayList<>(toInsert.size());
+            for (PlanningAssignment assignment : toInsert) {
+                String employeeName = employeesById.get(assignment.employeeId()).name();
+                PlanningSnapshot.Task order = ordersById.get(assignment.orderId());
+
+                Map<String, Object> planning = new HashMap<>();
+                planning.put("order_id", assignment.orderId());
+                planning.put("employee_id", assignment.employeeId());
+                planning.put("employee_name", employeeName);
+                planning.put("duration_minutes", assignment.durationMinutes());
+                planning.put("card_count", assignment.cardCount());
+                planning.put("order_number", order.orderNumber());
+                planning.put("priority", order.priority());
+
+                createdPlannings.add(planning);
+            }
+
+            long totalMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            log.info("✅ {} orders assigned to {} employees (saved to DB) in {} ms (plan {} ms, write {} ms in {} statement(s))",
+                    createdPlannings.size(), employees.size(), totalMillis, planMillis,
+                    writeResult.elapsedMillis(), writeResult.statements());
+
             // Suite du code existant...
             result.put("success", true);
             result.put("message", String.format("✅ Greedy planning completed: %d assignments created",
@@ -122,11 +190,20 @@ public class GreedyPlanningService {
             result.put("totalPlannings", createdPlannings.size());
             result.put("totalEmployees", employees.size());
             result.put("totalOrders", orders.size());
+            result.put("skippedExisting", candidates.size() - toInsert.size());
+            result.put("fromDate", from.toString());
+            result.put("toDate", to.toString());
+            result.put("days", days);
+            result.put("planMillis", planMillis);
+            result.put("writeStatements", writeResult.statements());
+            result.put("writeMillis", writeResult.elapsedMillis());
+            result.put("totalMillis", totalMillis);
 
             return result;
 
         } catch (Exception e) {
             log.error("❌ Error in greedy planning: {}", e.getMessage(), e);
+            TransactionHelper.rollbackOnly();
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Error in greedy planning: " + e.getMessage());
@@ -134,6 +211,164 @@ public class GreedyPlanningService {
         }
     }
 
+    /**
+     * Deadline-aware planning: the unplanned backlog from a date is planned earliest due date
+     * first (due dates derived from the délai codes), on the employee available first
+     * Nothing is cleaned: only orders without a planning are taken, and appended after the
+     * start of the horizon. Predicted lateness is reported for every planned order.
+     * Not transactional: the snapshot and the local search (up to optimizeMillis) hold no
+     * connection, only the final insertAll opens a (write) transaction.
+     * @param from first plannable day; orders dated on or after it are taken
+     * @param maxOrders maximum number of orders
+     * @param optimizeMillis time budget of the local search run on the EDF result, 0 to skip it
+     * @return planning result with per-order lateness
+     */
+    public Map<String, Object> executeDeadlinePlanning(LocalDate from, int maxOrders, long optimizeMillis) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            log.info("⏰ Starting EDF planning from {} (max {} orders)", from, maxOrders);
+
+            PlanningSnapshot snapshot = snapshotCache.snapshot(from, maxOrders, 0, false);
+            if (snapshot.workers().isEmpty()) {
+                log.warn("❌ No active employees found");
+                result.put("success", false);
+                result.put("message", "❌ No employees available");
+                return result;
+            }
+            if (snapshot.tasks().isEmpty()) {
+                result.put("success", true);
+                result.put("message", "No orders to plan");
+                result.put("lateness", new ArrayList<>());
+                return result;
+            }
+
+            long planStart = System.nanoTime();
+            List<PlanningAssignment> assignments = deadlineAlgorithm.plan(snapshot);
+            long planMillis = (System.nanoTime() - planStart) / 1_000_000;
+
+            if (optimizeMillis > 0) {
+                long optimizeStart = System.nanoTime();
+                LocalSearchOptimizer.Result optimized = localSearchAlgorithm.improve(snapshot, assignments, optimizeMillis);
+                assignments = optimized.assignments();
+
+                Map<String, Object> optimization = new HashMap<>();
+                optimization.put("improved", optimized.improved());
+                optimization.put("initialCost", optimized.initialCost());
+                optimization.put("finalCost", optimized.finalCost());
+                optimization.put("iterations", optimized.iterations());
+                optimization.put("millis", (System.nanoTime() - optimizeStart) / 1_000_000);
+                result.put("optimization", optimization);
+                log.info("🔀 Local search: cost {} → {} after {} moves", optimized.initialCost(),
+                        optimized.finalCost(), optimized.iterations());
+            }
+
+            PlanningBatchWriter.WriteResult writeResult = planningBatchWriter.insertAll(assignments);
+
+            PlanningMetrics metrics = PlanningMetrics.evaluate(snapshot, assignments);
+            List<Map<String, Object>> lateness = new ArrayList<>();
+            for (PlanningMetrics.Lateness order : PlanningMetrics.lateness(snapshot, assignments)) {
+                lateness.add(order.toMap());
+            }
+
+            log.info("✅ EDF planning: {} orders, {} rows, {} late (max {} min)",
+                    metrics.plannedOrders(), assignments.size(), metrics.lateOrders(), metrics.maxLatenessMinutes());
+
+            result.put("success", true);
+            result.put("message", String.format("✅ EDF planning completed: %d orders planned, %d predicted late",
+                    metrics.plannedOrders(), metrics.lateOrders()));
+            result.put("algorithm", EarliestDeadlineFirstAlgorithm.NAME);
+            result.put("fromDate", from.toString());
+            result.put("totalOrders", snapshot.tasks().size());
+            result.put("totalEmployees", snapshot.workers().size());
+            result.put("totalPlannings", assignments.size());
+            result.put("metrics", metrics.toMap());
+            result.put("lateness", lateness);
+            result.put("planMillis", planMillis);
+            result.put("writeStatements", writeResult.statements());
+            result.put("writeMillis", writeResult.elapsedMillis());
+            return result;
+
+        } catch (Exception e) {
+            log.error("❌ Error in EDF planning: {}", e.getMessage(), e);
+            result.put("success", false);
+            result.put("message", "Error in EDF planning: " + e.getMessage());
+            return result;
+        }
+    }
+
+    /**
+     * Balanced planning: the unplanned backlog from a date is planned longest order first, each
+     * order on the least loaded grader (LPT), so that daily workloads end up even
+     * Durations follow the card rule of {@link DureeCalculator}. Nothing is cleaned: only orders
+     * without a planning are taken. The busiest grader's load is reported against the lower bound.
+     * @param from first plannable day; orders dated on or after it are taken
+     * @param maxOrders maximum number of orders, oldest first
+     * @return planning result with the makespan / lower bound ratio
+     */
+    @Transactional
+    public Map<String, Object> executeBalancedPlanning(LocalDate from, int maxOrders) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            log.info("⚖️ Starting LPT planning from {} (max {} orders)", from, maxOrders);
+
+            List<PlanningSnapshot.Worker> employees = snapshotCache.workers();
+            if (employees.isEmpty()) {
+                log.warn("❌ No active employees found");
+                result.put("success", false);
+                result.put("message", "❌ No employees available");
+                return result;
+            }
+            List<PlannableOrder> orders = snapshotCache.orders(from, maxOrders, false, PlannableOrder.BY_DATE);
+            if (orders.isEmpty()) {
+                result.put("success", true);
+                result.put("message", "No orders to plan");
+                return result;
+            }
+
+            List<PlanningSnapshot.Task> tasks = new ArrayList<>(orders.size());
+            for (PlannableOrder order : orders) {
+                PlanningSnapshot.Task task = order.task();
+                tasks.add(task.withDuration(DureeCalculator.calculerDureeMinutes(task.cardCount())));
+            }
+            PlanningSnapshot snapshot = PlanningSnapshot.of(from, tasks, employees);
+
+            long planStart = System.nanoTime();
+            List<PlanningAssignment> assignments = balancedAlgorithm.plan(snapshot);
+            long planMillis = (System.nanoTime() - planStart) / 1_000_000;
+
+            PlanningBatchWriter.WriteResult writeResult = planningBatchWriter.insertAll(assignments);
+            PlanningMetrics metrics = PlanningMetrics.evaluate(snapshot, assignments);
+
+            log.info("✅ LPT planning: {} orders, busiest grader {} min, lower bound {} min (ratio {})",
+                    metrics.plannedOrders(), metrics.maxLoadMinutes(), metrics.loadLowerBoundMinutes(),
+                    metrics.lowerBoundRatio());
+
+            result.put("success", true);
+            result.put("message", String.format("✅ LPT planning completed: %d orders planned, makespan ratio %.3f",
+                    metrics.plannedOrders(), metrics.lowerBoundRatio()));
+            result.put("algorithm", LongestProcessingTimeAlgorithm.NAME);
+            result.put("fromDate", from.toString());
+            result.put("totalOrders", tasks.size());
+            result.put("totalEmployees", employees.size());
+            result.put("totalPlannings", assignments.size());
+            result.put("maxLoadMinutes", metrics.maxLoadMinutes());
+            result.put("lowerBoundMinutes", metrics.loadLowerBoundMinutes());
+            result.put("makespanRatio", metrics.lowerBoundRatio());
+            result.put("metrics", metrics.toMap());
+            result.put("planMillis", planMillis);
+            result.put("writeStatements", writeResult.statements());
+            result.put("writeMillis", writeResult.elapsedMillis());
+            return result;
+
+        } catch (Exception e) {
+            log.error("❌ Error in LPT planning: {}", e.getMessage(), e);
+            TransactionHelper.rollbackOnly();
+            result.put("success", false);
+            result.put("message", "Error in LPT planning: " + e.getMessage());
+            return result;
+        }
+    }
+
     /**
      * Execute simple greedy planning without date parameters
      * @return planning result
@@ -157,17 +392,63 @@ public class GreedyPlanningService {
                 "Fast execution",
                 "Simple implementation",
                 "Predictable behavior",
-                "Even workload distribution"
+                "Even workload distribution",
+                "Orders go to employees with the skills their cards require (PUT /api/frontend/employees/{id}/skills)"
         ));
         info.put("disadvantages", List.of(
-                "May not find optimal solution",
-                "Doesn't consider employee skills",
-                "Ignores priority optimization",
+                "May not find optimal solution (POST /api/planning/greedy/deadline with optimizeMillis adds a local search phase)",
+                "Skills are only honoured once recorded: orders nobody is qualified for go to any employee",
+                "Ignores priority optimization (see /greedy/deadline)",
+                "Ignores order size (see /greedy/balanced)",
                 "No time slot optimization"
         ));
         return info;
     }
 
+    /**
+     * Deal the loaded orders (oldest first) into days, the way successive single-day runs would:
+     * each day takes the next ORDERS_PER_DAY orders not yet taken and dated on or after that day
+     */
+    private List<List<PlanningSnapshot.Task>> splitByDay(List<PlannableOrder> orders, LocalDate from, int days) {
+        List<List<PlanningSnapshot.Task>> tasksByDay = new ArrayList<>(days);
+        int next = 0;
+        for (int d = 0; d < days; d++) {
+            LocalDate day = from.plusDays(d);
+            // Orders dated before this day are no longer picked by the day query
+            while (next < orders.size() && isBefore(orders.get(next), day)) {
+                next++;
+            }
+            int end = Math.min(next + ORDERS_PER_DAY, orders.size());
+            List<PlanningSnapshot.Task> tasks = new ArrayList<>(end - next);
+            for (int i = next; i < end; i++) {
+                tasks.add(toTask(orders.get(i)));
+            }
+            tasksByDay.add(tasks);
+            next = end;
+        }
+        return tasksByDay;
+    }
+
+    private static boolean isBefore(PlannableOrder order, LocalDate day) {
+        return order.orderDate() != null && order.orderDate().isBefore(day);
+    }
+
+    /**
+     * Duration model of the greedy planner: 30 min setup + 3 min per card, at least 1 hour
+     */
+    private static PlanningSnapshot.Task toTask(PlannableOrder order) {
+        int cardCount = order.task().cardCount();
+
+        return new PlanningSnapshot.Task(
+                order.orderId(),
+                order.task().orderNumber(),
+                cardCount,
+                Math.max(60, 30 + cardCount * 3),
+                "MEDIUM",
+                null,
+                order.task().requiredSkills());
+    }
+
     /**
      * Validate planning parameters
      * @param day day of month
@@ -185,136 +466,20 @@ public class GreedyPlanningService {
     }
 
     /**
-     * Calculate basic statistics for greedy planning
-     * @param plannings list of planning entries
-     * @param employees list of employees
-     * @return statistics map
-     */
-    private Map<String, Object> calculateGreedyStatistics(List<Map<String, Object>> plannings,
-                                                          List<Map<String, Object>> employees) {
-        Map<String, Object> stats = new HashMap<>();
-
-        // Total assignments
-        stats.put("totalAssignments", plannings.size());
-
-        // Assignments per employee
-        Map<String, Integer> assignmentCounts = new HashMap<>();
-        int totalDuration = 0;
-
-        for (Map<String, Object> planning : plannings) {
-            String employeeId = (String) planning.get("employee_id");
-            assignmentCounts.merge(employeeId, 1, Integer::sum);
-
-            Integer duration = (Integer) planning.get("duration_minutes");
-            if (duration != null) {
-                totalDuration += duration;
-            }
-        }
-
-        stats.put("assignmentCounts", assignmentCounts);
-        stats.put("totalDurationMinutes", totalDuration);
-        stats.put("averageDurationMinutes", plannings.isEmpty() ? 0 : totalDuration / plannings.size());
-
-        // Employee utilization
-        if (!employees.isEmpty()) {
-            stats.put("employeesUsed", assignmentCounts.size());
-            stats.put("employeeUtilizationPercent",
-                    Math.round((double) assignmentCounts.size() / employees.size() * 100));
-        }
-
-        return stats;
-    }
-    /**
-     * Check if planning already exists for this order and employee
-     * @param orderId the order ID
-     * @param employeeId the employee ID
-     * @return true if planning exists, false otherwise
+     * Delete the plannings of the range; a failure propagates so nothing is planned on top of them
      */
-    private boolean isPlanningAlreadyExists(String orderId, String employeeId) {
-        try {
-            String checkSql = """
-        SELECT COUNT(*) FROM j_planning 
-        WHERE order_id = UNHEX(?) 
-        AND employee_id = UNHEX(?)
-        """;
-
-            Query checkQuery = entityManager.createNativeQuery(checkSql);
-            checkQuery.setParameter(1, orderId.replace("-", ""));
-            checkQuery.setParameter(2, employeeId.replace("-", ""));
-
-            Number count = (Number) checkQuery.getSingleResult();
-            boolean exists = count.intValue() > 0;
-
-            if (exists) {
-                log.debug("Planning already exists for order {} and employee {}", orderId, employeeId);
-            }
-
-            return exists;
-
-        } catch (Exception e) {
-            log.warn("Error checking existing planning: {}", e.getMessage());
-            return false; // Si erreur, on assume qu'il n'existe pas pour éviter de bloquer
-        }
-    }
-    private void cleanExistingPlanningsForDate(int day, int month, int year) {
-        try {
-            LocalDate targetDate = LocalDate.of(year, month, day);
-
-            String deleteSql = """
+    private void cleanExistingPlanningsForRange(LocalDate from, LocalDate to) {
+        String deleteSql = """
         DELETE FROM j_planning 
-        WHERE planning_date = ?
-        """;
-
-            Query deleteQuery = entityManager.createNativeQuery(deleteSql);
-            deleteQuery.setParameter(1, targetDate);
-
-            int deletedCount = deleteQuery.executeUpdate();
-            log.info("🗑️ Cleaned {} existing plannings for date {}", deletedCount, targetDate);
-
-        } catch (Exception e) {
-            log.warn("Error cleaning existing plannings: {}", e.getMessage());
-        }
-    }
-
-    private boolean savePlanningToDatabase(String orderId, String employeeId, int day, int month, int year,
-                                           int durationMinutes, int cardCount) {
-        try {
-            LocalDate planningDate = LocalDate.of(year, month, day);
-            LocalTime startTime = LocalTime.of(9, 0); // Heure de début par défaut
-            LocalDateTime startDateTime = LocalDateTime.of(planningDate, startTime);
-            LocalDateTime endDateTime = startDateTime.plusMinutes(durationMinutes);
-
-            String planningId = UUID.randomUUID().toString().replace("-", "");
-
-            String insertSql = """
-        INSERT INTO j_planning 
-        (id, order_id, employee_id, planning_date, start_time, end_time, 
-         estimated_duration_minutes, estimated_end_time, priority, status, 
-         completed, card_count, notes, created_at, updated_at)
-        VALUES (UNHEX(?), UNHEX(?), UNHEX(?), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())
+        WHERE planning_date BETWEEN ? AND ?
         """;
 
-            Query insertQuery = entityManager.createNativeQuery(insertSql);
-            insertQuery.setParameter(1, planningId);
-            insertQuery.setParameter(2, orderId.replace("-", ""));
-            insertQuery.setParameter(3, employeeId.replace("-", ""));
-            insertQuery.setParameter(4, planningDate);
-            insertQuery.setParameter(5, startDateTime);
-            insertQuery.setParameter(6, endDateTime);
-            insertQuery.setParameter(7, durationMinutes);
-            insertQuery.setParameter(8, endDateTime);
-            insertQuery.setParameter(9, "MEDIUM");
-            insertQuery.setParameter(10, "SCHEDULED");
-            insertQuery.setParameter(11, 0); // completed = false
-            insertQuery.setParameter(12, cardCount);
-            insertQuery.setParameter(13, String.format("Auto-generated planning for %d cards", cardCount));
-
-            int rowsAffected = insertQuery.executeUpdate();
-            return rowsAffected > 0;
+        Query deleteQuery = entityManager.createNativeQuery(deleteSql);
+        deleteQuery.setParameter(1, from);
+        deleteQuery.setParameter(2, to);
 
-        } catch (Exception e) {
-            log.error("Error saving planning to database: {}", e.getMessage());
-            return false;
-        }
+        int deletedCount = deleteQuery.executeUpdate();
+        dailyLoadService.refreshRange(from, to);
+        log.info("🗑️ Cleaned {} existing plannings from {} to {}", deletedCount, from, to);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+package com.pcagrade.order.service;
+
+import com.pcagrade.order.entity.Order;
+import com.pcagrade.order.event.OrderChangedEvent;
+import com.pcagrade.order.service.planning.IncrementalPlanner;
+import com.pcagrade.order.service.planning.PlanningAssignment;
+import com.pcagrade.order.service.planning.PlanningSnapshot;
+import com.pcagrade.order.util.TransactionHelper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 🔁 INCREMENTAL PLANNING - applique les changements de commandes au planning existant
+ * Au lieu de supprimer et reconstruire j_planning, seules les lignes concernées sont
+ * insérées, déplacées ou supprimées. Les tâches déjà commencées ne bougent pas.
+ * Chaque application prend le PlanningWriteLock avant de lire le planning : deux changements
+ * simultanés, ou un job de planification en cours, ne placent pas deux fois la même commande.
+ */
+@Service
+@Slf4j
+public class IncrementalPlanningService {
+
+    private static final int MINUTES_PER_CARD = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlanningSnapshotCache snapshotCache;
+
+    @Autowired
+    private PlanningBatchWriter planningBatchWriter;
+
+    @Autowired
+    private PlanningWriteLock writeLock;
+
+    /**
+     * Re-plan after an order change, once the order transaction has committed
+     * Runs after PlanningSnapshotCache has re-read the order.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrderChanged(OrderChangedEvent event) {
+        try {
+            String orderId = event.orderHexId();
+            List<String> added = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+
+            switch (event.type()) {
+                case CREATED -> added.add(orderId);
+                case DELETED -> removed.add(orderId);
+                case UPDATED -> {
+                    // Card count may have changed: re-place the part not started yet
+                    removed.add(orderId);
+                    added.add(orderId);
+                }
+                case STATUS_CHANGED -> {
+                    if (event.status() == Order.OrderStatus.CANCELLED) {
+                        removed.add(orderId);
+                    } else if (event.status() == Order.OrderStatus.PENDING
+                            || event.status() == Order.OrderStatus.SCHEDULED) {
+                        added.add(orderId);
+                    }
+                }
+            }
+
+            if (!added.isEmpty() || !removed.isEmpty()) {
+                apply(added, removed);
+            }
+        } catch (Exception e) {
+            // Never fail the order update because of planning; the next run will catch up
+            TransactionHelper.rollbackOnly();
+            log.error("❌ Incremental planning failed for order {}: {}", event.orderId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Apply a delta to the current schedule
+     * The orders are re-read first: they may have changed outside OrderService.
+     * @param addedOrderIds orders to plan (ignored if already planned)
+     * @param removedOrderIds orders whose not-started rows must go
+     * @return counts of inserted, moved and deleted rows
+     */
+    @Transactional
+    public Map<String, Object> applyDelta(Collection<String> addedOrderIds, Collection<String> removedOrderIds) {
+        Set<String> changed = new HashSet<>(addedOrderIds);
+        changed.addAll(removedOrderIds);
+        snapshotCache.refreshOrders(changed);
+        return apply(addedOrderIds, removedOrderIds);
+    }
+
+    private Map<String, Object> apply(Collection<String> addedOrderIds, Collection<String> removedOrderIds) {
+        long startNanos = System.nanoTime();
+        // Held until commit: the schedule and planned orders read below stay true while writing
+        writeLock.acquire();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+
+        List<PlanningSnapshot.Task> addedTasks = snapshotCache.tasks(addedOrderIds, MINUTES_PER_CARD);
+        List<PlanningSnapshot.Worker> workers = snapshotCache.workers();
+        List<PlanningAssignment> schedule = loadSchedule(today);
+        Set<String> removed = new HashSet<>();
+        for (String id : removedOrderIds) {
+            removed.add(PlanningBatchWriter.normalizeId(id));
+        }
+
+        // Rows before today or already finished are not in the schedule but still cover the order
+        Map<String, Integer> plannedMinutes = planningBatchWriter.findPlannedMinutes(
+                addedTasks.stream().map(PlanningSnapshot.Task::orderId).toList());
+
+        IncrementalPlanner.Result delta = IncrementalPlanner.apply(
+                PlanningSnapshot.of(today, addedTasks, workers), schedule, removed, plannedMinutes, now);
+
+        int deleted = delta.deletedIds().isEmpty() ? 0 : planningBatchWriter.deleteByIds(delta.deletedIds());
+        int moved = delta.moved().isEmpty() ? 0 : planningBatchWriter.updateSlots(delta.moved());
+        int inserted = delta.inserted().isEmpty() ? 0 : planningBatchWriter.insertAll(delta.inserted()).rowsInserted();
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        log.info("🔁 Incremental planning: +{} added, {} removed → {} inserted, {} moved, {} deleted ({} ms)",
+                addedOrderIds.size(), removedOrderIds.size(), inserted, moved, deleted, elapsedMillis);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("inserted", inserted);
+        result.put("moved", moved);
+        result.put("deleted", deleted);
+        result.put("scheduleRows", schedule.size());
+        result.put("elapsedMillis", elapsedMillis);
+        return result;
+    }
+
+    /**
+     * Current schedule from today on, except finished or cancelled rows
+     */
+    private List<PlanningAssignment> loadSchedule(LocalDate from) {
+        String sql = """
+            SELECT
+                HEX(p.id), HEX(p.order_id), HEX(p.employee_id),
+                p.planning_date, p.start_time, p.estimated_duration_minutes,
+                p.priority, p.status, p.card_count, p.notes
+            FROM j_planning p
+            WHERE p.planning_date >= ?
+            AND p.start_time IS NOT NULL
+            AND COALESCE(p.status, 'SCHEDULED') IN ('SCHEDULED', 'IN_PROGRESS', 'PAUSED')
+            """;
+
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter(1, from);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+
+        List<PlanningAssignment> schedule = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            LocalDateTime start = PlanningSnapshotLoader.toLocalDateTime(row[4]);
+            if (start == null) {
+                continue;
+            }
+            schedule.add(new PlanningAssignment(
+                    (String) row[0],
+                    (String) row[1],
+                    (String) row[2],
+                    start.toLocalDate(),
+                    start,
+                    row[5] != null ? ((Number) row[5]).intValue() : 0,
+                    (String) row[6],
+                    row[7] != null ? (String) row[7] : "SCHEDULED",
+                    row[8] != null ? ((Number) row[8]).intValue() : 0,
+                    (String) row[9]));
+        }
+        return schedule;
+    }
+}
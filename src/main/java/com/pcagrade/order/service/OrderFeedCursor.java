@@ -0,0 +1,43 @@
+package com.pcagrade.order.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the order feed: the (date, id) key of the last order sent
+ * Clients get it as an opaque token and send it back to continue after that order.
+ *
+ * @param date order date of the last order sent
+ * @param orderId upper-case hex id of the last order sent
+ */
+public record OrderFeedCursor(LocalDateTime date, String orderId) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Opaque URL-safe token
+     */
+    public String encode() {
+        String raw = date + String.valueOf(SEPARATOR) + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a token produced by {@link #encode()}
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static OrderFeedCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            String orderId = raw.substring(separator + 1);
+            if (separator < 0 || !orderId.matches("[0-9A-F]{32}")) {
+                throw new IllegalArgumentException("bad cursor content");
+            }
+            return new OrderFeedCursor(LocalDateTime.parse(raw.substring(0, separator)), orderId);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.pcagrade.order.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 📡 ORDER FEED - parcours de toute la table `order` par curseur (date, id)
+ * Les commandes sont lues par pages de PAGE_SIZE (pagination par clé, jamais d'OFFSET) et
+ * envoyées au fur et à mesure : la mémoire reste bornée à une page quelle que soit la taille
+ * de la table.
+ */
+@Service
+@Slf4j
+public class OrderFeedService {
+
+    /**
+     * Rows read per query, also the JDBC fetch size
+     */
+    static final int PAGE_SIZE = 500;
+
+    public static final int DEFAULT_LIMIT = 5_000;
+    public static final int MAX_LIMIT = 100_000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CardCountService cardCountService;
+
+    /**
+     * Receives the feed one order at a time
+     */
+    @FunctionalInterface
+    public interface OrderSink {
+        void accept(Map<String, Object> order) throws IOException;
+    }
+
+    /**
+     * Send orders in (date, id) order, starting after the cursor
+     * @param since only orders dated on or after this day (null for all)
+     * @param cursor continue after this order (null to start from the beginning)
+     * @param limit maximum number of orders to send, capped at MAX_LIMIT
+     * @param sink receives each order
+     * @return cursor to continue from, or null when the feed is exhausted
+     */
+    @Transactional(readOnly = true)
+    public OrderFeedCursor stream(LocalDate since, OrderFeedCursor cursor, int limit, OrderSink sink) throws IOException {
+        long startNanos = System.nanoTime();
+        int remaining = Math.min(limit > 0 ? limit : DEFAULT_LIMIT, MAX_LIMIT);
+        OrderFeedCursor position = cursor;
+        int sent = 0;
+
+        while (remaining > 0) {
+            // One extra row tells whether there is anything after this request
+            int pageSize = Math.min(PAGE_SIZE, remaining);
+            List<Object[]> rows = fetchPage(since, position, pageSize + 1);
+            boolean more = rows.size() > pageSize;
+            List<Object[]> page = more ? rows.subList(0, pageSize) : rows;
+
+            Map<String, Integer> cardCounts = cardCountService.countByOrderIds(
+                    page.stream().map(row -> (String) row[0]).toList());
+
+            for (Object[] row : page) {
+                Map<String, Object> order = toMap(row, cardCounts);
+                sink.accept(order);
+                position = new OrderFeedCursor((LocalDateTime) order.get("orderDate"), (String) row[0]);
+            }
+            sent += page.size();
+            remaining -= page.size();
+
+            // The persistence context holds nothing for scalar rows, but keep it empty anyway
+            entityManager.clear();
+
+            if (!more) {
+                position = null;
+                break;
+            }
+        }
+
+        log.info("📡 Order feed: {} orders sent since {} ({} ms){}", sent, since,
+                (System.nanoTime() - startNanos) / 1_000_000, position != null ? ", more available" : "");
+        return position;
+    }
+
+    /**
+     * Send orders dated on or after a day, newest first (keyset on (date, id) descending), with
+     * their j_certification card counts: the rows of /api/orders/since-june-2025
+     * Same paging as {@link #stream}: one page in memory, one grouped count query per page
+     * instead of two correlated COUNT(*) per order.
+     * @param since only orders dated on or after this day
+     * @param cursor continue with the orders older than this one (null to start from the newest)
+     * @param limit maximum number of orders to send, capped at MAX_LIMIT
+     * @param sink receives each order: id, orderNumber, priority, status (raw), creationDate,
+     *             fullTimestamp, estimatedTimeMinutes, totalPrice, cardCount, cardsWithName
+     * @return cursor to continue from, or null when there is nothing older
+     */
+    @Transactional(readOnly = true)
+    public OrderFeedCursor streamNewestFirst(LocalDate since, OrderFeedCursor cursor, int limit, OrderSink sink) throws IOException {
+        int remaining = Math.min(limit > 0 ? limit : DEFAULT_LIMIT, MAX_LIMIT);
+        OrderFeedCursor position = cursor;
+
+        while (remaining > 0) {
+            int pageSize = Math.min(PAGE_SIZE, remaining);
+            List<Object[]> rows = fetchNewestFirstPage(since, position, pageSize + 1);
+            boolean more = rows.size() > pageSize;
+            List<Object[]> page = more ? rows.subList(0, pageSize) : rows;
+
+            Map<String, long[]> certifications = countCertifications(page.stream().map(row -> (String) row[0]).toList());
+
+            for (Object[] row : page) {
+                long[] counts = certifications.getOrDefault((String) row[0], new long[2]);
+                Map<String, Object> order = new LinkedHashMap<>();
+                order.put("id", row[0]);
+                order.put("orderNumber", row[1]);
+                order.put("priority", row[2]);
+                order.put("status", row[3]);
+                order.put("creationDate", row[4]);
+                order.put("fullTimestamp", row[5]);
+                order.put("estimatedTimeMinutes", row[6]);
+                order.put("totalPrice", row[7]);
+                order.put("cardCount", (int) counts[0]);
+                order.put("cardsWithName", (int) counts[1]);
+                sink.accept(order);
+                position = new OrderFeedCursor(PlanningSnapshotLoader.toLocalDateTime(row[5]), (String) row[0]);
+            }
+            remaining -= page.size();
+            entityManager.clear();
+
+            if (!more) {
+                position = null;
+                break;
+            }
+        }
+        return position;
+    }
+
+    private List<Object[]> fetchNewestFirstPage(LocalDate since, OrderFeedCursor after, int size) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT
+                HEX(o.id) as id,
+                o.num_commande as orderNumber,
+                COALESCE(o.priorite_string, 'MEDIUM') as priority,
+                o.status,
+                DATE(o.date) as creationDate,
+                o.date as fullTimestamp,
+                COALESCE(o.temps_estime_minutes, 0) as estimatedTimeMinutes,
+                COALESCE(o.prix_total, 0) as totalPrice
+            FROM `order` o
+            WHERE o.date >= ?
+            """);
+
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(since);
+        if (after != null) {
+            // Expanded form of (o.date, o.id) < (?, ?)
+            sql.append(" AND (o.date < ? OR (o.date = ? AND o.id < UNHEX(?)))");
+            parameters.add(after.date());
+            parameters.add(after.date());
+            parameters.add(after.orderId());
+        }
+        sql.append(" ORDER BY o.date DESC, o.id DESC LIMIT ?");
+        parameters.add(size);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setHint("org.hibernate.fetchSize", PAGE_SIZE);
+        query.setHint("org.hibernate.readOnly", true);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows;
+    }
+
+    /**
+     * @return upper-case hex id → {cards, cards with a name}; orders without cards are absent
+     */
+    private Map<String, long[]> countCertifications(List<String> orderIds) {
+        Map<String, long[]> counts = new HashMap<>(orderIds.size() * 2);
+        if (orderIds.isEmpty()) {
+            return counts;
+        }
+        Query query = entityManager.createNativeQuery("""
+            SELECT HEX(c.order_id), COUNT(*), SUM(CASE WHEN c.nom IS NOT NULL AND c.nom != '' THEN 1 ELSE 0 END)
+            FROM j_certification c
+            WHERE c.order_id IN (""" + PlanningBatchWriter.placeholders(orderIds.size(), "UNHEX(?)") + ") GROUP BY c.order_id");
+        for (int i = 0; i < orderIds.size(); i++) {
+            query.setParameter(i + 1, orderIds.get(i));
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        for (Object[] row : rows) {
+            counts.put((String) row[0], new long[]{((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+        }
+        return counts;
+    }
+
+    private List<Object[]> fetchPage(LocalDate since, OrderFeedCursor after, int size) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT
+                HEX(o.id) as id,
+                o.num_commande as orderNumber,
+                o.date as orderDate,
+                o.delai as deadline,
+                CASE
+                    WHEN o.delai = 'X' THEN 'URGENT'
+                    WHEN o.delai = 'F+' THEN 'HIGH'
+                    WHEN o.delai = 'F' THEN 'HIGH'
+                    WHEN o.delai = 'E' THEN 'MEDIUM'
+                    WHEN o.delai = 'C' THEN 'LOW'
+                    ELSE 'MEDIUM'
+                END as priority,
+                o.status,
+                o.prix_total as totalPrice,
+                COALESCE(o.annulee, 0) as cancelled
+            FROM `order` o
+            WHERE o.date IS NOT NULL
+            """);
+
+        List<Object> parameters = new ArrayList<>();
+        if (since != null) {
+            sql.append(" AND o.date >= ?");
+            parameters.add(since);
+        }
+        if (after != null) {
+            // Expanded form of (o.date, o.id) > (?, ?): range scan on the date index
+            sql.append(" AND (o.date > ? OR (o.date = ? AND o.id > UNHEX(?)))");
+            parameters.add(after.date());
+            parameters.add(after.date());
+            parameters.add(after.orderId());
+        }
+        sql.append(" ORDER BY o.date ASC, o.id ASC LIMIT ?");
+        parameters.add(size);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setHint("org.hibernate.fetchSize", PAGE_SIZE);
+        query.setHint("org.hibernate.readOnly", true);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows;
+    }
+
+    private static Map<String, Object> toMap(Object[] row, Map<String, Integer> cardCounts) {
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("id", row[0]);
+        order.put("orderNumber", row[1]);
+        order.put("orderDate", PlanningSnapshotLoader.toLocalDateTime(row[2]));
+        order.put("deadline", row[3]);
+        order.put("priority", row[4]);
+        order.put("status", row[5]);
+        order.put("totalPrice", row[6]);
+        order.put("cancelled", row[7] != null && ((Number) row[7]).intValue() != 0);
+        order.put("cardCount", cardCounts.getOrDefault((String) row[0], 0));
+        return order;
+    }
+}
@@ -0,0 +1,213 @@
+package com.pcagrade.order.service;
+
+import com.pcagrade.order.config.DbConcurrencyLimiter;
+import com.pcagrade.order.entity.Order;
+import com.pcagrade.order.event.OrderChangedEvent;
+import com.pcagrade.order.repository.OrderRepository;
+import com.pcagrade.order.service.search.OrderSearchIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 🔍 ORDER SEARCH - recherche par numéro de commande et nom client
+ * Index trigramme en mémoire construit au démarrage (en tâche de fond) puis tenu à jour par
+ * OrderChangedEvent. Tant que l'index n'est pas prêt, la recherche passe par une requête
+ * paginée en base.
+ */
+@Service
+@Slf4j
+public class OrderSearchService {
+
+    private static final int INDEX_PAGE_SIZE = 2_000;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DbConcurrencyLimiter dbLimiter;
+
+    private volatile OrderSearchIndex index;
+
+    // Orders changed while the index is being rebuilt, replayed once it is swapped in
+    private final Set<UUID> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    // Blocking JDBC reads and limiter waits: kept off the common pool used by planning
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param total number of matching orders
+     * @param orders requested page, best match first
+     * @param indexed false when answered by the database fallback
+     */
+    public record SearchResult(long total, List<Order> orders, boolean indexed) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexInBackground() {
+        try {
+            indexExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    log.error("❌ Order search index build failed: {}", e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ Order search index build not started: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexExecutor.shutdownNow();
+    }
+
+    /**
+     * Search orders by number or customer name
+     * @param term text contained in the order number or customer name; blank for any
+     * @param status status filter, null for any
+     * @param priority priority filter, null for any
+     * @param page page number, from 0
+     * @param size page size
+     */
+    public SearchResult search(String term, Order.OrderStatus status, Order.OrderPriority priority, int page, int size) {
+        OrderSearchIndex current = index;
+        if (current == null) {
+            return searchDatabase(term, status, priority, page, size);
+        }
+
+        OrderSearchIndex.Result result = current.search(term,
+                status != null ? status.name() : null,
+                priority != null ? priority.name() : null,
+                page * size, size);
+
+        List<UUID> ids = result.hits().stream().map(hit -> UUID.fromString(hit.orderId())).toList();
+        Map<UUID, Order> byId = new HashMap<>();
+        for (Order order : orderRepository.findAllById(ids)) {
+            byId.put(order.getId(), order);
+        }
+        List<Order> orders = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Order order = byId.get(id);
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        return new SearchResult(result.total(), orders, true);
+    }
+
+    /**
+     * Keep the index in sync once the order change has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (rebuilding) {
+            changedDuringRebuild.add(event.orderId());
+        }
+        OrderSearchIndex current = index;
+        if (current != null) {
+            reindex(current, event.orderId());
+        }
+    }
+
+    /**
+     * Build a fresh index from the database, reading orders by id pages
+     * Background work: each page waits for a READ permit of the limiter, like a request would.
+     */
+    public void rebuild() {
+        long startNanos = System.nanoTime();
+        rebuilding = true;
+        try {
+            OrderSearchIndex fresh = new OrderSearchIndex();
+            UUID after = new UUID(0L, 0L);
+            List<Order> page;
+            do {
+                try (DbConcurrencyLimiter.Permit permit = dbLimiter.acquire(DbConcurrencyLimiter.EndpointClass.READ)) {
+                    page = orderRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, INDEX_PAGE_SIZE));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("⚠️ Order search index build interrupted");
+                    return;
+                }
+                for (Order order : page) {
+                    fresh.put(toEntry(order));
+                }
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == INDEX_PAGE_SIZE);
+
+            index = fresh;
+            log.info("🔍 Order search index built: {} orders ({} ms)",
+                    fresh.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        } finally {
+            rebuilding = false;
+        }
+
+        // Changes that happened while reading may be missing from the pages already read
+        for (Iterator<UUID> it = changedDuringRebuild.iterator(); it.hasNext(); ) {
+            reindex(index, it.next());
+            it.remove();
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        OrderSearchIndex current = index;
+        Map<String, Object> status = new HashMap<>();
+        status.put("ready", current != null);
+        status.put("rebuilding", rebuilding);
+        status.put("indexedOrders", current != null ? current.size() : 0);
+        return status;
+    }
+
+    private void reindex(OrderSearchIndex target, UUID orderId) {
+        try {
+            Optional<Order> order = orderRepository.findById(orderId);
+            if (order.isPresent()) {
+                target.put(toEntry(order.get()));
+            } else {
+                target.remove(orderId.toString());
+            }
+        } catch (Exception e) {
+            log.error("❌ Order search index update failed for {}: {}", orderId, e.getMessage());
+        }
+    }
+
+    private SearchResult searchDatabase(String term, Order.OrderStatus status, Order.OrderPriority priority,
+                                        int page, int size) {
+        String likeTerm = term != null && !term.isBlank()
+                ? "%" + term.trim().toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%"
+                : null;
+        Page<Order> result = orderRepository.search(likeTerm, status, priority,
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id")));
+        return new SearchResult(result.getTotalElements(), result.getContent(), false);
+    }
+
+    private static OrderSearchIndex.Entry toEntry(Order order) {
+        return new OrderSearchIndex.Entry(
+                order.getId().toString(),
+                order.getOrderNumber(),
+                order.getCustomerName(),
+                order.getStatus() != null ? order.getStatus().name() : null,
+                order.getPriority() != null ? order.getPriority().name() : null);
+    }
+}
@@ -4,14 +4,20 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import com.pcagrade.order.util.UlidHelper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
+import com.pcagrade.order.dto.PlanningOrderRow;
 import com.pcagrade.order.entity.Order;
+import com.pcagrade.order.event.OrderChangedEvent;
 import com.pcagrade.order.repository.OrderRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -39,6 +45,13 @@ public class OrderService {
     private static final int DEFAULT_PROCESSING_TIME_PER_CARD = 3; // minutes per card
     private static final int MAX_CARDS_PER_ORDER = 1000;
     private static final int MIN_CARDS_PER_ORDER = 1;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_PAGE_SIZE = 500;
+
+    /**
+     * Planning rows of one order (isOrderAlreadyPlanned)
+     */
+    public static final String PLANNED_ORDER_COUNT_SQL = "SELECT COUNT(*) FROM j_planning WHERE order_id = ?";
 
     @Autowired
     private OrderRepository orderRepository;
@@ -46,6 +59,15 @@ public class OrderService {
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CardCountService cardCountService;
+
+    @Autowired
+    private OrderSearchService orderSearchService;
+
     // ========== CRUD OPERATIONS ==========
 
     /**
@@ -75,6 +97,8 @@ public class OrderService {
 
         Order savedOrder = orderRepository.save(order);
         log.info("Order created successfully with ID: {}", savedOrder.getId());
+        eventPublisher.publishEvent(new OrderChangedEvent(savedOrder.getId(),
+                OrderChangedEvent.ChangeType.CREATED, null, savedOrder.getStatus()));
         return savedOrder;
     }
 
@@ -97,6 +121,8 @@ public class OrderService {
 
         Order updatedOrder = orderRepository.save(order);
         log.info("Order updated successfully: {}", updatedOrder.getId());
+        eventPublisher.publishEvent(new OrderChangedEvent(updatedOrder.getId(),
+                OrderChangedEvent.ChangeType.UPDATED, updatedOrder.getStatus(), updatedOrder.getStatus()));
         return updatedOrder;
     }
 
@@ -143,6 +169,7 @@ public class OrderService {
 
         orderRepository.deleteById(id);
         log.info("Order deleted successfully: {}", id);
+        eventPublisher.publishEvent(new OrderChangedEvent(id, OrderChangedEvent.ChangeType.DELETED, null, null));
     }
 
     // ========== ORDER STATUS OPERATIONS ==========
@@ -224,6 +251,7 @@ public class OrderService {
         // Validate status transition
         validateStatusTransition(order.getStatus(), newStatus);
 
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(newStatus);
 
         // Set processing dates based on status
@@ -235,6 +263,8 @@ public class OrderService {
 
         Order updatedOrder = orderRepository.save(order);
         log.info("Order status updated successfully: {} -> {}", orderId, newStatus);
+        eventPublisher.publishEvent(new OrderChangedEvent(orderId,
+                OrderChangedEvent.ChangeType.STATUS_CHANGED, previousStatus, newStatus));
         return updatedOrder;
     }
 
@@ -255,14 +285,25 @@ public class OrderService {
      * @param day day of the month
      * @param month month (1-12)
      * @param year year
-     * @return list of orders as maps for compatibility (excluding already planned)
+     * @return orders waiting for planning (excluding already planned)
+     */
+    @Transactional(readOnly = true)
+    public List<PlanningOrderRow> getOrdersForPlanning(int day, int month, int year) {
+        return getOrdersForPlanning(LocalDate.of(year, month, day), 100);
+    }
+
+    /**
+     * Get unplanned orders since a date, most urgent délai code first, then oldest
+     * @param from first order date
+     * @param limit maximum number of orders
+     * @return orders waiting for planning (excluding already planned)
      */
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getOrdersForPlanning(int day, int month, int year) {
+    public List<PlanningOrderRow> getOrdersForPlanning(LocalDate from, int limit) {
         try {
-            log.info("📋 Loading orders for planning since {}/{}/{} (excluding already planned)", day, month, year);
+            log.info("📋 Loading up to {} orders for planning since {} (excluding already planned)", limit, from);
 
-            String fromDate = String.format("%04d-%02d-%02d", year, month, day);
+            String fromDate = from.toString();
 
             String sql = """
             SELECT DISTINCT
@@ -270,10 +311,6 @@ public class OrderService {
                 o.num_commande as orderNumber,
                 o.date as orderDate,
                 COALESCE(o.delai, 'MEDIUM') as deadline,
-                COALESCE(
-                    (SELECT COUNT(*) FROM card_certification_order cco 
-                     WHERE cco.order_id = o.id), 10
-                ) as cardCount,
                 CASE 
                     WHEN o.delai = 'X' THEN 'URGENT'
                     WHEN o.delai = 'F+' THEN 'HIGH'
@@ -292,36 +329,33 @@ public class OrderService {
                 SELECT 1 FROM j_planning jp 
                 WHERE jp.order_id = o.id
             )
-            ORDER BY o.date ASC
-            LIMIT 100
+            ORDER BY
+                CASE o.delai
+                    WHEN 'X' THEN 1
+                    WHEN 'F+' THEN 2
+                    WHEN 'F' THEN 3
+                    WHEN 'E' THEN 4
+                    WHEN 'C' THEN 5
+                    ELSE 4
+                END,
+                o.date ASC
+            LIMIT ?
             """;
 
             Query query = entityManager.createNativeQuery(sql);
             query.setParameter(1, fromDate);
+            query.setParameter(2, limit);
 
             @SuppressWarnings("unchecked")
             List<Object[]> results = query.getResultList();
 
-            List<Map<String, Object>> orders = new ArrayList<>();
+            // Cartes comptées pour la page uniquement, en une requête groupée
+            Map<String, Integer> cardCounts = cardCountService.countByOrderIds(
+                    results.stream().map(row -> (String) row[0]).toList());
 
+            List<PlanningOrderRow> orders = new ArrayList<>(results.size());
             for (Object[] row : results) {
-                Map<String, Object> order = new HashMap<>();
-                order.put("id", (String) row[0]);
-                order.put("orderNumber", (String) row[1]);
-                order.put("numeroCommande", (String) row[1]);
-                order.put("orderDate", row[2]);
-                order.put("date", row[2]);
-                order.put("deadline", (String) row[3]);
-                order.put("delai", (String) row[3]);
-                order.put("cardCount", ((Number) row[4]).intValue());
-                order.put("nombreCartes", ((Number) row[4]).intValue());
-                order.put("priority", (String) row[5]);
-                order.put("priorite", (String) row[5]);
-                order.put("status", row[6]);
-                order.put("totalPrice", row[7]);
-                order.put("prixTotal", row[7]);
-
-                orders.add(order);
+                orders.add(PlanningOrderRow.fromRow(row, cardCounts.getOrDefault((String) row[0], 0)));
             }
 
             log.info("✅ {} orders loaded for planning (excluding already planned)", orders.size());
@@ -375,9 +409,8 @@ public class OrderService {
     @Transactional(readOnly = true)
     public boolean isOrderAlreadyPlanned(String orderId) {
         try {
-            String sql = "SELECT COUNT(*) FROM j_planning WHERE HEX(order_id) = ?";
-            Query query = entityManager.createNativeQuery(sql);
-            query.setParameter(1, orderId.replace("-", ""));
+            Query query = entityManager.createNativeQuery(PLANNED_ORDER_COUNT_SQL);
+            query.setParameter(1, UlidHelper.idToBytes(orderId));
             Number count = (Number) query.getSingleResult();
             return count.intValue() > 0;
         } catch (Exception e) {
@@ -388,18 +421,27 @@ public class OrderService {
 
     /**
      * Get all orders as map for compatibility
+     * Read by id pages (keyset, no findAll): only one page of entities is managed at a time.
+     * The returned list still holds every order; large reads should page with
+     * getOrdersPageAsMap or stream GET /api/orders/feed.
      * @return list of orders as maps
      */
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getAllOrdersAsMap() {
         try {
-            List<Order> orders = orderRepository.findAll();
             List<Map<String, Object>> result = new ArrayList<>();
-
-            for (Order order : orders) {
-                Map<String, Object> orderMap = convertOrderToMap(order);
-                result.add(orderMap);
-            }
+            UUID after = new UUID(0L, 0L);
+            List<Order> page;
+            do {
+                page = orderRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, OrderFeedService.PAGE_SIZE));
+                for (Order order : page) {
+                    result.add(convertOrderToMap(order));
+                }
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1).getId();
+                }
+                entityManager.clear();
+            } while (page.size() == OrderFeedService.PAGE_SIZE);
 
             return result;
 
@@ -409,6 +451,21 @@ public class OrderService {
         }
     }
 
+    /**
+     * Get one page of orders as maps, read from the database (no findAll)
+     * @param page page number, from 0
+     * @param size page size
+     * @return orders of that page, by id (ULIDs sort by creation time)
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getOrdersPageAsMap(int page, int size) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Order order : getAllOrders(PageRequest.of(page, size, Sort.by("id"))).getContent()) {
+            result.add(convertOrderToMap(order));
+        }
+        return result;
+    }
+
     // ========== VALIDATION METHODS ==========
 
     /**
@@ -491,15 +548,22 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public List<Order> searchOrders(String searchTerm, Order.OrderStatus status, Order.OrderPriority priority) {
-        // Implementation would depend on specific search requirements
-        // For now, return a basic filtered list
-        return orderRepository.findAll().stream()
-                .filter(order -> searchTerm == null ||
-                        order.getOrderNumber().toLowerCase().contains(searchTerm.toLowerCase()) ||
-                        order.getCustomerName().toLowerCase().contains(searchTerm.toLowerCase()))
-                .filter(order -> status == null || order.getStatus().equals(status))
-                .filter(order -> priority == null || order.getPriority().equals(priority))
-                .collect(Collectors.toList());
+        return searchOrders(searchTerm, status, priority, 0, DEFAULT_SEARCH_PAGE_SIZE).orders();
+    }
+
+    /**
+     * Search orders by number or customer name, best matches first
+     * @param searchTerm text contained in the order number or customer name (null for any)
+     * @param status status filter (null for any)
+     * @param priority priority filter (null for any)
+     * @param page page number, from 0
+     * @param size page size
+     * @return total count and the requested page
+     */
+    public OrderSearchService.SearchResult searchOrders(String searchTerm, Order.OrderStatus status,
+                                                        Order.OrderPriority priority, int page, int size) {
+        return orderSearchService.search(searchTerm, status, priority, Math.max(page, 0),
+                Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE));
     }
 
     // ========== STATISTICS METHODS ==========
@@ -597,7 +661,7 @@ public class OrderService {
      * @deprecated Use getOrdersForPlanning() instead
      */
     @Deprecated
-    public List<Map<String, Object>> getCommandesDepuis(int jour, int mois, int annee) {
+    public List<PlanningOrderRow> getCommandesDepuis(int jour, int mois, int annee) {
         log.warn("Using deprecated method getCommandesDepuis(), please use getOrdersForPlanning()");
         return getOrdersForPlanning(jour, mois, annee);
     }
@@ -622,16 +686,7 @@ public class OrderService {
                 o.type as type,
                 COALESCE(o.note_minimale, 8.0) as minimumGrade,
                 COALESCE(o.nb_descellements, 0) as unsealing,
-                o.status,
-                COALESCE(
-                    (SELECT COUNT(*) FROM card_certification_order cco2 
-                     WHERE cco2.order_id = o.id), 
-                    CASE 
-                        WHEN o.type >= 10 THEN FLOOR(5 + RAND() * 25)
-                        WHEN o.type >= 5 THEN FLOOR(3 + RAND() * 15) 
-                        ELSE FLOOR(1 + RAND() * 10)
-                    END
-                ) as cardCount
+                o.status
             FROM `order` o
             WHERE o.date >= '2025-06-01'
             AND o.status IN (1, 2)
@@ -648,7 +703,13 @@ public class OrderService {
 
             log.info("🔍 Orders found: {}", resultats.size());
 
+            // Cartes comptées pour les 50 commandes affichées, en une requête groupée
+            Map<String, Integer> cardCounts = cardCountService.countByOrderIds(
+                    resultats.stream().map(row -> (String) row[0]).toList());
+
             for (Object[] row : resultats) {
+                int cardCount = cardCounts.getOrDefault((String) row[0], 0);
+
                 Map<String, Object> order = new HashMap<>();
 
                 // Données de base
@@ -662,10 +723,9 @@ public class OrderService {
                 order.put("minimumGrade", row[7]);
                 order.put("unsealing", row[8]);
                 order.put("status", row[9]);
-                order.put("cardCount", ((Number) row[10]).intValue());
+                order.put("cardCount", cardCount);
 
                 // Calculs additionnels
-                int cardCount = ((Number) row[10]).intValue();
                 order.put("estimatedTimeMinutes", cardCount * DEFAULT_PROCESSING_TIME_PER_CARD);
                 order.put("estimatedTimeHours", String.format("%.1fh",
                         (cardCount * DEFAULT_PROCESSING_TIME_PER_CARD) / 60.0));
@@ -0,0 +1,338 @@
+package com.pcagrade.order.service;
+
+import com.pcagrade.order.service.planning.PlanningAssignment;
+import com.pcagrade.order.util.UlidHelper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Batched write path for j_planning
+ * Collects planning rows in memory, checks existence with set-based queries
+ * and flushes multi-row INSERT statements instead of one statement per order.
+ * Every write also refreshes employee_daily_load for the days it touched, in the same transaction.
+ */
+@Service
+@Slf4j
+public class PlanningBatchWriter {
+
+    /**
+     * Rows per multi-row INSERT (13 bound parameters per row, well under the 65535 placeholder limit)
+     */
+    public static final int INSERT_BATCH_SIZE = 500;
+
+    /**
+     * Ids per IN (...) list for existence checks
+     */
+    public static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private static final String INSERT_PREFIX = """
+        INSERT INTO j_planning
+        (id, order_id, employee_id, planning_date, start_time, end_time,
+         estimated_duration_minutes, estimated_end_time, priority, status,
+         completed, card_count, notes, created_at, updated_at)
+        VALUES
+        """;
+
+    private static final String INSERT_ROW =
+            "(UNHEX(?), UNHEX(?), UNHEX(?), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())";
+
+    private static final int PARAMS_PER_ROW = 13;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EmployeeDailyLoadService dailyLoadService;
+
+    @Autowired
+    private PlanningWriteLock writeLock;
+
+    /**
+     * Find the (order, employee) pairs that already have a planning row
+     * @param assignments candidate assignments
+     * @return keys built with {@link #pairKey(String, String)}
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findExistingPairs(Collection<PlanningAssignment> assignments) {
+        Set<String> existing = new HashSet<>();
+        List<String> orderIds = assignments.stream()
+                .map(PlanningAssignment::orderId)
+                .distinct()
+                .toList();
+
+        for (int from = 0; from < orderIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = orderIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, orderIds.size()));
+
+            Query query = entityManager.createNativeQuery(existingPairsSql(chunk.size()));
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter(i + 1, normalizeId(chunk.get(i)));
+            }
+
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = query.getResultList();
+            for (Object[] row : rows) {
+                existing.add(pairKey((String) row[0], (String) row[1]));
+            }
+        }
+
+        return existing;
+    }
+
+    /**
+     * Find which of the given orders already have at least one planning row
+     * @param orderIds order ids (hex, with or without dashes)
+     * @return normalized (upper-case hex) ids of planned orders
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findPlannedOrderIds(Collection<String> orderIds) {
+        Set<String> planned = new HashSet<>();
+        List<String> ids = orderIds.stream().distinct().toList();
+
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()));
+
+            String sql = "SELECT DISTINCT HEX(order_id) FROM j_planning WHERE order_id IN ("
+                    + placeholders(chunk.size(), "UNHEX(?)") + ")";
+
+            Query query = entityManager.createNativeQuery(sql);
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter(i + 1, normalizeId(chunk.get(i)));
+            }
+
+            @SuppressWarnings("unchecked")
+            List<Object> rows = query.getResultList();
+            for (Object row : rows) {
+                planned.add((String) row);
+            }
+        }
+
+        return planned;
+    }
+
+    /**
+     * Planned minutes of the given orders, over all their rows (any date, any status)
+     * @param orderIds order ids (hex, with or without dashes)
+     * @return minutes by normalized id; orders without any row are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Integer> findPlannedMinutes(Collection<String> orderIds) {
+        Map<String, Integer> minutes = new HashMap<>();
+        List<String> ids = orderIds.stream().distinct().toList();
+
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()));
+
+            String sql = "SELECT HEX(order_id), SUM(COALESCE(estimated_duration_minutes, 0)) FROM j_planning"
+                    + " WHERE order_id IN (" + placeholders(chunk.size(), "UNHEX(?)") + ") GROUP BY order_id";
+
+            Query query = entityManager.createNativeQuery(sql);
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter(i + 1, normalizeId(chunk.get(i)));
+            }
+
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = query.getResultList();
+            for (Object[] row : rows) {
+                minutes.put((String) row[0], row[1] != null ? ((Number) row[1]).intValue() : 0);
+            }
+        }
+
+        return minutes;
+    }
+
+    /**
+     * Insert all assignments as multi-row INSERT statements in the current transaction
+     * @param assignments rows to insert
+     * @return number of rows written and round-trips used
+     */
+    @Transactional
+    public WriteResult insertAll(List<PlanningAssignment> assignments) {
+        long startNanos = System.nanoTime();
+        int rowsInserted = 0;
+        int statements = 0;
+
+        for (int from = 0; from < assignments.size(); from += INSERT_BATCH_SIZE) {
+            List<PlanningAssignment> chunk =
+                    assignments.subList(from, Math.min(from + INSERT_BATCH_SIZE, assignments.size()));
+
+            Query insert = entityManager.createNativeQuery(insertSql(chunk.size()));
+
+            int p = 1;
+            for (PlanningAssignment a : chunk) {
+                insert.setParameter(p++, normalizeId(a.planningId()));
+                insert.setParameter(p++, normalizeId(a.orderId()));
+                insert.setParameter(p++, normalizeId(a.employeeId()));
+                insert.setParameter(p++, a.planningDate());
+                insert.setParameter(p++, a.startTime());
+                insert.setParameter(p++, a.endTime());
+                insert.setParameter(p++, a.durationMinutes());
+                insert.setParameter(p++, a.endTime());
+                insert.setParameter(p++, a.priority());
+                insert.setParameter(p++, a.status());
+                insert.setParameter(p++, 0); // completed = false
+                insert.setParameter(p++, a.cardCount());
+                insert.setParameter(p++, a.notes());
+            }
+
+            rowsInserted += insert.executeUpdate();
+            statements++;
+        }
+
+        DailyLoadSpans touched = new DailyLoadSpans();
+        for (PlanningAssignment a : assignments) {
+            touched.add(a.employeeId(), a.planningDate());
+        }
+        dailyLoadService.refresh(touched);
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        log.info("💾 Batched {} planning rows in {} statement(s), {} ms",
+                rowsInserted, statements, elapsedMillis);
+
+        return new WriteResult(rowsInserted, statements, elapsedMillis);
+    }
+
+    /**
+     * Insert the rows of orders nobody else planned since the caller read the backlog
+     * Takes the planning write lock, then checks the orders against j_planning in the same transaction.
+     * @param assignments rows to insert
+     * @param ownOrderIds orders the caller already wrote in earlier transactions (normalized ids)
+     * @return rows actually inserted and the orders skipped
+     */
+    @Transactional
+    public UnplannedWrite insertUnplanned(List<PlanningAssignment> assignments, Set<String> ownOrderIds) {
+        writeLock.acquire();
+
+        Set<String> plannedElsewhere = findPlannedOrderIds(
+                assignments.stream().map(PlanningAssignment::orderId).toList());
+        plannedElsewhere.removeAll(ownOrderIds);
+
+        List<PlanningAssignment> toInsert = plannedElsewhere.isEmpty() ? assignments : assignments.stream()
+                .filter(a -> !plannedElsewhere.contains(normalizeId(a.orderId())))
+                .toList();
+        if (!plannedElsewhere.isEmpty()) {
+            log.info("⏭️ {} order(s) planned meanwhile, {} row(s) skipped",
+                    plannedElsewhere.size(), assignments.size() - toInsert.size());
+        }
+
+        WriteResult write = toInsert.isEmpty() ? new WriteResult(0, 0, 0) : insertAll(toInsert);
+        return new UnplannedWrite(toInsert, plannedElsewhere, write);
+    }
+
+    /**
+     * Delete planning rows by id, with chunked IN (...) lists
+     * @param planningIds hex ids of the rows
+     * @return rows deleted
+     */
+    @Transactional
+    public int deleteByIds(Collection<String> planningIds) {
+        List<String> ids = planningIds.stream().map(PlanningBatchWriter::normalizeId).distinct().toList();
+        DailyLoadSpans touched = dailyLoadService.findSpans(ids);
+        int deleted = 0;
+
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()));
+
+            Query delete = entityManager.createNativeQuery("DELETE FROM j_planning WHERE id IN ("
+                    + placeholders(chunk.size(), "UNHEX(?)") + ")");
+            for (int i = 0; i < chunk.size(); i++) {
+                delete.setParameter(i + 1, chunk.get(i));
+            }
+            deleted += delete.executeUpdate();
+        }
+
+        dailyLoadService.refresh(touched);
+        return deleted;
+    }
+
+    /**
+     * Move existing rows to a new date/start (incremental re-planning)
+     * One UPDATE per row: only the handful of rows shifted by a change are passed here.
+     * @param moved rows carrying their new planning date and start time
+     * @return rows updated
+     */
+    @Transactional
+    public int updateSlots(List<PlanningAssignment> moved) {
+        // Old days are read before the move, new days come from the rows themselves
+        DailyLoadSpans touched = dailyLoadService.findSpans(
+                moved.stream().map(a -> normalizeId(a.planningId())).toList());
+        for (PlanningAssignment a : moved) {
+            touched.add(a.employeeId(), a.planningDate());
+        }
+        int updated = 0;
+        for (PlanningAssignment a : moved) {
+            Query update = entityManager.createNativeQuery("""
+                UPDATE j_planning
+                SET planning_date = ?, start_time = ?, end_time = ?, estimated_end_time = ?, updated_at = NOW()
+                WHERE id = UNHEX(?)
+                """);
+            update.setParameter(1, a.planningDate());
+            update.setParameter(2, a.startTime());
+            update.setParameter(3, a.endTime());
+            update.setParameter(4, a.endTime());
+            update.setParameter(5, normalizeId(a.planningId()));
+            updated += update.executeUpdate();
+        }
+
+        dailyLoadService.refresh(touched);
+        return updated;
+    }
+
+    /**
+     * Key used to compare (order, employee) pairs independently of dashes and case
+     */
+    public static String pairKey(String orderId, String employeeId) {
+        return normalizeId(orderId) + ":" + normalizeId(employeeId);
+    }
+
+    /**
+     * Existence check of {@link #findExistingPairs}, for that many order ids
+     */
+    public static String existingPairsSql(int orderIds) {
+        return "SELECT HEX(order_id), HEX(employee_id) FROM j_planning WHERE order_id IN ("
+                + placeholders(orderIds, "UNHEX(?)") + ")";
+    }
+
+    /**
+     * Multi-row INSERT of {@link #insertAll}, for that many rows (13 parameters per row)
+     */
+    public static String insertSql(int rows) {
+        return INSERT_PREFIX + placeholders(rows, INSERT_ROW);
+    }
+
+    static String normalizeId(String id) {
+        // Ids read through HEX() are already canonical: no copy
+        return UlidHelper.isCanonicalHex(id) ? id : id.replace("-", "").toUpperCase();
+    }
+
+    static String placeholders(int count, String item) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < count; i++) {
+            joiner.add(item);
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Outcome of a batched write
+     * @param rowsInserted rows reported by the driver
+     * @param statements INSERT statements sent (one round-trip each)
+     * @param elapsedMillis wall time spent writing
+     */
+    public record WriteResult(int rowsInserted, int statements, long elapsedMillis) {
+    }
+
+    /**
+     * Outcome of {@link #insertUnplanned}
+     * @param inserted rows written
+     * @param skippedOrderIds orders already planned by someone else, none of their rows written
+     * @param write batched write of the inserted rows
+     */
+    public record UnplannedWrite(List<PlanningAssignment> inserted, Set<String> skippedOrderIds, WriteResult write) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.pcagrade.order.service;
 
+import com.pcagrade.order.util.UlidFactory;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.slf4j.Logger;
@@ -24,6 +25,9 @@ public class PlanningGenerationService {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private EmployeeDailyLoadService dailyLoadService;
+
     /**
      * 🎯 MÉTHODE TRANSACTIONNELLE qui fonctionne
      * La clé : @Transactional avec REQUIRES_NEW pour isoler la transaction
@@ -42,6 +46,7 @@ public class PlanningGenerationService {
                     Query deleteQ = entityManager.createNativeQuery(deleteQuery);
                     int deleted = deleteQ.executeUpdate();
                     entityManager.flush(); // Force immediate execution
+                    dailyLoadService.rebuild();
                     log.info("🧹 Cleaned {} existing plannings", deleted);
                 } catch (Exception cleanError) {
                     log.error("❌ Clean failed: {}", cleanError.getMessage());
@@ -82,6 +87,7 @@ public class PlanningGenerationService {
 
             // ========== CREATE PLANNINGS ==========
             List<Map<String, Object>> createdPlannings = new ArrayList<>();
+            DailyLoadSpans touched = new DailyLoadSpans();
             int planningsSaved = 0;
 
             for (int i = 0; i < orderResults.size(); i++) {
@@ -99,7 +105,7 @@ public class PlanningGenerationService {
                 int durationMinutes = cardCount * timePerCard;
                 LocalDateTime startTime = LocalDate.parse(startDate).atTime(9, 0).plusHours(i);
 
-                String planningId = UUID.randomUUID().toString().replace("-", "");
+                String planningId = UlidFactory.nextHex();
 
                 // ========== SIMPLE INSERT ==========
                 String insertQuery = """
@@ -124,6 +130,7 @@ public class PlanningGenerationService {
 
                 if (rowsInserted > 0) {
                     planningsSaved++;
+                    touched.add(employeeId, startTime.toLocalDate());
 
                     Map<String, Object> planningResult = new HashMap<>();
                     planningResult.put("planningId", planningId);
@@ -142,6 +149,8 @@ public class PlanningGenerationService {
                 }
             }
 
+            dailyLoadService.refresh(touched);
+
             // ========== FORCE COMMIT ==========
             entityManager.flush();
 
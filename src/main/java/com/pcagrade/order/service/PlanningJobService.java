@@ -0,0 +1,282 @@
+package com.pcagrade.order.service;
+
+import com.pcagrade.order.config.DbConcurrencyLimiter;
+import com.pcagrade.order.service.job.PlanningJob;
+import com.pcagrade.order.service.planning.PlanningAlgorithm;
+import com.pcagrade.order.service.planning.PlanningAlgorithmRegistry;
+import com.pcagrade.order.service.planning.PlanningAssignment;
+import com.pcagrade.order.service.planning.PlanningMetrics;
+import com.pcagrade.order.service.planning.PlanningSnapshot;
+import com.pcagrade.order.util.UlidFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 🧵 PLANNING JOBS - planifications asynchrones, suivies en SSE
+ * La requête HTTP rend un identifiant de job tout de suite ; le job tourne sur un exécuteur
+ * dédié (un thread : deux runs sur le même backlog planifieraient deux fois les mêmes
+ * commandes) et publie ses phases : chargement du snapshot, affectation, écriture.
+ * L'écriture se fait par lots, chacun dans sa propre transaction (insertAll), au lieu d'une
+ * transaction unique qui expirait sur les gros backlogs. Un job annulé ou en échec pendant
+ * l'écriture supprime les lignes déjà écrites : j_planning reste "tout ou rien".
+ * Chaque lot prend le PlanningWriteLock et saute les commandes planifiées entre-temps (planning
+ * incrémental après un changement de commande) : elles ne sont pas planifiées deux fois.
+ * Chaque accès à la base (chargement, lot, suppression) prend un permis PLANNING du limiteur,
+ * comme une requête : le job ne prend pas de connexion en plus de celles qu'il compte.
+ * Les jobs terminés sont gardés planning.jobs.retention-minutes en mémoire.
+ */
+@Service
+@Slf4j
+public class PlanningJobService {
+
+    private static final int DEFAULT_MAX_ORDERS = 100_000;
+    private static final int DEFAULT_MINUTES_PER_CARD = 3;
+
+    /**
+     * Rows per insertAll call, i.e. per transaction; cancellation is checked between chunks
+     */
+    static final int WRITE_CHUNK_ROWS = 2_000;
+
+    @Autowired
+    private PlanningSnapshotCache snapshotCache;
+
+    @Autowired
+    private PlanningAlgorithmRegistry algorithmRegistry;
+
+    @Autowired
+    private PlanningBatchWriter planningBatchWriter;
+
+    @Autowired
+    private DbConcurrencyLimiter dbLimiter;
+
+    @Value("${planning.jobs.max-queued:20}")
+    private int maxQueued = 20;
+
+    @Value("${planning.jobs.retention-minutes:60}")
+    private long retentionMinutes = 60;
+
+    private final Map<String, PlanningJob> jobs = new ConcurrentHashMap<>();
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "planning-job-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // SSE deliveries: one virtual thread per subscriber while it has queued events
+    private final ExecutorService eventDelivery = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Parameters of a run
+     * @param startDate first plannable day; orders dated on or after it are taken
+     * @param algorithm registry name of the algorithm
+     * @param maxOrders maximum number of orders
+     * @param timePerCard minutes per card
+     */
+    public record JobRequest(LocalDate startDate, String algorithm, int maxOrders, int timePerCard) {
+
+        public JobRequest {
+            if (maxOrders <= 0) {
+                maxOrders = DEFAULT_MAX_ORDERS;
+            }
+            if (timePerCard <= 0) {
+                timePerCard = DEFAULT_MINUTES_PER_CARD;
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("startDate", startDate.toString());
+            map.put("maxOrders", maxOrders);
+            map.put("timePerCard", timePerCard);
+            return map;
+        }
+    }
+
+    /**
+     * Queue a planning run
+     * @return the queued job
+     * @throws IllegalArgumentException unknown algorithm
+     * @throws RejectedExecutionException too many jobs waiting
+     */
+    public PlanningJob submit(JobRequest request) {
+        PlanningAlgorithm algorithm = algorithmRegistry.get(request.algorithm());
+        purgeFinished();
+
+        long queued = jobs.values().stream().filter(job -> job.status() == PlanningJob.Status.QUEUED).count();
+        if (queued >= maxQueued) {
+            throw new RejectedExecutionException(queued + " planning jobs already waiting");
+        }
+
+        PlanningJob job = new PlanningJob(UlidFactory.nextHex(), algorithm.name(), request.toMap(), eventDelivery);
+        jobs.put(job.id(), job);
+        job.attach(executor.submit(() -> run(job, request, algorithm)));
+        log.info("🧵 Planning job {} queued: {} from {}", job.id(), algorithm.name(), request.startDate());
+        return job;
+    }
+
+    public Optional<PlanningJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Jobs in memory, newest first
+     */
+    public List<PlanningJob> list() {
+        List<PlanningJob> list = new ArrayList<>(jobs.values());
+        list.sort(Comparator.comparing(PlanningJob::id).reversed()); // ULIDs sort by creation time
+        return list;
+    }
+
+    /**
+     * @return empty if unknown, false if already finished
+     */
+    public Optional<Boolean> cancel(String jobId) {
+        return find(jobId).map(PlanningJob::requestCancel);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(PlanningJob::requestCancel);
+        executor.shutdown();
+        eventDelivery.shutdown();
+    }
+
+    // ========== RUN ==========
+
+    private void run(PlanningJob job, JobRequest request, PlanningAlgorithm algorithm) {
+        if (!job.start()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        List<String> writtenIds = new ArrayList<>();
+        try {
+            // 1. Load
+            job.phase(PlanningJob.Phase.LOADING, "Loading backlog");
+            PlanningSnapshot snapshot = withPermit(() -> snapshotCache.snapshot(
+                    request.startDate(), request.maxOrders(), request.timePerCard(), false));
+            job.progress(1, 1, String.format("Loaded %d orders, %d employees",
+                    snapshot.tasks().size(), snapshot.workers().size()));
+            job.checkCancelled();
+
+            if (snapshot.workers().isEmpty() || snapshot.tasks().isEmpty()) {
+                Map<String, Object> result = baseResult(job, snapshot, startNanos);
+                result.put("totalPlannings", 0);
+                job.succeed(result, snapshot.workers().isEmpty() ? "No employees available" : "No orders to plan");
+                return;
+            }
+
+            // 2. Assign (in memory)
+            job.phase(PlanningJob.Phase.ASSIGNING, "Assigning with " + algorithm.name());
+            long planStart = System.nanoTime();
+            List<PlanningAssignment> assignments = algorithm.plan(snapshot);
+            long planMillis = (System.nanoTime() - planStart) / 1_000_000;
+            long assignedOrders = assignments.stream().map(PlanningAssignment::orderId).distinct().count();
+            job.progress(assignedOrders, snapshot.tasks().size(),
+                    String.format("Assigned %d/%d orders", assignedOrders, snapshot.tasks().size()));
+            job.checkCancelled();
+
+            // 3. Write, one transaction per chunk
+            job.phase(PlanningJob.Phase.COMMITTING, "Writing " + assignments.size() + " rows");
+            long writeStart = System.nanoTime();
+            int statements = 0;
+            List<PlanningAssignment> written = new ArrayList<>(assignments.size());
+            Set<String> ownOrderIds = new HashSet<>();
+            Set<String> skippedOrderIds = new HashSet<>();
+            for (int from = 0; from < assignments.size(); from += WRITE_CHUNK_ROWS) {
+                job.checkCancelled();
+                List<PlanningAssignment> chunk =
+                        assignments.subList(from, Math.min(from + WRITE_CHUNK_ROWS, assignments.size()));
+                PlanningBatchWriter.UnplannedWrite write =
+                        withPermit(() -> planningBatchWriter.insertUnplanned(chunk, ownOrderIds));
+                statements += write.write().statements();
+                skippedOrderIds.addAll(write.skippedOrderIds());
+                for (PlanningAssignment assignment : write.inserted()) {
+                    written.add(assignment);
+                    writtenIds.add(assignment.planningId());
+                    ownOrderIds.add(PlanningBatchWriter.normalizeId(assignment.orderId()));
+                }
+                job.progress(from + chunk.size(), assignments.size(),
+                        String.format("Committed %d/%d rows", writtenIds.size(), assignments.size()));
+            }
+
+            PlanningMetrics metrics = PlanningMetrics.evaluate(snapshot, written);
+            Map<String, Object> result = baseResult(job, snapshot, startNanos);
+            result.put("totalPlannings", written.size());
+            result.put("skippedOrders", skippedOrderIds.size());
+            result.put("metrics", metrics.toMap());
+            result.put("planMillis", planMillis);
+            result.put("writeMillis", (System.nanoTime() - writeStart) / 1_000_000);
+            result.put("writeStatements", statements);
+
+            job.succeed(result, String.format("Planned %d orders in %d rows", metrics.plannedOrders(), written.size()));
+            log.info("✅ Planning job {} done: {} orders, {} rows, {} orders planned meanwhile ({} ms)", job.id(),
+                    metrics.plannedOrders(), written.size(), skippedOrderIds.size(),
+                    (System.nanoTime() - startNanos) / 1_000_000);
+
+        } catch (CancellationException e) {
+            int removed = rollBack(job, writtenIds);
+            job.cancelled(removed > 0 ? "Cancelled, " + removed + " rows already written were removed" : "Cancelled");
+            log.info("🛑 Planning job {} cancelled ({} rows removed)", job.id(), removed);
+        } catch (Exception e) {
+            int removed = rollBack(job, writtenIds);
+            job.fail("Planning failed: " + e.getMessage() + (removed > 0 ? " (" + removed + " rows removed)" : ""));
+            log.error("❌ Planning job {} failed: {}", job.id(), e.getMessage(), e);
+        }
+    }
+
+    private int rollBack(PlanningJob job, List<String> writtenIds) {
+        if (writtenIds.isEmpty()) {
+            return 0;
+        }
+        // A cancel may have interrupted the run: the clean-up still waits for its permit
+        boolean interrupted = Thread.interrupted();
+        try {
+            return withPermit(() -> planningBatchWriter.deleteByIds(writtenIds));
+        } catch (Exception e) {
+            log.error("❌ Planning job {}: could not remove {} written rows: {}",
+                    job.id(), writtenIds.size(), e.getMessage(), e);
+            return 0;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private <T> T withPermit(Supplier<T> work) throws InterruptedException {
+        try (DbConcurrencyLimiter.Permit permit = dbLimiter.acquire(DbConcurrencyLimiter.EndpointClass.PLANNING)) {
+            return work.get();
+        }
+    }
+
+    private static Map<String, Object> baseResult(PlanningJob job, PlanningSnapshot snapshot, long startNanos) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("jobId", job.id());
+        result.put("algorithm", job.algorithm());
+        result.put("fromDate", snapshot.startDate().toString());
+        result.put("totalOrders", snapshot.tasks().size());
+        result.put("totalEmployees", snapshot.workers().size());
+        result.put("elapsedMillis", (System.nanoTime() - startNanos) / 1_000_000);
+        return result;
+    }
+
+    private void purgeFinished() {
+        Instant limit = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        jobs.values().removeIf(job -> job.status().isFinished()
+                && job.finishedAt() != null && job.finishedAt().isBefore(limit));
+    }
+}
@@ -0,0 +1,148 @@
+package com.pcagrade.order.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 🗃️ PLANNING RESPONSE CACHE - réponses JSON déjà sérialisées, par version du planning
+ * Une entrée par filtre (clé) ; elle reste valable tant que planning_version n'a pas bougé.
+ * Les appels concurrents sur une clé périmée attendent un seul chargement au lieu de relancer
+ * chacun la requête. Un chargement en échec n'est pas gardé.
+ */
+@Component
+public class PlanningResponseCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 256;
+
+    /**
+     * Serialized body of one filter at one planning version
+     */
+    public record Entry(long version, byte[] body) {
+
+        public String etag() {
+            return PlanningResponseCache.etag(version);
+        }
+    }
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PlanningResponseCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    PlanningResponseCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Body of this filter at this version, loading it at most once
+     * @param key filter, e.g. "employee:0193...:2025-06-01"
+     * @param version planning version read BEFORE loading, so a body is never older than its version
+     * @param loader query + serialization
+     */
+    public Entry get(String key, long version, Supplier<byte[]> loader) {
+        while (true) {
+            CompletableFuture<Entry> existing = entries.get(key);
+            if (existing == null) {
+                CompletableFuture<Entry> mine = new CompletableFuture<>();
+                if (entries.putIfAbsent(key, mine) == null) {
+                    evictIfFull(version);
+                    return load(key, version, loader, mine);
+                }
+                continue;
+            }
+
+            Entry entry = await(existing);
+            if (entry != null && entry.version() >= version) {
+                hits.incrementAndGet();
+                return entry;
+            }
+            CompletableFuture<Entry> mine = new CompletableFuture<>();
+            if (entries.replace(key, existing, mine)) {
+                return load(key, version, loader, mine);
+            }
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("entries", entries.size());
+        status.put("maxEntries", maxEntries);
+        status.put("hits", hits.get());
+        status.put("misses", misses.get());
+        return status;
+    }
+
+    /**
+     * Strong ETag of a planning version
+     */
+    public static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * @param ifNoneMatch If-None-Match header, possibly a list, weak tags or *
+     * @return true if the client already has this version
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Entry load(String key, long version, Supplier<byte[]> loader, CompletableFuture<Entry> mine) {
+        misses.incrementAndGet();
+        try {
+            Entry entry = new Entry(version, loader.get());
+            mine.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            entries.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return null if the load failed (the waiting caller then loads itself)
+     */
+    private static Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    // Old versions go first; past that, start over (filters are few, mostly per employee and day)
+    private void evictIfFull(long version) {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        entries.values().removeIf(future -> future.isDone() && (future.isCompletedExceptionally()
+                || future.join().version() < version));
+        if (entries.size() > maxEntries) {
+            entries.clear();
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.pcagrade.order.service;
 
+import com.pcagrade.order.service.planning.LeastLoadedAlgorithm;
+import com.pcagrade.order.service.planning.PlanningAssignment;
+import com.pcagrade.order.service.planning.PlanningSnapshot;
+import com.pcagrade.order.util.TransactionHelper;
+import com.pcagrade.order.util.UlidFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,7 +17,6 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 🎴 SERVICE DE PLANIFICATION POKÉMON - VERSION AMÉLIORÉE
@@ -25,17 +29,32 @@ public class PlanningService {
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private PlanningBatchWriter planningBatchWriter;
+
+    @Autowired
+    private EmployeeDailyLoadService dailyLoadService;
+
+    @Autowired
+    private LeastLoadedAlgorithm leastLoadedAlgorithm;
+
+    @Autowired
+    private PlanningSnapshotCache snapshotCache;
+
     // ========== CONSTANTES ==========
     private static final int MINUTES_PER_CARD = 3;
     private static final LocalDate DEFAULT_START_DATE = LocalDate.of(2025, 6, 1);
     private static final LocalTime WORK_START_TIME = LocalTime.of(9, 0);
     private static final LocalTime WORK_END_TIME = LocalTime.of(17, 0);
+    private static final int BREAK_MINUTES = 15;
 
     // ========== MÉTHODES PUBLIQUES PRINCIPALES ==========
 
     /**
      * 🚀 GÉNÉRATION OPTIMISÉE DE PLANIFICATION
      * Remplace generatePlanningBatch avec algorithme amélioré
+     * Blocks its caller for the whole run: it has no HTTP caller, the queued equivalent is
+     * POST /api/planning/jobs with "algorithm": "least-loaded" (or /generate with "async": true).
      */
     @Transactional
     public Map<String, Object> generatePlanningBatch(String dateDebut, int nombreEmployes, int tempsParCarte) {
@@ -50,7 +69,7 @@ public class PlanningService {
 
             // 1. 📊 CHARGEMENT DES DONNÉES
             List<Map<String, Object>> orders = loadOrdersByPriority(startDate);
-            List<Map<String, Object>> employees = loadAvailableEmployees();
+            List<PlanningSnapshot.Worker> employees = loadAvailableEmployees();
 
             if (orders.isEmpty()) {
                 result.put("success", true);
@@ -67,88 +86,63 @@ public class PlanningService {
 
             log.info("📦 {} commandes à traiter avec {} employés", orders.size(), employees.size());
 
-            // 2. 🔄 ALGORITHME DE RÉPARTITION OPTIMISÉ
-            List<EmployeeWorkload> workloads = initializeWorkloads(employees);
-            List<Map<String, Object>> createdPlannings = new ArrayList<>();
-            int planningsSaved = 0;
-
-// ✅ NOUVEAU: Nettoyer les planifications existantes pour éviter les doublons
+            // ✅ NOUVEAU: Nettoyer les planifications existantes pour éviter les doublons
             cleanExistingPlannings(startDate);
 
-// ✅ NOUVEAU: Map pour suivre les assignations et éviter les doublons
-            Set<String> assignedOrders = new HashSet<>();
-
+            // ✅ Une seule requête pour écarter les commandes déjà planifiées (et les doublons)
+            Set<String> plannedOrderIds = planningBatchWriter.findPlannedOrderIds(
+                    orders.stream().map(order -> (String) order.get("id")).toList());
+            Set<String> seenOrderIds = new HashSet<>();
+            List<Map<String, Object>> ordersToPlan = new ArrayList<>(orders.size());
             for (Map<String, Object> order : orders) {
-                try {
-                    String orderId = (String) order.get("id");
-
-                    // ✅ Vérifier si cette commande a déjà été assignée
-                    if (assignedOrders.contains(orderId)) {
-                        log.warn("Order {} already assigned, skipping", order.get("numCommande"));
-                        continue;
-                    }
-
-                    // ✅ Vérifier en base de données aussi
-                    if (isPlanningExistsForOrder(orderId)) {
-                        log.warn("Order {} already has planning in database, skipping", order.get("numCommande"));
-                        assignedOrders.add(orderId);
-                        continue;
-                    }
-
-                    // Trouver l'employé le moins chargé
-                    EmployeeWorkload leastBusy = findLeastBusyEmployee(workloads);
-
-                    // Calculer la durée et le timing
-                    Integer cardCount = (Integer) order.get("nombreCartes");
-                    if (cardCount == null || cardCount <= 0) cardCount = 1;
-
-                    int durationMinutes = cardCount * timePerCard;
-                    LocalDateTime startTime = calculateOptimalStartTime(leastBusy, order);
-
-                    // Créer la planification
-                    String planningId = UUID.randomUUID().toString().replace("-", "");
-                    String employeeId = leastBusy.getEmployee().get("id").toString();
-                    String priority = (String) order.getOrDefault("priorite", "MEDIUM");
-
-                    // Sauvegarder en base
-                    boolean saved = savePlanningOptimized(
-                            planningId, orderId, employeeId,
-                            startTime.toLocalDate(), startTime,
-                            durationMinutes, priority, cardCount);
-
-                    if (saved) {
-                        planningsSaved++;
-                        assignedOrders.add(orderId); // ✅ Marquer comme assigné
-
-                        // Mettre à jour la charge de travail
-                        leastBusy.addWorkload(durationMinutes, startTime);
-
-                        // Ajouter au résultat
-                        Map<String, Object> planningResult = new HashMap<>();
-                        planningResult.put("id", planningId);
-                        planningResult.put("orderId", orderId);
-                        planningResult.put("employeeId", employeeId);
-                        planningResult.put("employeeName", leastBusy.getEmployee().get("firstName") +
-                                " " + leastBusy.getEmployee().get("lastName"));
-                        planningResult.put("durationMinutes", durationMinutes);
-                        planningResult.put("cardCount", cardCount);
-                        planningResult.put("priority", priority);
-                        planningResult.put("startTime", startTime);
-
-                        createdPlannings.add(planningResult);
-
-                        log.info("✅ Order {} assigned to employee {} (duration: {}min)",
-                                order.get("numCommande"),
-                                planningResult.get("employeeName"),
-                                durationMinutes);
-                    }
-
-                } catch (Exception orderError) {
-                    log.error("❌ Error processing order {}: {}",
-                            order.get("numCommande"), orderError.getMessage());
+                String orderId = PlanningBatchWriter.normalizeId((String) order.get("id"));
+                if (plannedOrderIds.contains(orderId) || !seenOrderIds.add(orderId)) {
+                    log.warn("Order {} already has planning, skipping", order.get("numCommande"));
+                    continue;
                 }
+                ordersToPlan.add(order);
             }
 
+            // 2. 🔄 ALGORITHME DE RÉPARTITION OPTIMISÉ (employé le moins chargé, en mémoire)
+            PlanningSnapshot snapshot = toSnapshot(startDate, ordersToPlan, employees, timePerCard);
+            List<PlanningAssignment> assignments = leastLoadedAlgorithm.plan(snapshot);
+
+            // 💾 Écriture groupée (INSERT multi-lignes) dans la transaction courante
+            PlanningBatchWriter.WriteResult writeResult = planningBatchWriter.insertAll(assignments);
+
+            Map<String, PlanningSnapshot.Worker> workersById = new HashMap<>();
+            for (PlanningSnapshot.Worker worker : snapshot.workers()) {
+                workersById.put(worker.employeeId(), worker);
+            }
+
+            // Une entrée par commande (une tâche répartie sur plusieurs jours a plusieurs lignes en base)
+            Map<String, Map<String, Object>> planningsByOrder = new LinkedHashMap<>();
+            for (PlanningAssignment assignment : assignments) {
+                Map<String, Object> planningResult = planningsByOrder.get(assignment.orderId());
+                if (planningResult == null) {
+                    planningResult = new HashMap<>();
+                    planningResult.put("id", assignment.planningId());
+                    planningResult.put("orderId", assignment.orderId());
+                    planningResult.put("employeeId", assignment.employeeId());
+                    planningResult.put("employeeName", workersById.get(assignment.employeeId()).name());
+                    planningResult.put("durationMinutes", 0);
+                    planningResult.put("cardCount", 0);
+                    planningResult.put("priority", assignment.priority());
+                    planningResult.put("startTime", assignment.startTime());
+                    planningResult.put("segments", 0);
+                    planningsByOrder.put(assignment.orderId(), planningResult);
+                }
+                planningResult.merge("durationMinutes", assignment.durationMinutes(), (a, b) -> (Integer) a + (Integer) b);
+                planningResult.merge("cardCount", assignment.cardCount(), (a, b) -> (Integer) a + (Integer) b);
+                planningResult.merge("segments", 1, (a, b) -> (Integer) a + (Integer) b);
+                planningResult.put("endTime", assignment.endTime());
+            }
+            List<Map<String, Object>> createdPlannings = new ArrayList<>(planningsByOrder.values());
+            int planningsSaved = createdPlannings.size();
+
+            log.info("✅ {} commandes assignées ({} lignes, {} requête(s) INSERT)",
+                    planningsSaved, writeResult.rowsInserted(), writeResult.statements());
+
             // 3. 📊 STATISTIQUES FINALES
             int totalCards = createdPlannings.stream()
                     .mapToInt(p -> (Integer) p.get("cardCount"))
@@ -160,7 +154,7 @@ public class PlanningService {
             result.put("success", true);
             result.put("message", String.format("🎉 Planification terminée - %d plannings créés", planningsSaved));
             result.put("ordersProcessed", orders.size());
-            result.put("employeesUsed", Math.min(employees.size(), workloads.size()));
+            result.put("employeesUsed", (int) createdPlannings.stream().map(p -> p.get("employeeId")).distinct().count());
             result.put("planningsSaved", planningsSaved);
             result.put("totalCards", totalCards);
             result.put("totalMinutes", totalMinutes);
@@ -176,6 +170,7 @@ public class PlanningService {
 
         } catch (Exception e) {
             log.error("❌ Erreur génération planification: {}", e.getMessage(), e);
+            TransactionHelper.rollbackOnly();
             result.put("success", false);
             result.put("message", "Erreur: " + e.getMessage());
             return result;
@@ -190,7 +185,7 @@ public class PlanningService {
     public boolean savePlanning(String orderId, String employeeId, LocalDate planningDate,
                                 LocalDateTime startTime, int durationMinutes, String priority) {
         return savePlanningOptimized(
-                UUID.randomUUID().toString().replace("-", ""),
+                UlidFactory.nextHex(),
                 orderId, employeeId, planningDate, startTime,
                 durationMinutes, priority, durationMinutes / MINUTES_PER_CARD);
     }
@@ -254,44 +249,13 @@ public class PlanningService {
     }
 
     /**
-     * 👥 CHARGEMENT DES EMPLOYÉS DISPONIBLES
+     * 👥 EMPLOYÉS DISPONIBLES (snapshot en mémoire), les plus grosses journées d'abord
      */
-    private List<Map<String, Object>> loadAvailableEmployees() {
-        try {
-            String sql = """
-                SELECT 
-                    HEX(e.id) as id,
-                    e.first_name as firstName,
-                    e.last_name as lastName,
-                    e.email as email,
-                    e.work_hours_per_day as workHoursPerDay
-                FROM j_employee e 
-                WHERE e.active = 1 
-                ORDER BY e.work_hours_per_day DESC
-            """;
-
-            Query query = entityManager.createNativeQuery(sql);
-            @SuppressWarnings("unchecked")
-            List<Object[]> results = query.getResultList();
-
-            List<Map<String, Object>> employees = new ArrayList<>();
-            for (Object[] row : results) {
-                Map<String, Object> employee = new HashMap<>();
-                employee.put("id", (String) row[0]);
-                employee.put("firstName", (String) row[1]);
-                employee.put("lastName", (String) row[2]);
-                employee.put("email", (String) row[3]);
-                employee.put("workHoursPerDay", row[4] != null ? ((Number) row[4]).intValue() : 8);
-                employees.add(employee);
-            }
-
-            log.info("👥 Chargement de {} employés actifs", employees.size());
-            return employees;
-
-        } catch (Exception e) {
-            log.error("❌ Erreur chargement employés: {}", e.getMessage());
-            return new ArrayList<>();
-        }
+    private List<PlanningSnapshot.Worker> loadAvailableEmployees() {
+        List<PlanningSnapshot.Worker> employees = new ArrayList<>(snapshotCache.workers());
+        employees.sort(Comparator.comparingInt(PlanningSnapshot.Worker::workHoursPerDay).reversed());
+        log.info("👥 {} employés actifs (cache v{})", employees.size(), snapshotCache.version());
+        return employees;
     }
 
     /**
@@ -326,128 +290,64 @@ public class PlanningService {
             query.setParameter(9, cardCount);
 
             int result = query.executeUpdate();
-            return result > 0;
+            if (result == 0) {
+                return false;
+            }
 
         } catch (Exception e) {
             log.error("❌ Erreur sauvegarde planning: {}", e.getMessage());
+            TransactionHelper.rollbackOnly();
             return false;
         }
-    }
-
-    // ========== CLASSES UTILITAIRES ==========
-
-    /**
-     * 🏗️ INITIALISATION DES CHARGES DE TRAVAIL
-     */
-    private List<EmployeeWorkload> initializeWorkloads(List<Map<String, Object>> employees) {
-        return employees.stream()
-                .map(EmployeeWorkload::new)
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * 🔍 RECHERCHE DE L'EMPLOYÉ LE MOINS CHARGÉ
-     */
-    private EmployeeWorkload findLeastBusyEmployee(List<EmployeeWorkload> workloads) {
-        return workloads.stream()
-                .min(Comparator.comparing(EmployeeWorkload::getCurrentWorkloadMinutes))
-                .orElseThrow(() -> new RuntimeException("Aucun employé disponible"));
-    }
-
-    /**
-     * ⏰ CALCUL DU CRÉNEAU OPTIMAL
-     */
-    private LocalDateTime calculateOptimalStartTime(EmployeeWorkload workload, Map<String, Object> order) {
-        LocalDateTime baseTime = DEFAULT_START_DATE.atTime(WORK_START_TIME);
-
-        // Si l'employé a déjà du travail, programmer après
-        if (workload.getLastEndTime() != null) {
-            baseTime = workload.getLastEndTime().plusMinutes(15); // 15min de pause
-        }
 
-        // Pour les urgences : essayer de programmer plus tôt
-        String priority = (String) order.get("priorite");
-        if ("URGENT".equals(priority) && baseTime.getHour() > 10) {
-            // Essayer de caler en début de matinée
-            baseTime = baseTime.withHour(9).withMinute(0);
-        }
-
-        return baseTime;
+        // Not caught: a failed refresh has marked the transaction rollback-only, the caller must see it
+        DailyLoadSpans touched = new DailyLoadSpans();
+        touched.add(employeeId, planningDate);
+        dailyLoadService.refresh(touched);
+        return true;
     }
 
-    // ========== CLASSE INTERNE POUR GESTION DES CHARGES ==========
+    // ========== CLASSES UTILITAIRES ==========
 
     /**
-     * 📈 CLASSE POUR SUIVRE LA CHARGE DE TRAVAIL PAR EMPLOYÉ
+     * 🏗️ CONVERSION EN SNAPSHOT POUR L'ALGORITHME
+     * Durée = nombre de cartes × temps par carte ; capacité journalière = workHoursPerDay
      */
-    private static class EmployeeWorkload {
-        private final Map<String, Object> employee;
-        private int currentWorkloadMinutes = 0;
-        private LocalDateTime lastEndTime;
-
-        public EmployeeWorkload(Map<String, Object> employee) {
-            this.employee = employee;
-        }
-
-        public void addWorkload(int durationMinutes, LocalDateTime startTime) {
-            this.currentWorkloadMinutes += durationMinutes;
-            this.lastEndTime = startTime.plusMinutes(durationMinutes);
-        }
-
-        public Map<String, Object> getEmployee() {
-            return employee;
+    private PlanningSnapshot toSnapshot(LocalDate startDate, List<Map<String, Object>> orders,
+                                        List<PlanningSnapshot.Worker> employees, int timePerCard) {
+        List<PlanningSnapshot.Task> tasks = new ArrayList<>(orders.size());
+        for (Map<String, Object> order : orders) {
+            Integer cardCount = (Integer) order.get("nombreCartes");
+            if (cardCount == null || cardCount <= 0) cardCount = 1;
+
+            tasks.add(new PlanningSnapshot.Task(
+                    (String) order.get("id"),
+                    (String) order.get("numCommande"),
+                    cardCount,
+                    cardCount * timePerCard,
+                    (String) order.getOrDefault("priorite", "MEDIUM"),
+                    null));
         }
 
-        public int getCurrentWorkloadMinutes() {
-            return currentWorkloadMinutes;
-        }
-
-        public LocalDateTime getLastEndTime() {
-            return lastEndTime;
-        }
+        return new PlanningSnapshot(startDate, WORK_START_TIME, WORK_END_TIME, BREAK_MINUTES, tasks, employees);
     }
 
     /**
      * Nettoyer les planifications existantes pour éviter les doublons
+     * A failure propagates (the run ends with an error and is rolled back) so nothing is planned on top of them
      */
     private void cleanExistingPlannings(LocalDate fromDate) {
-        try {
-            String deleteSql = """
+        String deleteSql = """
         DELETE FROM j_planning 
         WHERE planning_date >= ?
         AND created_at >= NOW() - INTERVAL 1 HOUR
         """;
 
-            Query deleteQuery = entityManager.createNativeQuery(deleteSql);
-            deleteQuery.setParameter(1, fromDate);
-
-            int deletedCount = deleteQuery.executeUpdate();
-            log.info("🗑️ Cleaned {} recent plannings from date {}", deletedCount, fromDate);
+        Query deleteQuery = entityManager.createNativeQuery(deleteSql);
+        deleteQuery.setParameter(1, fromDate);
 
-        } catch (Exception e) {
-            log.warn("Error cleaning existing plannings: {}", e.getMessage());
-        }
-    }
-
-    /**
-     * Vérifier si une commande a déjà une planification
-     */
-    private boolean isPlanningExistsForOrder(String orderId) {
-        try {
-            String checkSql = """
-        SELECT COUNT(*) FROM j_planning 
-        WHERE order_id = UNHEX(?)
-        """;
-
-            Query checkQuery = entityManager.createNativeQuery(checkSql);
-            checkQuery.setParameter(1, orderId.replace("-", ""));
-
-            Number count = (Number) checkQuery.getSingleResult();
-            return count.intValue() > 0;
-
-        } catch (Exception e) {
-            log.warn("Error checking planning existence for order {}: {}", orderId, e.getMessage());
-            return false;
-        }
+        int deletedCount = deleteQuery.executeUpdate();
+        dailyLoadService.refreshRange(fromDate, null);
+        log.info("🗑️ Cleaned {} recent plannings from date {}", deletedCount, fromDate);
     }
 }
\ No newline at end of file
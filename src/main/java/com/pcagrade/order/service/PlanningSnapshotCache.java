@@ -0,0 +1,284 @@
+package com.pcagrade.order.service;
+
+import com.pcagrade.order.event.EmployeeChangedEvent;
+import com.pcagrade.order.event.OrderChangedEvent;
+import com.pcagrade.order.service.planning.PlannableOrder;
+import com.pcagrade.order.service.planning.PlanningSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🧊 PLANNING SNAPSHOT CACHE - employés et commandes planifiables gardés en mémoire
+ * Chargé une fois (au démarrage ou à la première lecture), puis tenu à jour commande par
+ * commande via OrderChangedEvent / EmployeeChangedEvent. Un replanning ne coûte plus que
+ * du CPU ; seule la vérification "déjà planifiée" reste une requête (j_planning est écrit
+ * par trop de chemins pour être suivi ici).
+ * Les rechargements sont sérialisés par un ReentrantLock et non synchronized : un thread
+ * virtuel qui attend la base sous synchronized bloquerait son thread porteur (JDK 21).
+ */
+@Service
+@Slf4j
+public class PlanningSnapshotCache {
+
+    private static final int MINUTES_PER_CARD = 3;
+
+    @Autowired
+    private PlanningSnapshotLoader snapshotLoader;
+
+    @Autowired
+    private PlanningBatchWriter planningBatchWriter;
+
+    /**
+     * Full reload after this age, to pick up changes made outside OrderService/EmployeeService
+     * (imports, card scans, SQL scripts). 0 disables it.
+     */
+    @Value("${planning.cache.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile State state;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private record State(Map<String, PlannableOrder> orders, List<PlanningSnapshot.Worker> workers,
+                         long loadedAtNanos, long loadMillis) {
+    }
+
+    /**
+     * Warm the cache once the application is up, so the first planning run does not pay for it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("⚠️ Planning cache warm-up failed, will load on first use: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Snapshot of the backlog, same content as {@link PlanningSnapshotLoader#load}
+     * @param fromDate orders created on or after this date; also the first plannable day
+     * @param maxOrders maximum number of orders
+     * @param minutesPerCard processing time per card
+     * @param includePlanned true to also keep orders that already have a planning
+     */
+    public PlanningSnapshot snapshot(LocalDate fromDate, int maxOrders, int minutesPerCard, boolean includePlanned) {
+        int timePerCard = minutesPerCard > 0 ? minutesPerCard : MINUTES_PER_CARD;
+        List<PlannableOrder> orders = orders(fromDate, maxOrders, includePlanned, PlannableOrder.BY_DEADLINE);
+
+        List<PlanningSnapshot.Task> tasks = new ArrayList<>(orders.size());
+        for (PlannableOrder order : orders) {
+            tasks.add(order.task(timePerCard));
+        }
+        return PlanningSnapshot.of(fromDate, tasks, workers());
+    }
+
+    /**
+     * Plannable orders dated on or after a date
+     * @param fromDate first order date
+     * @param limit maximum number of orders
+     * @param includePlanned false to skip orders that already have a planning row
+     * @param order sort order applied before the limit
+     */
+    public List<PlannableOrder> orders(LocalDate fromDate, int limit, boolean includePlanned,
+                                       Comparator<PlannableOrder> order) {
+        List<PlannableOrder> candidates = PlannableOrder.select(current().orders().values(), fromDate, order);
+        if (includePlanned) {
+            return candidates.subList(0, Math.min(limit, candidates.size()));
+        }
+
+        // Existence check on the head of the sorted list only, one lookup per chunk
+        List<PlannableOrder> selected = new ArrayList<>(Math.min(limit, candidates.size()));
+        int next = 0;
+        while (selected.size() < limit && next < candidates.size()) {
+            int end = Math.min(next + Math.max(limit - selected.size(), PlanningBatchWriter.LOOKUP_CHUNK_SIZE),
+                    candidates.size());
+            List<PlannableOrder> chunk = candidates.subList(next, end);
+            Set<String> planned = planningBatchWriter.findPlannedOrderIds(
+                    chunk.stream().map(PlannableOrder::orderId).toList());
+            for (PlannableOrder candidate : chunk) {
+                if (selected.size() < limit && !planned.contains(candidate.orderId())) {
+                    selected.add(candidate);
+                }
+            }
+            next = end;
+        }
+        return selected;
+    }
+
+    /**
+     * Given orders as tasks; orders that are not plannable (cancelled, unknown) are left out
+     */
+    public List<PlanningSnapshot.Task> tasks(Collection<String> orderIds, int minutesPerCard) {
+        int timePerCard = minutesPerCard > 0 ? minutesPerCard : MINUTES_PER_CARD;
+        Map<String, PlannableOrder> orders = current().orders();
+        List<PlanningSnapshot.Task> tasks = new ArrayList<>(orderIds.size());
+        for (String id : new LinkedHashSet<>(orderIds)) {
+            PlannableOrder order = orders.get(PlanningBatchWriter.normalizeId(id));
+            if (order != null) {
+                tasks.add(order.task(timePerCard));
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Active employees as planning workers
+     */
+    public List<PlanningSnapshot.Worker> workers() {
+        return current().workers();
+    }
+
+    /**
+     * Incremented on every change; equal versions mean identical content
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Reload everything from the database
+     */
+    public void refresh() {
+        lock.lock();
+        try {
+            load();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void load() {
+        long startNanos = System.nanoTime();
+
+        Map<String, PlannableOrder> orders = new ConcurrentHashMap<>();
+        for (PlannableOrder order : snapshotLoader.loadPlannableOrders(MINUTES_PER_CARD)) {
+            orders.put(order.orderId(), order);
+        }
+        List<PlanningSnapshot.Worker> workers = List.copyOf(snapshotLoader.loadWorkers());
+
+        long loadMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        state = new State(orders, workers, System.nanoTime(), loadMillis);
+        long newVersion = version.incrementAndGet();
+
+        log.info("🧊 Planning cache loaded: {} orders, {} employees, version {} ({} ms)",
+                orders.size(), workers.size(), newVersion, loadMillis);
+    }
+
+    /**
+     * Re-read the changed order only; runs before the incremental planner so it sees the new data
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onOrderChanged(OrderChangedEvent event) {
+        try {
+            refreshOrders(List.of(event.orderHexId()));
+        } catch (Exception e) {
+            // Stale entry until the next full reload
+            log.error("❌ Planning cache update failed for order {}: {}", event.orderId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Employees are few: reload them all
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        lock.lock();
+        try {
+            State current = state;
+            if (current == null) {
+                return;
+            }
+            state = new State(current.orders(), List.copyOf(snapshotLoader.loadWorkers()),
+                    current.loadedAtNanos(), current.loadMillis());
+            version.incrementAndGet();
+            log.debug("🧊 Planning cache: employees reloaded after {} of {}", event.type(), event.employeeId());
+        } catch (Exception e) {
+            log.error("❌ Planning cache update failed for employee {}: {}", event.employeeId(), e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Re-read some orders; those no longer plannable are dropped
+     */
+    public void refreshOrders(Collection<String> orderIds) {
+        lock.lock();
+        try {
+            State current = state;
+            if (current == null || orderIds.isEmpty()) {
+                return; // next read loads everything anyway
+            }
+
+            Set<String> ids = new HashSet<>();
+            for (String id : orderIds) {
+                ids.add(PlanningBatchWriter.normalizeId(id));
+            }
+            for (PlannableOrder order : snapshotLoader.loadPlannableOrders(ids, MINUTES_PER_CARD)) {
+                current.orders().put(order.orderId(), order);
+                ids.remove(order.orderId());
+            }
+            ids.forEach(current.orders()::remove);
+            version.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 📊 Cache content and age
+     */
+    public Map<String, Object> getStatus() {
+        State current = state;
+        Map<String, Object> status = new HashMap<>();
+        status.put("loaded", current != null);
+        status.put("version", version.get());
+        if (current != null) {
+            status.put("orders", current.orders().size());
+            status.put("employees", current.workers().size());
+            status.put("ageSeconds", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - current.loadedAtNanos()));
+            status.put("loadMillis", current.loadMillis());
+        }
+        return status;
+    }
+
+    private State current() {
+        State current = state;
+        if (current == null || isExpired(current)) {
+            lock.lock();
+            try {
+                if (state == current) {
+                    load();
+                }
+                current = state;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private boolean isExpired(State current) {
+        return maxAgeMinutes > 0
+                && System.nanoTime() - current.loadedAtNanos() > TimeUnit.MINUTES.toNanos(maxAgeMinutes);
+    }
+}
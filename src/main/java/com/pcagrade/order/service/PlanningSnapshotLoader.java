@@ -0,0 +1,285 @@
+package com.pcagrade.order.service;
+
+import com.pcagrade.order.service.planning.DeadlineCode;
+import com.pcagrade.order.service.planning.PlannableOrder;
+import com.pcagrade.order.service.planning.PlanningSnapshot;
+import com.pcagrade.order.service.planning.Skill;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Loads the orders and employees to plan into a {@link PlanningSnapshot}
+ * Single read path shared by the planning algorithms: orders, their card counts and
+ * required skills (grouped queries) and employees with their skills, no writes.
+ */
+@Service
+@Slf4j
+public class PlanningSnapshotLoader {
+
+    private static final int DEFAULT_MINUTES_PER_CARD = 3;
+    private static final int DEFAULT_CARD_COUNT = 10;
+
+    private static final String TASK_SELECT = """
+            SELECT
+                HEX(o.id) as id,
+                o.num_commande as orderNumber,
+                o.date as orderDate,
+                CASE
+                    WHEN o.delai = 'X' THEN 'URGENT'
+                    WHEN o.delai = 'F+' THEN 'HIGH'
+                    WHEN o.delai = 'F' THEN 'HIGH'
+                    WHEN o.delai = 'E' THEN 'MEDIUM'
+                    WHEN o.delai = 'C' THEN 'LOW'
+                    ELSE 'MEDIUM'
+                END as priority,
+                o.delai as delai,
+                COALESCE(o.nb_descellements, 0) as unsealing
+            """;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CardCountService cardCountService;
+
+    @Autowired
+    private EmployeeSkillService employeeSkillService;
+
+    /**
+     * Build a snapshot of the unplanned backlog
+     * @param fromDate orders created on or after this date; also the first plannable day
+     * @param maxOrders maximum number of orders to load
+     * @param minutesPerCard processing time per card
+     * @param includePlanned true to also load orders that already have a planning (what-if runs)
+     */
+    @Transactional(readOnly = true)
+    public PlanningSnapshot load(LocalDate fromDate, int maxOrders, int minutesPerCard, boolean includePlanned) {
+        long startNanos = System.nanoTime();
+        int timePerCard = minutesPerCard > 0 ? minutesPerCard : DEFAULT_MINUTES_PER_CARD;
+
+        List<PlanningSnapshot.Task> tasks = loadTasks(fromDate, maxOrders, timePerCard, includePlanned);
+        List<PlanningSnapshot.Worker> workers = loadWorkers();
+
+        log.info("📸 Planning snapshot: {} orders, {} employees from {} ({} ms)",
+                tasks.size(), workers.size(), fromDate, (System.nanoTime() - startNanos) / 1_000_000);
+
+        return PlanningSnapshot.of(fromDate, tasks, workers);
+    }
+
+    private List<PlanningSnapshot.Task> loadTasks(LocalDate fromDate, int maxOrders, int timePerCard,
+                                                  boolean includePlanned) {
+        String sql = TASK_SELECT + """
+            FROM `order` o
+            WHERE o.date >= ?
+            AND o.status IN (1, 2)
+            AND COALESCE(o.annulee, 0) = 0
+            """ + (includePlanned ? "" : """
+            AND NOT EXISTS (
+                SELECT 1 FROM j_planning jp
+                WHERE jp.order_id = o.id
+            )
+            """) + """
+            ORDER BY
+                CASE o.delai
+                    WHEN 'X' THEN 1
+                    WHEN 'F+' THEN 2
+                    WHEN 'F' THEN 3
+                    WHEN 'E' THEN 4
+                    WHEN 'C' THEN 5
+                    ELSE 4
+                END,
+                o.date ASC
+            LIMIT ?
+            """;
+
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter(1, fromDate);
+        query.setParameter(2, maxOrders);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return toTasks(toOrders(rows, countCards(rows), requiredSkills(rows), timePerCard));
+    }
+
+    /**
+     * Load every plannable order (status 1/2, not cancelled), planned or not (snapshot cache)
+     * @param minutesPerCard processing time per card
+     */
+    @Transactional(readOnly = true)
+    public List<PlannableOrder> loadPlannableOrders(int minutesPerCard) {
+        String sql = TASK_SELECT + """
+            FROM `order` o
+            WHERE o.status IN (1, 2)
+            AND COALESCE(o.annulee, 0) = 0
+            """;
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(sql).getResultList();
+        return toOrders(rows, cardCountService.countPlannableOrders(),
+                cardCountService.requiredSkillsOfPlannableOrders(), minutesPerCard > 0 ? minutesPerCard : DEFAULT_MINUTES_PER_CARD);
+    }
+
+    /**
+     * Load given orders as tasks, whatever their date or planning state (incremental planning)
+     * Cancelled orders and orders not in status 1/2 are left out.
+     * @param orderIds hex ids of the orders
+     * @param minutesPerCard processing time per card
+     */
+    @Transactional(readOnly = true)
+    public List<PlanningSnapshot.Task> loadTasks(Collection<String> orderIds, int minutesPerCard) {
+        return toTasks(loadPlannableOrders(orderIds, minutesPerCard));
+    }
+
+    /**
+     * Load given orders, whatever their date or planning state
+     * Cancelled orders and orders not in status 1/2 are left out.
+     * @param orderIds hex ids of the orders
+     * @param minutesPerCard processing time per card
+     */
+    @Transactional(readOnly = true)
+    public List<PlannableOrder> loadPlannableOrders(Collection<String> orderIds, int minutesPerCard) {
+        int timePerCard = minutesPerCard > 0 ? minutesPerCard : DEFAULT_MINUTES_PER_CARD;
+        List<String> ids = orderIds.stream().map(PlanningBatchWriter::normalizeId).distinct().toList();
+        List<PlannableOrder> orders = new ArrayList<>(ids.size());
+
+        for (int from = 0; from < ids.size(); from += PlanningBatchWriter.LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + PlanningBatchWriter.LOOKUP_CHUNK_SIZE, ids.size()));
+            StringJoiner placeholders = new StringJoiner(", ");
+            chunk.forEach(id -> placeholders.add("UNHEX(?)"));
+
+            String sql = TASK_SELECT + """
+                FROM `order` o
+                WHERE o.status IN (1, 2)
+                AND COALESCE(o.annulee, 0) = 0
+                AND o.id IN (""" + placeholders + ")";
+
+            Query query = entityManager.createNativeQuery(sql);
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter(i + 1, chunk.get(i));
+            }
+
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = query.getResultList();
+            orders.addAll(toOrders(rows, countCards(rows), requiredSkills(rows), timePerCard));
+        }
+        return orders;
+    }
+
+    private static List<PlanningSnapshot.Task> toTasks(List<PlannableOrder> orders) {
+        List<PlanningSnapshot.Task> tasks = new ArrayList<>(orders.size());
+        for (PlannableOrder order : orders) {
+            tasks.add(order.task());
+        }
+        return tasks;
+    }
+
+    /**
+     * Card counts of the loaded rows, one grouped query instead of a subquery per row
+     */
+    private Map<String, Integer> countCards(List<Object[]> rows) {
+        return cardCountService.countByOrderIds(rows.stream().map(row -> (String) row[0]).toList());
+    }
+
+    /**
+     * Skills required by the cards of the loaded rows (unsealing from o.nb_descellements is added in toOrders)
+     */
+    private Map<String, Integer> requiredSkills(List<Object[]> rows) {
+        return cardCountService.requiredSkillsByOrderIds(rows.stream().map(row -> (String) row[0]).toList());
+    }
+
+    private static List<PlannableOrder> toOrders(List<Object[]> rows, Map<String, Integer> cardCounts,
+                                                 Map<String, Integer> requiredSkills, int timePerCard) {
+        List<PlannableOrder> orders = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            int cardCount = cardCounts.getOrDefault((String) row[0], 0);
+            if (cardCount <= 0) {
+                cardCount = DEFAULT_CARD_COUNT;
+            }
+            String priority = (String) row[3];
+            LocalDate orderDate = toLocalDate(row[2]);
+            DeadlineCode deadline = DeadlineCode.fromCode((String) row[4]);
+            int skills = requiredSkills.getOrDefault((String) row[0], Skill.NONE);
+            if (row[5] instanceof Number unsealing && unsealing.intValue() > 0) {
+                skills |= Skill.UNSEALING.bit();
+            }
+
+            PlanningSnapshot.Task task = new PlanningSnapshot.Task(
+                    (String) row[0],
+                    (String) row[1],
+                    cardCount,
+                    cardCount * timePerCard,
+                    priority,
+                    deadline.dueDate(orderDate),
+                    skills);
+            orders.add(new PlannableOrder(task, orderDate, deadline.rank(), timePerCard));
+        }
+        return orders;
+    }
+
+    /**
+     * Active employees as planning workers, with their skills
+     */
+    public List<PlanningSnapshot.Worker> loadWorkers() {
+        Map<String, Integer> skills = employeeSkillService.skillsByEmployee();
+        List<PlanningSnapshot.Worker> workers = new ArrayList<>();
+        for (Map<String, Object> employee : employeeService.getAllActiveEmployees()) {
+            Object hours = employee.get("workHoursPerDay");
+            String id = (String) employee.get("id");
+            workers.add(new PlanningSnapshot.Worker(
+                    id,
+                    employee.get("firstName") + " " + employee.get("lastName"),
+                    hours instanceof Number n ? n.intValue() : PlanningSnapshot.DEFAULT_WORK_HOURS_PER_DAY,
+                    id != null ? skills.getOrDefault(PlanningBatchWriter.normalizeId(id), Skill.NONE) : Skill.NONE));
+        }
+        return workers;
+    }
+
+    /**
+     * Date column value (java.sql.Date, Timestamp or java.time) as a LocalDate
+     */
+    static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        return null;
+    }
+
+    /**
+     * Datetime column value (Timestamp or java.time) as a LocalDateTime
+     */
+    static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,203 @@
+package com.pcagrade.order.service;
+
+import com.pcagrade.order.event.EmployeeChangedEvent;
+import com.pcagrade.order.event.OrderChangedEvent;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🔢 PLANNING VERSION - compteur global des changements du planning (table planning_version)
+ * Incrémenté dans la transaction de chaque écriture de j_planning : toutes passent par
+ * EmployeeDailyLoadService, dont l'événement LoadChanged sert de point d'accroche. Les
+ * changements de commande et d'employé (numéro, nom affichés dans le planning) l'incrémentent
+ * aussi. L'UPDATE part une seule fois par transaction, juste avant son commit, pour ne pas
+ * garder la ligne verrouillée pendant l'écriture. Le compteur est en base pour être partagé entre instances et
+ * survivre aux redémarrages (les ETag restent valables) ; sa lecture est gardée en mémoire
+ * planning.version.max-age-millis, et relue aussitôt après un changement local.
+ */
+@Service
+@Slf4j
+public class PlanningVersionService {
+
+    private static final String CREATE_TABLE = """
+        CREATE TABLE IF NOT EXISTS planning_version (
+            id TINYINT NOT NULL PRIMARY KEY,
+            version BIGINT NOT NULL DEFAULT 0,
+            updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+        )
+        """;
+
+    private static final String SEED = "INSERT IGNORE INTO planning_version (id, version) VALUES (1, 0)";
+    private static final String BUMP = "UPDATE planning_version SET version = version + 1 WHERE id = 1";
+    private static final String READ = "SELECT version FROM planning_version WHERE id = 1";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * How long a read of the counter is trusted; bounds how late changes from other instances show up
+     */
+    @Value("${planning.version.max-age-millis:1000}")
+    private long maxAgeMillis;
+
+    private volatile boolean ready;
+
+    // Last read of the counter; a local change bumps invalidations so the next read goes to the database
+    private record Read(long version, long readAtNanos, long invalidation) {
+    }
+
+    private volatile Read last;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong bumps = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            newTransaction().executeWithoutResult(status -> {
+                entityManager.createNativeQuery(CREATE_TABLE).executeUpdate();
+                entityManager.createNativeQuery(SEED).executeUpdate();
+            });
+            ready = true;
+            log.info("🔢 Planning version: {}", current());
+        } catch (Exception e) {
+            log.warn("⚠️ Planning version table unavailable, planning responses will not be cached: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Current planning version; equal versions mean identical planning content
+     * @return -1 when unknown (table missing, database down): do not cache
+     */
+    public long current() {
+        if (!ready) {
+            return -1;
+        }
+        long now = System.nanoTime();
+        long invalidation = invalidations.get();
+        Read read = last;
+        if (read != null && read.invalidation() == invalidation
+                && now - read.readAtNanos() < TimeUnit.MILLISECONDS.toNanos(maxAgeMillis)) {
+            return read.version();
+        }
+
+        try {
+            long version = ((Number) entityManager.createNativeQuery(READ).getSingleResult()).longValue();
+            last = new Read(version, now, invalidation);
+            return version;
+        } catch (Exception e) {
+            log.warn("⚠️ Planning version read failed: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    // ========== BUMPS ==========
+
+    /**
+     * j_planning written; a full rebuild that found the same content is not a change
+     */
+    @EventListener
+    public void onLoadChanged(EmployeeDailyLoadService.LoadChanged event) {
+        if (event.changed()) {
+            bump();
+        }
+    }
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        // A new order has no planning row yet
+        if (event.type() != OrderChangedEvent.ChangeType.CREATED) {
+            bump();
+        }
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.type() != EmployeeChangedEvent.ChangeType.CREATED) {
+            bump();
+        }
+    }
+
+    /**
+     * Bump in the caller's transaction, once, just before it commits (so the version commits or
+     * rolls back with the change, and the row is only locked for the commit itself)
+     * Without a transaction the change is already committed: bump in a transaction of its own.
+     */
+    private void bump() {
+        if (!ready) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                newTransaction().executeWithoutResult(status -> entityManager.createNativeQuery(BUMP).executeUpdate());
+                bumps.incrementAndGet();
+            } catch (Exception e) {
+                log.warn("⚠️ Planning version bump failed: {}", e.getMessage());
+            } finally {
+                invalidations.incrementAndGet();
+            }
+            return;
+        }
+        // Synchronizations of a suspended outer transaction are not listed: each transaction bumps once
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof BumpBeforeCommit) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new BumpBeforeCommit());
+    }
+
+    private final class BumpBeforeCommit implements TransactionSynchronization {
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            entityManager.createNativeQuery(BUMP).executeUpdate();
+        }
+
+        @Override
+        public void afterCommit() {
+            bumps.incrementAndGet();
+        }
+
+        /**
+         * Committed (or rolled back): forget the cached read either way
+         */
+        @Override
+        public void afterCompletion(int status) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        Read read = last;
+        status.put("ready", ready);
+        status.put("version", read != null ? read.version() : null);
+        status.put("localBumps", bumps.get());
+        status.put("maxAgeMillis", maxAgeMillis);
+        return status;
+    }
+}
@@ -0,0 +1,75 @@
+package com.pcagrade.order.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 🔒 PLANNING WRITE LOCK - sérialise les écritures qui placent des commandes dans j_planning
+ * Le planning incrémental (après chaque changement de commande) et les lots des jobs de
+ * planification lisent d'abord ce qui est déjà planifié, puis écrivent : deux écritures en
+ * parallèle choisiraient le même employé au même créneau, ou planifieraient deux fois la même
+ * commande. Chacune verrouille donc la ligne 'j_planning' de la table planning_lock
+ * (SELECT ... FOR UPDATE) au début de sa transaction ; le verrou est en base pour valoir entre
+ * instances et tombe au commit ou au rollback.
+ */
+@Service
+@Slf4j
+public class PlanningWriteLock {
+
+    private static final String CREATE_TABLE = """
+        CREATE TABLE IF NOT EXISTS planning_lock (
+            name VARCHAR(64) NOT NULL PRIMARY KEY
+        )
+        """;
+
+    private static final String LOCK_NAME = "j_planning";
+    private static final String SEED = "INSERT IGNORE INTO planning_lock (name) VALUES ('" + LOCK_NAME + "')";
+    private static final String LOCK = "SELECT name FROM planning_lock WHERE name = '" + LOCK_NAME + "' FOR UPDATE";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            template.executeWithoutResult(status -> {
+                entityManager.createNativeQuery(CREATE_TABLE).executeUpdate();
+                entityManager.createNativeQuery(SEED).executeUpdate();
+            });
+            ready = true;
+        } catch (Exception e) {
+            log.warn("⚠️ Planning lock table unavailable, planning writes will retry it: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Wait for the lock; held until the current transaction ends
+     * @throws IllegalStateException if the lock table cannot be created
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void acquire() {
+        if (!ready) {
+            initialize();
+            if (!ready) {
+                throw new IllegalStateException("Planning lock table unavailable");
+            }
+        }
+        entityManager.createNativeQuery(LOCK).getResultList();
+    }
+}
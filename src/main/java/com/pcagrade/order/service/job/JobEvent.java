@@ -0,0 +1,46 @@
+package com.pcagrade.order.service.job;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * State change of a {@link PlanningJob}, as streamed to SSE subscribers
+ *
+ * @param jobId job
+ * @param sequence increasing per job, usable as SSE event id
+ * @param type status (current state on subscribe), phase, progress, done, or dropped (last event
+ *             of a subscriber that fell too far behind)
+ * @param status job status after the change
+ * @param phase current phase
+ * @param done steps done in the phase
+ * @param total steps of the phase, 0 if unknown
+ * @param message human-readable detail ("assigned 1200/5000 orders")
+ * @param timestamp when it happened
+ */
+public record JobEvent(String jobId, long sequence, String type, PlanningJob.Status status,
+                       PlanningJob.Phase phase, long done, long total, String message, Instant timestamp) {
+
+    public static final String DROPPED = "dropped";
+
+    /**
+     * Last event of a stream
+     */
+    public boolean isTerminal() {
+        return "done".equals(type) || DROPPED.equals(type);
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("jobId", jobId);
+        map.put("sequence", sequence);
+        map.put("type", type);
+        map.put("status", status.name());
+        map.put("phase", phase.name());
+        map.put("done", done);
+        map.put("total", total);
+        map.put("message", message);
+        map.put("timestamp", timestamp.toString());
+        return map;
+    }
+}
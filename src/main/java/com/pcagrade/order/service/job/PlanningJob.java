@@ -0,0 +1,343 @@
+package com.pcagrade.order.service.job;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * One asynchronous planning run: state, progress and the listeners following it
+ *
+ * The worker thread drives it (start, phase, progress, then succeed / fail / cancelled);
+ * any thread may read it, request cancellation or subscribe. Cancellation is cooperative:
+ * the worker calls {@link #checkCancelled()} between steps, so a JDBC statement is never
+ * interrupted half-way. Each subscriber has a bounded queue drained on the delivery executor
+ * (a virtual thread per subscriber in the application), in order: the worker only enqueues and
+ * never waits for a client. A subscriber first receives the current state, so nothing is
+ * missed between a status read and the subscription. A listener that throws is dropped; so is
+ * a subscriber whose queue is full, after a last "dropped" event (it may subscribe again).
+ */
+public final class PlanningJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    public enum Phase {
+        QUEUED, LOADING, ASSIGNING, COMMITTING, DONE
+    }
+
+    /**
+     * Minimum delay between two progress events (phase changes and the last step always go out)
+     */
+    private static final long PROGRESS_INTERVAL_NANOS = 100_000_000L;
+
+    /**
+     * Events waiting per subscriber (about 6 s of throttled progress) before it is dropped
+     */
+    static final int SUBSCRIBER_QUEUE_CAPACITY = 64;
+
+    private final String id;
+    private final String algorithm;
+    private final Map<String, Object> parameters;
+    private final Instant createdAt = Instant.now();
+
+    // Written by the worker under lock, read anywhere
+    private volatile Status status = Status.QUEUED;
+    private volatile Phase phase = Phase.QUEUED;
+    private volatile long done;
+    private volatile long total;
+    private volatile String message = "Queued";
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile Map<String, Object> result;
+    private volatile boolean cancelRequested;
+    private volatile Future<?> future;
+
+    private long sequence;
+    private long lastProgressNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Executor delivery;
+
+    /**
+     * @param delivery runs the subscribers' deliveries, one task at a time per subscriber
+     */
+    public PlanningJob(String id, String algorithm, Map<String, Object> parameters, Executor delivery) {
+        this.id = id;
+        this.algorithm = algorithm;
+        this.parameters = Map.copyOf(parameters);
+        this.delivery = delivery;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    public Map<String, Object> parameters() {
+        return parameters;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public Phase phase() {
+        return phase;
+    }
+
+    public Instant finishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Result of a successful run, null otherwise
+     */
+    public Map<String, Object> result() {
+        return result;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public void attach(Future<?> future) {
+        this.future = future;
+    }
+
+    // ========== WORKER SIDE ==========
+
+    /**
+     * @return false if the job was cancelled while queued (do not run it)
+     */
+    public boolean start() {
+        lock.lock();
+        try {
+            if (status != Status.QUEUED) {
+                return false;
+            }
+            startedAt = Instant.now();
+            status = Status.RUNNING;
+            emit("status", "Started");
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void phase(Phase newPhase, String newMessage) {
+        lock.lock();
+        try {
+            phase = newPhase;
+            done = 0;
+            total = 0;
+            message = newMessage;
+            emit("phase", newMessage);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Progress within the current phase; throttled, the final step is always sent
+     */
+    public void progress(long newDone, long newTotal, String newMessage) {
+        lock.lock();
+        try {
+            done = newDone;
+            total = newTotal;
+            message = newMessage;
+            long now = System.nanoTime();
+            if (newDone >= newTotal || now - lastProgressNanos >= PROGRESS_INTERVAL_NANOS) {
+                lastProgressNanos = now;
+                emit("progress", newMessage);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @throws CancellationException once cancellation was requested
+     */
+    public void checkCancelled() {
+        if (cancelRequested || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Job " + id + " cancelled");
+        }
+    }
+
+    public void succeed(Map<String, Object> jobResult, String doneMessage) {
+        finish(Status.SUCCEEDED, jobResult, doneMessage);
+    }
+
+    public void fail(String error) {
+        finish(Status.FAILED, null, error);
+    }
+
+    public void cancelled(String cancelMessage) {
+        finish(Status.CANCELLED, null, cancelMessage);
+    }
+
+    private void finish(Status finalStatus, Map<String, Object> jobResult, String finalMessage) {
+        lock.lock();
+        try {
+            if (status.isFinished()) {
+                return;
+            }
+            result = jobResult;
+            status = finalStatus;
+            phase = Phase.DONE;
+            message = finalMessage;
+            finishedAt = Instant.now();
+            emit("done", finalMessage);
+            subscribers.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ========== CLIENT SIDE ==========
+
+    /**
+     * Ask the job to stop; a queued job is cancelled at once
+     * @return false if it had already finished
+     */
+    public boolean requestCancel() {
+        if (status.isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        Future<?> queued = future;
+        if (status == Status.QUEUED && queued != null && queued.cancel(false)) {
+            cancelled("Cancelled before start");
+        }
+        return true;
+    }
+
+    /**
+     * Follow the job: the listener gets the current state, then every event until "done"
+     * (or "dropped" if it falls {@value #SUBSCRIBER_QUEUE_CAPACITY} events behind)
+     * @return action removing the listener
+     */
+    public Runnable subscribe(Consumer<JobEvent> listener) {
+        Subscriber subscriber = new Subscriber(listener);
+        lock.lock();
+        try {
+            subscriber.offer(event(status.isFinished() ? "done" : "status", message));
+            if (!status.isFinished()) {
+                subscribers.add(subscriber);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return subscriber::close;
+    }
+
+    // Under the lock: only enqueues
+    private void emit(String type, String eventMessage) {
+        JobEvent event = event(type, eventMessage);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    private JobEvent event(String type, String eventMessage) {
+        return new JobEvent(id, ++sequence, type, status, phase, done, total, eventMessage, Instant.now());
+    }
+
+    /**
+     * One listener with its queue; at most one delivery task runs for it at a time
+     */
+    private final class Subscriber {
+
+        private final Consumer<JobEvent> listener;
+        private final ArrayBlockingQueue<JobEvent> queue = new ArrayBlockingQueue<>(SUBSCRIBER_QUEUE_CAPACITY);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(Consumer<JobEvent> listener) {
+            this.listener = listener;
+        }
+
+        // Never blocks: a full queue drops the subscriber
+        private void offer(JobEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                close();
+                queue.clear();
+                queue.offer(new JobEvent(id, event.sequence(), JobEvent.DROPPED, status, phase, done, total,
+                        "Subscriber too slow, events dropped", Instant.now()));
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    delivery.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                for (JobEvent event; (event = queue.poll()) != null; ) {
+                    try {
+                        listener.accept(event);
+                    } catch (RuntimeException e) {
+                        close();
+                        queue.clear();
+                        return;
+                    }
+                }
+                scheduled.set(false);
+            } while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+
+    /**
+     * 📊 Current state
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("jobId", id);
+        map.put("algorithm", algorithm);
+        map.put("parameters", parameters);
+        map.put("status", status.name());
+        map.put("phase", phase.name());
+        map.put("done", done);
+        map.put("total", total);
+        map.put("message", message);
+        map.put("cancelRequested", cancelRequested);
+        map.put("createdAt", createdAt.toString());
+        map.put("startedAt", startedAt != null ? startedAt.toString() : null);
+        map.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        return map;
+    }
+}
@@ -0,0 +1,73 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.LocalDate;
+
+/**
+ * Délai codes of an order (column o.delai) and what they promise
+ *
+ * The rank is the planning order of the codes, the turnaround the number of calendar days
+ * between the order date and the date the order is due.
+ */
+public enum DeadlineCode {
+
+    X("X", "URGENT", 1, 2),
+    F_PLUS("F+", "HIGH", 2, 5),
+    F("F", "HIGH", 3, 7),
+    E("E", "MEDIUM", 4, 14),
+    C("C", "LOW", 5, 30);
+
+    private final String code;
+    private final String priority;
+    private final int rank;
+    private final int turnaroundDays;
+
+    DeadlineCode(String code, String priority, int rank, int turnaroundDays) {
+        this.code = code;
+        this.priority = priority;
+        this.rank = rank;
+        this.turnaroundDays = turnaroundDays;
+    }
+
+    /**
+     * Code of a délai value; null and unknown values are treated as 'E'
+     */
+    public static DeadlineCode fromCode(String delai) {
+        if (delai != null) {
+            for (DeadlineCode value : values()) {
+                if (value.code.equals(delai)) {
+                    return value;
+                }
+            }
+        }
+        return E;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    /**
+     * URGENT / HIGH / MEDIUM / LOW, as stored in j_planning.priority
+     */
+    public String priority() {
+        return priority;
+    }
+
+    /**
+     * Position in planning order (X=1 ... C=5)
+     */
+    public int rank() {
+        return rank;
+    }
+
+    public int turnaroundDays() {
+        return turnaroundDays;
+    }
+
+    /**
+     * Date the order is due, null if the order date is unknown
+     */
+    public LocalDate dueDate(LocalDate orderDate) {
+        return orderDate != null ? orderDate.plusDays(turnaroundDays) : null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.pcagrade.order.service.planning;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Earliest deadline first: orders are taken by due date (see {@link DeadlineCode}), then by
+ * priority, then in loaded order, and each goes to the employee able to take it who becomes
+ * free first
+ *
+ * Employee availability is kept in {@link SkillAwareWorkloads} keyed on the minutes between the
+ * start of the horizon and the end of the employee's last task, so an urgent order never
+ * waits behind bulk orders that are due later. Orders without due date come last.
+ * O(n log n + n log E)
+ */
+@Component
+public class EarliestDeadlineFirstAlgorithm implements PlanningAlgorithm {
+
+    public static final String NAME = "edf";
+
+    /**
+     * Sort keys pack the task index in their low bits
+     */
+    private static final int TASK_BITS = 24;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String description() {
+        return "Plans the orders due first on the employee available first, priority breaking ties";
+    }
+
+    @Override
+    public List<PlanningAssignment> plan(PlanningSnapshot snapshot) {
+        PlanningModel model = PlanningModel.of(snapshot);
+        List<PlanningAssignment> assignments = new ArrayList<>(model.taskCount());
+        if (model.workerCount() == 0) {
+            return assignments;
+        }
+
+        EmployeeCalendar[] calendars = model.newCalendars();
+        SkillAwareWorkloads availability = new SkillAwareWorkloads(model);
+        LocalDateTime horizonStart = model.horizonStart();
+
+        for (long key : deadlineOrder(model)) {
+            int task = (int) (key & ((1 << TASK_BITS) - 1));
+            int worker = availability.pick(model.requiredSkills(task));
+            List<EmployeeCalendar.Segment> segments = calendars[worker].allocate(
+                    model.duration(task), horizonStart, false);
+            model.addSegments(assignments, task, worker, segments);
+
+            LocalDateTime end = segments.get(segments.size() - 1).end();
+            availability.update(worker, Duration.between(horizonStart, end).toMinutes(), end);
+        }
+        return assignments;
+    }
+
+    /**
+     * Task indexes sorted by (due day, priority rank, index), packed as longs:
+     * due day in the high 32 bits, rank in the next 8, index in the low 24
+     */
+    static long[] deadlineOrder(PlanningModel model) {
+        int count = model.taskCount();
+        if (count >= 1 << TASK_BITS) {
+            throw new IllegalArgumentException("Too many tasks for EDF planning: " + count);
+        }
+
+        long[] keys = new long[count];
+        for (int task = 0; task < count; task++) {
+            keys[task] = ((long) model.dueDay(task) << 32)
+                    | ((long) priorityRank(model.priority(task)) << TASK_BITS)
+                    | task;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static int priorityRank(String priority) {
+        if (priority == null) {
+            return 2;
+        }
+        return switch (priority) {
+            case "URGENT" -> 0;
+            case "HIGH" -> 1;
+            case "LOW" -> 3;
+            default -> 2;
+        };
+    }
+}
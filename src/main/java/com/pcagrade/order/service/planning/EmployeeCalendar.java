@@ -0,0 +1,381 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Working calendar of one employee, in 5-minute slots
+ *
+ * Each working day is a bitset of slots between the day start and end (bit set = busy).
+ * A max segment tree over days stores, for every day, the longest run of free slots
+ * still usable (capped by the remaining daily capacity), so "first day that can hold
+ * k slots" is answered in O(log days) whatever the horizon.
+ * Days never touched are not materialized: they are fully free.
+ */
+public final class EmployeeCalendar {
+
+    public static final int SLOT_MINUTES = 5;
+
+    private static final int INITIAL_DAYS = 64;
+
+    private final LocalDate origin;
+    private final LocalTime dayStart;
+    private final int slotsPerDay;
+    private final int capacitySlots;
+    private final int breakSlots;
+    private final boolean skipWeekends;
+
+    private final Map<Integer, Day> days = new HashMap<>();
+    private int leaves;
+    private int[] tree;
+
+    /**
+     * @param origin first plannable day
+     * @param dayStart start of the working window
+     * @param dayEnd end of the working window
+     * @param capacityMinutesPerDay minutes of work allowed per day (e.g. workHoursPerDay * 60)
+     * @param breakMinutes pause kept after each task when the day still has room
+     * @param skipWeekends true to leave Saturdays and Sundays empty
+     */
+    public EmployeeCalendar(LocalDate origin, LocalTime dayStart, LocalTime dayEnd,
+                            int capacityMinutesPerDay, int breakMinutes, boolean skipWeekends) {
+        if (!dayEnd.isAfter(dayStart)) {
+            throw new IllegalArgumentException("Day end must be after day start");
+        }
+        int windowSlots = (int) (ChronoUnit.MINUTES.between(dayStart, dayEnd) / SLOT_MINUTES);
+        if (windowSlots < 1) {
+            throw new IllegalArgumentException("Working window " + dayStart + "-" + dayEnd
+                    + " is shorter than one " + SLOT_MINUTES + "-minute slot");
+        }
+        this.origin = origin;
+        this.dayStart = dayStart;
+        this.slotsPerDay = windowSlots;
+        this.capacitySlots = Math.max(1, Math.min(slotsPerDay, capacityMinutesPerDay / SLOT_MINUTES));
+        this.breakSlots = slotsFor(breakMinutes);
+        this.skipWeekends = skipWeekends;
+        this.leaves = INITIAL_DAYS;
+        this.tree = new int[2 * leaves];
+        rebuild();
+    }
+
+    /**
+     * A contiguous piece of work
+     */
+    public record Segment(LocalDateTime start, int minutes) {
+        public LocalDateTime end() {
+            return start.plusMinutes(minutes);
+        }
+    }
+
+    /**
+     * Reserve the earliest feasible window for a task
+     * @param durationMinutes task duration
+     * @param notBefore earliest allowed start
+     * @param allowSplit true to spread the task over several free windows/days
+     * @return reserved segments, in chronological order
+     */
+    public List<Segment> allocate(int durationMinutes, LocalDateTime notBefore, boolean allowSplit) {
+        int slots = slotsFor(Math.max(durationMinutes, 1));
+        int fromDay = Math.max(0, dayIndex(notBefore.toLocalDate()));
+        int fromSlot = fromDay == dayIndex(notBefore.toLocalDate()) ? slotOf(notBefore.toLocalTime()) : 0;
+
+        // A task longer than one day can only be placed by splitting it
+        if (allowSplit || slots > capacitySlots) {
+            return allocateSplit(slots, fromDay, fromSlot);
+        }
+
+        int day = fromDay;
+        int start = findRunInDay(day, fromSlot, slots);
+        if (start < 0) {
+            day = firstDayWithRun(fromDay + 1, slots);
+            start = findRunInDay(day, 0, slots);
+        }
+        reserve(day, start, slots);
+        return List.of(new Segment(slotTime(day, start), slots * SLOT_MINUTES));
+    }
+
+    /**
+     * @return true if {@link #allocate} places a task of this length as a single segment when not splitting
+     */
+    public boolean fitsInOneWindow(int durationMinutes) {
+        return slotsFor(Math.max(durationMinutes, 1)) <= capacitySlots;
+    }
+
+    /**
+     * Earliest start at which a task of the given length fits in a single window, without reserving it
+     */
+    public LocalDateTime nextFreeSlot(LocalDateTime notBefore, int durationMinutes) {
+        int slots = Math.min(slotsFor(Math.max(durationMinutes, 1)), capacitySlots);
+        int fromDay = Math.max(0, dayIndex(notBefore.toLocalDate()));
+        int fromSlot = fromDay == dayIndex(notBefore.toLocalDate()) ? slotOf(notBefore.toLocalTime()) : 0;
+
+        int start = findRunInDay(fromDay, fromSlot, slots);
+        if (start >= 0) {
+            return slotTime(fromDay, start);
+        }
+        int day = firstDayWithRun(fromDay + 1, slots);
+        return slotTime(day, findRunInDay(day, 0, slots));
+    }
+
+    /**
+     * Mark an already planned task as busy (e.g. a row loaded from j_planning)
+     * The task is snapped to the slot grid and clipped to the working window.
+     */
+    public void occupy(LocalDateTime start, int durationMinutes) {
+        int dayIndex = dayIndex(start.toLocalDate());
+        if (dayIndex < 0) {
+            return;
+        }
+        long offset = Math.max(0, ChronoUnit.MINUTES.between(dayStart, start.toLocalTime()));
+        int from = (int) Math.min(slotsPerDay, offset / SLOT_MINUTES);
+        int to = Math.min(slotsPerDay, from + slotsFor(Math.max(durationMinutes, 1)));
+        if (from >= to) {
+            return;
+        }
+
+        Day d = day(dayIndex);
+        int alreadyBusy = d.busy.get(from, to).cardinality();
+        d.busy.set(from, to);
+        d.used = Math.min(slotsPerDay, d.used + (to - from - alreadyBusy));
+        if (breakSlots > 0) {
+            int nextBusy = d.busy.nextSetBit(to);
+            int breakEnd = Math.min(to + breakSlots, nextBusy < 0 ? slotsPerDay : nextBusy);
+            if (breakEnd > to) {
+                d.busy.set(to, Math.min(breakEnd, slotsPerDay));
+            }
+        }
+        updateLeaf(dayIndex);
+    }
+
+    /**
+     * Minutes of work already reserved on a given date
+     */
+    public int reservedMinutes(LocalDate date) {
+        Day day = days.get(dayIndex(date));
+        return day == null ? 0 : day.used * SLOT_MINUTES;
+    }
+
+    // ========== ALLOCATION ==========
+
+    private List<Segment> allocateSplit(int slots, int fromDay, int fromSlot) {
+        List<Segment> segments = new ArrayList<>();
+        int remaining = slots;
+        int day = fromDay;
+        int slot = fromSlot;
+
+        while (remaining > 0) {
+            int start = firstFreeInDay(day, slot);
+            if (start < 0) {
+                day = firstDayWithRun(day + 1, 1);
+                slot = 0;
+                continue;
+            }
+            Day d = day(day);
+            int runEnd = d.busy.nextSetBit(start);
+            if (runEnd < 0 || runEnd > slotsPerDay) {
+                runEnd = slotsPerDay;
+            }
+            int length = Math.min(Math.min(runEnd - start, remaining), capacitySlots - d.used);
+
+            remaining -= length;
+            reserveWork(day, start, length, remaining == 0);
+            segments.add(new Segment(slotTime(day, start), length * SLOT_MINUTES));
+            slot = start + length;
+        }
+        return segments;
+    }
+
+    private void reserve(int dayIndex, int start, int slots) {
+        reserveWork(dayIndex, start, slots, true);
+    }
+
+    private void reserveWork(int dayIndex, int start, int slots, boolean withBreak) {
+        Day d = day(dayIndex);
+        d.busy.set(start, start + slots);
+        d.used += slots;
+        if (withBreak && breakSlots > 0) {
+            int end = start + slots;
+            int nextBusy = d.busy.nextSetBit(end);
+            int breakEnd = Math.min(end + breakSlots, nextBusy < 0 ? slotsPerDay : nextBusy);
+            if (breakEnd > end) {
+                d.busy.set(end, Math.min(breakEnd, slotsPerDay));
+            }
+        }
+        updateLeaf(dayIndex);
+    }
+
+    /**
+     * First slot >= from that starts a free run of the given length in a day, or -1
+     */
+    private int findRunInDay(int dayIndex, int from, int slots) {
+        if (!isWorkingDay(dayIndex)) {
+            return -1;
+        }
+        Day d = days.get(dayIndex);
+        if (d == null) {
+            return from + slots <= slotsPerDay && slots <= capacitySlots ? from : -1;
+        }
+        if (d.used + slots > capacitySlots) {
+            return -1;
+        }
+        int start = d.busy.nextClearBit(from);
+        while (start + slots <= slotsPerDay) {
+            int end = d.busy.nextSetBit(start);
+            if (end < 0 || end > slotsPerDay) {
+                end = slotsPerDay;
+            }
+            if (end - start >= slots) {
+                return start;
+            }
+            start = d.busy.nextClearBit(end);
+        }
+        return -1;
+    }
+
+    private int firstFreeInDay(int dayIndex, int from) {
+        if (!isWorkingDay(dayIndex) || from >= slotsPerDay) {
+            return -1;
+        }
+        Day d = days.get(dayIndex);
+        if (d == null) {
+            return from;
+        }
+        if (d.used >= capacitySlots) {
+            return -1;
+        }
+        int start = d.busy.nextClearBit(from);
+        return start < slotsPerDay ? start : -1;
+    }
+
+    // ========== SEGMENT TREE OVER DAYS ==========
+
+    /**
+     * First day >= from whose usable free run holds the requested slots, growing the horizon as needed
+     */
+    private int firstDayWithRun(int from, int slots) {
+        while (true) {
+            if (from < leaves) {
+                int found = descend(1, 0, leaves - 1, from, slots);
+                if (found >= 0) {
+                    return found;
+                }
+            }
+            grow(Math.max(from + 1, leaves * 2));
+        }
+    }
+
+    private int descend(int node, int lo, int hi, int from, int slots) {
+        if (hi < from || tree[node] < slots) {
+            return -1;
+        }
+        if (lo == hi) {
+            return lo;
+        }
+        int mid = (lo + hi) >>> 1;
+        int found = descend(2 * node, lo, mid, from, slots);
+        return found >= 0 ? found : descend(2 * node + 1, mid + 1, hi, from, slots);
+    }
+
+    private void grow(int minDays) {
+        int size = leaves;
+        while (size < minDays) {
+            size *= 2;
+        }
+        leaves = size;
+        tree = new int[2 * leaves];
+        rebuild();
+    }
+
+    private void rebuild() {
+        for (int d = 0; d < leaves; d++) {
+            tree[leaves + d] = usableRun(d);
+        }
+        for (int i = leaves - 1; i >= 1; i--) {
+            tree[i] = Math.max(tree[2 * i], tree[2 * i + 1]);
+        }
+    }
+
+    private void updateLeaf(int dayIndex) {
+        if (dayIndex >= leaves) {
+            grow(dayIndex + 1);
+            return;
+        }
+        int i = leaves + dayIndex;
+        tree[i] = usableRun(dayIndex);
+        for (i >>>= 1; i >= 1; i >>>= 1) {
+            tree[i] = Math.max(tree[2 * i], tree[2 * i + 1]);
+        }
+    }
+
+    private int usableRun(int dayIndex) {
+        if (!isWorkingDay(dayIndex)) {
+            return 0;
+        }
+        Day d = days.get(dayIndex);
+        if (d == null) {
+            return capacitySlots;
+        }
+        int longest = 0;
+        int start = d.busy.nextClearBit(0);
+        while (start < slotsPerDay) {
+            int end = d.busy.nextSetBit(start);
+            if (end < 0 || end > slotsPerDay) {
+                end = slotsPerDay;
+            }
+            longest = Math.max(longest, end - start);
+            start = d.busy.nextClearBit(end);
+        }
+        return Math.min(longest, capacitySlots - d.used);
+    }
+
+    // ========== HELPERS ==========
+
+    private Day day(int dayIndex) {
+        return days.computeIfAbsent(dayIndex, k -> new Day(slotsPerDay));
+    }
+
+    private boolean isWorkingDay(int dayIndex) {
+        if (!skipWeekends) {
+            return true;
+        }
+        DayOfWeek dow = origin.plusDays(dayIndex).getDayOfWeek();
+        return dow != DayOfWeek.SATURDAY && dow != DayOfWeek.SUNDAY;
+    }
+
+    private int dayIndex(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(origin, date);
+    }
+
+    private int slotOf(LocalTime time) {
+        long minutes = ChronoUnit.MINUTES.between(dayStart, time);
+        if (minutes <= 0) {
+            return 0;
+        }
+        return (int) Math.min(slotsPerDay, (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES);
+    }
+
+    private LocalDateTime slotTime(int dayIndex, int slot) {
+        return origin.plusDays(dayIndex).atTime(dayStart).plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    private static int slotsFor(int minutes) {
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    private static final class Day {
+        private final BitSet busy;
+        private int used;
+
+        private Day(int slots) {
+            this.busy = new BitSet(slots);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Incremental re-planning: applies a delta to the current schedule instead of rebuilding it
+ *
+ * Rows already started (IN_PROGRESS, PAUSED, or SCHEDULED with a start in the past) are never
+ * touched, so what graders are working on stays as is. For a delta:
+ * - removed orders lose their not-yet-started rows;
+ * - on each employee who lost rows, the later not-yet-started rows are pulled forward into
+ *   the freed time, keeping their order; only rows whose start actually changes are reported;
+ * - added orders are placed on the least loaded employee with the required skills (remaining planned minutes),
+ *   at the first free slot after now. An order that already has rows anywhere in j_planning (past
+ *   days and finished rows included) is skipped unless it is also removed; a removed and re-added
+ *   order keeps every row that is not deleted here, and only the rest of its duration is placed.
+ *
+ * Ids are compared as given: callers pass normalized (upper-case, no dash) hex ids.
+ */
+public final class IncrementalPlanner {
+
+    private static final Set<String> STARTED_STATUSES = Set.of("IN_PROGRESS", "PAUSED");
+
+    private IncrementalPlanner() {
+    }
+
+    /**
+     * Rows to write back
+     * @param inserted new rows for added orders
+     * @param deletedIds planning ids to delete
+     * @param moved existing rows with their new date/start
+     */
+    public record Result(List<PlanningAssignment> inserted, List<String> deletedIds, List<PlanningAssignment> moved) {
+
+        public boolean isEmpty() {
+            return inserted.isEmpty() && deletedIds.isEmpty() && moved.isEmpty();
+        }
+    }
+
+    /**
+     * Delta for a schedule that holds every row of the added orders
+     * @see #apply(PlanningSnapshot, List, Collection, Map, LocalDateTime)
+     */
+    public static Result apply(PlanningSnapshot snapshot, List<PlanningAssignment> schedule,
+                               Collection<String> removedOrderIds, LocalDateTime now) {
+        Map<String, Integer> plannedMinutes = new HashMap<>();
+        for (PlanningAssignment row : schedule) {
+            plannedMinutes.merge(row.orderId(), row.durationMinutes(), Integer::sum);
+        }
+        return apply(snapshot, schedule, removedOrderIds, plannedMinutes, now);
+    }
+
+    /**
+     * @param snapshot workers and working window (startDate = first plannable day),
+     *                 tasks = orders to add
+     * @param schedule current rows of the horizon
+     * @param removedOrderIds orders leaving the schedule (cancelled, deleted, or changed and re-added)
+     * @param plannedMinutes minutes of all existing rows of the added orders, whatever their date or
+     *                       status, schedule rows included; an order absent has no row
+     * @param now current time; nothing is placed or moved before it
+     */
+    public static Result apply(PlanningSnapshot snapshot, List<PlanningAssignment> schedule,
+                               Collection<String> removedOrderIds, Map<String, Integer> plannedMinutes,
+                               LocalDateTime now) {
+        List<PlanningSnapshot.Worker> workers = snapshot.workers();
+        Map<String, Integer> workerIndex = new HashMap<>();
+        for (int i = 0; i < workers.size(); i++) {
+            workerIndex.put(workers.get(i).employeeId(), i);
+        }
+        LocalDateTime notBefore = now.isAfter(snapshot.startDate().atTime(snapshot.dayStart()))
+                ? now : snapshot.startDate().atTime(snapshot.dayStart());
+
+        // 1. Split the schedule into deleted rows and kept rows per employee
+        Set<String> removed = new HashSet<>(removedOrderIds);
+        List<String> deletedIds = new ArrayList<>();
+        List<List<PlanningAssignment>> keptByEmployee = new ArrayList<>(workers.size());
+        LocalDateTime[] freedFrom = new LocalDateTime[workers.size()];
+        for (int i = 0; i < workers.size(); i++) {
+            keptByEmployee.add(new ArrayList<>());
+        }
+        Set<String> plannedOrders = new HashSet<>();
+        // Started rows of removed orders stay; if the order comes back, only the rest is placed
+        Map<String, Integer> keptMinutes = new HashMap<>();
+        Map<String, Integer> deletedMinutes = new HashMap<>();
+
+        for (PlanningAssignment row : schedule) {
+            Integer index = workerIndex.get(row.employeeId());
+            boolean movable = isMovable(row, now);
+            if (removed.contains(row.orderId()) && movable) {
+                deletedIds.add(row.planningId());
+                deletedMinutes.merge(row.orderId(), row.durationMinutes(), Integer::sum);
+                if (index != null && (freedFrom[index] == null || row.startTime().isBefore(freedFrom[index]))) {
+                    freedFrom[index] = row.startTime();
+                }
+                continue;
+            }
+            if (removed.contains(row.orderId())) {
+                keptMinutes.merge(row.orderId(), row.durationMinutes(), Integer::sum);
+            } else {
+                plannedOrders.add(row.orderId());
+            }
+            if (index != null) {
+                keptByEmployee.get(index).add(row);
+            }
+        }
+
+        // 2. Rebuild each calendar; compact employees that lost rows
+        PlanningModel model = PlanningModel.of(snapshot);
+        EmployeeCalendar[] calendars = new EmployeeCalendar[workers.size()];
+        SkillAwareWorkloads heap = new SkillAwareWorkloads(model);
+        List<PlanningAssignment> moved = new ArrayList<>();
+
+        for (int i = 0; i < workers.size(); i++) {
+            EmployeeCalendar calendar = snapshot.newCalendar(workers.get(i));
+            calendars[i] = calendar;
+
+            List<PlanningAssignment> kept = keptByEmployee.get(i);
+            kept.sort(Comparator.comparing(PlanningAssignment::startTime));
+            List<PlanningAssignment> toCompact = new ArrayList<>();
+            long workload = 0;
+            LocalDateTime lastEnd = null;
+
+            for (PlanningAssignment row : kept) {
+                workload += row.durationMinutes();
+                // A row longer than a working day would come back split: it stays where it is
+                if (freedFrom[i] != null && isMovable(row, now) && !row.startTime().isBefore(freedFrom[i])
+                        && calendar.fitsInOneWindow(row.durationMinutes())) {
+                    toCompact.add(row);
+                } else {
+                    calendar.occupy(row.startTime(), row.durationMinutes());
+                    lastEnd = max(lastEnd, row.endTime());
+                }
+            }
+
+            LocalDateTime cursor = notBefore;
+            for (PlanningAssignment row : toCompact) {
+                List<EmployeeCalendar.Segment> segments = calendar.allocate(row.durationMinutes(), cursor, false);
+                EmployeeCalendar.Segment segment = segments.get(0); // single window, see fitsInOneWindow
+                if (!segment.start().equals(row.startTime())) {
+                    moved.add(new PlanningAssignment(row.planningId(), row.orderId(), row.employeeId(),
+                            segment.start().toLocalDate(), segment.start(), row.durationMinutes(),
+                            row.priority(), row.status(), row.cardCount(), row.notes()));
+                }
+                cursor = segment.end();
+                lastEnd = max(lastEnd, segment.end());
+            }
+            heap.update(i, workload, lastEnd);
+        }
+
+        // 3. Place added orders on the least loaded employees
+        List<PlanningAssignment> inserted = new ArrayList<>();
+        if (!workers.isEmpty()) {
+            for (int task = 0; task < model.taskCount(); task++) {
+                String orderId = model.orderId(task);
+                boolean replaced = removed.contains(orderId);
+                if (!plannedOrders.add(orderId) || (!replaced && plannedMinutes.containsKey(orderId))) {
+                    continue; // already planned (maybe outside the horizon) and not removed
+                }
+                // Rows outside the horizon (earlier days, finished) count as much as the started ones
+                int covered = Math.max(keptMinutes.getOrDefault(orderId, 0),
+                        plannedMinutes.getOrDefault(orderId, 0) - deletedMinutes.getOrDefault(orderId, 0));
+                int duration = model.duration(task) - covered;
+                if (duration <= 0) {
+                    continue; // the started rows already cover the order
+                }
+                int index = heap.pick(model.requiredSkills(task));
+                List<EmployeeCalendar.Segment> segments = calendars[index].allocate(duration, notBefore, false);
+                model.addSegments(inserted, task, index, segments, duration);
+                heap.add(index, duration, segments.get(segments.size() - 1).end());
+            }
+        }
+
+        return new Result(inserted, deletedIds, moved);
+    }
+
+    /**
+     * A row can be deleted or moved only if nobody has started it
+     */
+    static boolean isMovable(PlanningAssignment row, LocalDateTime now) {
+        return !STARTED_STATUSES.contains(row.status()) && !row.startTime().isBefore(now);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+}
@@ -0,0 +1,50 @@
+package com.pcagrade.order.service.planning;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Least-loaded: each order goes to the employee with the fewest planned minutes so far
+ * able to take it (ties broken by earliest last end time), through {@link SkillAwareWorkloads}
+ * O(n log E)
+ */
+@Component
+public class LeastLoadedAlgorithm implements PlanningAlgorithm {
+
+    public static final String NAME = "least-loaded";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String description() {
+        return "Assigns each order to the employee with the lowest workload so far";
+    }
+
+    @Override
+    public List<PlanningAssignment> plan(PlanningSnapshot snapshot) {
+        PlanningModel model = PlanningModel.of(snapshot);
+        List<PlanningAssignment> assignments = new ArrayList<>(model.taskCount());
+        if (model.workerCount() == 0) {
+            return assignments;
+        }
+
+        EmployeeCalendar[] calendars = model.newCalendars();
+        SkillAwareWorkloads heap = new SkillAwareWorkloads(model);
+        LocalDateTime notBefore = model.horizonStart();
+
+        for (int task = 0; task < model.taskCount(); task++) {
+            int worker = heap.pick(model.requiredSkills(task));
+            int duration = model.duration(task);
+            List<EmployeeCalendar.Segment> segments = calendars[worker].allocate(duration, notBefore, false);
+            model.addSegments(assignments, task, worker, segments);
+            heap.add(worker, duration, segments.get(segments.size() - 1).end());
+        }
+        return assignments;
+    }
+}
@@ -0,0 +1,81 @@
+package com.pcagrade.order.service.planning;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EDF schedule improved by {@link LocalSearchOptimizer} within a fixed time budget
+ * Chains run on a pool of their own, one thread per core, and never more chains than threads:
+ * the caller blocks on the chains, and a chain waiting for a thread would lose its budget.
+ * Concurrent runs share the pool.
+ */
+@Component
+public class LocalSearchAlgorithm implements PlanningAlgorithm {
+
+    public static final String NAME = "local-search";
+
+    private static final int DEFAULT_MAX_IDLE_ITERATIONS = 200_000;
+
+    private final PlanningAlgorithm start = new EarliestDeadlineFirstAlgorithm();
+
+    @Value("${planning.local-search.budget-millis:2000}")
+    private long budgetMillis = 2000;
+
+    /**
+     * Parallel chains, 0 = one per available core (capped to the cores)
+     */
+    @Value("${planning.local-search.restarts:0}")
+    private int restarts = 0;
+
+    private final int threads = Runtime.getRuntime().availableProcessors();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+        Thread thread = new Thread(runnable, "local-search-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String description() {
+        return "Improves the EDF planning by simulated annealing (moves and swaps) within a time budget";
+    }
+
+    @Override
+    public List<PlanningAssignment> plan(PlanningSnapshot snapshot) {
+        return improve(snapshot, start.plan(snapshot), budgetMillis).assignments();
+    }
+
+    /**
+     * Improve an existing schedule of the snapshot
+     * @param budgetMillis wall-clock budget
+     */
+    public LocalSearchOptimizer.Result improve(PlanningSnapshot snapshot, List<PlanningAssignment> initial,
+                                               long budgetMillis) {
+        int chains = restarts > 0 ? Math.min(restarts, threads) : threads;
+        LocalSearchOptimizer.Options options = new LocalSearchOptimizer.Options(
+                budgetMillis, chains, DEFAULT_MAX_IDLE_ITERATIONS, snapshot.tasks().size());
+        try {
+            return LocalSearchOptimizer.optimize(snapshot, initial, options, executor);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            long cost = LocalSearchOptimizer.cost(snapshot, initial);
+            return new LocalSearchOptimizer.Result(initial, cost, cost, 0, false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
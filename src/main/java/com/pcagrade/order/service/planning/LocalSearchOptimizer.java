@@ -0,0 +1,461 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Improvement phase run after a constructive algorithm (EDF, least-loaded...)
+ *
+ * The starting schedule is read back as one task sequence per employee. Simulated annealing
+ * then relocates a task to another position/employee or swaps two tasks, accepting worse
+ * moves with a probability that falls as the time budget runs out. Several chains run in
+ * parallel from the same start with different random streams; the best one wins.
+ *
+ * Moves are scored on a fast model of the calendar: an employee's tasks run back to back
+ * (duration + break) at its daily capacity over working days, so a move only re-scores the
+ * two sequences it touches. The cost is LATENESS_WEIGHT x total lateness + makespan.
+ * A move never takes a task away from an employee with its required skills to one without.
+ * The winning sequences are then laid out on real calendars and kept only if the real
+ * schedule ({@link PlanningMetrics}) is no worse than the start.
+ *
+ * Each chain stops at the wall-clock deadline, or earlier after maxIdleIterations moves
+ * without a new best.
+ */
+public final class LocalSearchOptimizer {
+
+    /**
+     * One minute late costs as much as ten minutes of makespan
+     */
+    static final long LATENESS_WEIGHT = 10;
+
+    /**
+     * Makespan is expressed in minutes of a standard working day
+     */
+    private static final long REFERENCE_DAY_MINUTES = PlanningSnapshot.DEFAULT_WORK_HOURS_PER_DAY * 60L;
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * The clock and the temperature are updated every CHECK_INTERVAL moves
+     */
+    private static final int CHECK_INTERVAL = 256;
+
+    private LocalSearchOptimizer() {
+    }
+
+    /**
+     * @param budgetMillis wall-clock budget of the search (each chain stops at the deadline)
+     * @param restarts number of parallel chains
+     * @param maxIdleIterations a chain stops after this many moves without improving its best
+     * @param seed random seed of the first chain (chain k uses seed + k)
+     */
+    public record Options(long budgetMillis, int restarts, int maxIdleIterations, long seed) {
+
+        public Options {
+            if (budgetMillis < 0 || restarts < 1 || maxIdleIterations < 1) {
+                throw new IllegalArgumentException("Invalid local search options");
+            }
+        }
+    }
+
+    /**
+     * @param assignments optimized schedule (the starting one if nothing better was found)
+     * @param initialCost cost of the starting schedule
+     * @param finalCost cost of the returned schedule
+     * @param iterations moves tried over all chains
+     * @param improved true if the returned schedule differs from the starting one
+     */
+    public record Result(List<PlanningAssignment> assignments, long initialCost, long finalCost,
+                         long iterations, boolean improved) {
+    }
+
+    /**
+     * Improve a schedule of the snapshot
+     * @param snapshot tasks and workers the schedule was built from
+     * @param initial starting schedule (all tasks start no earlier than the horizon)
+     * @param options budget and parallelism
+     * @param executor runs the chains
+     */
+    public static Result optimize(PlanningSnapshot snapshot, List<PlanningAssignment> initial,
+                                  Options options, ExecutorService executor) throws InterruptedException {
+        long initialCost = cost(snapshot, initial);
+        PlanningModel model = PlanningModel.of(snapshot);
+        if (model.workerCount() == 0 || model.taskCount() < 2) {
+            return new Result(initial, initialCost, initialCost, 0, false);
+        }
+
+        Problem problem = new Problem(snapshot, model);
+        int[][] start = sequences(model, initial);
+        long deadline = System.nanoTime() + options.budgetMillis() * 1_000_000;
+
+        List<Future<Chain>> futures = new ArrayList<>(options.restarts());
+        for (int k = 0; k < options.restarts(); k++) {
+            Chain chain = new Chain(problem, start, options.seed() + k, options.maxIdleIterations(), deadline);
+            futures.add(executor.submit(chain::run, chain));
+        }
+
+        Chain best = null;
+        long iterations = 0;
+        for (Future<Chain> future : futures) {
+            Chain chain;
+            try {
+                chain = future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Local search chain failed", e.getCause());
+            }
+            iterations += chain.iterations;
+            if (best == null || chain.bestCost < best.bestCost) {
+                best = chain;
+            }
+        }
+
+        List<PlanningAssignment> optimized = layOut(model, best.bestSequences, best.bestLengths);
+        long finalCost = cost(snapshot, optimized);
+        if (finalCost >= initialCost) {
+            return new Result(initial, initialCost, initialCost, iterations, false);
+        }
+        return new Result(optimized, initialCost, finalCost, iterations, true);
+    }
+
+    /**
+     * Cost of a real schedule: LATENESS_WEIGHT x total lateness + makespan, in minutes
+     */
+    public static long cost(PlanningSnapshot snapshot, List<PlanningAssignment> assignments) {
+        PlanningMetrics metrics = PlanningMetrics.evaluate(snapshot, assignments);
+        return LATENESS_WEIGHT * metrics.totalLatenessMinutes() + metrics.makespanMinutes();
+    }
+
+    /**
+     * Task sequence of each worker in the schedule, by start of the task's first segment
+     * Tasks missing from the schedule are appended to the first worker.
+     */
+    static int[][] sequences(PlanningModel model, List<PlanningAssignment> schedule) {
+        Map<String, Integer> taskIndex = new HashMap<>();
+        for (int task = 0; task < model.taskCount(); task++) {
+            taskIndex.putIfAbsent(model.orderId(task), task);
+        }
+        Map<String, Integer> workerIndex = new HashMap<>();
+        for (int worker = 0; worker < model.workerCount(); worker++) {
+            workerIndex.put(model.employeeId(worker), worker);
+        }
+
+        List<List<PlanningAssignment>> firstSegments = new ArrayList<>(model.workerCount());
+        for (int worker = 0; worker < model.workerCount(); worker++) {
+            firstSegments.add(new ArrayList<>());
+        }
+        boolean[] placed = new boolean[model.taskCount()];
+        List<PlanningAssignment> sorted = new ArrayList<>(schedule);
+        sorted.sort(Comparator.comparing(PlanningAssignment::startTime));
+        for (PlanningAssignment row : sorted) {
+            Integer task = taskIndex.get(row.orderId());
+            Integer worker = workerIndex.get(row.employeeId());
+            if (task != null && worker != null && !placed[task]) {
+                placed[task] = true;
+                firstSegments.get(worker).add(row);
+            }
+        }
+
+        int[][] sequences = new int[model.workerCount()][];
+        for (int worker = 0; worker < model.workerCount(); worker++) {
+            List<PlanningAssignment> rows = firstSegments.get(worker);
+            int[] sequence = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                sequence[i] = taskIndex.get(rows.get(i).orderId());
+            }
+            sequences[worker] = sequence;
+        }
+        for (int task = 0; task < model.taskCount(); task++) {
+            if (!placed[task]) {
+                int[] sequence = Arrays.copyOf(sequences[0], sequences[0].length + 1);
+                sequence[sequence.length - 1] = task;
+                sequences[0] = sequence;
+            }
+        }
+        return sequences;
+    }
+
+    /**
+     * Place each worker's sequence on a fresh calendar, in order, from the start of the horizon
+     */
+    private static List<PlanningAssignment> layOut(PlanningModel model, int[][] sequences, int[] lengths) {
+        List<PlanningAssignment> assignments = new ArrayList<>(model.taskCount());
+        LocalDateTime notBefore = model.horizonStart();
+        for (int worker = 0; worker < model.workerCount(); worker++) {
+            EmployeeCalendar calendar = model.newCalendar(worker);
+            for (int i = 0; i < lengths[worker]; i++) {
+                int task = sequences[worker][i];
+                model.addSegments(assignments, task, worker,
+                        calendar.allocate(model.duration(task), notBefore, false));
+            }
+        }
+        assignments.sort(Comparator.comparing(PlanningAssignment::startTime));
+        return assignments;
+    }
+
+    /**
+     * Read-only data shared by the chains
+     */
+    private static final class Problem {
+
+        private final int taskCount;
+        private final int workerCount;
+        private final long[] minutes;        // duration + break, per task
+        private final long[] dueWorkingDays; // working days from the horizon start through the due date
+        private final long[] dailyMinutes;   // effective daily capacity, per worker
+        private final int[] requiredSkills;  // per task
+        private final int[] skills;          // per worker
+
+        private Problem(PlanningSnapshot snapshot, PlanningModel model) {
+            taskCount = model.taskCount();
+            workerCount = model.workerCount();
+
+            minutes = new long[taskCount];
+            dueWorkingDays = new long[taskCount];
+            requiredSkills = new int[taskCount];
+            for (int task = 0; task < taskCount; task++) {
+                minutes[task] = model.duration(task) + snapshot.breakMinutes();
+                dueWorkingDays[task] = model.dueDay(task) == PlanningModel.NO_DUE_DAY ? NO_DEADLINE
+                        : workingDaysThrough(model.startDate(), model.dueDay(task));
+                requiredSkills[task] = model.requiredSkills(task);
+            }
+
+            long window = Duration.between(snapshot.dayStart(), snapshot.dayEnd()).toMinutes();
+            dailyMinutes = new long[workerCount];
+            skills = new int[workerCount];
+            for (int worker = 0; worker < workerCount; worker++) {
+                dailyMinutes[worker] = Math.max(1, Math.min(window, model.capacityMinutes(worker)));
+                skills[worker] = model.skills(worker);
+            }
+        }
+
+        /**
+         * A task may go from one worker to another if the target has the skills, or if the
+         * source lacks them too (fallback placement when nobody has them)
+         */
+        private boolean canMove(int task, int from, int to) {
+            return from == to || Skill.covers(skills[to], requiredSkills[task])
+                    || !Skill.covers(skills[from], requiredSkills[task]);
+        }
+
+        /**
+         * Weekdays in [start, due], 0 if due is before start
+         */
+        private static long workingDaysThrough(LocalDate start, int dueDay) {
+            long days = dueDay - start.toEpochDay() + 1;
+            if (days <= 0) {
+                return 0;
+            }
+            long count = days / 7 * 5;
+            LocalDate day = start.plusDays(days / 7 * 7);
+            for (long i = 0; i < days % 7; i++, day = day.plusDays(1)) {
+                if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * One simulated annealing chain
+     */
+    private static final class Chain implements Runnable {
+
+        private final Problem problem;
+        private final SplittableRandom random;
+        private final int maxIdleIterations;
+        private final long deadline;
+
+        private final int[][] sequences;
+        private final int[] lengths;
+        private final long[] span;
+        private final long[] lateness;
+        private long totalLateness;
+
+        private int[][] bestSequences;
+        private int[] bestLengths;
+        private long bestCost;
+        private long iterations;
+
+        private Chain(Problem problem, int[][] start, long seed, int maxIdleIterations, long deadline) {
+            this.problem = problem;
+            this.random = new SplittableRandom(seed);
+            this.maxIdleIterations = maxIdleIterations;
+            this.deadline = deadline;
+
+            sequences = new int[problem.workerCount][];
+            lengths = new int[problem.workerCount];
+            span = new long[problem.workerCount];
+            lateness = new long[problem.workerCount];
+            for (int worker = 0; worker < problem.workerCount; worker++) {
+                // Room for every task, so relocations never reallocate
+                sequences[worker] = Arrays.copyOf(start[worker], problem.taskCount);
+                lengths[worker] = start[worker].length;
+                score(worker);
+                totalLateness += lateness[worker];
+            }
+            bestCost = cost();
+            keepBest();
+        }
+
+        @Override
+        public void run() {
+            long startNanos = System.nanoTime();
+            long budget = Math.max(1, deadline - startNanos);
+            double initialTemperature = Math.max(1.0, (double) bestCost / (10.0 * problem.taskCount));
+            double temperature = initialTemperature;
+            long current = bestCost;
+            int idle = 0;
+
+            while (idle < maxIdleIterations) {
+                if (iterations % CHECK_INTERVAL == 0) {
+                    long now = System.nanoTime();
+                    if (now >= deadline) {
+                        break;
+                    }
+                    temperature = initialTemperature * (deadline - now) / budget;
+                }
+                iterations++;
+
+                long next = tryMove(current, temperature);
+                if (next < 0) {
+                    idle++;
+                    continue;
+                }
+                current = next;
+                if (current < bestCost) {
+                    bestCost = current;
+                    keepBest();
+                    idle = 0;
+                } else {
+                    idle++;
+                }
+            }
+        }
+
+        /**
+         * Try a random relocation or swap
+         * @return the new cost if the move was accepted, -1 if it was undone
+         */
+        private long tryMove(long current, double temperature) {
+            int a = random.nextInt(problem.workerCount);
+            if (lengths[a] == 0) {
+                return -1;
+            }
+            int i = random.nextInt(lengths[a]);
+            int b = random.nextInt(problem.workerCount);
+            boolean swap = random.nextBoolean() && lengths[b] > 0;
+
+            int j;
+            if (swap) {
+                j = random.nextInt(lengths[b]);
+                if (!problem.canMove(sequences[a][i], a, b) || !problem.canMove(sequences[b][j], b, a)) {
+                    return -1;
+                }
+                swap(a, i, b, j);
+            } else {
+                j = random.nextInt(a == b ? lengths[b] : lengths[b] + 1);
+                if (!problem.canMove(sequences[a][i], a, b)) {
+                    return -1;
+                }
+                relocate(a, i, b, j);
+            }
+            long next = rescore(a, b);
+
+            long delta = next - current;
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                return next;
+            }
+
+            if (swap) {
+                swap(a, i, b, j);
+            } else {
+                relocate(b, j, a, i);
+            }
+            rescore(a, b);
+            return -1;
+        }
+
+        private void swap(int a, int i, int b, int j) {
+            int task = sequences[a][i];
+            sequences[a][i] = sequences[b][j];
+            sequences[b][j] = task;
+        }
+
+        /**
+         * Move the task at position i of worker a to position j of worker b
+         * (j counted once the task has left a)
+         */
+        private void relocate(int a, int i, int b, int j) {
+            int task = sequences[a][i];
+            System.arraycopy(sequences[a], i + 1, sequences[a], i, lengths[a] - i - 1);
+            lengths[a]--;
+            System.arraycopy(sequences[b], j, sequences[b], j + 1, lengths[b] - j);
+            sequences[b][j] = task;
+            lengths[b]++;
+        }
+
+        private long rescore(int a, int b) {
+            totalLateness -= lateness[a];
+            score(a);
+            totalLateness += lateness[a];
+            if (b != a) {
+                totalLateness -= lateness[b];
+                score(b);
+                totalLateness += lateness[b];
+            }
+            return cost();
+        }
+
+        /**
+         * Back-to-back model of one worker: span and lateness of its sequence
+         */
+        private void score(int worker) {
+            long daily = problem.dailyMinutes[worker];
+            long elapsed = 0;
+            long late = 0;
+            int[] sequence = sequences[worker];
+            for (int i = 0; i < lengths[worker]; i++) {
+                int task = sequence[i];
+                elapsed += problem.minutes[task];
+                long due = problem.dueWorkingDays[task];
+                if (due != NO_DEADLINE && elapsed > due * daily) {
+                    late += elapsed - due * daily;
+                }
+            }
+            span[worker] = elapsed * REFERENCE_DAY_MINUTES / daily;
+            lateness[worker] = late;
+        }
+
+        private long cost() {
+            long makespan = 0;
+            for (long value : span) {
+                makespan = Math.max(makespan, value);
+            }
+            return LATENESS_WEIGHT * totalLateness + makespan;
+        }
+
+        private void keepBest() {
+            if (bestSequences == null) {
+                bestSequences = new int[problem.workerCount][];
+                bestLengths = new int[problem.workerCount];
+            }
+            for (int worker = 0; worker < problem.workerCount; worker++) {
+                bestSequences[worker] = Arrays.copyOf(sequences[worker], lengths[worker]);
+                bestLengths[worker] = lengths[worker];
+            }
+        }
+    }
+}
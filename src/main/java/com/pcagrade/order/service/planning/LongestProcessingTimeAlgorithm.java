@@ -0,0 +1,81 @@
+package com.pcagrade.order.service.planning;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Longest processing time first: the biggest orders are placed first, each on the employee
+ * with the lowest workload so far among those able to take them ({@link SkillAwareWorkloads})
+ * With identical employees the busiest one gets at most 4/3 of the optimal load (Graham), and in
+ * practice close to {@link PlanningMetrics#loadLowerBound}. Priorities and due dates are ignored.
+ * O(n log n + n log E)
+ */
+@Component
+public class LongestProcessingTimeAlgorithm implements PlanningAlgorithm {
+
+    public static final String NAME = "lpt";
+
+    /**
+     * Sort keys pack the task index in their low bits
+     */
+    private static final int TASK_BITS = 24;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String description() {
+        return "Assigns the longest orders first, each to the least loaded employee, to balance workloads";
+    }
+
+    @Override
+    public List<PlanningAssignment> plan(PlanningSnapshot snapshot) {
+        PlanningModel model = PlanningModel.of(snapshot);
+        List<PlanningAssignment> assignments = new ArrayList<>(model.taskCount());
+        if (model.workerCount() == 0) {
+            return assignments;
+        }
+
+        EmployeeCalendar[] calendars = model.newCalendars();
+        SkillAwareWorkloads heap = new SkillAwareWorkloads(model);
+        LocalDateTime notBefore = model.horizonStart();
+
+        for (int task : longestFirst(model)) {
+            int worker = heap.pick(model.requiredSkills(task));
+            int duration = model.duration(task);
+            List<EmployeeCalendar.Segment> segments = calendars[worker].allocate(duration, notBefore, false);
+            model.addSegments(assignments, task, worker, segments);
+            heap.add(worker, duration, segments.get(segments.size() - 1).end());
+        }
+        return assignments;
+    }
+
+    /**
+     * Task indexes by decreasing duration, loaded order between equal durations
+     */
+    static int[] longestFirst(PlanningModel model) {
+        int count = model.taskCount();
+        if (count >= 1 << TASK_BITS) {
+            throw new IllegalArgumentException("Too many tasks for LPT planning: " + count);
+        }
+
+        // Ascending sort of (-duration, index)
+        long[] keys = new long[count];
+        for (int task = 0; task < count; task++) {
+            keys[task] = ((long) -model.duration(task) << TASK_BITS) | task;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) (keys[i] & ((1 << TASK_BITS) - 1));
+        }
+        return order;
+    }
+}
@@ -0,0 +1,143 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Round-robin planning of a multi-day horizon, in parallel
+ *
+ * Each day gets its own batch of tasks, dealt round-robin to the employees as the
+ * single-day greedy planner does (rotation restarting every day, a day's tasks starting
+ * no earlier than that day; a task needing skills its employee lacks goes to the next one
+ * who has them). Once the employee of every task is known, employees are
+ * fully independent: each one only touches its own calendar. The horizon is therefore
+ * split into employee partitions that run on a ForkJoinPool, which keeps calendars free
+ * of overlaps even when a day's work spills over the next days.
+ *
+ * Results are merged by task sequence (day, then position in the day), so the output
+ * order does not depend on thread scheduling.
+ */
+public final class ParallelRangePlanner {
+
+    /**
+     * Employees per leaf task; below this the partition is planned on the current thread
+     */
+    private static final int EMPLOYEES_PER_LEAF = 1;
+
+    private ParallelRangePlanner() {
+    }
+
+    /**
+     * Plan every day of the horizon
+     * @param snapshot workers and working window; tasks are ignored, startDate is the first day
+     * @param tasksByDay tasks of each day, index 0 = snapshot.startDate()
+     * @param pool pool running the employee partitions
+     * @return assignments ordered by day, then by position of the task in its day
+     */
+    public static List<PlanningAssignment> plan(PlanningSnapshot snapshot,
+                                                List<List<PlanningSnapshot.Task>> tasksByDay,
+                                                ForkJoinPool pool) {
+        if (snapshot.workers().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 1. Flatten the horizon: task index = sequence (day, then position in the day)
+        List<PlanningSnapshot.Task> tasks = new ArrayList<>();
+        int[] dayStarts = new int[tasksByDay.size() + 1];
+        for (int day = 0; day < tasksByDay.size(); day++) {
+            dayStarts[day] = tasks.size();
+            tasks.addAll(tasksByDay.get(day));
+        }
+        dayStarts[tasksByDay.size()] = tasks.size();
+        PlanningModel model = PlanningModel.of(snapshot, tasks);
+        int workers = model.workerCount();
+
+        // 2. Deal tasks to employees (cheap, sequential, deterministic)
+        int[] workerOf = new int[model.taskCount()];
+        int[] dayOf = new int[model.taskCount()];
+        int[] dealt = new int[workers];
+        for (int day = 0; day < tasksByDay.size(); day++) {
+            for (int task = dayStarts[day]; task < dayStarts[day + 1]; task++) {
+                int worker = model.capableWorker(task, (task - dayStarts[day]) % workers);
+                workerOf[task] = worker;
+                dayOf[task] = day;
+                dealt[worker]++;
+            }
+        }
+        int[][] byEmployee = new int[workers][];
+        for (int worker = 0; worker < workers; worker++) {
+            byEmployee[worker] = new int[dealt[worker]];
+            dealt[worker] = 0;
+        }
+        for (int task = 0; task < model.taskCount(); task++) {
+            int worker = workerOf[task];
+            byEmployee[worker][dealt[worker]++] = task;
+        }
+
+        // 3. Allocate each employee's calendar in parallel
+        AtomicReferenceArray<List<PlanningAssignment>> bySequence = new AtomicReferenceArray<>(model.taskCount());
+        pool.invoke(new EmployeePartition(model, byEmployee, dayOf, bySequence, 0, workers));
+
+        // 4. Deterministic merge
+        List<PlanningAssignment> assignments = new ArrayList<>(model.taskCount());
+        for (int task = 0; task < bySequence.length(); task++) {
+            assignments.addAll(bySequence.get(task));
+        }
+        return assignments;
+    }
+
+    // Never serialized: ForkJoinTask is Serializable only for its own exception handling
+    private static final class EmployeePartition extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient PlanningModel model;
+        private final transient int[][] byEmployee;
+        private final transient int[] dayOf;
+        private final transient AtomicReferenceArray<List<PlanningAssignment>> bySequence;
+        private final int from;
+        private final int to;
+
+        private EmployeePartition(PlanningModel model, int[][] byEmployee, int[] dayOf,
+                                  AtomicReferenceArray<List<PlanningAssignment>> bySequence, int from, int to) {
+            this.model = model;
+            this.byEmployee = byEmployee;
+            this.dayOf = dayOf;
+            this.bySequence = bySequence;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= EMPLOYEES_PER_LEAF) {
+                for (int employee = from; employee < to; employee++) {
+                    planEmployee(employee);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new EmployeePartition(model, byEmployee, dayOf, bySequence, from, mid),
+                    new EmployeePartition(model, byEmployee, dayOf, bySequence, mid, to));
+        }
+
+        private void planEmployee(int employee) {
+            EmployeeCalendar calendar = model.newCalendar(employee);
+
+            for (int task : byEmployee[employee]) {
+                LocalDate day = model.startDate().plusDays(dayOf[task]);
+                List<EmployeeCalendar.Segment> segments = calendar.allocate(
+                        model.duration(task), model.dayStart(day), false);
+
+                List<PlanningAssignment> rows = new ArrayList<>(segments.size());
+                model.addSegments(rows, task, employee, segments);
+                // Each sequence slot is written by exactly one partition
+                bySequence.set(task, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An order that can be planned, as kept in memory by the planning snapshot cache
+ *
+ * @param task the order as a planning task, duration computed at {@code minutesPerCard}
+ * @param orderDate order date (null if unknown)
+ * @param deadlineRank position of the delai code in planning order (X=1, F+=2, F=3, E=4, C=5)
+ * @param minutesPerCard processing time per card used for {@code task.durationMinutes()}
+ */
+public record PlannableOrder(PlanningSnapshot.Task task, LocalDate orderDate, int deadlineRank, int minutesPerCard) {
+
+    /**
+     * Same order as the planning queries: delai code, then order date
+     */
+    public static final Comparator<PlannableOrder> BY_DEADLINE = Comparator
+            .comparingInt(PlannableOrder::deadlineRank)
+            .thenComparing(PlannableOrder::orderDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(PlannableOrder::orderId);
+
+    /**
+     * Oldest orders first
+     */
+    public static final Comparator<PlannableOrder> BY_DATE = Comparator
+            .comparing(PlannableOrder::orderDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(PlannableOrder::orderId);
+
+    public String orderId() {
+        return task.orderId();
+    }
+
+    /**
+     * Rank of a delai code, unknown codes rank with 'E'
+     */
+    public static int rankOf(String delai) {
+        return DeadlineCode.fromCode(delai).rank();
+    }
+
+    /**
+     * The task with its duration recomputed for another processing time per card
+     */
+    public PlanningSnapshot.Task task(int minutesPerCard) {
+        if (minutesPerCard == this.minutesPerCard) {
+            return task;
+        }
+        return task.withDuration(task.cardCount() * minutesPerCard);
+    }
+
+    /**
+     * Orders dated on or after {@code from}, sorted (all orders when {@code from} is null)
+     */
+    public static List<PlannableOrder> select(Collection<PlannableOrder> orders, LocalDate from,
+                                              Comparator<PlannableOrder> order) {
+        List<PlannableOrder> selected = new ArrayList<>();
+        for (PlannableOrder candidate : orders) {
+            if (from == null || (candidate.orderDate() != null && !candidate.orderDate().isBefore(from))) {
+                selected.add(candidate);
+            }
+        }
+        selected.sort(order);
+        return selected;
+    }
+}
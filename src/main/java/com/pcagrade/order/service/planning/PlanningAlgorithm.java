@@ -0,0 +1,31 @@
+package com.pcagrade.order.service.planning;
+
+import java.util.List;
+
+/**
+ * A planning strategy
+ *
+ * Implementations are pure: they read a {@link PlanningSnapshot} and return assignments,
+ * without touching the database. Loading and writing j_planning stay in the services, so
+ * any algorithm can be run, compared or swapped without changing the I/O code.
+ * Implementations annotated with @Component are picked up by {@link PlanningAlgorithmRegistry}.
+ */
+public interface PlanningAlgorithm {
+
+    /**
+     * Stable identifier used in the API (e.g. "round-robin")
+     */
+    String name();
+
+    /**
+     * One-line human description
+     */
+    String description();
+
+    /**
+     * Plan every task of the snapshot
+     * @param snapshot orders and employees to plan
+     * @return one assignment per planned segment, in planning order
+     */
+    List<PlanningAssignment> plan(PlanningSnapshot snapshot);
+}
@@ -0,0 +1,51 @@
+package com.pcagrade.order.service.planning;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * All planning algorithms known to the application, by name
+ * Any {@link PlanningAlgorithm} bean is registered automatically.
+ */
+@Component
+public class PlanningAlgorithmRegistry {
+
+    private final Map<String, PlanningAlgorithm> algorithms = new LinkedHashMap<>();
+
+    @Autowired
+    public PlanningAlgorithmRegistry(List<PlanningAlgorithm> algorithms) {
+        for (PlanningAlgorithm algorithm : algorithms) {
+            PlanningAlgorithm previous = this.algorithms.put(algorithm.name(), algorithm);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate planning algorithm name: " + algorithm.name());
+            }
+        }
+    }
+
+    public Optional<PlanningAlgorithm> find(String name) {
+        return Optional.ofNullable(algorithms.get(name));
+    }
+
+    /**
+     * @throws IllegalArgumentException if no algorithm has this name
+     */
+    public PlanningAlgorithm get(String name) {
+        return find(name).orElseThrow(() ->
+                new IllegalArgumentException("Unknown planning algorithm: " + name + " (available: " + names() + ")"));
+    }
+
+    public Collection<PlanningAlgorithm> all() {
+        return algorithms.values();
+    }
+
+    public List<String> names() {
+        return new ArrayList<>(algorithms.keySet());
+    }
+}
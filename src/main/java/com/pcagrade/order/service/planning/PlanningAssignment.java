@@ -0,0 +1,28 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One planned task, kept in memory until it is flushed to j_planning.
+ * Ids are 32-char hex strings (the form returned by HEX() in native queries).
+ */
+public record PlanningAssignment(
+        String planningId,
+        String orderId,
+        String employeeId,
+        LocalDate planningDate,
+        LocalDateTime startTime,
+        int durationMinutes,
+        String priority,
+        String status,
+        int cardCount,
+        String notes) {
+
+    /**
+     * End of the task, derived from start time and duration
+     */
+    public LocalDateTime endTime() {
+        return startTime.plusMinutes(durationMinutes);
+    }
+}
@@ -0,0 +1,196 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quality indicators of a planning, used to compare algorithms on the same snapshot
+ *
+ * @param assignments planning rows produced (segments)
+ * @param plannedOrders distinct orders planned
+ * @param makespanMinutes minutes between the start of the horizon and the last task end
+ * @param maxLoadMinutes workload of the busiest employee
+ * @param minLoadMinutes workload of the least busy employee
+ * @param loadImbalance busiest load / mean load (1.0 = perfectly even)
+ * @param lateOrders orders finishing after their due date
+ * @param totalLatenessMinutes sum of lateness over late orders
+ * @param maxLatenessMinutes worst lateness
+ * @param loadLowerBoundMinutes no planning can give its busiest employee less work than this:
+ *                              max(total work / employees, longest task)
+ * @param lowerBoundRatio maxLoadMinutes / loadLowerBoundMinutes (1.0 = optimal balance)
+ */
+public record PlanningMetrics(
+        int assignments,
+        int plannedOrders,
+        long makespanMinutes,
+        long maxLoadMinutes,
+        long minLoadMinutes,
+        double loadImbalance,
+        int lateOrders,
+        long totalLatenessMinutes,
+        long maxLatenessMinutes,
+        long loadLowerBoundMinutes,
+        double lowerBoundRatio) {
+
+    /**
+     * Compute the metrics of a planning
+     * @param snapshot input the planning was built from
+     * @param assignments output of the algorithm
+     */
+    public static PlanningMetrics evaluate(PlanningSnapshot snapshot, List<PlanningAssignment> assignments) {
+        LocalDateTime horizonStart = snapshot.startDate().atTime(snapshot.dayStart());
+
+        Map<String, Long> loadByEmployee = new HashMap<>();
+        for (PlanningSnapshot.Worker worker : snapshot.workers()) {
+            loadByEmployee.put(worker.employeeId(), 0L);
+        }
+        Map<String, LocalDateTime> completionByOrder = new HashMap<>();
+        LocalDateTime lastEnd = horizonStart;
+
+        for (PlanningAssignment assignment : assignments) {
+            loadByEmployee.merge(assignment.employeeId(), (long) assignment.durationMinutes(), Long::sum);
+            LocalDateTime end = assignment.endTime();
+            completionByOrder.merge(assignment.orderId(), end, (a, b) -> a.isAfter(b) ? a : b);
+            if (end.isAfter(lastEnd)) {
+                lastEnd = end;
+            }
+        }
+
+        long maxLoad = 0;
+        long minLoad = loadByEmployee.isEmpty() ? 0 : Long.MAX_VALUE;
+        long totalLoad = 0;
+        for (long load : loadByEmployee.values()) {
+            maxLoad = Math.max(maxLoad, load);
+            minLoad = Math.min(minLoad, load);
+            totalLoad += load;
+        }
+        double meanLoad = loadByEmployee.isEmpty() ? 0 : (double) totalLoad / loadByEmployee.size();
+        double imbalance = meanLoad > 0 ? maxLoad / meanLoad : 1.0;
+
+        int lateOrders = 0;
+        long totalLateness = 0;
+        long maxLateness = 0;
+        for (Lateness lateness : lateness(snapshot, completionByOrder)) {
+            if (lateness.isLate()) {
+                lateOrders++;
+                totalLateness += lateness.minutesLate();
+                maxLateness = Math.max(maxLateness, lateness.minutesLate());
+            }
+        }
+
+        long lowerBound = loadLowerBound(snapshot);
+
+        return new PlanningMetrics(
+                assignments.size(),
+                completionByOrder.size(),
+                Duration.between(horizonStart, lastEnd).toMinutes(),
+                maxLoad,
+                minLoad,
+                Math.round(imbalance * 1000) / 1000.0,
+                lateOrders,
+                totalLateness,
+                maxLateness,
+                lowerBound,
+                lowerBound > 0 ? Math.round((double) maxLoad / lowerBound * 1000) / 1000.0 : 1.0);
+    }
+
+    /**
+     * Lower bound of the busiest employee's work: the mean load, and at least the longest task
+     * (tasks are not split between employees)
+     */
+    public static long loadLowerBound(PlanningSnapshot snapshot) {
+        if (snapshot.workers().isEmpty()) {
+            return 0;
+        }
+        long total = 0;
+        long longest = 0;
+        for (PlanningSnapshot.Task task : snapshot.tasks()) {
+            total += task.durationMinutes();
+            longest = Math.max(longest, task.durationMinutes());
+        }
+        int workers = snapshot.workers().size();
+        return Math.max((total + workers - 1) / workers, longest);
+    }
+
+    /**
+     * Predicted completion of one order against its due date
+     *
+     * @param orderId hex id of the order
+     * @param orderNumber business number
+     * @param priority priority of the order
+     * @param dueDate date the order is due
+     * @param predictedEnd end of the order's last planned segment
+     * @param minutesLate minutes past the end of the due day (0 if on time)
+     */
+    public record Lateness(String orderId, String orderNumber, String priority, LocalDate dueDate,
+                           LocalDateTime predictedEnd, long minutesLate) {
+
+        public boolean isLate() {
+            return minutesLate > 0;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("orderId", orderId);
+            map.put("orderNumber", orderNumber);
+            map.put("priority", priority);
+            map.put("dueDate", dueDate.toString());
+            map.put("predictedEnd", predictedEnd.toString());
+            map.put("minutesLate", minutesLate);
+            return map;
+        }
+    }
+
+    /**
+     * Predicted lateness of every planned order that has a due date, in snapshot order
+     * An order is on time if it ends before the end of the working window of its due date.
+     */
+    public static List<Lateness> lateness(PlanningSnapshot snapshot, List<PlanningAssignment> assignments) {
+        Map<String, LocalDateTime> completionByOrder = new HashMap<>();
+        for (PlanningAssignment assignment : assignments) {
+            completionByOrder.merge(assignment.orderId(), assignment.endTime(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+        return lateness(snapshot, completionByOrder);
+    }
+
+    private static List<Lateness> lateness(PlanningSnapshot snapshot, Map<String, LocalDateTime> completionByOrder) {
+        List<Lateness> result = new ArrayList<>();
+        for (PlanningSnapshot.Task task : snapshot.tasks()) {
+            LocalDateTime completion = completionByOrder.get(task.orderId());
+            if (completion == null || task.dueDate() == null) {
+                continue;
+            }
+            LocalDateTime due = task.dueDate().atTime(snapshot.dayEnd());
+            long minutesLate = completion.isAfter(due) ? Duration.between(due, completion).toMinutes() : 0;
+            result.add(new Lateness(task.orderId(), task.orderNumber(), task.priority(), task.dueDate(),
+                    completion, minutesLate));
+        }
+        return result;
+    }
+
+    /**
+     * Map view, for the JSON responses
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("assignments", assignments);
+        map.put("plannedOrders", plannedOrders);
+        map.put("makespanMinutes", makespanMinutes);
+        map.put("makespanDays", String.format("%.1f", makespanMinutes / 1440.0));
+        map.put("maxLoadMinutes", maxLoadMinutes);
+        map.put("minLoadMinutes", minLoadMinutes);
+        map.put("loadImbalance", loadImbalance);
+        map.put("lateOrders", lateOrders);
+        map.put("totalLatenessMinutes", totalLatenessMinutes);
+        map.put("maxLatenessMinutes", maxLatenessMinutes);
+        map.put("loadLowerBoundMinutes", loadLowerBoundMinutes);
+        map.put("lowerBoundRatio", lowerBoundRatio);
+        return map;
+    }
+}
@@ -0,0 +1,282 @@
+package com.pcagrade.order.service.planning;
+
+import com.pcagrade.order.util.UlidFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column-oriented view of a {@link PlanningSnapshot}, the form the algorithms work on
+ *
+ * Tasks and workers are dense indexes (0..n-1); their attributes are parallel primitive
+ * arrays (duration, cards, priority code, due day / daily capacity), so the planning loops
+ * read ints instead of dereferencing records and strings. Ids and names are only read back
+ * when assignments are emitted, through {@link #addSegments}.
+ * Priorities are dictionary-encoded: a byte per task, the distinct names kept once.
+ * Skills are {@link Skill} bitsets: required by a task, held by a worker.
+ */
+public final class PlanningModel {
+
+    /**
+     * Due day of a task without due date (sorts after every real date)
+     */
+    public static final int NO_DUE_DAY = Integer.MAX_VALUE;
+
+    private final PlanningSnapshot snapshot;
+
+    // Tasks
+    private final int taskCount;
+    private final String[] orderIds;
+    private final int[] durations;
+    private final int[] cards;
+    private final byte[] priorityCodes;
+    private final int[] dueDays;
+    private final int[] requiredSkills;
+    private final List<String> priorityNames = new ArrayList<>();
+
+    // Workers
+    private final int workerCount;
+    private final String[] employeeIds;
+    private final int[] capacityMinutes;
+    private final int[] skills;
+
+    private PlanningModel(PlanningSnapshot snapshot, List<PlanningSnapshot.Task> tasks) {
+        this.snapshot = snapshot;
+
+        taskCount = tasks.size();
+        orderIds = new String[taskCount];
+        durations = new int[taskCount];
+        cards = new int[taskCount];
+        priorityCodes = new byte[taskCount];
+        dueDays = new int[taskCount];
+        requiredSkills = new int[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            PlanningSnapshot.Task task = tasks.get(i);
+            orderIds[i] = task.orderId();
+            durations[i] = task.durationMinutes();
+            cards[i] = task.cardCount();
+            priorityCodes[i] = encodePriority(task.priority());
+            dueDays[i] = task.dueDate() != null ? (int) task.dueDate().toEpochDay() : NO_DUE_DAY;
+            requiredSkills[i] = task.requiredSkills();
+        }
+
+        List<PlanningSnapshot.Worker> workers = snapshot.workers();
+        workerCount = workers.size();
+        employeeIds = new String[workerCount];
+        capacityMinutes = new int[workerCount];
+        skills = new int[workerCount];
+        for (int w = 0; w < workerCount; w++) {
+            employeeIds[w] = workers.get(w).employeeId();
+            capacityMinutes[w] = workers.get(w).workHoursPerDay() * 60;
+            skills[w] = workers.get(w).skills();
+        }
+    }
+
+    /**
+     * Model of the snapshot's tasks and workers
+     */
+    public static PlanningModel of(PlanningSnapshot snapshot) {
+        return new PlanningModel(snapshot, snapshot.tasks());
+    }
+
+    /**
+     * Model of the snapshot's workers with another task list (e.g. a multi-day horizon flattened)
+     */
+    public static PlanningModel of(PlanningSnapshot snapshot, List<PlanningSnapshot.Task> tasks) {
+        return new PlanningModel(snapshot, tasks);
+    }
+
+    // ========== TASKS ==========
+
+    public int taskCount() {
+        return taskCount;
+    }
+
+    public int duration(int task) {
+        return durations[task];
+    }
+
+    public int cards(int task) {
+        return cards[task];
+    }
+
+    /**
+     * Due date as an epoch day, {@link #NO_DUE_DAY} if unknown
+     */
+    public int dueDay(int task) {
+        return dueDays[task];
+    }
+
+    /**
+     * Dictionary code of the task's priority; equal codes mean equal priority names
+     */
+    public int priorityCode(int task) {
+        return priorityCodes[task];
+    }
+
+    public String priority(int task) {
+        return priorityNames.get(priorityCodes[task]);
+    }
+
+    public String orderId(int task) {
+        return orderIds[task];
+    }
+
+    /**
+     * {@link Skill} bitset the task requires
+     */
+    public int requiredSkills(int task) {
+        return requiredSkills[task];
+    }
+
+    // ========== WORKERS ==========
+
+    public int workerCount() {
+        return workerCount;
+    }
+
+    public int capacityMinutes(int worker) {
+        return capacityMinutes[worker];
+    }
+
+    public String employeeId(int worker) {
+        return employeeIds[worker];
+    }
+
+    /**
+     * {@link Skill} bitset of the worker
+     */
+    public int skills(int worker) {
+        return skills[worker];
+    }
+
+    public boolean canTake(int worker, int task) {
+        return (requiredSkills[task] & ~skills[worker]) == 0;
+    }
+
+    /**
+     * {@code preferred} if it can take the task, else the next worker in rotation that can;
+     * {@code preferred} again when nobody can (skills not recorded yet must not block planning)
+     */
+    public int capableWorker(int task, int preferred) {
+        if (requiredSkills[task] == Skill.NONE) {
+            return preferred;
+        }
+        for (int i = 0; i < workerCount; i++) {
+            int worker = (preferred + i) % workerCount;
+            if (canTake(worker, task)) {
+                return worker;
+            }
+        }
+        return preferred;
+    }
+
+    /**
+     * Index of an employee, -1 if not a worker of this model (linear: only for building lookups)
+     */
+    public int workerIndex(String employeeId) {
+        for (int w = 0; w < workerCount; w++) {
+            if (employeeIds[w].equals(employeeId)) {
+                return w;
+            }
+        }
+        return -1;
+    }
+
+    // ========== WORKING WINDOW ==========
+
+    public LocalDate startDate() {
+        return snapshot.startDate();
+    }
+
+    /**
+     * Start of the first working day
+     */
+    public LocalDateTime horizonStart() {
+        return snapshot.startDate().atTime(snapshot.dayStart());
+    }
+
+    /**
+     * Start of the working window of a given day
+     */
+    public LocalDateTime dayStart(LocalDate day) {
+        return day.atTime(snapshot.dayStart());
+    }
+
+    /**
+     * Fresh, empty calendar for one worker
+     */
+    public EmployeeCalendar newCalendar(int worker) {
+        return new EmployeeCalendar(snapshot.startDate(), snapshot.dayStart(), snapshot.dayEnd(),
+                capacityMinutes[worker], snapshot.breakMinutes(), true);
+    }
+
+    /**
+     * Fresh, empty calendars for all workers, by worker index
+     */
+    public EmployeeCalendar[] newCalendars() {
+        EmployeeCalendar[] calendars = new EmployeeCalendar[workerCount];
+        for (int w = 0; w < workerCount; w++) {
+            calendars[w] = newCalendar(w);
+        }
+        return calendars;
+    }
+
+    // ========== OUTPUT ==========
+
+    /**
+     * Turn calendar segments into assignments (the only place ids are read back),
+     * spreading the cards over the segments
+     */
+    public void addSegments(List<PlanningAssignment> assignments, int task, int worker,
+                            List<EmployeeCalendar.Segment> segments) {
+        addSegments(assignments, task, worker, segments, durations[task]);
+    }
+
+    /**
+     * Same, for only part of the task (the rest already planned): the cards are those of these minutes
+     * @param minutes minutes of the task the segments cover
+     */
+    public void addSegments(List<PlanningAssignment> assignments, int task, int worker,
+                            List<EmployeeCalendar.Segment> segments, int minutes) {
+        int taskMinutes = Math.max(1, minutes);
+        int taskCards = minutes >= durations[task] ? cards[task]
+                : (int) Math.round((double) cards[task] * minutes / Math.max(1, durations[task]));
+        String notes = String.format("Auto-generated planning for %d cards", taskCards);
+
+        int remainingCards = taskCards;
+        for (int s = 0; s < segments.size(); s++) {
+            EmployeeCalendar.Segment segment = segments.get(s);
+            int segmentCards = s == segments.size() - 1 ? remainingCards
+                    : (int) ((long) taskCards * segment.minutes() / taskMinutes);
+            segmentCards = Math.min(segmentCards, remainingCards);
+            remainingCards -= segmentCards;
+
+            assignments.add(new PlanningAssignment(
+                    UlidFactory.nextHex(),
+                    orderIds[task],
+                    employeeIds[worker],
+                    segment.start().toLocalDate(),
+                    segment.start(),
+                    segment.minutes(),
+                    priority(task),
+                    "SCHEDULED",
+                    segmentCards,
+                    notes));
+        }
+    }
+
+    private byte encodePriority(String priority) {
+        int code = priorityNames.indexOf(priority);
+        if (code < 0) {
+            if (priorityNames.size() == Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many distinct priorities");
+            }
+            code = priorityNames.size();
+            priorityNames.add(priority);
+        }
+        return (byte) code;
+    }
+}
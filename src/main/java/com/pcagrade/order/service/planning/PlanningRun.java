@@ -0,0 +1,55 @@
+package com.pcagrade.order.service.planning;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of running one algorithm on a snapshot, with its cost
+ *
+ * @param algorithm algorithm name
+ * @param assignments produced assignments
+ * @param metrics quality of the planning
+ * @param cpuNanos CPU time of the calling thread spent in the algorithm (-1 if not supported by the JVM)
+ * @param wallNanos elapsed time
+ */
+public record PlanningRun(
+        String algorithm,
+        List<PlanningAssignment> assignments,
+        PlanningMetrics metrics,
+        long cpuNanos,
+        long wallNanos) {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Run the algorithm on the calling thread and measure it
+     */
+    public static PlanningRun execute(PlanningAlgorithm algorithm, PlanningSnapshot snapshot) {
+        boolean cpuTimeSupported = THREADS.isCurrentThreadCpuTimeSupported();
+        long cpuStart = cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() : 0;
+        long wallStart = System.nanoTime();
+
+        List<PlanningAssignment> assignments = algorithm.plan(snapshot);
+
+        long wallNanos = System.nanoTime() - wallStart;
+        long cpuNanos = cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() - cpuStart : -1;
+
+        return new PlanningRun(algorithm.name(), assignments,
+                PlanningMetrics.evaluate(snapshot, assignments), cpuNanos, wallNanos);
+    }
+
+    /**
+     * Map view (without the assignments), for the JSON responses
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("algorithm", algorithm);
+        map.put("cpuMillis", cpuNanos >= 0 ? cpuNanos / 1_000_000.0 : null);
+        map.put("wallMillis", wallNanos / 1_000_000.0);
+        map.putAll(metrics.toMap());
+        return map;
+    }
+}
@@ -0,0 +1,112 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Immutable in-memory view of what has to be planned
+ *
+ * Built once from the database (or synthetically for benchmarks) and handed to every
+ * {@link PlanningAlgorithm}, so that algorithms can be compared on exactly the same input
+ * without any I/O.
+ *
+ * @param startDate first plannable day
+ * @param dayStart start of the working window
+ * @param dayEnd end of the working window
+ * @param breakMinutes pause kept after each task
+ * @param tasks orders to plan, in the order they were loaded (priority first)
+ * @param workers active employees
+ */
+public record PlanningSnapshot(
+        LocalDate startDate,
+        LocalTime dayStart,
+        LocalTime dayEnd,
+        int breakMinutes,
+        List<Task> tasks,
+        List<Worker> workers) {
+
+    public static final LocalTime DEFAULT_DAY_START = LocalTime.of(9, 0);
+    public static final LocalTime DEFAULT_DAY_END = LocalTime.of(17, 0);
+    public static final int DEFAULT_BREAK_MINUTES = 15;
+    public static final int DEFAULT_WORK_HOURS_PER_DAY = 8;
+
+    public PlanningSnapshot {
+        tasks = List.copyOf(tasks);
+        workers = List.copyOf(workers);
+    }
+
+    /**
+     * Snapshot with the standard 9:00-17:00 working window
+     */
+    public static PlanningSnapshot of(LocalDate startDate, List<Task> tasks, List<Worker> workers) {
+        return new PlanningSnapshot(startDate, DEFAULT_DAY_START, DEFAULT_DAY_END,
+                DEFAULT_BREAK_MINUTES, tasks, workers);
+    }
+
+    /**
+     * Fresh, empty calendar for one worker of this snapshot
+     */
+    public EmployeeCalendar newCalendar(Worker worker) {
+        return new EmployeeCalendar(startDate, dayStart, dayEnd,
+                worker.workHoursPerDay() * 60, breakMinutes, true);
+    }
+
+    /**
+     * An order to plan
+     * @param orderId hex id of the order
+     * @param orderNumber business number (num_commande), for display
+     * @param cardCount number of cards to grade
+     * @param durationMinutes estimated work time
+     * @param priority URGENT / HIGH / MEDIUM / LOW
+     * @param dueDate date the order should be finished, null if unknown
+     * @param requiredSkills {@link Skill} bitset the grader must hold
+     */
+    public record Task(
+            String orderId,
+            String orderNumber,
+            int cardCount,
+            int durationMinutes,
+            String priority,
+            LocalDate dueDate,
+            int requiredSkills) {
+
+        /**
+         * Task any grader can take
+         */
+        public Task(String orderId, String orderNumber, int cardCount, int durationMinutes,
+                    String priority, LocalDate dueDate) {
+            this(orderId, orderNumber, cardCount, durationMinutes, priority, dueDate, Skill.NONE);
+        }
+
+        /**
+         * Same order with another duration
+         */
+        public Task withDuration(int minutes) {
+            return new Task(orderId, orderNumber, cardCount, minutes, priority, dueDate, requiredSkills);
+        }
+    }
+
+    /**
+     * An employee able to take tasks
+     * @param employeeId hex id of the employee
+     * @param name display name
+     * @param workHoursPerDay daily capacity in hours
+     * @param skills {@link Skill} bitset of the employee
+     */
+    public record Worker(String employeeId, String name, int workHoursPerDay, int skills) {
+
+        public Worker {
+            if (workHoursPerDay <= 0) {
+                workHoursPerDay = DEFAULT_WORK_HOURS_PER_DAY;
+            }
+        }
+
+        /**
+         * Worker without any particular skill
+         */
+        public Worker(String employeeId, String name, int workHoursPerDay) {
+            this(employeeId, name, workHoursPerDay, Skill.NONE);
+        }
+    }
+}
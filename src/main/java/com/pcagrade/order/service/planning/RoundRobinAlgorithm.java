@@ -0,0 +1,48 @@
+package com.pcagrade.order.service.planning;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Round-robin: order i goes to employee i mod E (or the next one with the required skills),
+ * at the first free slot of its calendar
+ * O(n) assignments, ignores how long each task actually is
+ */
+@Component
+public class RoundRobinAlgorithm implements PlanningAlgorithm {
+
+    public static final String NAME = "round-robin";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String description() {
+        return "Assigns orders to employees in turn, whatever their current load";
+    }
+
+    @Override
+    public List<PlanningAssignment> plan(PlanningSnapshot snapshot) {
+        PlanningModel model = PlanningModel.of(snapshot);
+        int workers = model.workerCount();
+        List<PlanningAssignment> assignments = new ArrayList<>(model.taskCount());
+        if (workers == 0) {
+            return assignments;
+        }
+
+        EmployeeCalendar[] calendars = model.newCalendars();
+        LocalDateTime notBefore = model.horizonStart();
+        for (int task = 0; task < model.taskCount(); task++) {
+            int worker = model.capableWorker(task, task % workers);
+            List<EmployeeCalendar.Segment> segments = calendars[worker].allocate(
+                    model.duration(task), notBefore, false);
+            model.addSegments(assignments, task, worker, segments);
+        }
+        return assignments;
+    }
+}
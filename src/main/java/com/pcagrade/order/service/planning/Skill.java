@@ -0,0 +1,80 @@
+package com.pcagrade.order.service.planning;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Grader capabilities some orders require
+ *
+ * Sets of skills are stored as int bitsets (bit = 1 << ordinal): an employee's skills in
+ * j_employee.skills, an order's requirements derived from its cards. An employee can take an
+ * order when {@code (required & ~skills) == 0}. New skills must be appended, never reordered.
+ */
+public enum Skill {
+
+    /**
+     * Cards printed with an original, non-Latin name (Japanese, Korean, Chinese...)
+     */
+    ORIGINAL_NAME,
+
+    /**
+     * Sealed items to open (o.nb_descellements)
+     */
+    UNSEALING,
+
+    /**
+     * Multi-grade certifications
+     */
+    MULTI_GRADE,
+
+    /**
+     * Certifications with photos
+     */
+    PHOTO;
+
+    public static final int NONE = 0;
+
+    private static final Skill[] VALUES = values();
+
+    /**
+     * Bitset of every known skill
+     */
+    public static final int ALL = (1 << VALUES.length) - 1;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean in(int skills) {
+        return (skills & bit()) != 0;
+    }
+
+    public static int mask(Collection<Skill> skills) {
+        int mask = NONE;
+        for (Skill skill : skills) {
+            mask |= skill.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * Skills of a bitset; unknown bits are ignored
+     */
+    public static List<Skill> of(int mask) {
+        List<Skill> skills = new ArrayList<>();
+        for (Skill skill : VALUES) {
+            if (skill.in(mask)) {
+                skills.add(skill);
+            }
+        }
+        return skills;
+    }
+
+    /**
+     * True if an employee with {@code skills} can take work requiring {@code required}
+     */
+    public static boolean covers(int skills, int required) {
+        return (required & ~skills) == 0;
+    }
+}
@@ -0,0 +1,105 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.LocalDateTime;
+
+/**
+ * Least-loaded selection restricted to the employees able to take a task
+ *
+ * One {@link WorkloadHeap} holds every worker; a further heap per requirement mask holds only
+ * the workers whose skills cover it ({@code (required & ~skills) == 0}), built the first time
+ * the mask is asked for. There are at most 2^{@link Skill} masks, so a workload change costs
+ * O(masks × log E) and {@link #pick} stays O(1) once the heap of its mask exists.
+ * When no worker covers a mask the least loaded worker overall is returned, so orders are still
+ * planned while employee skills have not been recorded.
+ */
+public final class SkillAwareWorkloads {
+
+    private final int[] skills;
+    private final long[] workload;
+    private final LocalDateTime[] lastEnd;
+    private final WorkloadHeap all;
+
+    // By requirement mask: heap over local indexes, local -> worker, worker -> local (-1 = not a member)
+    private final WorkloadHeap[] heaps = new WorkloadHeap[Skill.ALL + 1];
+    private final int[][] members = new int[Skill.ALL + 1][];
+    private final int[][] localIndex = new int[Skill.ALL + 1][];
+
+    public SkillAwareWorkloads(PlanningModel model) {
+        int workers = model.workerCount();
+        this.skills = new int[workers];
+        for (int w = 0; w < workers; w++) {
+            skills[w] = model.skills(w);
+        }
+        this.workload = new long[workers];
+        this.lastEnd = new LocalDateTime[workers];
+        this.all = new WorkloadHeap(workers);
+    }
+
+    /**
+     * Least loaded worker able to take work requiring {@code required}
+     * (least loaded overall if none can)
+     */
+    public int pick(int required) {
+        int mask = required & Skill.ALL;
+        if (mask == Skill.NONE) {
+            return all.peek();
+        }
+        WorkloadHeap heap = heapFor(mask);
+        return heap.isEmpty() ? all.peek() : members[mask][heap.peek()];
+    }
+
+    public long workload(int worker) {
+        return workload[worker];
+    }
+
+    /**
+     * Add minutes to a worker and record the end of its latest task
+     */
+    public void add(int worker, long minutes, LocalDateTime endTime) {
+        update(worker, workload[worker] + minutes, endTime);
+    }
+
+    /**
+     * Replace the workload of a worker in every heap it belongs to
+     */
+    public void update(int worker, long workloadMinutes, LocalDateTime lastEndTime) {
+        workload[worker] = workloadMinutes;
+        lastEnd[worker] = lastEndTime;
+        all.update(worker, workloadMinutes, lastEndTime);
+        for (int mask = 1; mask < heaps.length; mask++) {
+            if (heaps[mask] != null) {
+                int local = localIndex[mask][worker];
+                if (local >= 0) {
+                    heaps[mask].update(local, workloadMinutes, lastEndTime);
+                }
+            }
+        }
+    }
+
+    private WorkloadHeap heapFor(int mask) {
+        WorkloadHeap heap = heaps[mask];
+        if (heap != null) {
+            return heap;
+        }
+
+        int[] local = new int[skills.length];
+        int count = 0;
+        for (int w = 0; w < skills.length; w++) {
+            local[w] = Skill.covers(skills[w], mask) ? count++ : -1;
+        }
+        int[] workers = new int[count];
+        heap = new WorkloadHeap(count);
+        for (int w = 0; w < skills.length; w++) {
+            if (local[w] >= 0) {
+                workers[local[w]] = w;
+                if (workload[w] != 0 || lastEnd[w] != null) {
+                    heap.update(local[w], workload[w], lastEnd[w]);
+                }
+            }
+        }
+        members[mask] = workers;
+        localIndex[mask] = local;
+        heaps[mask] = heap;
+        return heap;
+    }
+}
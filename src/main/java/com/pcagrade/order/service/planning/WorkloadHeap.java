@@ -0,0 +1,131 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Indexed binary min-heap of employee workloads
+ *
+ * Employees are identified by a dense index (0..size-1). The heap orders them by
+ * workload minutes, then by last end time (earliest first, "never worked" first),
+ * then by index so that ties stay deterministic.
+ * peek is O(1), update is O(log E) and works for both increases and decreases.
+ */
+public final class WorkloadHeap {
+
+    private static final long NO_END_TIME = Long.MIN_VALUE;
+
+    private final long[] workload;
+    private final long[] lastEnd;
+    private final int[] heap;      // heap position -> employee index
+    private final int[] position;  // employee index -> heap position
+
+    /**
+     * Build a heap where every employee starts with no workload
+     * @param size number of employees
+     */
+    public WorkloadHeap(int size) {
+        this.workload = new long[size];
+        this.lastEnd = new long[size];
+        this.heap = new int[size];
+        this.position = new int[size];
+        for (int i = 0; i < size; i++) {
+            lastEnd[i] = NO_END_TIME;
+            heap[i] = i;
+            position[i] = i;
+        }
+    }
+
+    public int size() {
+        return heap.length;
+    }
+
+    public boolean isEmpty() {
+        return heap.length == 0;
+    }
+
+    /**
+     * Index of the least loaded employee
+     */
+    public int peek() {
+        if (heap.length == 0) {
+            throw new IllegalStateException("No employee in workload heap");
+        }
+        return heap[0];
+    }
+
+    public long workload(int index) {
+        return workload[index];
+    }
+
+    /**
+     * Add minutes to an employee and record the end of its latest task
+     */
+    public void add(int index, long minutes, LocalDateTime endTime) {
+        update(index, workload[index] + minutes, endTime);
+    }
+
+    /**
+     * Replace the workload of an employee (may go up or down) and restore heap order
+     */
+    public void update(int index, long workloadMinutes, LocalDateTime lastEndTime) {
+        workload[index] = workloadMinutes;
+        lastEnd[index] = lastEndTime != null ? lastEndTime.toEpochSecond(ZoneOffset.UTC) : NO_END_TIME;
+
+        int pos = position[index];
+        if (pos > 0 && less(index, heap[(pos - 1) >>> 1])) {
+            siftUp(pos);
+        } else {
+            siftDown(pos);
+        }
+    }
+
+    private boolean less(int a, int b) {
+        if (workload[a] != workload[b]) {
+            return workload[a] < workload[b];
+        }
+        if (lastEnd[a] != lastEnd[b]) {
+            return lastEnd[a] < lastEnd[b];
+        }
+        return a < b;
+    }
+
+    private void siftUp(int pos) {
+        int index = heap[pos];
+        while (pos > 0) {
+            int parentPos = (pos - 1) >>> 1;
+            int parent = heap[parentPos];
+            if (!less(index, parent)) {
+                break;
+            }
+            place(parent, pos);
+            pos = parentPos;
+        }
+        place(index, pos);
+    }
+
+    private void siftDown(int pos) {
+        int index = heap[pos];
+        int half = heap.length >>> 1;
+        while (pos < half) {
+            int childPos = 2 * pos + 1;
+            int child = heap[childPos];
+            int rightPos = childPos + 1;
+            if (rightPos < heap.length && less(heap[rightPos], child)) {
+                childPos = rightPos;
+                child = heap[rightPos];
+            }
+            if (!less(child, index)) {
+                break;
+            }
+            place(child, pos);
+            pos = childPos;
+        }
+        place(index, pos);
+    }
+
+    private void place(int index, int pos) {
+        heap[pos] = index;
+        position[index] = pos;
+    }
+}
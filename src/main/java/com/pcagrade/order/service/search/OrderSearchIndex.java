@@ -0,0 +1,272 @@
+package com.pcagrade.order.service.search;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over order number and customer name
+ * Each term of 3+ characters is answered from the posting lists of its trigrams (rarest first),
+ * then checked against the text, so a search costs in proportion to the matching orders and not
+ * to the table size. Shorter terms scan the entries.
+ * Updates never rewrite posting lists: a changed order gets a new entry and the old one is marked
+ * dead; the lists are rebuilt once dead entries outnumber live ones.
+ * Thread-safe: searches share a read lock, updates take the write lock.
+ */
+public class OrderSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int MIN_DEAD_FOR_COMPACTION = 10_000;
+
+    // Scores, best first
+    static final int SCORE_NUMBER_EXACT = 100;
+    static final int SCORE_NUMBER_PREFIX = 80;
+    static final int SCORE_NAME_EXACT = 70;
+    static final int SCORE_NAME_WORD_PREFIX = 60;
+    static final int SCORE_NUMBER_CONTAINS = 40;
+    static final int SCORE_NAME_CONTAINS = 30;
+    static final int SCORE_ANY = 1;
+
+    /**
+     * Searchable fields of an order
+     *
+     * @param orderId order id (ULIDs: larger means newer, used as tie-breaker)
+     * @param orderNumber order number
+     * @param customerName customer name, may be null
+     * @param status status name, may be null
+     * @param priority priority name, may be null
+     */
+    public record Entry(String orderId, String orderNumber, String customerName, String status, String priority) {
+    }
+
+    public record Hit(String orderId, int score) {
+    }
+
+    /**
+     * @param total number of matching orders
+     * @param hits requested page, best score first, then newest first
+     */
+    public record Result(int total, List<Hit> hits) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<String> numberKeys = new ArrayList<>();
+    private final List<String> nameKeys = new ArrayList<>();
+    private final BitSet dead = new BitSet();
+    private int deadCount;
+    private final Map<String, Integer> liveByOrderId = new HashMap<>();
+    private final Map<Long, IntList> postings = new HashMap<>();
+
+    /**
+     * Add or replace an order
+     */
+    public void put(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            markDead(entry.orderId());
+            append(entry);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an order, no-op if unknown
+     */
+    public void remove(String orderId) {
+        lock.writeLock().lock();
+        try {
+            markDead(orderId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveByOrderId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search orders whose number or customer name contains the term (case and accent insensitive)
+     * @param term text to look for; blank matches every order
+     * @param status status name to match, null for any
+     * @param priority priority name to match, null for any
+     * @param offset first hit to return
+     * @param limit maximum number of hits to return
+     */
+    public Result search(String term, String status, String priority, int offset, int limit) {
+        String query = term != null ? normalize(term).trim() : "";
+
+        lock.readLock().lock();
+        try {
+            List<Hit> hits = new ArrayList<>();
+            if (query.length() >= 3) {
+                IntList candidates = candidates(query);
+                if (candidates != null) {
+                    for (int i = 0; i < candidates.size; i++) {
+                        addIfMatching(hits, candidates.values[i], query, status, priority);
+                    }
+                }
+            } else {
+                for (int doc = 0; doc < entries.size(); doc++) {
+                    addIfMatching(hits, doc, query, status, priority);
+                }
+            }
+
+            hits.sort(Comparator.comparingInt(Hit::score).reversed()
+                    .thenComparing(Hit::orderId, Comparator.reverseOrder()));
+
+            int from = Math.min(Math.max(offset, 0), hits.size());
+            int to = Math.min(from + Math.max(limit, 0), hits.size());
+            return new Result(hits.size(), List.copyOf(hits.subList(from, to)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower case, accents removed
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private IntList candidates(String query) {
+        // Smallest posting list first: every other trigram can only narrow it down
+        IntList smallest = null;
+        for (long trigram : trigrams(query)) {
+            IntList list = postings.get(trigram);
+            if (list == null) {
+                return null;
+            }
+            if (smallest == null || list.size < smallest.size) {
+                smallest = list;
+            }
+        }
+        return smallest;
+    }
+
+    private void addIfMatching(List<Hit> hits, int doc, String query, String status, String priority) {
+        if (dead.get(doc)) {
+            return;
+        }
+        Entry entry = entries.get(doc);
+        if ((status != null && !status.equals(entry.status()))
+                || (priority != null && !priority.equals(entry.priority()))) {
+            return;
+        }
+        int score = score(numberKeys.get(doc), nameKeys.get(doc), query);
+        if (score > 0) {
+            hits.add(new Hit(entry.orderId(), score));
+        }
+    }
+
+    static int score(String number, String name, String query) {
+        if (query.isEmpty()) {
+            return SCORE_ANY;
+        }
+        if (number.equals(query)) {
+            return SCORE_NUMBER_EXACT;
+        }
+        if (number.startsWith(query)) {
+            return SCORE_NUMBER_PREFIX;
+        }
+        if (name.equals(query)) {
+            return SCORE_NAME_EXACT;
+        }
+        if (name.startsWith(query) || name.contains(" " + query)) {
+            return SCORE_NAME_WORD_PREFIX;
+        }
+        if (number.contains(query)) {
+            return SCORE_NUMBER_CONTAINS;
+        }
+        if (name.contains(query)) {
+            return SCORE_NAME_CONTAINS;
+        }
+        return 0;
+    }
+
+    private void append(Entry entry) {
+        int doc = entries.size();
+        String number = normalize(entry.orderNumber());
+        String name = normalize(entry.customerName());
+
+        entries.add(entry);
+        numberKeys.add(number);
+        nameKeys.add(name);
+        liveByOrderId.put(entry.orderId(), doc);
+
+        Set<Long> docTrigrams = trigrams(number);
+        docTrigrams.addAll(trigrams(name));
+        for (long trigram : docTrigrams) {
+            postings.computeIfAbsent(trigram, key -> new IntList()).add(doc);
+        }
+    }
+
+    private void markDead(String orderId) {
+        Integer previous = liveByOrderId.remove(orderId);
+        if (previous != null) {
+            dead.set(previous);
+            deadCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deadCount < MIN_DEAD_FOR_COMPACTION || deadCount < liveByOrderId.size()) {
+            return;
+        }
+        List<Entry> live = new ArrayList<>(liveByOrderId.size());
+        for (int doc = 0; doc < entries.size(); doc++) {
+            if (!dead.get(doc)) {
+                live.add(entries.get(doc));
+            }
+        }
+        entries.clear();
+        numberKeys.clear();
+        nameKeys.clear();
+        dead.clear();
+        deadCount = 0;
+        liveByOrderId.clear();
+        postings.clear();
+        live.forEach(this::append);
+    }
+
+    /**
+     * Distinct trigrams of a normalized string, 3 chars packed in a long
+     */
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Growable int array (no boxing: posting lists hold millions of entries)
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
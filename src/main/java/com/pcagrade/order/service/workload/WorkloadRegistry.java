@@ -0,0 +1,130 @@
+package com.pcagrade.order.service.workload;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Planned load per employee and per day, readable without the database
+ * Each day holds its absolute values in an AtomicLongArray (one slot per counter); when a day is
+ * recomputed the new values are swapped in and the difference is added to the employee's running
+ * totals (LongAdder), so both a day and an employee total are read in O(1).
+ * Thread-safe without locks: writers of different days never contend, readers never block.
+ * The counters of a Load are read one by one, not as an atomic snapshot.
+ */
+public class WorkloadRegistry {
+
+    private static final int MINUTES = 0;
+    private static final int CARDS = 1;
+    private static final int TASKS = 2;
+    private static final int COMPLETED_MINUTES = 3;
+    private static final int COMPLETED_TASKS = 4;
+    private static final int COUNTERS = 5;
+
+    /**
+     * Load of an employee, for one day or in total
+     *
+     * @param totalMinutes planned minutes
+     * @param cardCount planned cards
+     * @param taskCount planned tasks
+     * @param completedMinutes minutes of completed tasks
+     * @param completedTasks completed tasks
+     */
+    public record Load(long totalMinutes, long cardCount, long taskCount, long completedMinutes, long completedTasks) {
+
+        public static final Load EMPTY = new Load(0, 0, 0, 0, 0);
+
+        public long remainingMinutes() {
+            return totalMinutes - completedMinutes;
+        }
+
+        private long get(int counter) {
+            return switch (counter) {
+                case MINUTES -> totalMinutes;
+                case CARDS -> cardCount;
+                case TASKS -> taskCount;
+                case COMPLETED_MINUTES -> completedMinutes;
+                default -> completedTasks;
+            };
+        }
+    }
+
+    private static final class EmployeeLoad {
+        private final ConcurrentHashMap<LocalDate, AtomicLongArray> days = new ConcurrentHashMap<>();
+        private final LongAdder[] totals = new LongAdder[COUNTERS];
+
+        private EmployeeLoad() {
+            for (int i = 0; i < COUNTERS; i++) {
+                totals[i] = new LongAdder();
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<String, EmployeeLoad> employees = new ConcurrentHashMap<>();
+
+    /**
+     * Set the load of one day
+     * @param employeeId employee id, upper-case hex
+     */
+    public void put(String employeeId, LocalDate day, Load load) {
+        EmployeeLoad employee = employees.computeIfAbsent(employeeId, id -> new EmployeeLoad());
+        AtomicLongArray counters = employee.days.computeIfAbsent(day, d -> new AtomicLongArray(COUNTERS));
+        for (int i = 0; i < COUNTERS; i++) {
+            long value = load.get(i);
+            long previous = counters.getAndSet(i, value);
+            if (value != previous) {
+                employee.totals[i].add(value - previous);
+            }
+        }
+    }
+
+    /**
+     * Set every day of [from, to] for an employee: days missing from the map drop to zero
+     */
+    public void replaceRange(String employeeId, LocalDate from, LocalDate to, Map<LocalDate, Load> loads) {
+        EmployeeLoad employee = employees.get(employeeId);
+        if (employee != null) {
+            for (LocalDate day : employee.days.keySet()) {
+                if (!day.isBefore(from) && !day.isAfter(to) && !loads.containsKey(day)) {
+                    put(employeeId, day, Load.EMPTY);
+                }
+            }
+        }
+        loads.forEach((day, load) -> put(employeeId, day, load));
+    }
+
+    /**
+     * Load of one day, EMPTY if nothing is planned
+     */
+    public Load day(String employeeId, LocalDate day) {
+        EmployeeLoad employee = employees.get(employeeId);
+        AtomicLongArray counters = employee != null ? employee.days.get(day) : null;
+        if (counters == null) {
+            return Load.EMPTY;
+        }
+        return new Load(counters.get(MINUTES), counters.get(CARDS), counters.get(TASKS),
+                counters.get(COMPLETED_MINUTES), counters.get(COMPLETED_TASKS));
+    }
+
+    /**
+     * Load over all days, EMPTY if nothing is planned
+     */
+    public Load total(String employeeId) {
+        EmployeeLoad employee = employees.get(employeeId);
+        if (employee == null) {
+            return Load.EMPTY;
+        }
+        LongAdder[] totals = employee.totals;
+        return new Load(totals[MINUTES].sum(), totals[CARDS].sum(), totals[TASKS].sum(),
+                totals[COMPLETED_MINUTES].sum(), totals[COMPLETED_TASKS].sum());
+    }
+
+    /**
+     * Employees that have (or had) planned work
+     */
+    public Set<String> employeeIds() {
+        return Collections.unmodifiableSet(employees.keySet());
+    }
+}
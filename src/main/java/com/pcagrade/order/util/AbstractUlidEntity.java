@@ -5,7 +5,6 @@
 package com.pcagrade.order.util;
 
 import com.github.f4b6a3.ulid.Ulid;
-import com.github.f4b6a3.ulid.UlidCreator;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -39,10 +38,8 @@ public abstract class AbstractUlidEntity {
     @PrePersist
     protected void ensureId() {
         if (this.id == null) {
-            // Générer un ULID et le convertir en UUID
-            Ulid ulid = UlidCreator.getUlid();
-            this.id = ulid.toUuid();
-            System.out.println("🆔 Generated ULID: " + ulid + " → UUID: " + this.id);
+            // Même générateur que UlidGenerator : ULID monotone sous forme d'UUID
+            this.id = UlidFactory.next();
         }
     }
 
@@ -52,14 +49,8 @@ public abstract class AbstractUlidEntity {
     @Transient
     public String getUlidString() {
         if (id == null) return null;
-        try {
-            // Reconvertir UUID → ULID pour affichage
-            Ulid ulid = Ulid.from(id);
-            return ulid.toString();
-        } catch (Exception e) {
-            // Si ce n'est pas un ULID valide, retourner l'UUID
-            return id.toString();
-        }
+        // Reconvertir UUID → ULID pour affichage (tout UUID de 128 bits a une forme ULID)
+        return UlidHelper.uuidToUlidString(id);
     }
 
     /**
@@ -81,7 +72,7 @@ public abstract class AbstractUlidEntity {
     @Transient
     public String getIdAsHex() {
         if (id == null) return null;
-        return id.toString().replace("-", "").toUpperCase();
+        return UlidHelper.toHex(id);
     }
 
     /**
@@ -0,0 +1,27 @@
+package com.pcagrade.order.util;
+
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+/**
+ * ✅ Utilitaires de transaction pour les méthodes @Transactional qui rendent une erreur au lieu de la lever
+ */
+public final class TransactionHelper {
+
+    private TransactionHelper() {
+    }
+
+    /**
+     * Failure returned as a response instead of thrown: roll the current transaction back on purpose
+     * (a failed inner @Transactional call has already marked it rollback-only, and committing it
+     * would throw UnexpectedRollbackException instead of returning the response; writes done
+     * before a later failure must not commit either)
+     */
+    public static void rollbackOnly() {
+        try {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        } catch (NoTransactionException e) {
+            // Called without the transactional proxy: the writers committed or rolled back on their own
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.pcagrade.order.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * ✅ Générateur de ULID monotones, sans verrou
+ *
+ * 48 bits de timestamp (ms) puis 80 bits aléatoires, tirés une fois par milliseconde et par thread
+ * puis incrémentés : les ids d'un même thread sont strictement croissants, même si l'horloge
+ * recule, et tous les ids sont ordonnés par milliseconde.
+ * En BINARY(16) l'ordre des octets suit celui du ULID : les insertions se font en fin d'index
+ * (clé primaire InnoDB) au lieu d'être éparpillées comme avec UUID.randomUUID().
+ * Chaque thread a son propre état (pas de contention) ; l'aléa vient de ThreadLocalRandom,
+ * suffisant pour des clés qui ne sont pas des secrets.
+ */
+public final class UlidFactory {
+
+    private static final UlidFactory DEFAULT = new UlidFactory(System::currentTimeMillis);
+
+    private static final long TIMESTAMP_MASK = 0xFFFF_FFFF_FFFFL;
+    private static final long RANDOM_HIGH_MASK = 0xFFFFL;
+
+    private final LongSupplier clock;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    UlidFactory(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Nouvel id, pour les entités JPA
+     */
+    public static UUID next() {
+        return DEFAULT.nextUuid();
+    }
+
+    /**
+     * Nouvel id en hex majuscules, pour les INSERT natifs (UNHEX(?))
+     */
+    public static String nextHex() {
+        return DEFAULT.nextHexId();
+    }
+
+    UUID nextUuid() {
+        State current = state.get();
+        current.advance(clock.getAsLong());
+        return new UUID(current.mostSignificantBits(), current.randomLow);
+    }
+
+    String nextHexId() {
+        State current = state.get();
+        current.advance(clock.getAsLong());
+        return UlidHelper.toHex(current.mostSignificantBits(), current.randomLow);
+    }
+
+    /**
+     * Dernier id émis par le thread : timestamp + 80 bits (16 hauts, 64 bas)
+     */
+    private static final class State {
+        private long timestamp = -1;
+        private long randomHigh;
+        private long randomLow;
+
+        void advance(long now) {
+            long millis = now & TIMESTAMP_MASK;
+            if (millis > timestamp) {
+                timestamp = millis;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                randomHigh = random.nextLong() & RANDOM_HIGH_MASK;
+                randomLow = random.nextLong();
+                return;
+            }
+            // Même milliseconde (ou horloge qui recule) : on incrémente les 80 bits
+            randomLow++;
+            if (randomLow == 0) {
+                randomHigh = (randomHigh + 1) & RANDOM_HIGH_MASK;
+                if (randomHigh == 0) {
+                    timestamp = (timestamp + 1) & TIMESTAMP_MASK;
+                }
+            }
+        }
+
+        long mostSignificantBits() {
+            return (timestamp << 16) | randomHigh;
+        }
+    }
+}
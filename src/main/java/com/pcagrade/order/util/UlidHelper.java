@@ -1,61 +1,298 @@
 package com.pcagrade.order.util;
 
-import com.github.f4b6a3.ulid.Ulid;
-
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.UUID;
 
 /**
  * ✅ Utilitaires pour conversion ULID ↔ UUID
+ *
+ * Codec écrit à la main (tables de correspondance, pas de regex ni de String intermédiaire) :
+ * ces conversions tournent pour chaque ligne des listes et chaque requête.
+ * Formats acceptés en entrée :
+ * - ULID, 26 caractères Crockford base32 (casse indifférente, I/L lus 1 et O lu 0)
+ * - hex, 32 caractères (casse indifférente) - c'est ce que renvoie HEX(id) en SQL
+ * - UUID, 36 caractères avec tirets
  */
 public class UlidHelper {
 
+    private static final int ULID_LENGTH = 26;
+    private static final int HEX_LENGTH = 32;
+    private static final int UUID_LENGTH = 36;
+
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CROCKFORD_DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+
+    // Valeur de chaque caractère ASCII, -1 si invalide
+    private static final byte[] HEX_VALUES = new byte[128];
+    private static final byte[] CROCKFORD_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < HEX_DIGITS.length; i++) {
+            HEX_VALUES[HEX_DIGITS[i]] = (byte) i;
+            HEX_VALUES[Character.toLowerCase(HEX_DIGITS[i])] = (byte) i;
+        }
+        Arrays.fill(CROCKFORD_VALUES, (byte) -1);
+        for (int i = 0; i < CROCKFORD_DIGITS.length; i++) {
+            CROCKFORD_VALUES[CROCKFORD_DIGITS[i]] = (byte) i;
+            CROCKFORD_VALUES[Character.toLowerCase(CROCKFORD_DIGITS[i])] = (byte) i;
+        }
+        for (char c : new char[]{'I', 'i', 'L', 'l'}) {
+            CROCKFORD_VALUES[c] = 1;
+        }
+        CROCKFORD_VALUES['O'] = 0;
+        CROCKFORD_VALUES['o'] = 0;
+    }
+
     /**
      * Convertit un String ID vers UUID (gère ULID, UUID, hex)
+     * @return null si l'id est vide
+     * @throws IllegalArgumentException si le format n'est pas reconnu
      */
     public static UUID stringToUuid(String idString) {
-        if (idString == null || idString.trim().isEmpty()) {
+        if (idString == null || idString.isBlank()) {
             return null;
         }
 
-        idString = idString.trim();
-
+        String id = isTrimmed(idString) ? idString : idString.trim();
         try {
-            // Format ULID standard (26 caractères)
-            if (idString.length() == 26 && idString.matches("[0-9A-Z]+")) {
-                Ulid ulid = Ulid.from(idString);
-                return ulid.toUuid();
+            return parse(id);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ Erreur conversion ID: " + idString + " - " + e.getMessage());
+            throw new IllegalArgumentException("ID invalide: " + idString, e);
+        }
+    }
+
+    /**
+     * Convertit un UUID vers String ULID pour affichage
+     */
+    public static String uuidToUlidString(UUID uuid) {
+        if (uuid == null) return null;
+        return toUlidString(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    // ========== PARSING ==========
+
+    /**
+     * ULID, hex ou UUID → UUID (sans espaces autour)
+     * @throws IllegalArgumentException si le format n'est pas reconnu
+     */
+    public static UUID parse(CharSequence id) {
+        if (id.length() == UUID_LENGTH && id instanceof String uuid) {
+            // Forme canonique : le parseur du JDK est le plus rapide (il tolère des tirets décalés, pas nous)
+            checkDashes(uuid);
+            return UUID.fromString(uuid);
+        }
+        return new UUID(parseMostSignificantBits(id), parseLeastSignificantBits(id));
+    }
+
+    /**
+     * 64 bits de poids fort de l'id, sans allocation
+     */
+    public static long parseMostSignificantBits(CharSequence id) {
+        return switch (id.length()) {
+            case HEX_LENGTH -> hexBits(id, 0, 16, 0L);
+            case UUID_LENGTH -> {
+                checkDashes(id);
+                yield hexBits(id, 14, 4, hexBits(id, 9, 4, hexBits(id, 0, 8, 0L)));
             }
+            case ULID_LENGTH -> {
+                int first = crockford(id, 0);
+                if (first > 7) {
+                    throw new IllegalArgumentException("ULID hors limites (> 128 bits)");
+                }
+                long bits = first;
+                for (int i = 1; i <= 12; i++) {
+                    bits = (bits << 5) | crockford(id, i);
+                }
+                yield (bits << 1) | (crockford(id, 13) >>> 4);
+            }
+            default -> throw unknownFormat(id);
+        };
+    }
 
-            // Format UUID avec tirets (36 caractères)
-            if (idString.length() == 36 && idString.contains("-")) {
-                return UUID.fromString(idString);
+    /**
+     * 64 bits de poids faible de l'id, sans allocation
+     */
+    public static long parseLeastSignificantBits(CharSequence id) {
+        return switch (id.length()) {
+            case HEX_LENGTH -> hexBits(id, 16, 16, 0L);
+            case UUID_LENGTH -> {
+                checkDashes(id);
+                yield hexBits(id, 24, 12, hexBits(id, 19, 4, 0L));
+            }
+            case ULID_LENGTH -> {
+                long bits = crockford(id, 13) & 0xF;
+                for (int i = 14; i < ULID_LENGTH; i++) {
+                    bits = (bits << 5) | crockford(id, i);
+                }
+                yield bits;
             }
+            default -> throw unknownFormat(id);
+        };
+    }
 
-            // Format Hex sans tirets (32 caractères)
-            if (idString.length() == 32 && idString.matches("[0-9A-Fa-f]+")) {
-                String formatted = idString.toLowerCase()
-                        .replaceAll("(.{8})(.{4})(.{4})(.{4})(.{12})", "$1-$2-$3-$4-$5");
-                return UUID.fromString(formatted);
+    /**
+     * Déjà sous la forme de HEX(id) : 32 caractères hex majuscules
+     */
+    public static boolean isCanonicalHex(CharSequence id) {
+        if (id == null || id.length() != HEX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < HEX_LENGTH; i++) {
+            char c = id.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'A' && c <= 'F')) {
+                return false;
             }
+        }
+        return true;
+    }
 
-            throw new IllegalArgumentException("Format ID non reconnu: " + idString);
+    // ========== BINARY(16) ==========
 
-        } catch (Exception e) {
-            System.err.println("❌ Erreur conversion ID: " + idString + " - " + e.getMessage());
-            throw new IllegalArgumentException("ID invalide: " + idString, e);
+    /**
+     * Id reçu sous n'importe quelle forme (ULID, UUID, hex) → 16 octets à lier tel quel sur une colonne BINARY(16)
+     * Chemin canonique pour les recherches par id : `colonne = ?` avec ce tableau, jamais HEX(colonne) = ?
+     * (la fonction sur la colonne empêche MariaDB d'utiliser l'index)
+     * @throws IllegalArgumentException si l'id n'est pas reconnu
+     */
+    public static byte[] idToBytes(String id) {
+        UUID uuid = stringToUuid(id);
+        if (uuid == null) {
+            throw new IllegalArgumentException("ID manquant");
         }
+        return toBytes(uuid);
     }
 
     /**
-     * Convertit un UUID vers String ULID pour affichage
+     * UUID → BINARY(16), octets de poids fort en premier (même ordre que le ULID)
      */
-    public static String uuidToUlidString(UUID uuid) {
-        if (uuid == null) return null;
-        try {
-            Ulid ulid = Ulid.from(uuid);
-            return ulid.toString();
-        } catch (Exception e) {
-            return uuid.toString();
+    public static byte[] toBytes(UUID uuid) {
+        return toBytes(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public static byte[] toBytes(long msb, long lsb) {
+        byte[] bytes = new byte[16];
+        writeBytes(msb, lsb, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Écrit les 16 octets dans un tableau existant (lots de paramètres)
+     */
+    public static void writeBytes(long msb, long lsb, byte[] target, int offset) {
+        for (int i = 0; i < 8; i++) {
+            target[offset + i] = (byte) (msb >>> (56 - 8 * i));
+            target[offset + 8 + i] = (byte) (lsb >>> (56 - 8 * i));
+        }
+    }
+
+    /**
+     * BINARY(16) → UUID, null si la valeur n'a pas 16 octets
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != 16) {
+            return null;
+        }
+        return fromBytes(bytes, 0);
+    }
+
+    /**
+     * 16 octets lus à partir de offset → UUID
+     */
+    public static UUID fromBytes(byte[] bytes, int offset) {
+        return new UUID(readLong(bytes, offset), readLong(bytes, offset + 8));
+    }
+
+    /**
+     * Convertit un id hex (avec ou sans tirets) vers les 16 octets stockés en BINARY(16)
+     * Permet de comparer directement la colonne (index utilisable) au lieu de HEX(colonne) = ?
+     */
+    public static byte[] hexToBytes(String hexId) {
+        if (hexId.length() == HEX_LENGTH || hexId.length() == UUID_LENGTH) {
+            return toBytes(parseMostSignificantBits(hexId), parseLeastSignificantBits(hexId));
         }
+        return HexFormat.of().parseHex(hexId.replace("-", ""));
+    }
+
+    // ========== FORMATTING ==========
+
+    /**
+     * UUID → 32 caractères hex majuscules, la forme de HEX(id) en SQL
+     */
+    public static String toHex(UUID uuid) {
+        return toHex(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public static String toHex(long msb, long lsb) {
+        byte[] chars = new byte[HEX_LENGTH];
+        for (int i = 0; i < 16; i++) {
+            chars[i] = HEX_DIGITS[(int) (msb >>> (60 - 4 * i)) & 0xF];
+            chars[16 + i] = HEX_DIGITS[(int) (lsb >>> (60 - 4 * i)) & 0xF];
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 128 bits → 26 caractères ULID (Crockford base32, majuscules)
+     */
+    public static String toUlidString(long msb, long lsb) {
+        byte[] chars = new byte[ULID_LENGTH];
+        chars[0] = CROCKFORD_DIGITS[(int) (msb >>> 61) & 0x7];
+        for (int i = 1; i <= 12; i++) {
+            chars[i] = CROCKFORD_DIGITS[(int) (msb >>> (61 - 5 * i)) & 0x1F];
+        }
+        chars[13] = CROCKFORD_DIGITS[(int) (((msb & 0x1) << 4) | (lsb >>> 60))];
+        for (int i = 14; i < ULID_LENGTH; i++) {
+            chars[i] = CROCKFORD_DIGITS[(int) (lsb >>> (60 - 5 * (i - 13))) & 0x1F];
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    // ========== INTERNALS ==========
+
+    private static long hexBits(CharSequence id, int start, int count, long bits) {
+        for (int i = start; i < start + count; i++) {
+            char c = id.charAt(i);
+            int value = c < 128 ? HEX_VALUES[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Caractère hex invalide '" + c + "' en position " + i);
+            }
+            bits = (bits << 4) | value;
+        }
+        return bits;
+    }
+
+    private static int crockford(CharSequence id, int index) {
+        char c = id.charAt(index);
+        int value = c < 128 ? CROCKFORD_VALUES[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Caractère ULID invalide '" + c + "' en position " + index);
+        }
+        return value;
+    }
+
+    private static void checkDashes(CharSequence id) {
+        if (id.charAt(8) != '-' || id.charAt(13) != '-' || id.charAt(18) != '-' || id.charAt(23) != '-') {
+            throw new IllegalArgumentException("UUID mal formé: " + id);
+        }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static boolean isTrimmed(String id) {
+        return id.charAt(0) > ' ' && id.charAt(id.length() - 1) > ' ';
+    }
+
+    private static IllegalArgumentException unknownFormat(CharSequence id) {
+        return new IllegalArgumentException("Format ID non reconnu: " + id);
     }
 }
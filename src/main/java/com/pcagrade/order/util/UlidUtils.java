@@ -12,24 +12,13 @@ public class UlidUtils {
             throw new IllegalArgumentException("Hex string doit faire 32 caractères");
         }
 
-        // Convertir hex string en bytes
-        byte[] bytes = new byte[16];
-        for (int i = 0; i < 16; i++) {
-            bytes[i] = (byte) Integer.parseInt(hexString.substring(i * 2, i * 2 + 2), 16);
-        }
-
-        return Ulid.from(bytes);
+        return new Ulid(UlidHelper.parseMostSignificantBits(hexString), UlidHelper.parseLeastSignificantBits(hexString));
     }
 
     /**
      * Convertit un Ulid en hex string
      */
     public static String toHexString(Ulid ulid) {
-        byte[] bytes = ulid.toBytes();
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02X", b));
-        }
-        return sb.toString();
+        return UlidHelper.toHex(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits());
     }
 }
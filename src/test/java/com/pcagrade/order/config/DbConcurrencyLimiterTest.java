@@ -0,0 +1,137 @@
+package com.pcagrade.order.config;
+
+import com.pcagrade.order.config.DbConcurrencyLimiter.EndpointClass;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DbConcurrencyLimiterTest {
+
+    @Test
+    void neverLetsMoreRequestsThanPermitsIn() throws Exception {
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(4);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                EndpointClass endpointClass = EndpointClass.values()[i % EndpointClass.values().length];
+                futures.add(executor.submit(() -> {
+                    try (DbConcurrencyLimiter.Permit permit = limiter.acquire(endpointClass, 10, TimeUnit.SECONDS)) {
+                        assertNotNull(permit);
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        Thread.sleep(1);
+                        active.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(maxActive.get() <= 4, "max active " + maxActive.get());
+        assertEquals(0, limiter.inUse());
+    }
+
+    @Test
+    void oneClassCannotTakeTheWholePool() throws Exception {
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(4);
+        List<DbConcurrencyLimiter.Permit> reads = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            reads.add(limiter.acquire(EndpointClass.READ, 1, TimeUnit.SECONDS));
+        }
+
+        // READ is capped at 4 - 2 other classes
+        assertNull(limiter.acquire(EndpointClass.READ, 10, TimeUnit.MILLISECONDS));
+        try (DbConcurrencyLimiter.Permit planning = limiter.acquire(EndpointClass.PLANNING, 10, TimeUnit.MILLISECONDS)) {
+            assertNotNull(planning);
+            assertEquals(3, limiter.inUse());
+        }
+        reads.forEach(DbConcurrencyLimiter.Permit::close);
+        assertEquals(0, limiter.inUse());
+    }
+
+    @Test
+    void recordsQueueTimeAndRejections() throws Exception {
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(1);
+        DbConcurrencyLimiter.Permit held = limiter.acquire(EndpointClass.WRITE, 1, TimeUnit.SECONDS);
+        CountDownLatch waiting = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<DbConcurrencyLimiter.Permit> queued = executor.submit(() -> {
+                waiting.countDown();
+                return limiter.acquire(EndpointClass.WRITE, 5, TimeUnit.SECONDS);
+            });
+            waiting.await();
+            assertNull(limiter.acquire(EndpointClass.READ, 10, TimeUnit.MILLISECONDS));
+            Thread.sleep(20);
+            held.close();
+            queued.get().close();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<?, ?> classes = (Map<?, ?>) limiter.getStats().get("classes");
+        Map<?, ?> write = (Map<?, ?>) classes.get("WRITE");
+        Map<?, ?> read = (Map<?, ?>) classes.get("READ");
+        assertEquals(2L, ((Map<?, ?>) write.get("queueTime")).get("count"));
+        assertEquals(2L, ((Map<?, ?>) write.get("dbTime")).get("count"));
+        assertTrue((Double) ((Map<?, ?>) write.get("queueTime")).get("maxMs") >= 10.0);
+        assertEquals(1L, read.get("rejected"));
+    }
+
+    @Test
+    void permitIsReleasedOnceHoweverOftenItIsClosed() throws Exception {
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(2);
+        DbConcurrencyLimiter.Permit background = limiter.acquire(EndpointClass.PLANNING);
+        DbConcurrencyLimiter.Permit request = limiter.acquire(EndpointClass.READ, 1, TimeUnit.SECONDS);
+        assertEquals(2, limiter.inUse());
+
+        // Async completion and error listeners may both fire
+        background.close();
+        background.close();
+        assertEquals(1, limiter.inUse());
+        request.close();
+        assertEquals(0, limiter.inUse());
+    }
+
+    @Test
+    void classifiesEndpoints() {
+        assertEquals(EndpointClass.READ, EndpointClass.of("GET", "/api/planning/list"));
+        assertEquals(EndpointClass.PLANNING, EndpointClass.of("POST", "/api/planning/greedy/deadline"));
+        assertEquals(EndpointClass.PLANNING, EndpointClass.of("DELETE", "/api/frontend/planning/clear"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of("PUT", "/api/frontend/employees/E1/skills"));
+    }
+
+    @Test
+    void percentilesAreUpperBounds() {
+        DbConcurrencyLimiter.Latency latency = new DbConcurrencyLimiter.Latency();
+        for (int i = 0; i < 99; i++) {
+            latency.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        latency.record(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertEquals(100, latency.count());
+        assertEquals(1024, latency.percentileMicros(50));
+        assertEquals(1024, latency.percentileMicros(99));
+        assertEquals(131072, latency.percentileMicros(100));
+    }
+}
@@ -0,0 +1,39 @@
+package com.pcagrade.order.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeWorkloadRowTest {
+
+    private static Object[] row(Object active, Object workload) {
+        return new Object[]{"01AB", "Ana Diaz", "Ana", "Diaz", "ana@example.com", active, 8, 450L, 3L,
+                new BigDecimal("42"), workload};
+    }
+
+    @Test
+    void readsDriverTypes() {
+        EmployeeWorkloadRow employee = EmployeeWorkloadRow.fromRow(row(Boolean.TRUE, new BigDecimal("0.94")));
+
+        assertTrue(employee.active());
+        assertEquals(450, employee.totalMinutes());
+        assertEquals(42, employee.cardCount());
+        assertEquals(480, employee.maxMinutes());
+        assertEquals(7.5, employee.estimatedHours());
+        assertTrue(EmployeeWorkloadRow.fromRow(row(1L, null)).active());
+        assertFalse(EmployeeWorkloadRow.fromRow(row(0, null)).active());
+    }
+
+    @Test
+    void statusFollowsWorkload() {
+        assertEquals("available", EmployeeWorkloadRow.fromRow(row(1, 0.5)).status());
+        assertEquals("busy", EmployeeWorkloadRow.fromRow(row(1, 0.8)).status());
+        assertEquals("overloaded", EmployeeWorkloadRow.fromRow(row(1, 1.0)).status());
+        assertTrue(EmployeeWorkloadRow.fromRow(row(1, null)).available());
+        assertFalse(EmployeeWorkloadRow.fromRow(row(1, 0.8)).available());
+    }
+}
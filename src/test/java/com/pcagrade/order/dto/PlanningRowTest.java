@@ -0,0 +1,40 @@
+package com.pcagrade.order.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PlanningRowTest {
+
+    private static Object[] row(Object duration) {
+        LocalDateTime start = LocalDateTime.of(2025, 6, 2, 9, 0);
+        return new Object[]{"01", "02", "03", Date.valueOf(start.toLocalDate()), Timestamp.valueOf(start),
+                duration, "HIGH", "SCHEDULED", Boolean.FALSE, 12, 0, null, null, "100042", "Ana Diaz"};
+    }
+
+    @Test
+    void convertsDriverTypes() {
+        PlanningRow planning = PlanningRow.fromRow(row(150));
+
+        assertEquals(LocalDate.of(2025, 6, 2), planning.planningDate());
+        assertEquals(LocalDateTime.of(2025, 6, 2, 9, 0), planning.startTime());
+        assertEquals(Integer.valueOf(150), planning.estimatedDurationMinutes());
+        assertEquals("100042", planning.orderNumber());
+    }
+
+    @Test
+    void formatsDuration() {
+        assertEquals("45min", PlanningRow.fromRow(row(45)).formattedDuration());
+        assertEquals("2h", PlanningRow.fromRow(row(120)).formattedDuration());
+        assertEquals("2h30min", PlanningRow.fromRow(row(150)).formattedDuration());
+        assertEquals(Double.valueOf(2.5), PlanningRow.fromRow(row(150)).estimatedHours());
+        assertNull(PlanningRow.fromRow(row(null)).formattedDuration());
+        assertNull(PlanningRow.fromRow(row(null)).estimatedHours());
+    }
+}
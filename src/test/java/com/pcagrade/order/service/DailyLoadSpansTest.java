@@ -0,0 +1,58 @@
+package com.pcagrade.order.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DailyLoadSpansTest {
+
+    private static final String EMPLOYEE_ID = "0197A3B2C4D5E6F708192A3B4C5D6E7F";
+    private static final String OTHER_ID = "0197A3B2C4D5E6F708192A3B4C5D6E80";
+
+    @Test
+    void widensTheSpanOfAnEmployee() {
+        DailyLoadSpans spans = new DailyLoadSpans();
+        spans.add(EMPLOYEE_ID, LocalDate.of(2025, 6, 3));
+        spans.add(EMPLOYEE_ID, LocalDate.of(2025, 6, 1));
+        spans.add(EMPLOYEE_ID, LocalDate.of(2025, 6, 2));
+
+        assertEquals(new DailyLoadSpans.Span(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 3)),
+                spans.byEmployee().get(EMPLOYEE_ID));
+    }
+
+    @Test
+    void keysEmployeesByCanonicalHex() {
+        DailyLoadSpans spans = new DailyLoadSpans();
+        spans.add("0197a3b2-c4d5-e6f7-0819-2a3b4c5d6e7f", LocalDate.of(2025, 6, 1));
+        spans.add(EMPLOYEE_ID, LocalDate.of(2025, 6, 2));
+        spans.add(OTHER_ID, LocalDate.of(2025, 6, 5));
+
+        assertEquals(2, spans.byEmployee().size());
+        assertEquals(LocalDate.of(2025, 6, 2), spans.byEmployee().get(EMPLOYEE_ID).to());
+    }
+
+    @Test
+    void ignoresRowsWithoutEmployeeOrDate() {
+        DailyLoadSpans spans = new DailyLoadSpans();
+        spans.add(null, LocalDate.of(2025, 6, 1));
+        spans.add(EMPLOYEE_ID, null);
+
+        assertTrue(spans.isEmpty());
+    }
+
+    @Test
+    void mergesSpansFromAnotherSet() {
+        DailyLoadSpans before = new DailyLoadSpans();
+        before.add(EMPLOYEE_ID, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 2));
+        DailyLoadSpans after = new DailyLoadSpans();
+        after.add(EMPLOYEE_ID, LocalDate.of(2025, 6, 4));
+
+        after.addAll(before);
+
+        assertEquals(new DailyLoadSpans.Span(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 4)),
+                after.byEmployee().get(EMPLOYEE_ID));
+    }
+}
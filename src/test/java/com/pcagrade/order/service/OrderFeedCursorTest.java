@@ -0,0 +1,38 @@
+package com.pcagrade.order.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderFeedCursorTest {
+
+    private static final String ORDER_ID = "0197A3B2C4D5E6F708192A3B4C5D6E7F";
+
+    @Test
+    void roundTripsThroughUrlSafeToken() {
+        OrderFeedCursor cursor = new OrderFeedCursor(LocalDateTime.of(2025, 6, 1, 10, 0), ORDER_ID);
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, OrderFeedCursor.decode(token));
+    }
+
+    @Test
+    void keepsFractionalSeconds() {
+        OrderFeedCursor cursor = new OrderFeedCursor(LocalDateTime.of(2025, 6, 1, 10, 0, 5, 123_000_000), ORDER_ID);
+
+        assertEquals(cursor, OrderFeedCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> OrderFeedCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> OrderFeedCursor.decode(
+                new OrderFeedCursor(LocalDateTime.of(2025, 6, 1, 10, 0), "1234").encode()));
+    }
+}
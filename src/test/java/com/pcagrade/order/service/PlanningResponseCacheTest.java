@@ -0,0 +1,116 @@
+package com.pcagrade.order.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanningResponseCacheTest {
+
+    private static byte[] json(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void loadsOncePerVersionAndFilter() {
+        PlanningResponseCache cache = new PlanningResponseCache(16);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            cache.get("all", 7, () -> json("{\"v\":" + loads.incrementAndGet() + "}"));
+        }
+        assertEquals(1, loads.get());
+
+        cache.get("stats", 7, () -> json("{}" + loads.incrementAndGet()));
+        assertEquals(2, loads.get());
+
+        PlanningResponseCache.Entry entry = cache.get("all", 8, () -> json("{\"v\":" + loads.incrementAndGet() + "}"));
+        assertEquals(3, loads.get());
+        assertEquals(8, entry.version());
+        assertArrayEquals(json("{\"v\":3}"), entry.body());
+        assertEquals("\"8\"", entry.etag());
+    }
+
+    @Test
+    void newerEntryServesAnOlderVersion() {
+        PlanningResponseCache cache = new PlanningResponseCache(16);
+        cache.get("all", 9, () -> json("new"));
+
+        PlanningResponseCache.Entry entry = cache.get("all", 8, () -> json("old"));
+        assertEquals(9, entry.version());
+        assertArrayEquals(json("new"), entry.body());
+    }
+
+    @Test
+    void failedLoadIsNotKept() {
+        PlanningResponseCache cache = new PlanningResponseCache(16);
+        assertThrows(IllegalStateException.class, () -> cache.get("all", 1, () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        PlanningResponseCache.Entry entry = cache.get("all", 1, () -> json("ok"));
+        assertArrayEquals(json("ok"), entry.body());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        PlanningResponseCache cache = new PlanningResponseCache(16);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PlanningResponseCache.Entry>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> cache.get("all", 3, () -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return json("rows");
+                })));
+            }
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<PlanningResponseCache.Entry> future : futures) {
+                assertArrayEquals(json("rows"), future.get().body());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evictsOldVersionsWhenFull() {
+        PlanningResponseCache cache = new PlanningResponseCache(2);
+        cache.get("a", 1, () -> json("a"));
+        cache.get("b", 1, () -> json("b"));
+        cache.get("c", 2, () -> json("c"));
+
+        assertEquals(1, cache.getStatus().get("entries"));
+    }
+
+    @Test
+    void matchesIfNoneMatchLists() {
+        String etag = PlanningResponseCache.etag(42);
+        assertTrue(PlanningResponseCache.matches("\"42\"", etag));
+        assertTrue(PlanningResponseCache.matches("\"41\", W/\"42\"", etag));
+        assertTrue(PlanningResponseCache.matches("*", etag));
+        assertFalse(PlanningResponseCache.matches("\"41\"", etag));
+        assertFalse(PlanningResponseCache.matches(null, etag));
+    }
+}
@@ -0,0 +1,163 @@
+package com.pcagrade.order.service.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanningJobTest {
+
+    // Events are delivered on the calling thread unless a test says otherwise
+
+    @Test
+    void streamsPhasesInOrderUntilDone() {
+        PlanningJob job = new PlanningJob("J1", "edf", Map.of(), Runnable::run);
+        List<JobEvent> events = new ArrayList<>();
+        job.subscribe(events::add);
+
+        assertTrue(job.start());
+        job.phase(PlanningJob.Phase.LOADING, "Loading backlog");
+        job.progress(1, 1, "Loaded");
+        job.phase(PlanningJob.Phase.ASSIGNING, "Assigning");
+        job.progress(10, 10, "Assigned 10/10 orders");
+        job.succeed(Map.of("totalPlannings", 10), "Planned");
+
+        assertEquals(List.of("status", "status", "phase", "progress", "phase", "progress", "done"),
+                events.stream().map(JobEvent::type).toList());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i).sequence() > events.get(i - 1).sequence());
+        }
+        JobEvent last = events.get(events.size() - 1);
+        assertTrue(last.isTerminal());
+        assertEquals(PlanningJob.Status.SUCCEEDED, last.status());
+        assertEquals(PlanningJob.Phase.DONE, last.phase());
+        assertEquals(10, job.result().get("totalPlannings"));
+    }
+
+    @Test
+    void lateSubscriberGetsCurrentStateFirst() {
+        PlanningJob job = new PlanningJob("J2", "edf", Map.of(), Runnable::run);
+        job.start();
+        job.phase(PlanningJob.Phase.COMMITTING, "Writing");
+        job.progress(2, 4, "Committed 2/4 rows");
+
+        List<JobEvent> events = new ArrayList<>();
+        job.subscribe(events::add);
+        assertEquals(1, events.size());
+        assertEquals("status", events.get(0).type());
+        assertEquals(PlanningJob.Phase.COMMITTING, events.get(0).phase());
+        assertEquals(2, events.get(0).done());
+
+        job.fail("boom");
+        List<JobEvent> afterDone = new ArrayList<>();
+        job.subscribe(afterDone::add);
+        assertEquals(1, afterDone.size());
+        assertTrue(afterDone.get(0).isTerminal());
+        assertEquals(PlanningJob.Status.FAILED, afterDone.get(0).status());
+    }
+
+    @Test
+    void cancellingAQueuedJobFinishesItAtOnce() {
+        PlanningJob job = new PlanningJob("J3", "edf", Map.of(), Runnable::run);
+        job.attach(new CompletableFuture<>());
+
+        assertTrue(job.requestCancel());
+        assertEquals(PlanningJob.Status.CANCELLED, job.status());
+        assertFalse(job.start());
+        assertFalse(job.requestCancel());
+        assertNull(job.result());
+    }
+
+    @Test
+    void runningJobStopsAtTheNextCheck() {
+        PlanningJob job = new PlanningJob("J4", "edf", Map.of(), Runnable::run);
+        job.start();
+        job.checkCancelled();
+
+        assertTrue(job.requestCancel());
+        assertEquals(PlanningJob.Status.RUNNING, job.status());
+        assertThrows(CancellationException.class, job::checkCancelled);
+        job.cancelled("Cancelled");
+        assertEquals(PlanningJob.Status.CANCELLED, job.status());
+    }
+
+    @Test
+    void progressIsThrottledButTheLastStepIsSent() {
+        PlanningJob job = new PlanningJob("J5", "edf", Map.of(), Runnable::run);
+        job.start();
+        job.phase(PlanningJob.Phase.COMMITTING, "Writing");
+        List<JobEvent> events = new ArrayList<>();
+        job.subscribe(events::add);
+        events.clear();
+
+        for (int i = 1; i <= 1000; i++) {
+            job.progress(i, 1000, "Committed " + i + "/1000 rows");
+        }
+
+        assertTrue(events.size() < 1000, events.size() + " progress events");
+        assertEquals(1000, events.get(events.size() - 1).done());
+    }
+
+    @Test
+    void failingListenerIsDropped() {
+        PlanningJob job = new PlanningJob("J6", "edf", Map.of(), Runnable::run);
+        List<JobEvent> events = new ArrayList<>();
+        job.subscribe(event -> {
+            if (!"status".equals(event.type())) {
+                throw new IllegalStateException("client gone");
+            }
+        });
+        job.subscribe(events::add);
+
+        job.start();
+        job.phase(PlanningJob.Phase.LOADING, "Loading backlog");
+        job.succeed(Map.of(), "Planned");
+
+        assertEquals(List.of("status", "status", "phase", "done"),
+                events.stream().map(JobEvent::type).toList());
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWithoutStallingTheJob() {
+        ArrayDeque<Runnable> pending = new ArrayDeque<>();
+        PlanningJob job = new PlanningJob("J7", "edf", Map.of(), pending::add);
+        List<JobEvent> slow = new ArrayList<>();
+        job.subscribe(slow::add);
+        job.start();
+
+        // Nothing delivered yet: every event waits in the subscriber's queue
+        for (int i = 0; i < PlanningJob.SUBSCRIBER_QUEUE_CAPACITY; i++) {
+            job.phase(PlanningJob.Phase.ASSIGNING, "Assigning " + i);
+        }
+        assertTrue(slow.isEmpty());
+        assertEquals(1, pending.size());
+
+        job.succeed(Map.of(), "Planned");
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+
+        JobEvent last = slow.get(slow.size() - 1);
+        assertEquals(1, slow.size());
+        assertEquals(JobEvent.DROPPED, last.type());
+        assertTrue(last.isTerminal());
+        assertEquals(PlanningJob.Status.SUCCEEDED, job.status());
+
+        List<JobEvent> again = new ArrayList<>();
+        job.subscribe(again::add);
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+        assertEquals(List.of("done"), again.stream().map(JobEvent::type).toList());
+    }
+}
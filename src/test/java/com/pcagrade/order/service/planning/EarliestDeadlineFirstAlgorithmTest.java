@@ -0,0 +1,89 @@
+package com.pcagrade.order.service.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pcagrade.order.service.planning.PlanningFixtures.MONDAY;
+import static com.pcagrade.order.service.planning.PlanningFixtures.snapshot;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EarliestDeadlineFirstAlgorithmTest {
+
+    @Test
+    void urgentOrderDoesNotWaitBehindBulkOrders() {
+        List<PlanningSnapshot.Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(task("C" + i, DeadlineCode.C, 240));
+        }
+        tasks.add(task("X0", DeadlineCode.X, 60));
+        PlanningSnapshot snapshot = snapshot(tasks, 2);
+
+        List<PlanningAssignment> assignments = new EarliestDeadlineFirstAlgorithm().plan(snapshot);
+
+        PlanningAssignment urgent = assignments.stream().filter(a -> a.orderId().equals("X0")).findFirst().orElseThrow();
+        assertEquals(MONDAY.atTime(PlanningSnapshot.DEFAULT_DAY_START), urgent.startTime());
+        assertEquals("X0", assignments.get(0).orderId());
+    }
+
+    @Test
+    void priorityBreaksTiesBetweenEqualDueDates() {
+        List<PlanningSnapshot.Task> tasks = List.of(
+                new PlanningSnapshot.Task("LOW", "1", 10, 30, "LOW", MONDAY),
+                new PlanningSnapshot.Task("URGENT", "2", 10, 30, "URGENT", MONDAY),
+                new PlanningSnapshot.Task("NONE", "3", 10, 30, "URGENT", null));
+
+        List<PlanningAssignment> assignments = new EarliestDeadlineFirstAlgorithm().plan(snapshot(tasks, 1));
+
+        assertEquals(List.of("URGENT", "LOW", "NONE"),
+                assignments.stream().map(PlanningAssignment::orderId).toList());
+    }
+
+    @Test
+    void edfHasNoMoreLatenessThanRoundRobin() {
+        List<PlanningSnapshot.Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(task("C" + i, DeadlineCode.C, 300));
+        }
+        for (int i = 0; i < 10; i++) {
+            tasks.add(task("X" + i, DeadlineCode.X, 120));
+        }
+        PlanningSnapshot snapshot = snapshot(tasks, 2);
+
+        PlanningMetrics edf = PlanningMetrics.evaluate(snapshot, new EarliestDeadlineFirstAlgorithm().plan(snapshot));
+        PlanningMetrics roundRobin = PlanningMetrics.evaluate(snapshot, new RoundRobinAlgorithm().plan(snapshot));
+
+        assertEquals(0, edf.lateOrders());
+        assertTrue(roundRobin.lateOrders() > 0);
+    }
+
+    @Test
+    void latenessIsReportedPerOrder() {
+        PlanningSnapshot snapshot = snapshot(List.of(
+                new PlanningSnapshot.Task("O0", "0", 160, 480, "MEDIUM", MONDAY),
+                new PlanningSnapshot.Task("O1", "1", 20, 60, "MEDIUM", MONDAY)), 1);
+
+        List<PlanningMetrics.Lateness> lateness = PlanningMetrics.lateness(snapshot,
+                new EarliestDeadlineFirstAlgorithm().plan(snapshot));
+
+        assertEquals(2, lateness.size());
+        assertEquals(0, lateness.get(0).minutesLate());
+        assertTrue(lateness.get(1).isLate());
+        assertEquals(MONDAY, lateness.get(1).dueDate());
+    }
+
+    @Test
+    void deadlineCodesMapToDueDates() {
+        assertEquals(MONDAY.plusDays(2), DeadlineCode.fromCode("X").dueDate(MONDAY));
+        assertEquals(DeadlineCode.F_PLUS, DeadlineCode.fromCode("F+"));
+        assertEquals(DeadlineCode.E, DeadlineCode.fromCode("?"));
+        assertEquals(DeadlineCode.E, DeadlineCode.fromCode(null));
+        assertEquals(5, PlannableOrder.rankOf("C"));
+    }
+
+    private static PlanningSnapshot.Task task(String id, DeadlineCode code, int minutes) {
+        return new PlanningSnapshot.Task(id, id, minutes / 3, minutes, code.priority(), code.dueDate(MONDAY));
+    }
+}
@@ -0,0 +1,106 @@
+package com.pcagrade.order.service.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeCalendarTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+    private static final LocalTime START = LocalTime.of(9, 0);
+    private static final LocalTime END = LocalTime.of(17, 0);
+
+    @Test
+    void packsTasksBackToBackInsideTheDay() {
+        EmployeeCalendar calendar = new EmployeeCalendar(MONDAY, START, END, 480, 0, true);
+
+        assertEquals(MONDAY.atTime(9, 0), single(calendar.allocate(60, MONDAY.atStartOfDay(), false)).start());
+        assertEquals(MONDAY.atTime(10, 0), single(calendar.allocate(60, MONDAY.atStartOfDay(), false)).start());
+    }
+
+    @Test
+    void keepsBreakBetweenTasks() {
+        EmployeeCalendar calendar = new EmployeeCalendar(MONDAY, START, END, 480, 15, true);
+
+        calendar.allocate(60, MONDAY.atStartOfDay(), false);
+        assertEquals(MONDAY.atTime(10, 15), single(calendar.allocate(30, MONDAY.atStartOfDay(), false)).start());
+    }
+
+    @Test
+    void neverRunsPastEndOfDayAndSkipsWeekend() {
+        LocalDate friday = LocalDate.of(2025, 6, 6);
+        EmployeeCalendar calendar = new EmployeeCalendar(friday, START, END, 480, 0, true);
+
+        calendar.allocate(450, friday.atStartOfDay(), false);
+        EmployeeCalendar.Segment next = single(calendar.allocate(60, friday.atStartOfDay(), false));
+
+        assertEquals(LocalDate.of(2025, 6, 9).atTime(9, 0), next.start());
+        assertFalse(next.end().toLocalTime().isAfter(END));
+    }
+
+    @Test
+    void honoursDailyCapacityBelowWindow() {
+        EmployeeCalendar calendar = new EmployeeCalendar(MONDAY, START, END, 240, 0, true);
+
+        calendar.allocate(100, MONDAY.atStartOfDay(), false);
+        calendar.allocate(100, MONDAY.atStartOfDay(), false);
+        EmployeeCalendar.Segment third = single(calendar.allocate(100, MONDAY.atStartOfDay(), false));
+
+        assertEquals(MONDAY.plusDays(1).atTime(9, 0), third.start());
+        assertEquals(200, calendar.reservedMinutes(MONDAY));
+    }
+
+    @Test
+    void splitsTaskLongerThanADay() {
+        EmployeeCalendar calendar = new EmployeeCalendar(MONDAY, START, END, 480, 0, true);
+
+        List<EmployeeCalendar.Segment> segments = calendar.allocate(600, MONDAY.atStartOfDay(), false);
+
+        assertEquals(2, segments.size());
+        assertEquals(480, segments.get(0).minutes());
+        assertEquals(MONDAY.plusDays(1).atTime(9, 0), segments.get(1).start());
+        assertEquals(120, segments.get(1).minutes());
+    }
+
+    @Test
+    void fillsEarlierGapWhenNotBeforeAllows() {
+        EmployeeCalendar calendar = new EmployeeCalendar(MONDAY, START, END, 480, 0, true);
+
+        calendar.allocate(60, MONDAY.atTime(11, 0), false);
+        assertEquals(MONDAY.atTime(9, 0), calendar.nextFreeSlot(MONDAY.atStartOfDay(), 120));
+        assertEquals(MONDAY.atTime(12, 0), calendar.nextFreeSlot(MONDAY.atTime(10, 0), 120));
+    }
+
+    @Test
+    void growsHorizonOverMonths() {
+        EmployeeCalendar calendar = new EmployeeCalendar(MONDAY, START, END, 480, 0, true);
+
+        LocalDateTime last = null;
+        for (int i = 0; i < 500; i++) {
+            last = single(calendar.allocate(480, MONDAY.atStartOfDay(), false)).start();
+        }
+
+        // 500 working days = 100 weeks
+        assertEquals(MONDAY.plusWeeks(99).plusDays(4).atTime(9, 0), last);
+        assertTrue(last.getDayOfWeek().getValue() <= 5);
+    }
+
+    @Test
+    void rejectsWindowShorterThanOneSlot() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EmployeeCalendar(MONDAY, START, START.plusMinutes(4), 480, 0, true));
+    }
+
+    private static EmployeeCalendar.Segment single(List<EmployeeCalendar.Segment> segments) {
+        assertEquals(1, segments.size());
+        return segments.get(0);
+    }
+}
@@ -0,0 +1,152 @@
+package com.pcagrade.order.service.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.pcagrade.order.service.planning.PlanningFixtures.MONDAY;
+import static com.pcagrade.order.service.planning.PlanningFixtures.snapshot;
+import static com.pcagrade.order.service.planning.PlanningFixtures.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalPlannerTest {
+
+    private static final LocalDateTime NOW = MONDAY.atTime(8, 0);
+
+    @Test
+    void addsNewOrderAfterExistingWorkWithoutTouchingIt() {
+        List<PlanningAssignment> schedule = List.of(
+                row("P1", "O1", "E0", MONDAY.atTime(9, 0), 120, "SCHEDULED"));
+
+        IncrementalPlanner.Result result = IncrementalPlanner.apply(
+                snapshot(List.of(task("O2", 60)), 1), schedule, Set.of(), NOW);
+
+        assertEquals(1, result.inserted().size());
+        assertEquals(MONDAY.atTime(11, 0), result.inserted().get(0).startTime());
+        assertTrue(result.moved().isEmpty());
+        assertTrue(result.deletedIds().isEmpty());
+    }
+
+    @Test
+    void removedOrderFreesSlotAndLaterTasksMoveForward() {
+        List<PlanningAssignment> schedule = List.of(
+                row("P1", "O1", "E0", MONDAY.atTime(9, 0), 60, "SCHEDULED"),
+                row("P2", "O2", "E0", MONDAY.atTime(10, 0), 60, "SCHEDULED"),
+                row("P3", "O3", "E0", MONDAY.atTime(11, 0), 60, "SCHEDULED"));
+
+        IncrementalPlanner.Result result = IncrementalPlanner.apply(
+                snapshot(List.of(), 1), schedule, Set.of("O1"), NOW);
+
+        assertEquals(List.of("P1"), result.deletedIds());
+        assertEquals(2, result.moved().size());
+        assertEquals(MONDAY.atTime(9, 0), result.moved().get(0).startTime());
+        assertEquals(MONDAY.atTime(10, 0), result.moved().get(1).startTime());
+    }
+
+    @Test
+    void startedWorkIsNeverDeletedNorMoved() {
+        LocalDateTime now = MONDAY.atTime(10, 30);
+        List<PlanningAssignment> schedule = List.of(
+                row("P1", "O1", "E0", MONDAY.atTime(9, 0), 120, "IN_PROGRESS"),
+                row("P2", "O2", "E0", MONDAY.atTime(13, 0), 60, "SCHEDULED"));
+
+        IncrementalPlanner.Result result = IncrementalPlanner.apply(
+                snapshot(List.of(), 1), schedule, Set.of("O1"), now);
+
+        assertTrue(result.deletedIds().isEmpty());
+        assertTrue(result.moved().isEmpty());
+    }
+
+    @Test
+    void newOrderGoesToLeastLoadedEmployeeAndAlreadyPlannedOrdersAreSkipped() {
+        List<PlanningAssignment> schedule = List.of(
+                row("P1", "O1", "E0", MONDAY.atTime(9, 0), 240, "SCHEDULED"),
+                row("P2", "O2", "E1", MONDAY.atTime(9, 0), 60, "SCHEDULED"));
+
+        IncrementalPlanner.Result result = IncrementalPlanner.apply(
+                snapshot(List.of(task("O1", 30), task("O3", 30)), 2), schedule, Set.of(), NOW);
+
+        assertEquals(1, result.inserted().size());
+        assertEquals("O3", result.inserted().get(0).orderId());
+        assertEquals("E1", result.inserted().get(0).employeeId());
+        assertEquals(MONDAY.atTime(10, 0), result.inserted().get(0).startTime());
+    }
+
+    @Test
+    void changedOrderIsReplacedWithItsNewDuration() {
+        List<PlanningAssignment> schedule = List.of(
+                row("P1", "O1", "E0", MONDAY.atTime(9, 0), 60, "SCHEDULED"));
+
+        IncrementalPlanner.Result result = IncrementalPlanner.apply(
+                snapshot(List.of(task("O1", 90)), 1), schedule, Set.of("O1"), NOW);
+
+        assertEquals(List.of("P1"), result.deletedIds());
+        assertEquals(1, result.inserted().size());
+        assertEquals(90, result.inserted().get(0).durationMinutes());
+        assertEquals(MONDAY.atTime(9, 0), result.inserted().get(0).startTime());
+    }
+
+    @Test
+    void changedOrderPartlyStartedKeepsStartedRowsAndReplacesTheRest() {
+        LocalDateTime now = MONDAY.atTime(10, 30);
+        List<PlanningAssignment> schedule = List.of(
+                row("P1", "O1", "E0", MONDAY.atTime(9, 0), 60, "IN_PROGRESS"),
+                row("P2", "O1", "E0", MONDAY.atTime(11, 0), 60, "SCHEDULED"));
+
+        IncrementalPlanner.Result result = IncrementalPlanner.apply(
+                snapshot(List.of(task("O1", 150)), 1), schedule, Set.of("O1"), now);
+
+        assertEquals(List.of("P2"), result.deletedIds());
+        assertEquals(1, result.inserted().size());
+        assertEquals("O1", result.inserted().get(0).orderId());
+        assertEquals(90, result.inserted().get(0).durationMinutes());
+        assertEquals(30, result.inserted().get(0).cardCount());
+    }
+
+    @Test
+    void rowLongerThanADayIsNotCompacted() {
+        List<PlanningAssignment> schedule = List.of(
+                row("P1", "O1", "E0", MONDAY.atTime(9, 0), 60, "SCHEDULED"),
+                row("P2", "O2", "E0", MONDAY.plusDays(1).atTime(8, 0), 600, "SCHEDULED"));
+
+        IncrementalPlanner.Result result = IncrementalPlanner.apply(
+                snapshot(List.of(), 1), schedule, Set.of("O1"), NOW);
+
+        assertEquals(List.of("P1"), result.deletedIds());
+        assertTrue(result.moved().isEmpty());
+    }
+
+    @Test
+    void orderWithRowsOutsideTheHorizonIsNotPlannedAgain() {
+        // O1 only has a row on an earlier day, or a COMPLETED one: the schedule does not show it
+        IncrementalPlanner.Result result = IncrementalPlanner.apply(
+                snapshot(List.of(task("O1", 60), task("O2", 60)), 1), List.of(), Set.of(),
+                Map.of("O1", 60), NOW);
+
+        assertEquals(List.of("O2"), result.inserted().stream().map(PlanningAssignment::orderId).toList());
+    }
+
+    @Test
+    void changedOrderSubtractsRowsOutsideTheHorizon() {
+        List<PlanningAssignment> schedule = List.of(
+                row("P2", "O1", "E0", MONDAY.atTime(9, 0), 60, "SCHEDULED"));
+
+        // 90 more minutes were done on earlier days
+        IncrementalPlanner.Result result = IncrementalPlanner.apply(
+                snapshot(List.of(task("O1", 180)), 1), schedule, Set.of("O1"), Map.of("O1", 150), NOW);
+
+        assertEquals(List.of("P2"), result.deletedIds());
+        assertEquals(1, result.inserted().size());
+        assertEquals(90, result.inserted().get(0).durationMinutes());
+    }
+
+    private static PlanningAssignment row(String id, String orderId, String employeeId,
+                                          LocalDateTime start, int minutes, String status) {
+        return new PlanningAssignment(id, orderId, employeeId, start.toLocalDate(), start, minutes,
+                "MEDIUM", status, minutes / 3, null);
+    }
+}
@@ -0,0 +1,100 @@
+package com.pcagrade.order.service.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.pcagrade.order.service.planning.PlanningFixtures.MONDAY;
+import static com.pcagrade.order.service.planning.PlanningFixtures.snapshot;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalSearchOptimizerTest {
+
+    @Test
+    void improvesARoundRobinScheduleWithinBudget() throws Exception {
+        PlanningSnapshot snapshot = skewedSnapshot();
+        List<PlanningAssignment> initial = new RoundRobinAlgorithm().plan(snapshot);
+
+        LocalSearchOptimizer.Result result = optimize(snapshot, initial, 2);
+
+        assertTrue(result.improved());
+        assertTrue(result.finalCost() < result.initialCost());
+        assertEquals(result.finalCost(), LocalSearchOptimizer.cost(snapshot, result.assignments()));
+        assertTrue(PlanningMetrics.evaluate(snapshot, result.assignments()).lateOrders()
+                < PlanningMetrics.evaluate(snapshot, initial).lateOrders());
+    }
+
+    @Test
+    void everyTaskIsStillPlannedOnce() throws Exception {
+        PlanningSnapshot snapshot = skewedSnapshot();
+
+        LocalSearchOptimizer.Result result = optimize(snapshot, new RoundRobinAlgorithm().plan(snapshot), 2);
+
+        Set<String> orders = new HashSet<>();
+        for (PlanningAssignment assignment : result.assignments()) {
+            assertTrue(orders.add(assignment.orderId()), "order planned twice: " + assignment.orderId());
+        }
+        assertEquals(snapshot.tasks().size(), orders.size());
+    }
+
+    @Test
+    void keepsTheStartWhenNothingBetterIsFound() throws Exception {
+        PlanningSnapshot snapshot = snapshot(
+                List.of(new PlanningSnapshot.Task("O0", "0", 20, 60, "MEDIUM", MONDAY),
+                        new PlanningSnapshot.Task("O1", "1", 20, 60, "MEDIUM", MONDAY)), 2);
+        List<PlanningAssignment> initial = new LeastLoadedAlgorithm().plan(snapshot);
+
+        LocalSearchOptimizer.Result result = optimize(snapshot, initial, 1);
+
+        assertFalse(result.improved());
+        assertEquals(initial, result.assignments());
+    }
+
+    @Test
+    void readsBackOneSequencePerWorkerInStartOrder() {
+        PlanningSnapshot snapshot = skewedSnapshot();
+        PlanningModel model = PlanningModel.of(snapshot);
+
+        int[][] sequences = LocalSearchOptimizer.sequences(model, new RoundRobinAlgorithm().plan(snapshot));
+
+        assertEquals(2, sequences.length);
+        assertEquals(0, sequences[0][0]);
+        // X0 (task 8) fills Monday afternoon, before C2 which only fits on Tuesday
+        assertEquals(8, sequences[0][1]);
+        assertEquals(2, sequences[0][2]);
+        assertEquals(1, sequences[1][0]);
+        assertEquals(snapshot.tasks().size(), sequences[0].length + sequences[1].length);
+    }
+
+    /**
+     * Bulk orders first, urgent ones last: round-robin makes the urgent ones late
+     */
+    private static PlanningSnapshot skewedSnapshot() {
+        List<PlanningSnapshot.Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(new PlanningSnapshot.Task("C" + i, "C" + i, 100, 300, "LOW", MONDAY.plusDays(30)));
+        }
+        for (int i = 0; i < 8; i++) {
+            tasks.add(new PlanningSnapshot.Task("X" + i, "X" + i, 40, 120, "URGENT", MONDAY.plusDays(1)));
+        }
+        return snapshot(tasks, 2);
+    }
+
+    private static LocalSearchOptimizer.Result optimize(PlanningSnapshot snapshot, List<PlanningAssignment> initial,
+                                                        int restarts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(restarts);
+        try {
+            return LocalSearchOptimizer.optimize(snapshot, initial,
+                    new LocalSearchOptimizer.Options(500, restarts, 20_000, 42L), executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
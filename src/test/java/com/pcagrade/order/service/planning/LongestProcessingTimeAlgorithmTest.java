@@ -0,0 +1,56 @@
+package com.pcagrade.order.service.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.pcagrade.order.service.planning.PlanningFixtures.MONDAY;
+import static com.pcagrade.order.service.planning.PlanningFixtures.snapshot;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongestProcessingTimeAlgorithmTest {
+
+    @Test
+    void reachesTheLowerBoundWhereRoundRobinDoesNot() {
+        PlanningSnapshot snapshot = snapshot(new int[]{240, 180, 180, 120}, 2);
+
+        PlanningMetrics lpt = PlanningMetrics.evaluate(snapshot, new LongestProcessingTimeAlgorithm().plan(snapshot));
+        PlanningMetrics roundRobin = PlanningMetrics.evaluate(snapshot, new RoundRobinAlgorithm().plan(snapshot));
+
+        assertEquals(360, lpt.loadLowerBoundMinutes());
+        assertEquals(360, lpt.maxLoadMinutes());
+        assertEquals(1.0, lpt.lowerBoundRatio());
+        assertEquals(420, roundRobin.maxLoadMinutes());
+        assertTrue(roundRobin.lowerBoundRatio() > 1.0);
+    }
+
+    @Test
+    void bigOrdersAreSpreadBeforeSmallOnes() {
+        int[] durations = new int[10];
+        for (int i = 0; i < 5; i++) {
+            durations[i] = 600;     // 200 cards
+            durations[i + 5] = 10;  // 3 cards
+        }
+        PlanningSnapshot snapshot = snapshot(durations, 2);
+
+        PlanningMetrics lpt = PlanningMetrics.evaluate(snapshot, new LongestProcessingTimeAlgorithm().plan(snapshot));
+
+        assertEquals(1800, lpt.maxLoadMinutes());
+        assertEquals(1250, lpt.minLoadMinutes());
+    }
+
+    @Test
+    void ordersTasksByDecreasingDurationThenLoadedOrder() {
+        PlanningModel model = PlanningModel.of(snapshot(new int[]{60, 120, 60, 180}, 1));
+
+        assertArrayEquals(new int[]{3, 1, 0, 2}, LongestProcessingTimeAlgorithm.longestFirst(model));
+    }
+
+    @Test
+    void lowerBoundIsAtLeastTheLongestTask() {
+        assertEquals(600, PlanningMetrics.loadLowerBound(snapshot(new int[]{600, 30, 30}, 3)));
+        assertEquals(0, PlanningMetrics.loadLowerBound(snapshot(new int[]{60}, 0)));
+    }
+}
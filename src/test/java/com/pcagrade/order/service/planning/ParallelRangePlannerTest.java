@@ -0,0 +1,98 @@
+package com.pcagrade.order.service.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.pcagrade.order.service.planning.PlanningFixtures.MONDAY;
+import static com.pcagrade.order.service.planning.PlanningFixtures.workers;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelRangePlannerTest {
+
+    @Test
+    void resultDoesNotDependOnParallelism() {
+        PlanningSnapshot snapshot = snapshot(7);
+        List<List<PlanningSnapshot.Task>> tasksByDay = tasksByDay(20, 40);
+
+        List<PlanningAssignment> sequential = ParallelRangePlanner.plan(snapshot, tasksByDay, new ForkJoinPool(1));
+        List<PlanningAssignment> parallel = ParallelRangePlanner.plan(snapshot, tasksByDay, new ForkJoinPool(4));
+
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            PlanningAssignment a = sequential.get(i);
+            PlanningAssignment b = parallel.get(i);
+            assertEquals(a.orderId(), b.orderId());
+            assertEquals(a.employeeId(), b.employeeId());
+            assertEquals(a.startTime(), b.startTime());
+            assertEquals(a.durationMinutes(), b.durationMinutes());
+        }
+    }
+
+    @Test
+    void dayTasksStartOnOrAfterTheirDayAndNeverOverlap() {
+        PlanningSnapshot snapshot = snapshot(3);
+        List<List<PlanningSnapshot.Task>> tasksByDay = tasksByDay(10, 12);
+
+        List<PlanningAssignment> assignments = ParallelRangePlanner.plan(snapshot, tasksByDay, ForkJoinPool.commonPool());
+
+        Map<String, LocalDate> dayOfOrder = new HashMap<>();
+        for (int day = 0; day < tasksByDay.size(); day++) {
+            for (PlanningSnapshot.Task task : tasksByDay.get(day)) {
+                dayOfOrder.put(task.orderId(), MONDAY.plusDays(day));
+            }
+        }
+
+        Map<String, List<PlanningAssignment>> byEmployee = new HashMap<>();
+        for (PlanningAssignment assignment : assignments) {
+            assertFalse(assignment.planningDate().isBefore(dayOfOrder.get(assignment.orderId())));
+            byEmployee.computeIfAbsent(assignment.employeeId(), k -> new ArrayList<>()).add(assignment);
+        }
+        for (List<PlanningAssignment> rows : byEmployee.values()) {
+            rows.sort(Comparator.comparing(PlanningAssignment::startTime));
+            LocalDateTime previousEnd = null;
+            for (PlanningAssignment row : rows) {
+                assertTrue(previousEnd == null || !row.startTime().isBefore(previousEnd));
+                previousEnd = row.endTime();
+            }
+        }
+    }
+
+    @Test
+    void rotationRestartsEveryDay() {
+        PlanningSnapshot snapshot = snapshot(3);
+        List<List<PlanningSnapshot.Task>> tasksByDay = tasksByDay(2, 2);
+
+        List<PlanningAssignment> assignments = ParallelRangePlanner.plan(snapshot, tasksByDay, ForkJoinPool.commonPool());
+
+        assertEquals(List.of("E0", "E1", "E0", "E1"),
+                assignments.stream().map(PlanningAssignment::employeeId).toList());
+    }
+
+    private static PlanningSnapshot snapshot(int employees) {
+        return PlanningSnapshot.of(MONDAY, List.of(), workers(employees));
+    }
+
+    private static List<List<PlanningSnapshot.Task>> tasksByDay(int days, int perDay) {
+        List<List<PlanningSnapshot.Task>> tasksByDay = new ArrayList<>();
+        int n = 0;
+        for (int day = 0; day < days; day++) {
+            List<PlanningSnapshot.Task> tasks = new ArrayList<>();
+            for (int i = 0; i < perDay; i++, n++) {
+                int cards = 5 + (n * 13) % 120;
+                tasks.add(new PlanningSnapshot.Task("O" + n, String.valueOf(n), cards, 30 + cards * 3, "MEDIUM", null));
+            }
+            tasksByDay.add(tasks);
+        }
+        return tasksByDay;
+    }
+}
@@ -0,0 +1,60 @@
+package com.pcagrade.order.service.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PlannableOrderTest {
+
+    private static final LocalDate JUNE_1 = LocalDate.of(2025, 6, 1);
+
+    @Test
+    void selectsOrdersFromDateSortedByDeadlineThenDate() {
+        List<PlannableOrder> orders = List.of(
+                order("A", JUNE_1.plusDays(1), "C"),
+                order("B", JUNE_1.plusDays(3), "X"),
+                order("C", JUNE_1.minusDays(1), "X"),
+                order("D", JUNE_1, "X"),
+                order("E", null, "X"));
+
+        List<PlannableOrder> selected = PlannableOrder.select(orders, JUNE_1, PlannableOrder.BY_DEADLINE);
+
+        assertEquals(List.of("D", "B", "A"), selected.stream().map(PlannableOrder::orderId).toList());
+    }
+
+    @Test
+    void byDateIgnoresDeadline() {
+        List<PlannableOrder> orders = List.of(
+                order("A", JUNE_1.plusDays(2), "X"),
+                order("B", JUNE_1, "C"));
+
+        List<PlannableOrder> selected = PlannableOrder.select(orders, JUNE_1, PlannableOrder.BY_DATE);
+
+        assertEquals(List.of("B", "A"), selected.stream().map(PlannableOrder::orderId).toList());
+    }
+
+    @Test
+    void ranksFastTrackBeforeFast() {
+        assertEquals(List.of(1, 2, 3, 4, 5, 4), List.of(
+                PlannableOrder.rankOf("X"), PlannableOrder.rankOf("F+"), PlannableOrder.rankOf("F"),
+                PlannableOrder.rankOf("E"), PlannableOrder.rankOf("C"), PlannableOrder.rankOf(null)));
+    }
+
+    @Test
+    void rescalesDurationForAnotherTimePerCard() {
+        PlannableOrder order = order("A", JUNE_1, "E");
+
+        assertSame(order.task(), order.task(3));
+        assertEquals(50, order.task(5).durationMinutes());
+        assertEquals(10, order.task(5).cardCount());
+    }
+
+    private static PlannableOrder order(String id, LocalDate date, String delai) {
+        PlanningSnapshot.Task task = new PlanningSnapshot.Task(id, "N" + id, 10, 30, "MEDIUM", null);
+        return new PlannableOrder(task, date, PlannableOrder.rankOf(delai), 3);
+    }
+}
@@ -0,0 +1,96 @@
+package com.pcagrade.order.service.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.pcagrade.order.service.planning.PlanningFixtures.MONDAY;
+import static com.pcagrade.order.service.planning.PlanningFixtures.snapshot;
+import static com.pcagrade.order.service.planning.PlanningFixtures.workers;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanningAlgorithmsTest {
+
+    @Test
+    void roundRobinRotatesOverEmployees() {
+        PlanningSnapshot snapshot = snapshot(new int[]{60, 60, 60, 60}, 2);
+
+        List<PlanningAssignment> assignments = new RoundRobinAlgorithm().plan(snapshot);
+
+        assertEquals(List.of("E0", "E1", "E0", "E1"),
+                assignments.stream().map(PlanningAssignment::employeeId).toList());
+    }
+
+    @Test
+    void leastLoadedBalancesUnevenTasks() {
+        // A long task first: round-robin keeps feeding employee 0, least-loaded does not
+        PlanningSnapshot snapshot = snapshot(new int[]{240, 60, 60, 60, 60}, 2);
+
+        PlanningMetrics roundRobin = PlanningMetrics.evaluate(snapshot, new RoundRobinAlgorithm().plan(snapshot));
+        PlanningMetrics leastLoaded = PlanningMetrics.evaluate(snapshot, new LeastLoadedAlgorithm().plan(snapshot));
+
+        assertEquals(360, roundRobin.maxLoadMinutes());
+        assertEquals(240, leastLoaded.maxLoadMinutes());
+        assertEquals(1.0, leastLoaded.loadImbalance());
+        assertTrue(leastLoaded.makespanMinutes() < roundRobin.makespanMinutes());
+    }
+
+    @Test
+    void everyOrderIsPlannedExactlyOnce() {
+        int[] durations = new int[200];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = 15 + (i * 37) % 300;
+        }
+        PlanningSnapshot snapshot = snapshot(durations, 7);
+
+        for (PlanningAlgorithm algorithm : List.of(new RoundRobinAlgorithm(), new LeastLoadedAlgorithm())) {
+            List<PlanningAssignment> assignments = algorithm.plan(snapshot);
+            Set<String> orders = new HashSet<>();
+            int minutes = 0;
+            for (PlanningAssignment assignment : assignments) {
+                orders.add(assignment.orderId());
+                minutes += assignment.durationMinutes();
+            }
+            assertEquals(durations.length, orders.size(), algorithm.name());
+            assertEquals(PlanningMetrics.evaluate(snapshot, assignments).plannedOrders(), orders.size());
+            assertTrue(minutes >= sum(durations), algorithm.name());
+        }
+    }
+
+    @Test
+    void metricsReportLateOrders() {
+        List<PlanningSnapshot.Task> tasks = List.of(
+                new PlanningSnapshot.Task("O0", "0", 160, 480, "MEDIUM", MONDAY),
+                new PlanningSnapshot.Task("O1", "1", 20, 60, "URGENT", MONDAY));
+        PlanningSnapshot snapshot = PlanningSnapshot.of(MONDAY, tasks, workers(1));
+
+        PlanningMetrics metrics = PlanningMetrics.evaluate(snapshot, new RoundRobinAlgorithm().plan(snapshot));
+
+        // O1 only fits on Tuesday 9:00-10:00, due Monday 17:00
+        assertEquals(1, metrics.lateOrders());
+        assertEquals(17 * 60, metrics.maxLatenessMinutes());
+    }
+
+    @Test
+    void registryRejectsUnknownAndDuplicateNames() {
+        PlanningAlgorithmRegistry registry = new PlanningAlgorithmRegistry(
+                List.of(new RoundRobinAlgorithm(), new LeastLoadedAlgorithm()));
+
+        assertEquals(List.of(RoundRobinAlgorithm.NAME, LeastLoadedAlgorithm.NAME), registry.names());
+        assertThrows(IllegalArgumentException.class, () -> registry.get("simulated-annealing"));
+        assertThrows(IllegalStateException.class, () -> new PlanningAlgorithmRegistry(
+                List.of(new RoundRobinAlgorithm(), new RoundRobinAlgorithm())));
+    }
+
+    private static int sum(int[] values) {
+        int total = 0;
+        for (int value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
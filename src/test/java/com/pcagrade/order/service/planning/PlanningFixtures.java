@@ -0,0 +1,72 @@
+package com.pcagrade.order.service.planning;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshots shared by the planning tests: horizon from a Monday, default working window, no break
+ * Tasks "O0", "O1"... and workers "E0", "E1"... (8 h a day) unless a test builds its own.
+ */
+final class PlanningFixtures {
+
+    static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+
+    private PlanningFixtures() {
+    }
+
+    /**
+     * MEDIUM task without due date, 3 minutes per card
+     */
+    static PlanningSnapshot.Task task(String orderId, int minutes) {
+        return new PlanningSnapshot.Task(orderId, orderId, Math.max(1, minutes / 3), minutes, "MEDIUM", null);
+    }
+
+    /**
+     * Tasks "O0", "O1"... of these lengths, as {@link #task}
+     */
+    static List<PlanningSnapshot.Task> tasks(int... durations) {
+        List<PlanningSnapshot.Task> tasks = new ArrayList<>(durations.length);
+        for (int i = 0; i < durations.length; i++) {
+            tasks.add(new PlanningSnapshot.Task("O" + i, String.valueOf(i), Math.max(1, durations[i] / 3),
+                    durations[i], "MEDIUM", null));
+        }
+        return tasks;
+    }
+
+    static PlanningSnapshot.Worker worker(int index) {
+        return new PlanningSnapshot.Worker("E" + index, "Employee " + index, 8);
+    }
+
+    static List<PlanningSnapshot.Worker> workers(int count) {
+        List<PlanningSnapshot.Worker> workers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            workers.add(worker(i));
+        }
+        return workers;
+    }
+
+    /**
+     * One worker per skill mask
+     */
+    static List<PlanningSnapshot.Worker> skilledWorkers(int... skills) {
+        List<PlanningSnapshot.Worker> workers = new ArrayList<>(skills.length);
+        for (int i = 0; i < skills.length; i++) {
+            workers.add(new PlanningSnapshot.Worker("E" + i, "Employee " + i, 8, skills[i]));
+        }
+        return workers;
+    }
+
+    static PlanningSnapshot snapshot(List<PlanningSnapshot.Task> tasks, List<PlanningSnapshot.Worker> workers) {
+        return new PlanningSnapshot(MONDAY, PlanningSnapshot.DEFAULT_DAY_START, PlanningSnapshot.DEFAULT_DAY_END,
+                0, tasks, workers);
+    }
+
+    static PlanningSnapshot snapshot(List<PlanningSnapshot.Task> tasks, int employees) {
+        return snapshot(tasks, workers(employees));
+    }
+
+    static PlanningSnapshot snapshot(int[] durations, int employees) {
+        return snapshot(tasks(durations), workers(employees));
+    }
+}
@@ -0,0 +1,69 @@
+package com.pcagrade.order.service.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pcagrade.order.service.planning.PlanningFixtures.MONDAY;
+import static com.pcagrade.order.service.planning.PlanningFixtures.snapshot;
+import static com.pcagrade.order.service.planning.PlanningFixtures.worker;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlanningModelTest {
+
+    @Test
+    void columnsFollowTaskAndWorkerOrder() {
+        PlanningModel model = PlanningModel.of(threeOrders());
+
+        assertEquals(3, model.taskCount());
+        assertEquals(90, model.duration(1));
+        assertEquals(30, model.cards(1));
+        assertEquals("O2", model.orderId(2));
+        assertEquals(2, model.workerCount());
+        assertEquals(420, model.capacityMinutes(1));
+        assertEquals("E1", model.employeeId(1));
+        assertEquals(1, model.workerIndex("E1"));
+        assertEquals(-1, model.workerIndex("E9"));
+    }
+
+    @Test
+    void prioritiesAreDictionaryEncoded() {
+        PlanningModel model = PlanningModel.of(threeOrders());
+
+        assertEquals(model.priorityCode(0), model.priorityCode(2));
+        assertEquals("URGENT", model.priority(1));
+        assertEquals("MEDIUM", model.priority(2));
+    }
+
+    @Test
+    void missingDueDateSortsLast() {
+        PlanningModel model = PlanningModel.of(threeOrders());
+
+        assertEquals((int) MONDAY.toEpochDay(), model.dueDay(0));
+        assertEquals(PlanningModel.NO_DUE_DAY, model.dueDay(2));
+    }
+
+    @Test
+    void segmentsCarryIdsAndSplitCards() {
+        PlanningModel model = PlanningModel.of(threeOrders());
+        List<EmployeeCalendar.Segment> segments = model.newCalendar(0).allocate(60, model.horizonStart(), true);
+        List<PlanningAssignment> assignments = new ArrayList<>();
+
+        model.addSegments(assignments, 0, 1, segments);
+
+        assertEquals(1, assignments.size());
+        assertEquals("O0", assignments.get(0).orderId());
+        assertEquals("E1", assignments.get(0).employeeId());
+        assertEquals(20, assignments.get(0).cardCount());
+        assertEquals("MEDIUM", assignments.get(0).priority());
+    }
+
+    private static PlanningSnapshot threeOrders() {
+        List<PlanningSnapshot.Task> tasks = List.of(
+                new PlanningSnapshot.Task("O0", "0", 20, 60, "MEDIUM", MONDAY),
+                new PlanningSnapshot.Task("O1", "1", 30, 90, "URGENT", MONDAY.plusDays(1)),
+                new PlanningSnapshot.Task("O2", "2", 10, 30, "MEDIUM", null));
+        return snapshot(tasks, List.of(worker(0), new PlanningSnapshot.Worker("E1", "Employee 1", 7)));
+    }
+}
@@ -0,0 +1,86 @@
+package com.pcagrade.order.service.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pcagrade.order.service.planning.PlanningFixtures.MONDAY;
+import static com.pcagrade.order.service.planning.PlanningFixtures.skilledWorkers;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SkillAwareWorkloadsTest {
+
+    private static final int JAPANESE = Skill.ORIGINAL_NAME.bit();
+    private static final int JAPANESE_PHOTO = Skill.ORIGINAL_NAME.bit() | Skill.PHOTO.bit();
+
+    @Test
+    void picksTheLeastLoadedWorkerHavingTheSkills() {
+        // E0 none, E1 original names, E2 original names + photo
+        SkillAwareWorkloads workloads = new SkillAwareWorkloads(
+                PlanningModel.of(snapshot(List.of(), Skill.NONE, JAPANESE, JAPANESE_PHOTO)));
+
+        workloads.add(1, 120, null);
+        assertEquals(0, workloads.pick(Skill.NONE));
+        assertEquals(2, workloads.pick(JAPANESE));
+        assertEquals(2, workloads.pick(JAPANESE_PHOTO));
+
+        workloads.add(2, 240, null);
+        assertEquals(1, workloads.pick(JAPANESE));
+        assertEquals(2, workloads.pick(JAPANESE_PHOTO));
+    }
+
+    @Test
+    void heapsBuiltLaterStartFromTheCurrentWorkloads() {
+        SkillAwareWorkloads workloads = new SkillAwareWorkloads(
+                PlanningModel.of(snapshot(List.of(), JAPANESE, JAPANESE, Skill.NONE)));
+        workloads.add(0, 300, null);
+        workloads.add(2, 10, null);
+
+        assertEquals(1, workloads.pick(JAPANESE));
+        assertEquals(300, workloads.workload(0));
+    }
+
+    @Test
+    void fallsBackToAnyWorkerWhenNobodyHasTheSkills() {
+        SkillAwareWorkloads workloads = new SkillAwareWorkloads(
+                PlanningModel.of(snapshot(List.of(), Skill.NONE, Skill.NONE)));
+        workloads.add(0, 60, null);
+
+        assertEquals(1, workloads.pick(Skill.UNSEALING.bit()));
+    }
+
+    @Test
+    void algorithmsKeepOrdersOnQualifiedGraders() {
+        List<PlanningSnapshot.Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tasks.add(new PlanningSnapshot.Task("J" + i, "J" + i, 20, 60, "MEDIUM", MONDAY.plusDays(7), JAPANESE));
+            tasks.add(new PlanningSnapshot.Task("F" + i, "F" + i, 20, 60, "MEDIUM", MONDAY.plusDays(7)));
+        }
+        PlanningSnapshot snapshot = snapshot(tasks, Skill.NONE, JAPANESE, Skill.NONE);
+
+        for (PlanningAlgorithm algorithm : List.of(new RoundRobinAlgorithm(), new LeastLoadedAlgorithm(),
+                new LongestProcessingTimeAlgorithm(), new EarliestDeadlineFirstAlgorithm())) {
+            for (PlanningAssignment assignment : algorithm.plan(snapshot)) {
+                if (assignment.orderId().startsWith("J")) {
+                    assertEquals("E1", assignment.employeeId(), algorithm.name() + " " + assignment.orderId());
+                }
+            }
+        }
+    }
+
+    @Test
+    void skillBitsets() {
+        assertTrue(Skill.covers(JAPANESE_PHOTO, JAPANESE));
+        assertFalse(Skill.covers(JAPANESE, JAPANESE_PHOTO));
+        assertTrue(Skill.covers(Skill.NONE, Skill.NONE));
+        assertEquals(List.of(Skill.ORIGINAL_NAME, Skill.PHOTO), Skill.of(JAPANESE_PHOTO));
+        assertEquals(JAPANESE_PHOTO, Skill.mask(List.of(Skill.PHOTO, Skill.ORIGINAL_NAME)));
+    }
+
+    private static PlanningSnapshot snapshot(List<PlanningSnapshot.Task> tasks, int... skills) {
+        return PlanningFixtures.snapshot(tasks, skilledWorkers(skills));
+    }
+}
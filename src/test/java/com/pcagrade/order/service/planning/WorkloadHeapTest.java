@@ -0,0 +1,73 @@
+package com.pcagrade.order.service.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WorkloadHeapTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 6, 2, 9, 0);
+
+    @Test
+    void picksLeastLoadedEmployee() {
+        WorkloadHeap heap = new WorkloadHeap(3);
+        heap.add(0, 120, T0.plusMinutes(120));
+        heap.add(1, 30, T0.plusMinutes(30));
+        heap.add(2, 60, T0.plusMinutes(60));
+
+        assertEquals(1, heap.peek());
+    }
+
+    @Test
+    void breaksTiesByLastEndTimeThenIndex() {
+        WorkloadHeap heap = new WorkloadHeap(3);
+        heap.update(0, 60, T0.plusMinutes(90));
+        heap.update(1, 60, T0.plusMinutes(60));
+        heap.update(2, 60, T0.plusMinutes(60));
+
+        assertEquals(1, heap.peek());
+    }
+
+    @Test
+    void staysCorrectWhenWorkloadDecreases() {
+        WorkloadHeap heap = new WorkloadHeap(4);
+        for (int i = 0; i < 4; i++) {
+            heap.add(i, 100 + i, T0);
+        }
+        heap.update(3, 10, T0);
+
+        assertEquals(3, heap.peek());
+    }
+
+    @Test
+    void matchesLinearScanOnRandomUpdates() {
+        int size = 57;
+        WorkloadHeap heap = new WorkloadHeap(size);
+        long[] expected = new long[size];
+        Random random = new Random(42);
+
+        for (int step = 0; step < 5_000; step++) {
+            int index = random.nextBoolean() ? heap.peek() : random.nextInt(size);
+            long minutes = random.nextInt(200) - 50;
+            expected[index] = Math.max(0, expected[index] + minutes);
+            heap.update(index, expected[index], null);
+
+            int min = 0;
+            for (int i = 1; i < size; i++) {
+                if (expected[i] < expected[min]) {
+                    min = i;
+                }
+            }
+            assertEquals(expected[min], heap.workload(heap.peek()));
+        }
+    }
+
+    @Test
+    void emptyHeapRejectsPeek() {
+        assertThrows(IllegalStateException.class, () -> new WorkloadHeap(0).peek());
+    }
+}
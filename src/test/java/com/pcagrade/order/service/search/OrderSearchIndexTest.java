@@ -0,0 +1,84 @@
+package com.pcagrade.order.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderSearchIndexTest {
+
+    private static OrderSearchIndex.Entry entry(String id, String number, String customer) {
+        return new OrderSearchIndex.Entry(id, number, customer, "PENDING", "MEDIUM");
+    }
+
+    private static List<String> ids(OrderSearchIndex.Result result) {
+        return result.hits().stream().map(OrderSearchIndex.Hit::orderId).toList();
+    }
+
+    @Test
+    void findsTermAnywhereIgnoringCaseAndAccents() {
+        OrderSearchIndex index = new OrderSearchIndex();
+        index.put(entry("01", "CMD-1001", "Hélène Durand"));
+        index.put(entry("02", "CMD-1002", "Marc Leroy"));
+
+        assertEquals(List.of("01"), ids(index.search("HELENE", null, null, 0, 10)));
+        assertEquals(List.of("01"), ids(index.search("durand", null, null, 0, 10)));
+        assertEquals(List.of("02", "01"), ids(index.search("cmd-100", null, null, 0, 10)));
+        assertEquals(0, index.search("absent", null, null, 0, 10).total());
+    }
+
+    @Test
+    void ranksExactThenPrefixThenContains() {
+        OrderSearchIndex index = new OrderSearchIndex();
+        index.put(entry("01", "X-12345", "Alice"));
+        index.put(entry("02", "12345-B", "Bob"));
+        index.put(entry("03", "12345", "Carol"));
+
+        assertEquals(List.of("03", "02", "01"), ids(index.search("12345", null, null, 0, 10)));
+    }
+
+    @Test
+    void updateReplacesPreviousTextAndRemoveDropsOrder() {
+        OrderSearchIndex index = new OrderSearchIndex();
+        index.put(entry("01", "CMD-1", "Old Name"));
+        index.put(entry("01", "CMD-1", "New Name"));
+
+        assertEquals(0, index.search("old", null, null, 0, 10).total());
+        assertEquals(List.of("01"), ids(index.search("new", null, null, 0, 10)));
+        assertEquals(1, index.size());
+
+        index.remove("01");
+
+        assertEquals(0, index.search("name", null, null, 0, 10).total());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void shortTermsAndFiltersScanEntries() {
+        OrderSearchIndex index = new OrderSearchIndex();
+        index.put(entry("01", "A1", "Jo"));
+        index.put(new OrderSearchIndex.Entry("02", "A2", "Al", "COMPLETED", "HIGH"));
+
+        assertEquals(List.of("01"), ids(index.search("jo", null, null, 0, 10)));
+        assertEquals(List.of("02", "01"), ids(index.search("a", null, null, 0, 10)));
+        assertEquals(List.of("02"), ids(index.search("", "COMPLETED", null, 0, 10)));
+        assertEquals(List.of("01"), ids(index.search(null, null, "MEDIUM", 0, 10)));
+    }
+
+    @Test
+    void pagesKeepTotal() {
+        OrderSearchIndex index = new OrderSearchIndex();
+        for (int i = 10; i < 35; i++) {
+            index.put(entry(String.valueOf(i), "CMD-" + i, "Client"));
+        }
+
+        OrderSearchIndex.Result second = index.search("client", null, null, 10, 10);
+
+        assertEquals(25, second.total());
+        assertEquals(10, second.hits().size());
+        assertEquals("24", second.hits().get(0).orderId());
+        assertTrue(index.search("client", null, null, 30, 10).hits().isEmpty());
+    }
+}
@@ -0,0 +1,89 @@
+package com.pcagrade.order.service.workload;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkloadRegistryTest {
+
+    private static final String EMPLOYEE_ID = "0197A3B2C4D5E6F708192A3B4C5D6E7F";
+    private static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    @Test
+    void totalFollowsReplacedDays() {
+        WorkloadRegistry registry = new WorkloadRegistry();
+        registry.put(EMPLOYEE_ID, MONDAY, new WorkloadRegistry.Load(120, 40, 2, 0, 0));
+        registry.put(EMPLOYEE_ID, TUESDAY, new WorkloadRegistry.Load(60, 20, 1, 0, 0));
+
+        registry.put(EMPLOYEE_ID, MONDAY, new WorkloadRegistry.Load(90, 30, 2, 45, 1));
+
+        assertEquals(new WorkloadRegistry.Load(90, 30, 2, 45, 1), registry.day(EMPLOYEE_ID, MONDAY));
+        assertEquals(new WorkloadRegistry.Load(150, 50, 3, 45, 1), registry.total(EMPLOYEE_ID));
+        assertEquals(105, registry.total(EMPLOYEE_ID).remainingMinutes());
+    }
+
+    @Test
+    void replaceRangeClearsDaysThatNoLongerHaveWork() {
+        WorkloadRegistry registry = new WorkloadRegistry();
+        registry.put(EMPLOYEE_ID, MONDAY, new WorkloadRegistry.Load(120, 40, 2, 0, 0));
+        registry.put(EMPLOYEE_ID, TUESDAY, new WorkloadRegistry.Load(60, 20, 1, 0, 0));
+
+        registry.replaceRange(EMPLOYEE_ID, MONDAY, TUESDAY,
+                Map.of(TUESDAY, new WorkloadRegistry.Load(30, 10, 1, 0, 0)));
+
+        assertEquals(WorkloadRegistry.Load.EMPTY, registry.day(EMPLOYEE_ID, MONDAY));
+        assertEquals(new WorkloadRegistry.Load(30, 10, 1, 0, 0), registry.total(EMPLOYEE_ID));
+    }
+
+    @Test
+    void unknownEmployeeHasNoLoad() {
+        WorkloadRegistry registry = new WorkloadRegistry();
+
+        assertEquals(WorkloadRegistry.Load.EMPTY, registry.day(EMPLOYEE_ID, MONDAY));
+        assertEquals(WorkloadRegistry.Load.EMPTY, registry.total(EMPLOYEE_ID));
+        assertTrue(registry.employeeIds().isEmpty());
+    }
+
+    @Test
+    void concurrentWritersKeepTotalsEqualToTheSumOfDays() throws Exception {
+        WorkloadRegistry registry = new WorkloadRegistry();
+        int days = 30;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int seed = thread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        long minutes = (i * 7L + seed) % 480;
+                        registry.put(EMPLOYEE_ID, MONDAY.plusDays(i % days),
+                                new WorkloadRegistry.Load(minutes, minutes / 3, 1, 0, 0));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long sumOfDays = 0;
+        for (int i = 0; i < days; i++) {
+            sumOfDays += registry.day(EMPLOYEE_ID, MONDAY.plusDays(i)).totalMinutes();
+        }
+        assertEquals(sumOfDays, registry.total(EMPLOYEE_ID).totalMinutes());
+        assertEquals(days, registry.total(EMPLOYEE_ID).taskCount());
+    }
+}
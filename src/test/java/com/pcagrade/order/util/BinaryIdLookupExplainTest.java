@@ -0,0 +1,141 @@
+package com.pcagrade.order.util;
+
+import com.pcagrade.order.controller.EmployeeDetailController;
+import com.pcagrade.order.controller.EmployeesPlanningController;
+import com.pcagrade.order.controller.FrontendPlanningController;
+import com.pcagrade.order.controller.OrderController;
+import com.pcagrade.order.service.OrderService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Id lookups of the application bind ids as BINARY(16) against the bare column
+ *
+ * The SQL checked is the application's own (the query constants), never a copy.
+ * {@link #lookupsCompareTheBareColumn()} runs everywhere; {@link #lookupsUseAnIndex()} runs
+ * EXPLAIN on each query against a real MariaDB and is skipped unless a database is given:
+ * mvn test -Dtest=BinaryIdLookupExplainTest -Dexplain.jdbc.url=jdbc:mariadb://localhost:3306/dev
+ *          -Dexplain.jdbc.user=ia -Dexplain.jdbc.password=...
+ */
+class BinaryIdLookupExplainTest {
+
+    /**
+     * @param name where the query lives
+     * @param sql query as executed (optional filters left out)
+     * @param condition id comparison the query must contain
+     * @param alias table (or alias) of the looked-up column in EXPLAIN output
+     * @param idTable table to take an existing id from
+     * @param idColumn column holding it
+     * @param idParameter 1-based position of the id parameter
+     */
+    private record Lookup(String name, String sql, String condition, String alias,
+                          String idTable, String idColumn, int idParameter) {
+    }
+
+    private static final List<Lookup> LOOKUPS = List.of(
+            new Lookup("EmployeeDetailController.EMPLOYEE_DETAILS_SQL", EmployeeDetailController.EMPLOYEE_DETAILS_SQL,
+                    "e.id = ?", "e", "employee", "id", 1),
+            new Lookup("EmployeeDetailController.EMPLOYEE_PLANNINGS_SQL", EmployeeDetailController.EMPLOYEE_PLANNINGS_SQL,
+                    "jp.employee_id = ?", "jp", "j_planning", "employee_id", 1),
+            new Lookup("EmployeeDetailController.ORDER_CARDS_SQL", EmployeeDetailController.ORDER_CARDS_SQL,
+                    "cco.order_id = ?", "cco", "card_certification_order", "order_id", 1),
+            new Lookup("EmployeeDetailController.PLANNING_STATUS_UPDATE_SQL", EmployeeDetailController.PLANNING_STATUS_UPDATE_SQL,
+                    "id = ?", "j_planning", "j_planning", "id", 3),
+            new Lookup("EmployeeDetailController.EMPLOYEE_STATS_SQL", EmployeeDetailController.EMPLOYEE_STATS_SQL,
+                    "jp.employee_id = ?", "jp", "j_planning", "employee_id", 1),
+            new Lookup("EmployeesPlanningController.EMPLOYEE_DETAILS_SQL", EmployeesPlanningController.EMPLOYEE_DETAILS_SQL,
+                    "e.id = ?", "e", "j_employee", "id", 1),
+            new Lookup("EmployeesPlanningController.EMPLOYEE_ORDERS_SQL", EmployeesPlanningController.EMPLOYEE_ORDERS_SQL,
+                    "p.employee_id = ?", "p", "j_planning", "employee_id", 1),
+            new Lookup("EmployeesPlanningController.ORDER_CARDS_SQL", EmployeesPlanningController.ORDER_CARDS_SQL,
+                    "cco.order_id = ?", "cco", "card_certification_order", "order_id", 1),
+            new Lookup("FrontendPlanningController.EMPLOYEE_PLANNINGS_SQL", FrontendPlanningController.EMPLOYEE_PLANNINGS_SQL,
+                    "p.employee_id = ?", "p", "j_planning", "employee_id", 1),
+            new Lookup("OrderController.ORDER_CARDS_SQL", OrderController.ORDER_CARDS_SQL,
+                    "cco.order_id = ?", "cco", "card_certification_order", "order_id", 1),
+            new Lookup("OrderService.PLANNED_ORDER_COUNT_SQL", OrderService.PLANNED_ORDER_COUNT_SQL,
+                    "order_id = ?", "j_planning", "j_planning", "order_id", 1));
+
+    private static Connection connection;
+
+    @AfterAll
+    static void disconnect() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void lookupsCompareTheBareColumn() {
+        for (Lookup lookup : LOOKUPS) {
+            String where = lookup.sql().substring(lookup.sql().toUpperCase(Locale.ROOT).lastIndexOf("WHERE"));
+            assertTrue(where.contains(lookup.condition()), lookup.name() + " does not compare " + lookup.condition());
+            assertFalse(where.toUpperCase(Locale.ROOT).contains("HEX("), lookup.name() + " wraps the id column in HEX()");
+        }
+    }
+
+    @Test
+    void lookupsUseAnIndex() throws SQLException {
+        String url = System.getProperty("explain.jdbc.url");
+        assumeTrue(url != null && !url.isBlank(), "explain.jdbc.url not set");
+        connection = DriverManager.getConnection(url,
+                System.getProperty("explain.jdbc.user"), System.getProperty("explain.jdbc.password"));
+
+        for (Lookup lookup : LOOKUPS) {
+            assertIndexed(lookup);
+        }
+    }
+
+    /**
+     * EXPLAIN the query with an existing id bound as bytes (a missing id is resolved as
+     * "Impossible WHERE" and would show no key); the other parameters are bound to NULL
+     */
+    private static void assertIndexed(Lookup lookup) throws SQLException {
+        byte[] id;
+        try (PreparedStatement select = connection.prepareStatement("SELECT " + lookup.idColumn()
+                + " FROM " + lookup.idTable() + " WHERE " + lookup.idColumn() + " IS NOT NULL LIMIT 1");
+             ResultSet rs = select.executeQuery()) {
+            if (!rs.next()) {
+                return; // empty table, nothing to explain
+            }
+            id = rs.getBytes(1);
+        }
+
+        int parameters = (int) lookup.sql().chars().filter(c -> c == '?').count();
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + lookup.sql())) {
+            for (int i = 1; i <= parameters; i++) {
+                if (i == lookup.idParameter()) {
+                    explain.setBytes(i, UlidHelper.toBytes(UlidHelper.fromBytes(id)));
+                } else {
+                    explain.setNull(i, Types.VARCHAR);
+                }
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                while (plan.next()) {
+                    if (lookup.alias().equals(plan.getString("table"))) {
+                        assertNotEquals("ALL", plan.getString("type"), lookup.name() + " scans the whole table");
+                        assertNotNull(plan.getString("key"), lookup.name() + " uses no index");
+                        return;
+                    }
+                }
+            }
+        }
+        fail(lookup.name() + ": no EXPLAIN row for " + lookup.alias());
+    }
+}
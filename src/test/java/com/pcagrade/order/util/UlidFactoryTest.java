@@ -0,0 +1,87 @@
+package com.pcagrade.order.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UlidFactoryTest {
+
+    private static final long NOW = 1_750_000_000_000L;
+
+    @Test
+    void increasesWithinTheSameMillisecond() {
+        UlidFactory factory = new UlidFactory(() -> NOW);
+
+        UUID previous = factory.nextUuid();
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = factory.nextUuid();
+            assertTrue(compareAsBinary(previous, next) < 0, previous + " !< " + next);
+            assertEquals(NOW, next.getMostSignificantBits() >>> 16);
+            previous = next;
+        }
+    }
+
+    @Test
+    void staysIncreasingWhenTheClockGoesBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        UlidFactory factory = new UlidFactory(clock::get);
+
+        UUID first = factory.nextUuid();
+        clock.set(NOW - 5_000);
+        UUID second = factory.nextUuid();
+        clock.set(NOW + 1);
+        UUID third = factory.nextUuid();
+
+        assertTrue(compareAsBinary(first, second) < 0);
+        assertTrue(compareAsBinary(second, third) < 0);
+        assertEquals(NOW + 1, third.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void hexIsTheHexFormOfTheId() {
+        UlidFactory factory = new UlidFactory(() -> NOW);
+
+        String hex = factory.nextHexId();
+
+        assertTrue(UlidHelper.isCanonicalHex(hex));
+        assertEquals(NOW, UlidHelper.parse(hex).getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void threadsNeverCollide() throws InterruptedException {
+        UlidFactory factory = new UlidFactory(() -> NOW);
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(factory.nextUuid());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, ids.size());
+    }
+
+    /**
+     * Order of the BINARY(16) column: unsigned, most significant byte first
+     */
+    private static int compareAsBinary(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
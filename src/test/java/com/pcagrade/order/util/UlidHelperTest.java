@@ -0,0 +1,101 @@
+package com.pcagrade.order.util;
+
+import com.github.f4b6a3.ulid.Ulid;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UlidHelperTest {
+
+    private static final String HEX = "0197A3B2C4D5E6F708192A3B4C5D6E7F";
+
+    @Test
+    void bytesRoundTripInColumnOrder() {
+        UUID uuid = UUID.fromString("0197a3b2-c4d5-e6f7-0819-2a3b4c5d6e7f");
+
+        byte[] bytes = UlidHelper.toBytes(uuid);
+
+        assertArrayEquals(UlidHelper.hexToBytes(HEX), bytes);
+        assertEquals(uuid, UlidHelper.fromBytes(bytes));
+        assertNull(UlidHelper.fromBytes(new byte[15]));
+    }
+
+    @Test
+    void everyIdFormatBindsTheSameBytes() {
+        UUID uuid = UUID.fromString("0197a3b2-c4d5-e6f7-0819-2a3b4c5d6e7f");
+        String ulid = Ulid.from(uuid).toString();
+
+        byte[] expected = UlidHelper.hexToBytes(HEX);
+
+        assertArrayEquals(expected, UlidHelper.idToBytes(HEX));
+        assertArrayEquals(expected, UlidHelper.idToBytes(HEX.toLowerCase()));
+        assertArrayEquals(expected, UlidHelper.idToBytes(uuid.toString()));
+        assertArrayEquals(expected, UlidHelper.idToBytes(ulid));
+    }
+
+    @Test
+    void rejectsUnknownFormats() {
+        assertThrows(IllegalArgumentException.class, () -> UlidHelper.idToBytes("not-an-id"));
+        assertThrows(IllegalArgumentException.class, () -> UlidHelper.idToBytes(""));
+    }
+
+    @Test
+    void byteOrderFollowsUlidOrder() {
+        Ulid first = Ulid.from("01JZ0000000000000000000000");
+        Ulid second = Ulid.from("01JZ0000000000000000000001");
+
+        // BINARY(16) columns compare byte by byte, unsigned
+        assertTrue(Arrays.compareUnsigned(UlidHelper.toBytes(first.toUuid()), UlidHelper.toBytes(second.toUuid())) < 0);
+    }
+
+    @Test
+    void matchesUlidLibraryInBothDirections() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 1_000; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            String ulid = Ulid.from(uuid).toString();
+
+            assertEquals(ulid, UlidHelper.uuidToUlidString(uuid));
+            assertEquals(uuid, UlidHelper.parse(ulid));
+            assertEquals(uuid, UlidHelper.parse(uuid.toString()));
+            assertEquals(uuid.toString().replace("-", "").toUpperCase(), UlidHelper.toHex(uuid));
+            assertEquals(uuid, UlidHelper.parse(UlidHelper.toHex(uuid)));
+        }
+    }
+
+    @Test
+    void readsUlidCaseInsensitiveWithCrockfordAliases() {
+        String ulid = "01JZ8K3M4N5P6Q7R8S9T0VWXYZ";
+
+        assertEquals(UlidHelper.parse(ulid), UlidHelper.parse(ulid.toLowerCase()));
+        String canonical = "01JZ000000000000000000011A";
+        assertEquals(UlidHelper.parse(canonical), UlidHelper.parse(canonical.replace('0', 'o').replaceFirst("1", "l").replace('1', 'I')));
+    }
+
+    @Test
+    void rejectsMalformedIds() {
+        assertThrows(IllegalArgumentException.class, () -> UlidHelper.parse("81JZ0000000000000000000000"));
+        assertThrows(IllegalArgumentException.class, () -> UlidHelper.parse("01JZ000000000000000000000U"));
+        assertThrows(IllegalArgumentException.class, () -> UlidHelper.parse("0197A3B2C4D5E6F708192A3B4C5D6E7G"));
+        assertThrows(IllegalArgumentException.class, () -> UlidHelper.parse("0197a3b2c-4d5-e6f7-0819-2a3b4c5d6e7f"));
+        assertEquals(UlidHelper.parse(HEX), UlidHelper.stringToUuid("  " + HEX + "\n"));
+        assertNull(UlidHelper.stringToUuid("   "));
+    }
+
+    @Test
+    void recognizesCanonicalHex() {
+        assertTrue(UlidHelper.isCanonicalHex(HEX));
+        assertFalse(UlidHelper.isCanonicalHex(HEX.toLowerCase()));
+        assertFalse(UlidHelper.isCanonicalHex("0197a3b2-c4d5-e6f7-0819-2a3b4c5d6e7f"));
+        assertFalse(UlidHelper.isCanonicalHex(null));
+    }
+}